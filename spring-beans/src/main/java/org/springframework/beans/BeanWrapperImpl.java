@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -305,7 +305,7 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 			}
 			else {
 				ReflectionUtils.makeAccessible(readMethod);
-				return readMethod.invoke(getWrappedInstance(), (Object[]) null);
+				return GeneratedAccessors.invokeMethod(readMethod, getWrappedInstance(), (Object[]) null);
 			}
 		}
 
@@ -329,7 +329,7 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 			}
 			else {
 				ReflectionUtils.makeAccessible(writeMethod);
-				writeMethod.invoke(getWrappedInstance(), value);
+				GeneratedAccessors.invokeMethod(writeMethod, getWrappedInstance(), value);
 			}
 		}
 	}
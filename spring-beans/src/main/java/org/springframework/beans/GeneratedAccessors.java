@@ -0,0 +1,231 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.cglib.core.SpringNamingPolicy;
+import org.springframework.cglib.reflect.FastClass;
+import org.springframework.core.KotlinDetector;
+import org.springframework.core.SpringProperties;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * Static convenience methods for instantiating beans and invoking bean methods,
+ * optionally through generated accessor classes instead of reflection.
+ *
+ * <p>Generated accessors are an opt-in mode, activated through the
+ * {@link #GENERATED_ACCESSORS_PROPERTY_NAME} system property. In that mode,
+ * an accessor class is generated once per bean class (a CGLIB {@link FastClass}),
+ * dispatching to constructors and methods by index through plain bytecode calls
+ * which the JIT compiler is able to inline. The index is resolved once per
+ * constructor or method and cached along with the accessor. This is primarily beneficial for
+ * frequently created beans, e.g. prototype or request-scoped beans.
+ *
+ * <p>Private constructors and methods, abstract classes, Kotlin constructors
+ * and classes for which no accessor class can be defined are always handled
+ * through reflection. Field injection remains reflective as well.
+ *
+ * @author agent
+ * @since 5.2
+ * @see BeanUtils#instantiateClass(Constructor, Object...)
+ * @see Method#invoke(Object, Object...)
+ */
+public abstract class GeneratedAccessors {
+
+	/**
+	 * System property that instructs Spring to use generated accessor classes
+	 * for bean instantiation, injection methods and lifecycle callbacks:
+	 * {@value}. The default is "false", using plain reflection.
+	 */
+	public static final String GENERATED_ACCESSORS_PROPERTY_NAME = "spring.beans.generatedAccessors";
+
+	private static final Log logger = LogFactory.getLog(GeneratedAccessors.class);
+
+	private static final Object NO_FAST_CLASS = new Object();
+
+	private static final MemberAccessor NO_ACCESSOR = new MemberAccessor(null, -1);
+
+	private static final Map<Class<?>, Object> fastClassCache = new ConcurrentReferenceHashMap<>(64);
+
+	private static final Map<Executable, MemberAccessor> accessorCache = new ConcurrentReferenceHashMap<>(256);
+
+	/** Not final for testing purposes only: see {@link #setEnabled}. */
+	private static boolean generatedAccessors = SpringProperties.getFlag(GENERATED_ACCESSORS_PROPERTY_NAME);
+
+
+	/**
+	 * Return whether generated accessors are enabled.
+	 * @see #GENERATED_ACCESSORS_PROPERTY_NAME
+	 */
+	public static boolean isEnabled() {
+		return generatedAccessors;
+	}
+
+	/**
+	 * Enable or disable generated accessors, overriding the system property.
+	 * <p>Only intended for testing purposes: to be called before any beans
+	 * are being created.
+	 */
+	static void setEnabled(boolean enabled) {
+		generatedAccessors = enabled;
+	}
+
+	/**
+	 * Instantiate a class using the given constructor, through a generated
+	 * accessor if enabled and otherwise through
+	 * {@link BeanUtils#instantiateClass(Constructor, Object...)}.
+	 * @param ctor the constructor to instantiate
+	 * @param args the constructor arguments to apply
+	 * @return the new instance
+	 * @throws BeanInstantiationException if the bean cannot be instantiated
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> T instantiateClass(Constructor<T> ctor, Object... args) throws BeanInstantiationException {
+		if (generatedAccessors) {
+			MemberAccessor accessor = getAccessor(ctor);
+			if (accessor.fastClass != null) {
+				try {
+					return (T) accessor.fastClass.newInstance(accessor.index, args);
+				}
+				catch (InvocationTargetException ex) {
+					throw new BeanInstantiationException(ctor, "Constructor threw exception", ex.getTargetException());
+				}
+			}
+		}
+		return BeanUtils.instantiateClass(ctor, args);
+	}
+
+	/**
+	 * Invoke the given method on the supplied target, through a generated
+	 * accessor if enabled and otherwise through {@link Method#invoke}.
+	 * <p>The method is expected to have been made accessible already,
+	 * in case of reflective invocation.
+	 * @param method the method to invoke
+	 * @param target the target object to invoke the method on
+	 * (may be {@code null} for a static method)
+	 * @param args the invocation arguments (may be {@code null})
+	 * @return the invocation result, if any
+	 * @throws IllegalAccessException in case of reflective access failure
+	 * @throws InvocationTargetException if the method threw an exception
+	 */
+	@Nullable
+	public static Object invokeMethod(Method method, @Nullable Object target, @Nullable Object... args)
+			throws IllegalAccessException, InvocationTargetException {
+
+		if (generatedAccessors) {
+			MemberAccessor accessor = getAccessor(method);
+			if (accessor.fastClass != null) {
+				return accessor.fastClass.invoke(accessor.index, target, args);
+			}
+		}
+		return method.invoke(target, args);
+	}
+
+
+	/**
+	 * Obtain the generated accessor and index for the given constructor or method,
+	 * resolving and caching them if necessary.
+	 * @param member the constructor or method to obtain an accessor for
+	 * @return the accessor, or {@link #NO_ACCESSOR} if the member has to be
+	 * handled through reflection
+	 */
+	static MemberAccessor getAccessor(Executable member) {
+		MemberAccessor accessor = accessorCache.get(member);
+		if (accessor == null) {
+			accessor = NO_ACCESSOR;
+			Class<?> clazz = member.getDeclaringClass();
+			if (member instanceof Method) {
+				FastClass fastClass = getFastClass(clazz);
+				if (fastClass != null) {
+					int index = fastClass.getIndex(member.getName(), member.getParameterTypes());
+					if (index >= 0) {
+						accessor = new MemberAccessor(fastClass, index);
+					}
+				}
+			}
+			else if (!Modifier.isAbstract(clazz.getModifiers()) &&
+					!(KotlinDetector.isKotlinReflectPresent() && KotlinDetector.isKotlinType(clazz))) {
+				FastClass fastClass = getFastClass(clazz);
+				if (fastClass != null) {
+					int index = fastClass.getIndex(member.getParameterTypes());
+					if (index >= 0) {
+						accessor = new MemberAccessor(fastClass, index);
+					}
+				}
+			}
+			accessorCache.put(member, accessor);
+		}
+		return accessor;
+	}
+
+	/**
+	 * Obtain the generated accessor class for the given class,
+	 * creating and caching it if necessary.
+	 * @param clazz the class to obtain an accessor for
+	 * @return the accessor, or {@code null} if none can be generated
+	 */
+	@Nullable
+	static FastClass getFastClass(Class<?> clazz) {
+		Object fastClass = fastClassCache.get(clazz);
+		if (fastClass == null) {
+			try {
+				FastClass.Generator generator = new FastClass.Generator();
+				generator.setType(clazz);
+				generator.setContextClass(clazz);
+				generator.setClassLoader(clazz.getClassLoader());
+				generator.setNamingPolicy(SpringNamingPolicy.INSTANCE);
+				fastClass = generator.create();
+			}
+			catch (Throwable ex) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Cannot generate accessor for " + clazz + " - falling back to reflection: " + ex);
+				}
+				fastClass = NO_FAST_CLASS;
+			}
+			fastClassCache.put(clazz, fastClass);
+		}
+		return (fastClass != NO_FAST_CLASS ? (FastClass) fastClass : null);
+	}
+
+
+	/**
+	 * Generated accessor for a specific constructor or method.
+	 */
+	static final class MemberAccessor {
+
+		@Nullable
+		final FastClass fastClass;
+
+		final int index;
+
+		MemberAccessor(@Nullable FastClass fastClass, int index) {
+			this.fastClass = fastClass;
+			this.index = index;
+		}
+	}
+
+}
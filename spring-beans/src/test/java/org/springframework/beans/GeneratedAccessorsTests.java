@@ -0,0 +1,239 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.cglib.reflect.FastClass;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link GeneratedAccessors}.
+ *
+ * @author agent
+ */
+public class GeneratedAccessorsTests {
+
+	private final boolean enabled = GeneratedAccessors.isEnabled();
+
+
+	@After
+	public void resetEnabled() {
+		GeneratedAccessors.setEnabled(this.enabled);
+	}
+
+
+	@Test
+	public void accessorForBeanClass() throws Exception {
+		FastClass fastClass = GeneratedAccessors.getFastClass(AccessorBean.class);
+		assertNotNull(fastClass);
+		assertSame(fastClass, GeneratedAccessors.getFastClass(AccessorBean.class));
+
+		int ctorIndex = fastClass.getIndex(new Class<?>[] {String.class});
+		assertTrue(ctorIndex >= 0);
+		AccessorBean bean = (AccessorBean) fastClass.newInstance(ctorIndex, new Object[] {"a"});
+		assertEquals("a", bean.name);
+
+		int methodIndex = fastClass.getIndex("setName", new Class<?>[] {String.class});
+		assertTrue(methodIndex >= 0);
+		fastClass.invoke(methodIndex, bean, new Object[] {"b"});
+		assertEquals("b", bean.name);
+	}
+
+	@Test
+	public void noAccessorForPrivateMethod() {
+		FastClass fastClass = GeneratedAccessors.getFastClass(AccessorBean.class);
+		assertNotNull(fastClass);
+		assertEquals(-1, fastClass.getIndex("reset", new Class<?>[0]));
+	}
+
+	@Test
+	public void accessorCachedPerMember() throws Exception {
+		Method setName = AccessorBean.class.getDeclaredMethod("setName", String.class);
+		GeneratedAccessors.MemberAccessor accessor = GeneratedAccessors.getAccessor(setName);
+		assertSame(GeneratedAccessors.getFastClass(AccessorBean.class), accessor.fastClass);
+		assertEquals(accessor.fastClass.getIndex("setName", new Class<?>[] {String.class}), accessor.index);
+		assertSame(accessor, GeneratedAccessors.getAccessor(setName));
+
+		GeneratedAccessors.MemberAccessor ctorAccessor =
+				GeneratedAccessors.getAccessor(AccessorBean.class.getConstructor(String.class));
+		assertNotNull(ctorAccessor.fastClass);
+		assertSame(ctorAccessor, GeneratedAccessors.getAccessor(AccessorBean.class.getConstructor(String.class)));
+
+		assertNull(GeneratedAccessors.getAccessor(AccessorBean.class.getDeclaredMethod("reset")).fastClass);
+	}
+
+	@Test
+	public void instantiateClassThroughAccessor() throws Exception {
+		GeneratedAccessors.setEnabled(true);
+		AccessorBean bean = GeneratedAccessors.instantiateClass(AccessorBean.class.getConstructor(String.class), "a");
+		assertEquals("a", bean.name);
+		assertGeneratedCaller(bean.constructorCaller);
+	}
+
+	@Test(expected = BeanInstantiationException.class)
+	public void instantiateClassWithExceptionThroughAccessor() throws Exception {
+		GeneratedAccessors.setEnabled(true);
+		GeneratedAccessors.instantiateClass(AccessorBean.class.getConstructor());
+	}
+
+	@Test
+	public void invokeMethodThroughAccessor() throws Exception {
+		GeneratedAccessors.setEnabled(true);
+		AccessorBean bean = new AccessorBean("a");
+		GeneratedAccessors.invokeMethod(AccessorBean.class.getDeclaredMethod("setName", String.class), bean, "b");
+		assertEquals("b", bean.name);
+		assertGeneratedCaller(bean.methodCaller);
+
+		// Private method: still invoked through reflection
+		Method reset = AccessorBean.class.getDeclaredMethod("reset");
+		reset.setAccessible(true);
+		GeneratedAccessors.invokeMethod(reset, bean, (Object[]) null);
+		assertNull(bean.name);
+	}
+
+	@Test(expected = InvocationTargetException.class)
+	public void invokeMethodWithExceptionThroughAccessor() throws Exception {
+		GeneratedAccessors.setEnabled(true);
+		GeneratedAccessors.invokeMethod(AccessorBean.class.getMethod("fail"), new AccessorBean("a"));
+	}
+
+	@Test
+	public void beanFactoryThroughAccessor() {
+		GeneratedAccessors.setEnabled(true);
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		RootBeanDefinition bd = new RootBeanDefinition(AccessorBean.class);
+		bd.setScope(RootBeanDefinition.SCOPE_PROTOTYPE);
+		bd.getConstructorArgumentValues().addGenericArgumentValue("a");
+		bd.getPropertyValues().add("age", 42);
+		bd.setInitMethodName("init");
+		bf.registerBeanDefinition("bean", bd);
+
+		for (int i = 0; i < 3; i++) {
+			AccessorBean bean = bf.getBean(AccessorBean.class);
+			assertEquals("a", bean.name);
+			assertEquals(42, bean.age);
+			assertTrue(bean.initialized);
+			assertGeneratedCaller(bean.constructorCaller);
+			assertGeneratedCaller(bean.methodCaller);
+		}
+	}
+
+	@Test
+	public void beanFactoryThroughReflection() {
+		GeneratedAccessors.setEnabled(false);
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		RootBeanDefinition bd = new RootBeanDefinition(AccessorBean.class);
+		bd.getConstructorArgumentValues().addGenericArgumentValue("a");
+		bf.registerBeanDefinition("bean", bd);
+
+		AccessorBean bean = bf.getBean(AccessorBean.class);
+		assertEquals("a", bean.name);
+		assertFalse(bean.constructorCaller.contains("FastClass"));
+	}
+
+	@Test
+	public void instantiateClass() throws Exception {
+		AccessorBean bean = GeneratedAccessors.instantiateClass(AccessorBean.class.getConstructor(String.class), "a");
+		assertEquals("a", bean.name);
+	}
+
+	@Test(expected = BeanInstantiationException.class)
+	public void instantiateClassWithException() throws Exception {
+		GeneratedAccessors.instantiateClass(AccessorBean.class.getConstructor());
+	}
+
+	@Test
+	public void invokeMethod() throws Exception {
+		AccessorBean bean = new AccessorBean("a");
+		GeneratedAccessors.invokeMethod(AccessorBean.class.getDeclaredMethod("setName", String.class), bean, "b");
+		assertEquals("b", bean.name);
+
+		Method reset = AccessorBean.class.getDeclaredMethod("reset");
+		reset.setAccessible(true);
+		GeneratedAccessors.invokeMethod(reset, bean, (Object[]) null);
+		assertNull(bean.name);
+	}
+
+	@Test(expected = InvocationTargetException.class)
+	public void invokeMethodWithException() throws Exception {
+		GeneratedAccessors.invokeMethod(AccessorBean.class.getMethod("fail"), new AccessorBean("a"));
+	}
+
+
+	private static void assertGeneratedCaller(String caller) {
+		assertTrue("Not invoked through generated accessor: " + caller, caller.contains("FastClassBySpringCGLIB"));
+	}
+
+	private static String getCaller() {
+		// [0] getCaller, [1] the constructor or method, [2] its caller
+		return new Throwable().getStackTrace()[2].getClassName();
+	}
+
+
+	public static class AccessorBean {
+
+		String name;
+
+		int age;
+
+		boolean initialized;
+
+		String constructorCaller;
+
+		String methodCaller;
+
+		public AccessorBean() {
+			throw new IllegalStateException("No default construction");
+		}
+
+		public AccessorBean(String name) {
+			this.name = name;
+			this.constructorCaller = getCaller();
+		}
+
+		void setName(String name) {
+			this.name = name;
+			this.methodCaller = getCaller();
+		}
+
+		public void setAge(int age) {
+			this.age = age;
+		}
+
+		public void init() {
+			this.initialized = true;
+			this.methodCaller = getCaller();
+		}
+
+		private void reset() {
+			this.name = null;
+		}
+
+		public void fail() {
+			throw new IllegalStateException("Failure");
+		}
+	}
+
+}
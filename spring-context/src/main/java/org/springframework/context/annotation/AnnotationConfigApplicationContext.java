@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.context.annotation;
 
+import java.io.File;
 import java.util.function.Supplier;
 
 import org.springframework.beans.factory.config.BeanDefinitionCustomizer;
@@ -138,6 +139,19 @@ public class AnnotationConfigApplicationContext extends GenericApplicationContex
 		this.scanner.setScopeMetadataResolver(scopeMetadataResolver);
 	}
 
+	/**
+	 * Specify a file for a {@link BeanDefinitionSnapshot} of this context's bean
+	 * definitions: restored on {@link #refresh()} if still current for the given
+	 * classpath, profiles and registered classes, and written otherwise.
+	 * <p>Any call to this method must occur prior to {@link #refresh()}.
+	 * @param snapshotFile the snapshot file to read and write
+	 * @since 5.2
+	 * @see BeanDefinitionSnapshotPostProcessor
+	 */
+	public void setBeanDefinitionSnapshotFile(File snapshotFile) {
+		addBeanFactoryPostProcessor(new BeanDefinitionSnapshotPostProcessor(this, snapshotFile));
+	}
+
 
 	//---------------------------------------------------------------------
 	// Implementation of AnnotationConfigRegistry
@@ -0,0 +1,1051 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.MutablePropertyValues;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.config.RuntimeBeanNameReference;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.config.SingletonBeanRegistry;
+import org.springframework.beans.factory.config.TypedStringValue;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.AutowireCandidateQualifier;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.GenericBeanDefinition;
+import org.springframework.beans.factory.support.ManagedArray;
+import org.springframework.beans.factory.support.ManagedList;
+import org.springframework.beans.factory.support.ManagedMap;
+import org.springframework.beans.factory.support.ManagedSet;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.core.ConfigurableObjectInputStream;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.EnumerablePropertySource;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.StandardAnnotationMetadata;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.ResourceUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Serializable snapshot of the bean definitions in a registry, as derived from
+ * configuration classes, component scanning and condition evaluation.
+ *
+ * <p>A snapshot is keyed by a hash of the classpath, the environment's property
+ * sources, the active profiles and the bean definitions registered up front
+ * (see {@link #computeKey}). It only contains the bean definitions derived from
+ * those: the up-front definitions themselves are not replaced on restore, they
+ * just get their configuration class markers back. Registering a snapshot with
+ * a matching key therefore lets {@link ConfigurationClassPostProcessor} skip
+ * parsing while still enhancing {@code @Configuration} classes.
+ *
+ * <p>Definitions with an instance supplier or method overrides, as well as
+ * values other than bean metadata, strings, primitive wrappers, enums and arrays
+ * of those, cannot be captured; {@link #capture} throws an {@link IllegalStateException}
+ * for them. {@link #readFrom} only accepts those types as well, rejecting any other
+ * class in the serialized stream.
+ *
+ * @author agent
+ * @since 5.2
+ * @see BeanDefinitionSnapshotPostProcessor
+ */
+public final class BeanDefinitionSnapshot implements Serializable {
+
+	private static final long serialVersionUID = 2L;
+
+	/** Value types that can be captured, besides enums and arrays. */
+	private static final Set<Class<?>> valueTypes = new HashSet<>(Arrays.asList(
+			String.class, Boolean.class, Character.class, Byte.class, Short.class,
+			Integer.class, Long.class, Float.class, Double.class));
+
+	/** Types of the snapshot structure itself, as found in the serialized stream. */
+	private static final Set<Class<?>> snapshotTypes = new HashSet<>(Arrays.asList(
+			BeanDefinitionSnapshot.class, DefinitionState.class, HolderState.class, ArgumentState.class,
+			QualifierState.class, ReferenceState.class, TypedStringState.class, CollectionState.class,
+			ArrayList.class, HashMap.class, LinkedHashMap.class, Number.class, Enum.class));
+
+	private final String key;
+
+	private final Map<String, Map<String, Object>> initialAttributes;
+
+	private final Map<String, DefinitionState> beanDefinitions;
+
+	private final Map<String, String[]> aliases;
+
+	private final List<String> configurationClassNames;
+
+	private final Map<String, String> importingClasses;
+
+
+	private BeanDefinitionSnapshot(String key, Map<String, Map<String, Object>> initialAttributes,
+			Map<String, DefinitionState> beanDefinitions, Map<String, String[]> aliases,
+			List<String> configurationClassNames, Map<String, String> importingClasses) {
+
+		this.key = key;
+		this.initialAttributes = initialAttributes;
+		this.beanDefinitions = beanDefinitions;
+		this.aliases = aliases;
+		this.configurationClassNames = configurationClassNames;
+		this.importingClasses = importingClasses;
+	}
+
+
+	/**
+	 * Return the key that this snapshot has been captured for.
+	 */
+	public String getKey() {
+		return this.key;
+	}
+
+	/**
+	 * Return the number of derived bean definitions in this snapshot,
+	 * not counting the bean definitions registered up front.
+	 */
+	public int getBeanDefinitionCount() {
+		return this.beanDefinitions.size();
+	}
+
+	/**
+	 * Return the names of the configuration classes in this snapshot,
+	 * in registration order.
+	 */
+	List<String> getConfigurationClassNames() {
+		return Collections.unmodifiableList(this.configurationClassNames);
+	}
+
+	/**
+	 * Register the bean definitions of this snapshot with the given registry.
+	 * <p>Existing bean definitions are never replaced: if any bean definition
+	 * registered up front is missing, or if any derived bean name or alias is
+	 * in use already, the snapshot is considered stale and nothing gets registered.
+	 * Otherwise the configuration class markers and other attributes that
+	 * configuration class processing added to the up-front bean definitions
+	 * are applied to them, and the derived bean definitions are registered.
+	 * @param registry the registry to populate
+	 * @return {@code true} if the snapshot has been registered, or {@code false}
+	 * if it does not match the given registry (to be derived as usual then)
+	 */
+	public boolean registerBeanDefinitions(BeanDefinitionRegistry registry) {
+		for (String beanName : this.initialAttributes.keySet()) {
+			if (!registry.containsBeanDefinition(beanName)) {
+				return false;
+			}
+		}
+		for (Map.Entry<String, DefinitionState> entry : this.beanDefinitions.entrySet()) {
+			if (isNameInUse(registry, entry.getKey())) {
+				return false;
+			}
+		}
+		for (String[] beanAliases : this.aliases.values()) {
+			for (String alias : beanAliases) {
+				if (isNameInUse(registry, alias)) {
+					return false;
+				}
+			}
+		}
+
+		ClassLoader classLoader = (registry instanceof ConfigurableBeanFactory ?
+				((ConfigurableBeanFactory) registry).getBeanClassLoader() : ClassUtils.getDefaultClassLoader());
+		for (Map.Entry<String, Map<String, Object>> entry : this.initialAttributes.entrySet()) {
+			BeanDefinition bd = registry.getBeanDefinition(entry.getKey());
+			for (Map.Entry<String, Object> attribute : entry.getValue().entrySet()) {
+				if (!bd.hasAttribute(attribute.getKey())) {
+					bd.setAttribute(attribute.getKey(), fromState(attribute.getValue(), classLoader));
+				}
+			}
+		}
+		for (Map.Entry<String, DefinitionState> entry : this.beanDefinitions.entrySet()) {
+			registry.registerBeanDefinition(entry.getKey(), entry.getValue().toBeanDefinition(classLoader));
+		}
+		for (Map.Entry<String, String[]> entry : this.aliases.entrySet()) {
+			for (String alias : entry.getValue()) {
+				registry.registerAlias(entry.getKey(), alias);
+			}
+		}
+		if (registry instanceof SingletonBeanRegistry) {
+			SingletonBeanRegistry sbr = (SingletonBeanRegistry) registry;
+			if (!sbr.containsSingleton(ConfigurationClassPostProcessor.IMPORT_REGISTRY_BEAN_NAME)) {
+				sbr.registerSingleton(ConfigurationClassPostProcessor.IMPORT_REGISTRY_BEAN_NAME,
+						new SnapshotImportRegistry(this.importingClasses, classLoader));
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Write this snapshot to the given stream, leaving it open.
+	 * @param out the stream to write to
+	 * @throws IOException in case of I/O errors
+	 */
+	public void writeTo(OutputStream out) throws IOException {
+		ObjectOutputStream oos = new ObjectOutputStream(out);
+		oos.writeObject(this);
+		oos.flush();
+	}
+
+
+	/**
+	 * Capture the bean definitions of the given bean factory that have been
+	 * derived from the given initial bean definitions.
+	 * <p>This is meant to be called right after configuration class processing,
+	 * before any other registry post-processor adds further bean definitions
+	 * and before any bean factory post-processing, in particular before
+	 * placeholder resolution and configuration class enhancement.
+	 * @param beanFactory the bean factory to capture
+	 * @param key the key to capture the snapshot for
+	 * @param initialBeanNames the names of the bean definitions registered up
+	 * front, i.e. when the key was computed: only their attributes are captured
+	 * @return the snapshot
+	 * @throws IllegalStateException if a bean definition cannot be captured
+	 * @see #computeKey
+	 */
+	public static BeanDefinitionSnapshot capture(ConfigurableListableBeanFactory beanFactory, String key,
+			Collection<String> initialBeanNames) {
+
+		Map<String, Map<String, Object>> initialAttributes = new LinkedHashMap<>();
+		Map<String, DefinitionState> beanDefinitions = new LinkedHashMap<>();
+		Map<String, String[]> aliases = new LinkedHashMap<>();
+		List<String> configurationClassNames = new ArrayList<>();
+		Map<String, String> importingClasses = new LinkedHashMap<>();
+		ImportRegistry importRegistry = (beanFactory.containsSingleton(
+				ConfigurationClassPostProcessor.IMPORT_REGISTRY_BEAN_NAME) ? (ImportRegistry)
+				beanFactory.getSingleton(ConfigurationClassPostProcessor.IMPORT_REGISTRY_BEAN_NAME) : null);
+
+		for (String beanName : beanFactory.getBeanDefinitionNames()) {
+			BeanDefinition bd = beanFactory.getBeanDefinition(beanName);
+			if (initialBeanNames.contains(beanName)) {
+				initialAttributes.put(beanName, captureAttributes(bd));
+			}
+			else {
+				try {
+					beanDefinitions.put(beanName, new DefinitionState(bd));
+				}
+				catch (IllegalStateException ex) {
+					throw new IllegalStateException("Cannot capture bean definition '" + beanName + "'", ex);
+				}
+				String[] beanAliases = beanFactory.getAliases(beanName);
+				if (beanAliases.length > 0) {
+					aliases.put(beanName, beanAliases);
+				}
+			}
+			String className = bd.getBeanClassName();
+			if (className != null && (ConfigurationClassUtils.isFullConfigurationClass(bd) ||
+					ConfigurationClassUtils.isLiteConfigurationClass(bd))) {
+				configurationClassNames.add(className);
+				if (importRegistry != null) {
+					AnnotationMetadata importingClass = importRegistry.getImportingClassFor(className);
+					if (importingClass != null) {
+						importingClasses.put(className, importingClass.getClassName());
+					}
+				}
+			}
+		}
+		return new BeanDefinitionSnapshot(key, initialAttributes, beanDefinitions, aliases,
+				configurationClassNames, importingClasses);
+	}
+
+	/**
+	 * Read a snapshot from the given stream, leaving it open.
+	 * <p>Only the types of the snapshot structure and the capturable value types
+	 * are accepted in the stream: any other class is rejected before instantiation.
+	 * @param in the stream to read from
+	 * @param classLoader the ClassLoader to resolve enum value types with
+	 * @return the snapshot
+	 * @throws IOException in case of I/O errors or an incompatible snapshot format
+	 */
+	public static BeanDefinitionSnapshot readFrom(InputStream in, @Nullable ClassLoader classLoader)
+			throws IOException {
+
+		ObjectInputStream ois = new SnapshotObjectInputStream(in, classLoader);
+		try {
+			return (BeanDefinitionSnapshot) ois.readObject();
+		}
+		catch (ClassNotFoundException | ClassCastException ex) {
+			throw new IOException("Incompatible bean definition snapshot", ex);
+		}
+	}
+
+	/**
+	 * Compute a snapshot key for the current state of the given registry:
+	 * a hash of the classpath entries (including their sizes and timestamps),
+	 * the properties of the environment, the active profiles and the bean
+	 * definitions registered so far.
+	 * <p>The classpath consists of the "java.class.path" entries and the URLs of
+	 * any {@link URLClassLoader} between the given ClassLoader and the system
+	 * ClassLoader, with jar URLs (e.g. nested jars in an executable archive)
+	 * tracked through their outermost archive file. The environment is tracked
+	 * through the names and values of all its {@link EnumerablePropertySource
+	 * enumerable property sources}, including system properties and environment
+	 * variables, so that any {@code @Conditional} evaluation against them is covered.
+	 * <p>If any part of that state cannot be determined, e.g. for a custom
+	 * ClassLoader, a non-file classpath URL or a non-enumerable property source,
+	 * no key is returned and no snapshot should be used. Conditions depending on
+	 * anything else, e.g. the existence of files or the state of a parent context,
+	 * are not covered: a snapshot must not be used for such configurations.
+	 * @param environment the environment to take the properties and profiles from
+	 * @param registry the registry to take the initial bean definitions from
+	 * @param classLoader the ClassLoader to load bean classes with
+	 * @return the key, or {@code null} if the state cannot be determined
+	 */
+	@Nullable
+	public static String computeKey(Environment environment, BeanDefinitionRegistry registry,
+			@Nullable ClassLoader classLoader) {
+
+		StringBuilder state = new StringBuilder();
+		if (!appendClassPathState(classLoader, state) || !appendEnvironmentState(environment, state)) {
+			return null;
+		}
+		String[] profiles = environment.getActiveProfiles();
+		if (profiles.length == 0) {
+			profiles = environment.getDefaultProfiles();
+		}
+		state.append("profiles=").append(StringUtils.arrayToCommaDelimitedString(profiles)).append('\n');
+		for (String beanName : registry.getBeanDefinitionNames()) {
+			state.append(beanName).append('=').append(
+					registry.getBeanDefinition(beanName).getBeanClassName()).append('\n');
+		}
+		return DigestUtils.md5DigestAsHex(state.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static Map<String, Object> captureAttributes(BeanDefinition bd) {
+		Map<String, Object> attributes = new LinkedHashMap<>();
+		for (String name : bd.attributeNames()) {
+			try {
+				attributes.put(name, toState(bd.getAttribute(name)));
+			}
+			catch (IllegalStateException ex) {
+				// Not added by configuration class processing: still present on restore
+			}
+		}
+		return attributes;
+	}
+
+	private static boolean isNameInUse(BeanDefinitionRegistry registry, String name) {
+		return (registry.containsBeanDefinition(name) || registry.isAlias(name));
+	}
+
+	private static boolean appendClassPathState(@Nullable ClassLoader classLoader, StringBuilder state) {
+		String classPath = System.getProperty("java.class.path");
+		if (classPath != null) {
+			for (String entry : StringUtils.tokenizeToStringArray(classPath, File.pathSeparator)) {
+				appendFileState(new File(entry), state);
+			}
+		}
+		Set<ClassLoader> systemClassLoaders = new HashSet<>();
+		for (ClassLoader cl = ClassLoader.getSystemClassLoader(); cl != null; cl = cl.getParent()) {
+			systemClassLoaders.add(cl);
+		}
+		for (ClassLoader cl = classLoader; cl != null && !systemClassLoaders.contains(cl); cl = cl.getParent()) {
+			if (!(cl instanceof URLClassLoader)) {
+				return false;
+			}
+			for (URL url : ((URLClassLoader) cl).getURLs()) {
+				try {
+					URL fileUrl = (ResourceUtils.isJarURL(url) ? ResourceUtils.extractArchiveURL(url) : url);
+					if (!ResourceUtils.isFileURL(fileUrl)) {
+						return false;
+					}
+					appendFileState(ResourceUtils.getFile(fileUrl), state);
+				}
+				catch (IOException ex) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private static boolean appendEnvironmentState(Environment environment, StringBuilder state) {
+		if (!(environment instanceof ConfigurableEnvironment)) {
+			return false;
+		}
+		for (PropertySource<?> propertySource : ((ConfigurableEnvironment) environment).getPropertySources()) {
+			if (propertySource instanceof PropertySource.StubPropertySource) {
+				// Placeholder for a property source to be initialized later on
+				state.append(propertySource.getName()).append('\n');
+				continue;
+			}
+			if (!(propertySource instanceof EnumerablePropertySource)) {
+				return false;
+			}
+			String[] propertyNames = ((EnumerablePropertySource<?>) propertySource).getPropertyNames().clone();
+			Arrays.sort(propertyNames);
+			state.append(propertySource.getName()).append(":\n");
+			for (String propertyName : propertyNames) {
+				state.append(propertyName).append('=').append(propertySource.getProperty(propertyName)).append('\n');
+			}
+		}
+		return true;
+	}
+
+	private static void appendFileState(File file, StringBuilder state) {
+		if (file.isDirectory()) {
+			File[] files = file.listFiles();
+			if (files != null) {
+				Arrays.sort(files);
+				for (File nested : files) {
+					appendFileState(nested, state);
+				}
+			}
+		}
+		else {
+			state.append(file.getPath()).append(':').append(file.length()).append(':')
+					.append(file.lastModified()).append('\n');
+		}
+	}
+
+
+	/**
+	 * Serializable state of a bean definition value.
+	 */
+	private interface ValueState extends Serializable {
+
+		@Nullable
+		Object toValue(@Nullable ClassLoader classLoader);
+	}
+
+
+	/**
+	 * Serializable state of a single bean definition.
+	 */
+	private static final class DefinitionState implements ValueState {
+
+		private static final long serialVersionUID = 1L;
+
+		@Nullable
+		private final String beanClassName;
+
+		@Nullable
+		private final String parentName;
+
+		private final boolean beanMethod;
+
+		@Nullable
+		private String scope;
+
+		private boolean abstractFlag;
+
+		private boolean lazyInit;
+
+		private int autowireMode;
+
+		private int dependencyCheck;
+
+		@Nullable
+		private String[] dependsOn;
+
+		private boolean autowireCandidate = true;
+
+		private boolean primary;
+
+		private final List<QualifierState> qualifiers = new ArrayList<>();
+
+		private boolean nonPublicAccessAllowed = true;
+
+		private boolean lenientConstructorResolution = true;
+
+		@Nullable
+		private String factoryBeanName;
+
+		@Nullable
+		private String factoryMethodName;
+
+		private final Map<Integer, ArgumentState> indexedArguments = new LinkedHashMap<>();
+
+		private final List<ArgumentState> genericArguments = new ArrayList<>();
+
+		private final Map<String, Object> propertyValues = new LinkedHashMap<>();
+
+		@Nullable
+		private String initMethodName;
+
+		@Nullable
+		private String destroyMethodName;
+
+		private boolean enforceInitMethod = true;
+
+		private boolean enforceDestroyMethod = true;
+
+		private boolean synthetic;
+
+		private int role;
+
+		@Nullable
+		private String description;
+
+		@Nullable
+		private String resourceDescription;
+
+		private final Map<String, Object> attributes = new LinkedHashMap<>();
+
+		@Nullable
+		private HolderState decoratedDefinition;
+
+		@Nullable
+		private String targetTypeName;
+
+		DefinitionState(BeanDefinition bd) {
+			if (!(bd instanceof AbstractBeanDefinition)) {
+				throw new IllegalStateException("Unsupported bean definition type: " + bd.getClass().getName());
+			}
+			AbstractBeanDefinition abd = (AbstractBeanDefinition) bd;
+			if (abd.getInstanceSupplier() != null) {
+				throw new IllegalStateException("Instance suppliers cannot be captured");
+			}
+			if (abd.hasMethodOverrides()) {
+				throw new IllegalStateException("Method overrides cannot be captured");
+			}
+			this.beanClassName = (abd.hasBeanClass() ?
+					ClassUtils.getUserClass(abd.getBeanClass()).getName() : abd.getBeanClassName());
+			this.parentName = abd.getParentName();
+			this.beanMethod = (abd instanceof AnnotatedBeanDefinition &&
+					((AnnotatedBeanDefinition) abd).getFactoryMethodMetadata() != null);
+
+			this.scope = abd.getScope();
+			this.abstractFlag = abd.isAbstract();
+			this.lazyInit = abd.isLazyInit();
+			this.autowireMode = abd.getAutowireMode();
+			this.dependencyCheck = abd.getDependencyCheck();
+			this.dependsOn = abd.getDependsOn();
+			this.autowireCandidate = abd.isAutowireCandidate();
+			this.primary = abd.isPrimary();
+			for (AutowireCandidateQualifier qualifier : abd.getQualifiers()) {
+				this.qualifiers.add(new QualifierState(qualifier));
+			}
+			this.nonPublicAccessAllowed = abd.isNonPublicAccessAllowed();
+			this.lenientConstructorResolution = abd.isLenientConstructorResolution();
+			this.factoryBeanName = abd.getFactoryBeanName();
+			this.factoryMethodName = abd.getFactoryMethodName();
+
+			ConstructorArgumentValues cargs = abd.getConstructorArgumentValues();
+			for (Map.Entry<Integer, ConstructorArgumentValues.ValueHolder> entry :
+					cargs.getIndexedArgumentValues().entrySet()) {
+				this.indexedArguments.put(entry.getKey(), new ArgumentState(entry.getValue()));
+			}
+			for (ConstructorArgumentValues.ValueHolder valueHolder : cargs.getGenericArgumentValues()) {
+				this.genericArguments.add(new ArgumentState(valueHolder));
+			}
+			for (PropertyValue pv : abd.getPropertyValues().getPropertyValueList()) {
+				this.propertyValues.put(pv.getName(), toState(pv.getValue()));
+			}
+
+			this.initMethodName = abd.getInitMethodName();
+			this.destroyMethodName = abd.getDestroyMethodName();
+			this.enforceInitMethod = abd.isEnforceInitMethod();
+			this.enforceDestroyMethod = abd.isEnforceDestroyMethod();
+			this.synthetic = abd.isSynthetic();
+			this.role = abd.getRole();
+			this.description = abd.getDescription();
+			this.resourceDescription = abd.getResourceDescription();
+			for (String name : abd.attributeNames()) {
+				this.attributes.put(name, toState(abd.getAttribute(name)));
+			}
+
+			if (abd instanceof RootBeanDefinition) {
+				RootBeanDefinition rbd = (RootBeanDefinition) abd;
+				BeanDefinitionHolder decorated = rbd.getDecoratedDefinition();
+				if (decorated != null) {
+					this.decoratedDefinition = new HolderState(decorated);
+				}
+				Class<?> targetType = rbd.getTargetType();
+				if (targetType != null) {
+					this.targetTypeName = targetType.getName();
+				}
+			}
+		}
+
+		@Override
+		public Object toValue(@Nullable ClassLoader classLoader) {
+			return toBeanDefinition(classLoader);
+		}
+
+		AbstractBeanDefinition toBeanDefinition(@Nullable ClassLoader classLoader) {
+			AbstractBeanDefinition abd;
+			if (this.parentName != null) {
+				abd = new GenericBeanDefinition();
+				abd.setParentName(this.parentName);
+			}
+			else {
+				SnapshotBeanDefinition sbd = new SnapshotBeanDefinition(this.beanMethod);
+				if (this.decoratedDefinition != null) {
+					sbd.setDecoratedDefinition(this.decoratedDefinition.toValue(classLoader));
+				}
+				abd = sbd;
+			}
+			abd.setBeanClassName(this.beanClassName);
+			abd.setScope(this.scope);
+			abd.setAbstract(this.abstractFlag);
+			if (this.lazyInit) {
+				abd.setLazyInit(true);
+			}
+			abd.setAutowireMode(this.autowireMode);
+			abd.setDependencyCheck(this.dependencyCheck);
+			abd.setDependsOn(this.dependsOn);
+			abd.setAutowireCandidate(this.autowireCandidate);
+			abd.setPrimary(this.primary);
+			for (QualifierState qualifier : this.qualifiers) {
+				abd.addQualifier(qualifier.toQualifier(classLoader));
+			}
+			abd.setNonPublicAccessAllowed(this.nonPublicAccessAllowed);
+			abd.setLenientConstructorResolution(this.lenientConstructorResolution);
+			abd.setFactoryBeanName(this.factoryBeanName);
+			if (abd instanceof RootBeanDefinition && this.beanMethod && this.factoryMethodName != null) {
+				((RootBeanDefinition) abd).setUniqueFactoryMethodName(this.factoryMethodName);
+			}
+			else {
+				abd.setFactoryMethodName(this.factoryMethodName);
+			}
+
+			ConstructorArgumentValues cargs = new ConstructorArgumentValues();
+			for (Map.Entry<Integer, ArgumentState> entry : this.indexedArguments.entrySet()) {
+				cargs.addIndexedArgumentValue(entry.getKey(), entry.getValue().toValue(classLoader));
+			}
+			for (ArgumentState argument : this.genericArguments) {
+				cargs.addGenericArgumentValue(argument.toValue(classLoader));
+			}
+			abd.setConstructorArgumentValues(cargs);
+			MutablePropertyValues pvs = new MutablePropertyValues();
+			for (Map.Entry<String, Object> entry : this.propertyValues.entrySet()) {
+				pvs.add(entry.getKey(), fromState(entry.getValue(), classLoader));
+			}
+			abd.setPropertyValues(pvs);
+
+			abd.setInitMethodName(this.initMethodName);
+			abd.setDestroyMethodName(this.destroyMethodName);
+			abd.setEnforceInitMethod(this.enforceInitMethod);
+			abd.setEnforceDestroyMethod(this.enforceDestroyMethod);
+			abd.setSynthetic(this.synthetic);
+			abd.setRole(this.role);
+			abd.setDescription(this.description);
+			abd.setResourceDescription(this.resourceDescription);
+			for (Map.Entry<String, Object> entry : this.attributes.entrySet()) {
+				abd.setAttribute(entry.getKey(), fromState(entry.getValue(), classLoader));
+			}
+			if (this.targetTypeName != null && abd instanceof RootBeanDefinition) {
+				if (ClassUtils.isPresent(this.targetTypeName, classLoader)) {
+					((RootBeanDefinition) abd).setTargetType(ClassUtils.resolveClassName(this.targetTypeName, classLoader));
+				}
+			}
+			return abd;
+		}
+	}
+
+
+	/**
+	 * Serializable state of a {@link BeanDefinitionHolder}.
+	 */
+	private static final class HolderState implements ValueState {
+
+		private static final long serialVersionUID = 1L;
+
+		private final DefinitionState beanDefinition;
+
+		private final String beanName;
+
+		@Nullable
+		private final String[] aliases;
+
+		HolderState(BeanDefinitionHolder holder) {
+			this.beanDefinition = new DefinitionState(holder.getBeanDefinition());
+			this.beanName = holder.getBeanName();
+			this.aliases = holder.getAliases();
+		}
+
+		@Override
+		public BeanDefinitionHolder toValue(@Nullable ClassLoader classLoader) {
+			return new BeanDefinitionHolder(
+					this.beanDefinition.toBeanDefinition(classLoader), this.beanName, this.aliases);
+		}
+	}
+
+
+	/**
+	 * Serializable state of a constructor argument.
+	 */
+	private static final class ArgumentState implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		@Nullable
+		private final Object value;
+
+		@Nullable
+		private final String type;
+
+		@Nullable
+		private final String name;
+
+		ArgumentState(ConstructorArgumentValues.ValueHolder valueHolder) {
+			this.value = toState(valueHolder.getValue());
+			this.type = valueHolder.getType();
+			this.name = valueHolder.getName();
+		}
+
+		ConstructorArgumentValues.ValueHolder toValue(@Nullable ClassLoader classLoader) {
+			return new ConstructorArgumentValues.ValueHolder(fromState(this.value, classLoader), this.type, this.name);
+		}
+	}
+
+
+	/**
+	 * Serializable state of an {@link AutowireCandidateQualifier}.
+	 */
+	private static final class QualifierState implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private final String typeName;
+
+		private final Map<String, Object> attributes = new LinkedHashMap<>();
+
+		QualifierState(AutowireCandidateQualifier qualifier) {
+			this.typeName = qualifier.getTypeName();
+			for (String name : qualifier.attributeNames()) {
+				this.attributes.put(name, toState(qualifier.getAttribute(name)));
+			}
+		}
+
+		AutowireCandidateQualifier toQualifier(@Nullable ClassLoader classLoader) {
+			AutowireCandidateQualifier qualifier = new AutowireCandidateQualifier(this.typeName);
+			for (Map.Entry<String, Object> entry : this.attributes.entrySet()) {
+				qualifier.setAttribute(entry.getKey(), fromState(entry.getValue(), classLoader));
+			}
+			return qualifier;
+		}
+	}
+
+
+	/**
+	 * Serializable state of a {@link RuntimeBeanReference} or {@link RuntimeBeanNameReference}.
+	 */
+	private static final class ReferenceState implements ValueState {
+
+		private static final long serialVersionUID = 1L;
+
+		private final String beanName;
+
+		private final boolean toParent;
+
+		private final boolean nameOnly;
+
+		ReferenceState(String beanName, boolean toParent, boolean nameOnly) {
+			this.beanName = beanName;
+			this.toParent = toParent;
+			this.nameOnly = nameOnly;
+		}
+
+		@Override
+		public Object toValue(@Nullable ClassLoader classLoader) {
+			return (this.nameOnly ? new RuntimeBeanNameReference(this.beanName) :
+					new RuntimeBeanReference(this.beanName, this.toParent));
+		}
+	}
+
+
+	/**
+	 * Serializable state of a {@link TypedStringValue}.
+	 */
+	private static final class TypedStringState implements ValueState {
+
+		private static final long serialVersionUID = 1L;
+
+		@Nullable
+		private final String value;
+
+		@Nullable
+		private final String targetTypeName;
+
+		@Nullable
+		private final String specifiedTypeName;
+
+		private final boolean dynamic;
+
+		TypedStringState(TypedStringValue typedStringValue) {
+			this.value = typedStringValue.getValue();
+			this.targetTypeName = typedStringValue.getTargetTypeName();
+			this.specifiedTypeName = typedStringValue.getSpecifiedTypeName();
+			this.dynamic = typedStringValue.isDynamic();
+		}
+
+		@Override
+		public Object toValue(@Nullable ClassLoader classLoader) {
+			TypedStringValue typedStringValue = (this.targetTypeName != null ?
+					new TypedStringValue(this.value, this.targetTypeName) : new TypedStringValue(this.value));
+			typedStringValue.setSpecifiedTypeName(this.specifiedTypeName);
+			if (this.dynamic) {
+				typedStringValue.setDynamic();
+			}
+			return typedStringValue;
+		}
+	}
+
+
+	/**
+	 * Serializable state of a {@link ManagedList}, {@link ManagedSet} or {@link ManagedMap}.
+	 */
+	private static final class CollectionState implements ValueState {
+
+		private static final long serialVersionUID = 1L;
+
+		private final String collectionType;
+
+		@Nullable
+		private final String elementTypeName;
+
+		@Nullable
+		private final String valueTypeName;
+
+		private final boolean mergeEnabled;
+
+		private final List<Object> elements = new ArrayList<>();
+
+		CollectionState(ManagedList<?> list) {
+			this.collectionType = "list";
+			this.elementTypeName = list.getElementTypeName();
+			this.valueTypeName = null;
+			this.mergeEnabled = list.isMergeEnabled();
+			for (Object element : list) {
+				this.elements.add(toState(element));
+			}
+		}
+
+		CollectionState(ManagedSet<?> set) {
+			this.collectionType = "set";
+			this.elementTypeName = set.getElementTypeName();
+			this.valueTypeName = null;
+			this.mergeEnabled = set.isMergeEnabled();
+			for (Object element : set) {
+				this.elements.add(toState(element));
+			}
+		}
+
+		CollectionState(ManagedMap<?, ?> map) {
+			this.collectionType = "map";
+			this.elementTypeName = map.getKeyTypeName();
+			this.valueTypeName = map.getValueTypeName();
+			this.mergeEnabled = map.isMergeEnabled();
+			for (Map.Entry<?, ?> entry : map.entrySet()) {
+				this.elements.add(toState(entry.getKey()));
+				this.elements.add(toState(entry.getValue()));
+			}
+		}
+
+		@Override
+		public Object toValue(@Nullable ClassLoader classLoader) {
+			if (this.collectionType.equals("map")) {
+				ManagedMap<Object, Object> map = new ManagedMap<>(this.elements.size() / 2);
+				map.setKeyTypeName(this.elementTypeName);
+				map.setValueTypeName(this.valueTypeName);
+				map.setMergeEnabled(this.mergeEnabled);
+				for (int i = 0; i < this.elements.size(); i += 2) {
+					map.put(fromState(this.elements.get(i), classLoader),
+							fromState(this.elements.get(i + 1), classLoader));
+				}
+				return map;
+			}
+			if (this.collectionType.equals("set")) {
+				ManagedSet<Object> set = new ManagedSet<>(this.elements.size());
+				set.setElementTypeName(this.elementTypeName);
+				set.setMergeEnabled(this.mergeEnabled);
+				for (Object element : this.elements) {
+					set.add(fromState(element, classLoader));
+				}
+				return set;
+			}
+			ManagedList<Object> list = new ManagedList<>(this.elements.size());
+			list.setElementTypeName(this.elementTypeName);
+			list.setMergeEnabled(this.mergeEnabled);
+			for (Object element : this.elements) {
+				list.add(fromState(element, classLoader));
+			}
+			return list;
+		}
+	}
+
+
+	@Nullable
+	private static Object toState(@Nullable Object value) {
+		if (value == null) {
+			return null;
+		}
+		else if (value instanceof RuntimeBeanReference) {
+			RuntimeBeanReference ref = (RuntimeBeanReference) value;
+			return new ReferenceState(ref.getBeanName(), ref.isToParent(), false);
+		}
+		else if (value instanceof RuntimeBeanNameReference) {
+			return new ReferenceState(((RuntimeBeanNameReference) value).getBeanName(), false, true);
+		}
+		else if (value instanceof TypedStringValue) {
+			return new TypedStringState((TypedStringValue) value);
+		}
+		else if (value instanceof BeanDefinitionHolder) {
+			return new HolderState((BeanDefinitionHolder) value);
+		}
+		else if (value instanceof BeanDefinition) {
+			return new DefinitionState((BeanDefinition) value);
+		}
+		else if (value instanceof ManagedArray) {
+			throw new IllegalStateException("Managed arrays cannot be captured");
+		}
+		else if (value instanceof ManagedList) {
+			return new CollectionState((ManagedList<?>) value);
+		}
+		else if (value instanceof ManagedSet) {
+			return new CollectionState((ManagedSet<?>) value);
+		}
+		else if (value instanceof ManagedMap) {
+			return new CollectionState((ManagedMap<?, ?>) value);
+		}
+		else if (isValueType(value.getClass())) {
+			return value;
+		}
+		throw new IllegalStateException("Value cannot be captured: " + ObjectUtils.identityToString(value));
+	}
+
+	@Nullable
+	private static Object fromState(@Nullable Object state, @Nullable ClassLoader classLoader) {
+		return (state instanceof ValueState ? ((ValueState) state).toValue(classLoader) : state);
+	}
+
+	private static boolean isValueType(Class<?> type) {
+		if (type.isArray()) {
+			Class<?> componentType = type.getComponentType();
+			return (componentType.isPrimitive() || isValueType(componentType));
+		}
+		return (valueTypes.contains(type) || Enum.class.isAssignableFrom(type));
+	}
+
+
+	/**
+	 * {@link ObjectInputStream} that only accepts the snapshot structure and
+	 * the capturable value types, rejecting any other class in the stream.
+	 */
+	private static class SnapshotObjectInputStream extends ConfigurableObjectInputStream {
+
+		SnapshotObjectInputStream(InputStream in, @Nullable ClassLoader classLoader) throws IOException {
+			super(in, classLoader, false);
+		}
+
+		@Override
+		protected Class<?> resolveClass(ObjectStreamClass classDesc) throws IOException, ClassNotFoundException {
+			// Resolved without initialization, so no static code runs for rejected classes
+			Class<?> clazz = super.resolveClass(classDesc);
+			if (!snapshotTypes.contains(clazz) && !isValueType(clazz)) {
+				throw new InvalidClassException(classDesc.getName(), "Not allowed in a bean definition snapshot");
+			}
+			return clazz;
+		}
+	}
+
+
+	/**
+	 * Bean definition restored from a snapshot, preserving the
+	 * {@code @Bean} method semantics of factory method resolution.
+	 */
+	@SuppressWarnings("serial")
+	private static class SnapshotBeanDefinition extends RootBeanDefinition {
+
+		private final boolean beanMethod;
+
+		SnapshotBeanDefinition(boolean beanMethod) {
+			this.beanMethod = beanMethod;
+		}
+
+		SnapshotBeanDefinition(SnapshotBeanDefinition original) {
+			super(original);
+			this.beanMethod = original.beanMethod;
+		}
+
+		@Override
+		public boolean isFactoryMethod(Method candidate) {
+			return (super.isFactoryMethod(candidate) &&
+					(!this.beanMethod || BeanAnnotationHelper.isBeanAnnotated(candidate)));
+		}
+
+		@Override
+		public SnapshotBeanDefinition cloneBeanDefinition() {
+			return new SnapshotBeanDefinition(this);
+		}
+	}
+
+
+	/**
+	 * {@link ImportRegistry} restored from a snapshot, introspecting
+	 * importing classes on demand.
+	 */
+	private static class SnapshotImportRegistry implements ImportRegistry {
+
+		private final Map<String, String> importingClasses;
+
+		@Nullable
+		private final ClassLoader classLoader;
+
+		SnapshotImportRegistry(Map<String, String> importingClasses, @Nullable ClassLoader classLoader) {
+			this.importingClasses = new ConcurrentHashMap<>(importingClasses);
+			this.classLoader = classLoader;
+		}
+
+		@Override
+		@Nullable
+		public AnnotationMetadata getImportingClassFor(String importedClass) {
+			String importingClass = this.importingClasses.get(importedClass);
+			return (importingClass != null ? new StandardAnnotationMetadata(
+					ClassUtils.resolveClassName(importingClass, this.classLoader), true) : null);
+		}
+
+		@Override
+		public void removeImportingClass(String importingClass) {
+			this.importingClasses.values().removeIf(importingClass::equals);
+		}
+	}
+
+}
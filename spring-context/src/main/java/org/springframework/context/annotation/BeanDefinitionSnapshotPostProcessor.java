@@ -0,0 +1,264 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanDefinitionStoreException;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.parsing.FailFastProblemReporter;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotationAttributes;
+import org.springframework.core.type.StandardAnnotationMetadata;
+import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+/**
+ * {@link BeanDefinitionRegistryPostProcessor} that restores the bean definitions
+ * of an application context from a {@link BeanDefinitionSnapshot} file, bypassing
+ * configuration class parsing, component scanning and condition evaluation on
+ * startup. If the snapshot file is missing or outdated, the bean definitions are
+ * derived as usual and then written to the snapshot file for the next startup.
+ *
+ * <p>Needs to be added to the context through
+ * {@link org.springframework.context.ConfigurableApplicationContext#addBeanFactoryPostProcessor}
+ * in order to run ahead of {@link ConfigurationClassPostProcessor}. For a restored
+ * snapshot, {@code @Configuration} classes are still enhanced on startup, and
+ * {@link PropertySource @PropertySource} declarations as well as the import
+ * metadata for {@link ImportAware} beans are still applied.
+ *
+ * <p>The snapshot only covers the bean definitions derived through configuration
+ * class processing: it is captured right after {@link ConfigurationClassPostProcessor}
+ * has run, so bean definitions added by {@link Ordered} or non-ordered registry
+ * post-processors are not included but rather registered on every startup.
+ * A snapshot that clashes with existing bean definitions is ignored as stale.
+ *
+ * <p>Note that the snapshot reflects the bean definitions before any further
+ * post-processing, so placeholders remain unresolved and factory methods get
+ * resolved lazily as usual. See {@link BeanDefinitionSnapshot#computeKey} for
+ * the state that a snapshot is matched against: configurations with conditions
+ * depending on other state must not use a snapshot.
+ *
+ * @author agent
+ * @since 5.2
+ * @see BeanDefinitionSnapshot
+ * @see AnnotationConfigApplicationContext#setBeanDefinitionSnapshotFile
+ */
+public class BeanDefinitionSnapshotPostProcessor implements BeanDefinitionRegistryPostProcessor {
+
+	private static final String CAPTURING_POST_PROCESSOR_BEAN_NAME =
+			BeanDefinitionSnapshotPostProcessor.class.getName() + ".capturing";
+
+	private static final Log logger = LogFactory.getLog(BeanDefinitionSnapshotPostProcessor.class);
+
+	private final GenericApplicationContext context;
+
+	private final File snapshotFile;
+
+	@Nullable
+	private BeanDefinitionSnapshot loadedSnapshot;
+
+
+	/**
+	 * Create a new {@code BeanDefinitionSnapshotPostProcessor} for the given context.
+	 * @param context the application context to restore or capture
+	 * @param snapshotFile the file to read the snapshot from and write it to
+	 */
+	public BeanDefinitionSnapshotPostProcessor(GenericApplicationContext context, File snapshotFile) {
+		Assert.notNull(context, "GenericApplicationContext must not be null");
+		Assert.notNull(snapshotFile, "Snapshot file must not be null");
+		this.context = context;
+		this.snapshotFile = snapshotFile;
+	}
+
+
+	/**
+	 * Return whether the bean definitions have been restored from the snapshot file.
+	 */
+	public boolean isSnapshotLoaded() {
+		return (this.loadedSnapshot != null);
+	}
+
+
+	@Override
+	public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) throws BeansException {
+		String key = BeanDefinitionSnapshot.computeKey(
+				this.context.getEnvironment(), registry, this.context.getClassLoader());
+		if (key == null) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Cannot determine classpath and environment state for bean definition snapshot " +
+						this.snapshotFile + " - deriving bean definitions from configuration classes");
+			}
+			return;
+		}
+		BeanDefinitionSnapshot snapshot = readSnapshot();
+		if (snapshot != null && key.equals(snapshot.getKey())) {
+			if (snapshot.registerBeanDefinitions(registry)) {
+				processPropertySources(snapshot, registry);
+				this.loadedSnapshot = snapshot;
+				if (logger.isDebugEnabled()) {
+					logger.debug("Restored " + snapshot.getBeanDefinitionCount() +
+							" bean definitions from snapshot " + this.snapshotFile);
+				}
+				return;
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Bean definition snapshot " + this.snapshotFile + " clashes with existing " +
+						"bean definitions - deriving bean definitions from configuration classes");
+			}
+		}
+		else if (logger.isDebugEnabled()) {
+			logger.debug("No current bean definition snapshot in " + this.snapshotFile +
+					" - deriving bean definitions from configuration classes");
+		}
+		DefaultListableBeanFactory beanFactory = this.context.getDefaultListableBeanFactory();
+		if (!beanFactory.containsSingleton(CAPTURING_POST_PROCESSOR_BEAN_NAME)) {
+			beanFactory.registerSingleton(CAPTURING_POST_PROCESSOR_BEAN_NAME, new SnapshotCapturingPostProcessor(
+					key, new HashSet<>(Arrays.asList(registry.getBeanDefinitionNames()))));
+		}
+	}
+
+	@Override
+	public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+	}
+
+
+	@Nullable
+	private BeanDefinitionSnapshot readSnapshot() {
+		if (!this.snapshotFile.isFile() || !this.snapshotFile.canRead()) {
+			return null;
+		}
+		try (InputStream in = new BufferedInputStream(Files.newInputStream(this.snapshotFile.toPath()))) {
+			return BeanDefinitionSnapshot.readFrom(in, this.context.getClassLoader());
+		}
+		catch (IOException ex) {
+			if (logger.isInfoEnabled()) {
+				logger.info("Ignoring unreadable bean definition snapshot " + this.snapshotFile + ": " + ex);
+			}
+			return null;
+		}
+	}
+
+	private void writeSnapshot(BeanDefinitionSnapshot snapshot) throws IOException {
+		File dir = this.snapshotFile.getAbsoluteFile().getParentFile();
+		File tempFile = File.createTempFile(this.snapshotFile.getName(), ".tmp", dir);
+		try {
+			try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tempFile.toPath()))) {
+				snapshot.writeTo(out);
+			}
+			Files.move(tempFile.toPath(), this.snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+		finally {
+			Files.deleteIfExists(tempFile.toPath());
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Wrote " + snapshot.getBeanDefinitionCount() +
+					" bean definitions to snapshot " + this.snapshotFile);
+		}
+	}
+
+	/**
+	 * Apply the {@code @PropertySource} declarations of the restored configuration
+	 * classes to the environment, as configuration class parsing would do.
+	 */
+	private void processPropertySources(BeanDefinitionSnapshot snapshot, BeanDefinitionRegistry registry) {
+		ClassLoader classLoader = this.context.getClassLoader();
+		ConfigurationClassParser parser = new ConfigurationClassParser(
+				new CachingMetadataReaderFactory(this.context), new FailFastProblemReporter(),
+				this.context.getEnvironment(), this.context, new AnnotationBeanNameGenerator(), registry);
+		Set<Class<?>> processed = new HashSet<>();
+		for (String className : snapshot.getConfigurationClassNames()) {
+			Class<?> clazz = ClassUtils.resolveClassName(className, classLoader);
+			while (clazz != null && !clazz.getName().startsWith("java") && processed.add(clazz)) {
+				for (AnnotationAttributes propertySource : AnnotationConfigUtils.attributesForRepeatable(
+						new StandardAnnotationMetadata(clazz, true), PropertySources.class,
+						org.springframework.context.annotation.PropertySource.class)) {
+					try {
+						parser.processPropertySource(propertySource);
+					}
+					catch (IOException ex) {
+						throw new BeanDefinitionStoreException(
+								"Failed to load @PropertySource for configuration class [" + className + "]", ex);
+					}
+				}
+				clazz = clazz.getSuperclass();
+			}
+		}
+	}
+
+
+	/**
+	 * Registry post-processor that captures the snapshot once the
+	 * {@link org.springframework.core.PriorityOrdered} ones, including
+	 * {@link ConfigurationClassPostProcessor}, have run, ahead of any
+	 * {@link Ordered} or non-ordered ones.
+	 */
+	private class SnapshotCapturingPostProcessor implements BeanDefinitionRegistryPostProcessor, Ordered {
+
+		private final String key;
+
+		private final Set<String> initialBeanNames;
+
+		SnapshotCapturingPostProcessor(String key, Set<String> initialBeanNames) {
+			this.key = key;
+			this.initialBeanNames = initialBeanNames;
+		}
+
+		@Override
+		public int getOrder() {
+			return Ordered.HIGHEST_PRECEDENCE;
+		}
+
+		@Override
+		public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) throws BeansException {
+			try {
+				writeSnapshot(BeanDefinitionSnapshot.capture(
+						context.getDefaultListableBeanFactory(), this.key, this.initialBeanNames));
+			}
+			catch (IllegalStateException | IOException ex) {
+				if (logger.isInfoEnabled()) {
+					logger.info("Failed to write bean definition snapshot to " + snapshotFile + ": " + ex);
+				}
+			}
+		}
+
+		@Override
+		public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,12 +17,15 @@
 package org.springframework.context.annotation;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.annotation.Annotation;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -36,6 +39,7 @@ import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.context.ResourceLoaderAware;
 import org.springframework.context.index.CandidateComponentsIndex;
 import org.springframework.context.index.CandidateComponentsIndexLoader;
+import org.springframework.core.SpringProperties;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.EnvironmentCapable;
@@ -89,6 +93,14 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 
 	static final String DEFAULT_RESOURCE_PATTERN = "**/*.class";
 
+	/**
+	 * System property that instructs Spring to scan the classpath roots and
+	 * read class metadata in parallel by default: {@value}.
+	 * @since 5.2
+	 * @see #setParallelScanning
+	 */
+	public static final String PARALLEL_SCANNING_PROPERTY_NAME = "spring.scan.parallel";
+
 
 	protected final Log logger = LogFactory.getLog(getClass());
 
@@ -113,6 +125,8 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 	@Nullable
 	private CandidateComponentsIndex componentsIndex;
 
+	private boolean parallelScanning = SpringProperties.getFlag(PARALLEL_SCANNING_PROPERTY_NAME);
+
 
 	/**
 	 * Protected constructor for flexible subclass initialization.
@@ -302,6 +316,31 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 		return this.metadataReaderFactory;
 	}
 
+	/**
+	 * Specify whether to scan the classpath in parallel: traversing each classpath
+	 * root of a base package and reading the metadata of each class file on the
+	 * common {@link java.util.concurrent.ForkJoinPool}.
+	 * <p>Include and exclude filters as well as conditions are still evaluated
+	 * sequentially, and candidates are returned in the same order as with
+	 * sequential scanning. The {@link ResourcePatternResolver} and the
+	 * {@link MetadataReaderFactory} in use need to be thread-safe, as is
+	 * the case for the default implementations.
+	 * <p>Default is "false", unless the {@link #PARALLEL_SCANNING_PROPERTY_NAME}
+	 * system property has been set to "true".
+	 * @since 5.2
+	 */
+	public void setParallelScanning(boolean parallelScanning) {
+		this.parallelScanning = parallelScanning;
+	}
+
+	/**
+	 * Return whether the classpath is scanned in parallel.
+	 * @since 5.2
+	 */
+	public boolean isParallelScanning() {
+		return this.parallelScanning;
+	}
+
 
 	/**
 	 * Scan the class path for candidate components.
@@ -417,19 +456,25 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 		Set<BeanDefinition> candidates = new LinkedHashSet<>();
 		try {
 			// 处理包路径中的特殊字符，并且拼接classpath*:前缀和 **/*.class后缀
+			String basePackagePath = resolveBasePackage(basePackage);
 			String packageSearchPath = ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX +
-					resolveBasePackage(basePackage) + '/' + this.resourcePattern;
+					basePackagePath + '/' + this.resourcePattern;
 			// 获取包路径加的文件并转换成FileSystemResource资源
-			Resource[] resources = getResourcePatternResolver().getResources(packageSearchPath);
+			Resource[] resources = (this.parallelScanning ?
+					findCandidateResourcesInParallel(basePackagePath, packageSearchPath) :
+					getResourcePatternResolver().getResources(packageSearchPath));
+			MetadataReader[] metadataReaders = (this.parallelScanning ? readMetadataInParallel(resources) : null);
 			boolean traceEnabled = logger.isTraceEnabled();
 			boolean debugEnabled = logger.isDebugEnabled();
-			for (Resource resource : resources) {
+			for (int i = 0; i < resources.length; i++) {
+				Resource resource = resources[i];
 				if (traceEnabled) {
 					logger.trace("Scanning " + resource);
 				}
-				if (resource.isReadable()) {
+				if (metadataReaders != null ? metadataReaders[i] != null : resource.isReadable()) {
 					try {
-						MetadataReader metadataReader = getMetadataReaderFactory().getMetadataReader(resource);
+						MetadataReader metadataReader = (metadataReaders != null ? metadataReaders[i] :
+								getMetadataReaderFactory().getMetadataReader(resource));
 						 /* 用之前添加的filter过滤资源 */
 						if (isCandidateComponent(metadataReader)) {
 							ScannedGenericBeanDefinition sbd = new ScannedGenericBeanDefinition(metadataReader);
@@ -471,6 +516,68 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 		return candidates;
 	}
 
+	/**
+	 * Resolve the resources for the given package search path, traversing each
+	 * classpath root of the base package in parallel and merging the results
+	 * in classpath order.
+	 */
+	private Resource[] findCandidateResourcesInParallel(String basePackagePath, String packageSearchPath)
+			throws IOException {
+
+		ResourcePatternResolver resolver = getResourcePatternResolver();
+		if (basePackagePath.indexOf('*') != -1 || basePackagePath.indexOf('?') != -1 ||
+				basePackagePath.indexOf('{') != -1) {
+			// Wildcards in the base package itself -> let the resolver determine the roots.
+			return resolver.getResources(packageSearchPath);
+		}
+		Resource[] rootDirResources = resolver.getResources(
+				ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX + basePackagePath + '/');
+		try {
+			List<Resource[]> resourcesPerRoot = Arrays.stream(rootDirResources).parallel()
+					.map(rootDirResource -> {
+						try {
+							String rootDirUrl = rootDirResource.getURL().toString();
+							return resolver.getResources(rootDirUrl + (rootDirUrl.endsWith("/") ? "" : "/") +
+									this.resourcePattern);
+						}
+						catch (IOException ex) {
+							throw new UncheckedIOException(ex);
+						}
+					})
+					.collect(Collectors.toList());
+			Set<Resource> resources = new LinkedHashSet<>();
+			for (Resource[] rootResources : resourcesPerRoot) {
+				resources.addAll(Arrays.asList(rootResources));
+			}
+			return resources.toArray(new Resource[0]);
+		}
+		catch (UncheckedIOException ex) {
+			throw ex.getCause();
+		}
+	}
+
+	/**
+	 * Read the class metadata for the given resources in parallel, keeping
+	 * the order of the given resources; {@code null} for unreadable resources.
+	 */
+	private MetadataReader[] readMetadataInParallel(Resource[] resources) {
+		MetadataReaderFactory metadataReaderFactory = getMetadataReaderFactory();
+		return Arrays.stream(resources).parallel()
+				.map(resource -> {
+					if (!resource.isReadable()) {
+						return null;
+					}
+					try {
+						return metadataReaderFactory.getMetadataReader(resource);
+					}
+					catch (Throwable ex) {
+						throw new BeanDefinitionStoreException(
+								"Failed to read candidate component class: " + resource, ex);
+					}
+				})
+				.toArray(MetadataReader[]::new);
+	}
+
 
 	/**
 	 * Resolve the specified base package into a pattern specification for
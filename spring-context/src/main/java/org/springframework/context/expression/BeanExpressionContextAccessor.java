@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,11 +16,14 @@
 
 package org.springframework.context.expression;
 
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
 import org.springframework.beans.factory.config.BeanExpressionContext;
 import org.springframework.expression.AccessException;
 import org.springframework.expression.EvaluationContext;
-import org.springframework.expression.PropertyAccessor;
 import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.CodeFlow;
+import org.springframework.expression.spel.CompilablePropertyAccessor;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 
@@ -28,11 +31,17 @@ import org.springframework.util.Assert;
  * EL property accessor that knows how to traverse the beans and contextual objects
  * of a Spring {@link org.springframework.beans.factory.config.BeanExpressionContext}.
  *
+ * <p>As of 5.2, property access through this accessor can be compiled. Compiled
+ * code does not consult {@link #canRead} or any other accessor: if the object
+ * is no longer available in the context, it throws an {@link IllegalStateException},
+ * letting a {@link org.springframework.expression.spel.SpelCompilerMode#MIXED mixed}
+ * mode expression fall back to interpretation.
+ *
  * @author Juergen Hoeller
  * @author Andy Clement
  * @since 3.0
  */
-public class BeanExpressionContextAccessor implements PropertyAccessor {
+public class BeanExpressionContextAccessor implements CompilablePropertyAccessor {
 
 	@Override
 	public boolean canRead(EvaluationContext context, @Nullable Object target, String name) throws AccessException {
@@ -62,4 +71,41 @@ public class BeanExpressionContextAccessor implements PropertyAccessor {
 		return new Class<?>[] {BeanExpressionContext.class};
 	}
 
+	@Override
+	public boolean isCompilable() {
+		return true;
+	}
+
+	@Override
+	public Class<?> getPropertyType() {
+		return Object.class;
+	}
+
+	@Override
+	public void generateCode(String propertyName, MethodVisitor mv, CodeFlow cf) {
+		String descriptor = cf.lastDescriptor();
+		if (descriptor == null || !descriptor.equals("Lorg/springframework/beans/factory/config/BeanExpressionContext")) {
+			if (descriptor == null) {
+				cf.loadTarget(mv);
+			}
+			CodeFlow.insertCheckCast(mv, "Lorg/springframework/beans/factory/config/BeanExpressionContext");
+		}
+		// Guard against a missing object, which interpretation would resolve through other accessors
+		Label found = new Label();
+		mv.visitInsn(DUP);
+		mv.visitLdcInsn(propertyName);
+		mv.visitMethodInsn(INVOKEVIRTUAL, "org/springframework/beans/factory/config/BeanExpressionContext",
+				"containsObject", "(Ljava/lang/String;)Z", false);
+		mv.visitJumpInsn(IFNE, found);
+		mv.visitTypeInsn(NEW, "java/lang/IllegalStateException");
+		mv.visitInsn(DUP);
+		mv.visitLdcInsn("No object named '" + propertyName + "' in BeanExpressionContext");
+		mv.visitMethodInsn(INVOKESPECIAL, "java/lang/IllegalStateException", "<init>", "(Ljava/lang/String;)V", false);
+		mv.visitInsn(ATHROW);
+		mv.visitLabel(found);
+		mv.visitLdcInsn(propertyName);
+		mv.visitMethodInsn(INVOKEVIRTUAL, "org/springframework/beans/factory/config/BeanExpressionContext",
+				"getObject", "(Ljava/lang/String;)Ljava/lang/Object;", false);
+	}
+
 }
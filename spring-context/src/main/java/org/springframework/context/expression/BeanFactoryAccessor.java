@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,11 +16,13 @@
 
 package org.springframework.context.expression;
 
+import org.springframework.asm.MethodVisitor;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.expression.AccessException;
 import org.springframework.expression.EvaluationContext;
-import org.springframework.expression.PropertyAccessor;
 import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.CodeFlow;
+import org.springframework.expression.spel.CompilablePropertyAccessor;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 
@@ -28,11 +30,18 @@ import org.springframework.util.Assert;
  * EL property accessor that knows how to traverse the beans of a
  * Spring {@link org.springframework.beans.factory.BeanFactory}.
  *
+ * <p>As of 5.2, property access through this accessor can be compiled. Compiled
+ * code calls {@link BeanFactory#getBean(String)} directly, without consulting
+ * {@link #canRead} or any other accessor: for a bean which is no longer available,
+ * it throws a {@link org.springframework.beans.factory.NoSuchBeanDefinitionException},
+ * letting a {@link org.springframework.expression.spel.SpelCompilerMode#MIXED mixed}
+ * mode expression fall back to interpretation.
+ *
  * @author Juergen Hoeller
  * @author Andy Clement
  * @since 3.0
  */
-public class BeanFactoryAccessor implements PropertyAccessor {
+public class BeanFactoryAccessor implements CompilablePropertyAccessor {
 
 	@Override
 	public Class<?>[] getSpecificTargetClasses() {
@@ -62,4 +71,28 @@ public class BeanFactoryAccessor implements PropertyAccessor {
 		throw new AccessException("Beans in a BeanFactory are read-only");
 	}
 
+	@Override
+	public boolean isCompilable() {
+		return true;
+	}
+
+	@Override
+	public Class<?> getPropertyType() {
+		return Object.class;
+	}
+
+	@Override
+	public void generateCode(String propertyName, MethodVisitor mv, CodeFlow cf) {
+		String descriptor = cf.lastDescriptor();
+		if (descriptor == null || !descriptor.equals("Lorg/springframework/beans/factory/BeanFactory")) {
+			if (descriptor == null) {
+				cf.loadTarget(mv);
+			}
+			CodeFlow.insertCheckCast(mv, "Lorg/springframework/beans/factory/BeanFactory");
+		}
+		mv.visitLdcInsn(propertyName);
+		mv.visitMethodInsn(INVOKEINTERFACE, "org/springframework/beans/factory/BeanFactory",
+				"getBean", "(Ljava/lang/String;)Ljava/lang/Object;", true);
+	}
+
 }
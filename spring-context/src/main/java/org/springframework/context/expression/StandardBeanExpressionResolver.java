@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -27,6 +27,7 @@ import org.springframework.core.convert.ConversionService;
 import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
 import org.springframework.expression.ParserContext;
+import org.springframework.expression.PropertyAccessor;
 import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
@@ -41,6 +42,13 @@ import org.springframework.util.StringUtils;
  * {@link org.springframework.beans.factory.config.BeanExpressionResolver}
  * interface, parsing and evaluating Spring EL using Spring's expression module.
  *
+ * <p>Parsed expressions are cached by expression string, and evaluation contexts
+ * are cached per {@link BeanExpressionContext}, sharing the same stateless property
+ * accessors. Expression compilation is off by default: it can be enabled through
+ * the {@link SpelParserConfiguration#SPRING_EXPRESSION_COMPILER_MODE_PROPERTY_NAME
+ * "spring.expression.compiler.mode"} property, or through a custom
+ * {@link #setExpressionParser expression parser}.
+ *
  * @author Juergen Hoeller
  * @since 3.0
  * @see org.springframework.expression.ExpressionParser
@@ -66,6 +74,14 @@ public class StandardBeanExpressionResolver implements BeanExpressionResolver {
 
 	private final Map<BeanExpressionContext, StandardEvaluationContext> evaluationCache = new ConcurrentHashMap<>(8);
 
+	private final PropertyAccessor beanExpressionContextAccessor = new BeanExpressionContextAccessor();
+
+	private final PropertyAccessor beanFactoryAccessor = new BeanFactoryAccessor();
+
+	private final PropertyAccessor mapAccessor = new MapAccessor();
+
+	private final PropertyAccessor environmentAccessor = new EnvironmentAccessor();
+
 	private final ParserContext beanExpressionParserContext = new ParserContext() {
 		@Override
 		public boolean isTemplate() {
@@ -92,6 +108,8 @@ public class StandardBeanExpressionResolver implements BeanExpressionResolver {
 	/**
 	 * Create a new {@code StandardBeanExpressionResolver} with the given bean class loader,
 	 * using it as the basis for expression compilation.
+	 * <p>Expressions are only compiled if the "spring.expression.compiler.mode"
+	 * property specifies a compiler mode.
 	 * @param beanClassLoader the factory's bean class loader
 	 */
 	public StandardBeanExpressionResolver(@Nullable ClassLoader beanClassLoader) {
@@ -145,10 +163,10 @@ public class StandardBeanExpressionResolver implements BeanExpressionResolver {
 			StandardEvaluationContext sec = this.evaluationCache.get(evalContext);
 			if (sec == null) {
 				sec = new StandardEvaluationContext(evalContext);
-				sec.addPropertyAccessor(new BeanExpressionContextAccessor());
-				sec.addPropertyAccessor(new BeanFactoryAccessor());
-				sec.addPropertyAccessor(new MapAccessor());
-				sec.addPropertyAccessor(new EnvironmentAccessor());
+				sec.addPropertyAccessor(this.beanExpressionContextAccessor);
+				sec.addPropertyAccessor(this.beanFactoryAccessor);
+				sec.addPropertyAccessor(this.mapAccessor);
+				sec.addPropertyAccessor(this.environmentAccessor);
 				sec.setBeanResolver(new BeanFactoryResolver(evalContext.getBeanFactory()));
 				sec.setTypeLocator(new StandardTypeLocator(evalContext.getBeanFactory().getBeanClassLoader()));
 				ConversionService conversionService = evalContext.getBeanFactory().getConversionService();
@@ -0,0 +1,647 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.support.SimpleTriggerContext;
+import org.springframework.scheduling.support.TaskUtils;
+import org.springframework.util.Assert;
+import org.springframework.util.ErrorHandler;
+
+/**
+ * {@link TaskScheduler} implementation based on a hierarchical timing wheel,
+ * dispatching due tasks to a separate worker {@link Executor}.
+ *
+ * <p>A single wheel thread advances the wheel once per tick, moving tasks
+ * from coarser-grained levels down to finer-grained levels as their
+ * execution time approaches and handing over due tasks to the worker
+ * executor. Scheduling a task merely enqueues it for the wheel thread,
+ * and cancelling a task unlinks it from its wheel bucket, both in constant
+ * time regardless of the number of scheduled tasks. This makes the present
+ * scheduler a good fit for large numbers of timeouts and periodic tasks,
+ * e.g. per connection or per request, most of which get cancelled before
+ * they are due.
+ *
+ * <p>Tasks execute no earlier than their scheduled time but up to one
+ * {@link #setTickDuration tick} later, so the tick duration determines the
+ * precision of this scheduler. The worker executor is not managed by this
+ * scheduler: it needs to be shut down separately, after this scheduler.
+ *
+ * @author agent
+ * @since 5.2
+ * @see #setWorkerExecutor
+ * @see #setTickDuration
+ * @see #setWheelSize
+ * @see ThreadPoolTaskScheduler
+ */
+public class TimingWheelTaskScheduler implements TaskScheduler, InitializingBean, DisposableBean {
+
+	/** Number of wheel levels, each covering {@code wheelSize} times the span of the previous level. */
+	private static final int LEVELS = 4;
+
+	private static final int MAX_WHEEL_SIZE = 1 << 15;
+
+
+	protected final Log logger = LogFactory.getLog(getClass());
+
+	@Nullable
+	private Executor workerExecutor;
+
+	private long tickNanos = TimeUnit.MILLISECONDS.toNanos(10);
+
+	private int wheelSize = 512;
+
+	private ThreadFactory threadFactory = createDefaultThreadFactory();
+
+	@Nullable
+	private ErrorHandler errorHandler;
+
+	private final Queue<WheelTask> pendingTasks = new ConcurrentLinkedQueue<>();
+
+	private final Queue<WheelTask> cancelledTasks = new ConcurrentLinkedQueue<>();
+
+	// State below is only accessed by the wheel thread, after initialization
+
+	private int wheelBits;
+
+	private long wheelMask;
+
+	private Bucket[][] wheels = new Bucket[0][];
+
+	private long startNanos;
+
+	private long currentTick;
+
+	@Nullable
+	private volatile Thread wheelThread;
+
+	private volatile boolean running;
+
+
+	/**
+	 * Create a new TimingWheelTaskScheduler, to be configured
+	 * with a worker executor through {@link #setWorkerExecutor}.
+	 */
+	public TimingWheelTaskScheduler() {
+	}
+
+	/**
+	 * Create a new TimingWheelTaskScheduler for the given worker executor.
+	 * @param workerExecutor the executor to run due tasks on
+	 */
+	public TimingWheelTaskScheduler(Executor workerExecutor) {
+		setWorkerExecutor(workerExecutor);
+	}
+
+
+	/**
+	 * Set the executor to run due tasks on, e.g. a
+	 * {@link ThreadPoolTaskExecutor} or a {@link java.util.concurrent.ForkJoinPool}.
+	 * <p>Tasks should not run on the wheel thread itself, so the given
+	 * executor is expected to hand over tasks to other threads.
+	 */
+	public void setWorkerExecutor(Executor workerExecutor) {
+		Assert.notNull(workerExecutor, "Worker Executor must not be null");
+		this.workerExecutor = workerExecutor;
+	}
+
+	/**
+	 * Set the duration of a single tick of the wheel, i.e. the precision
+	 * of scheduled execution times. Default is 10 milliseconds.
+	 */
+	public void setTickDuration(Duration tickDuration) {
+		Assert.isTrue(tickDuration.toMillis() > 0, "Tick duration must be at least 1 millisecond");
+		this.tickNanos = tickDuration.toNanos();
+	}
+
+	/**
+	 * Set the number of buckets per wheel level. Default is 512.
+	 * <p>Needs to be a power of two between 2 and 32768. Tasks scheduled
+	 * within {@code wheelSize} ticks are placed into the finest-grained level
+	 * directly, whereas tasks further out get moved down level by level.
+	 */
+	public void setWheelSize(int wheelSize) {
+		Assert.isTrue(wheelSize >= 2 && wheelSize <= MAX_WHEEL_SIZE && (wheelSize & (wheelSize - 1)) == 0,
+				"Wheel size must be a power of two between 2 and " + MAX_WHEEL_SIZE);
+		this.wheelSize = wheelSize;
+	}
+
+	/**
+	 * Set the ThreadFactory to create the wheel thread with.
+	 * <p>Default is a {@link CustomizableThreadFactory} for a daemon thread,
+	 * since the wheel thread does not run any user code itself.
+	 */
+	public void setThreadFactory(ThreadFactory threadFactory) {
+		Assert.notNull(threadFactory, "ThreadFactory must not be null");
+		this.threadFactory = threadFactory;
+	}
+
+	/**
+	 * Set a custom {@link ErrorHandler} strategy.
+	 */
+	public void setErrorHandler(ErrorHandler errorHandler) {
+		this.errorHandler = errorHandler;
+	}
+
+
+	/**
+	 * Calls {@code initialize()} after the container applied all property values.
+	 * @see #initialize()
+	 */
+	@Override
+	public void afterPropertiesSet() {
+		initialize();
+	}
+
+	/**
+	 * Set up the wheel and start the wheel thread.
+	 */
+	public void initialize() {
+		Assert.state(this.workerExecutor != null, "No worker Executor set");
+		if (this.wheelThread != null) {
+			return;
+		}
+		this.wheelBits = Integer.numberOfTrailingZeros(this.wheelSize);
+		this.wheelMask = this.wheelSize - 1;
+		this.wheels = new Bucket[LEVELS][this.wheelSize];
+		for (Bucket[] wheel : this.wheels) {
+			for (int i = 0; i < wheel.length; i++) {
+				wheel[i] = new Bucket();
+			}
+		}
+		this.startNanos = System.nanoTime();
+		this.currentTick = 0;
+		this.running = true;
+		Thread wheelThread = this.threadFactory.newThread(this::runWheel);
+		this.wheelThread = wheelThread;
+		wheelThread.start();
+	}
+
+	/**
+	 * Calls {@code shutdown} when the BeanFactory destroys the scheduler instance.
+	 * @see #shutdown()
+	 */
+	@Override
+	public void destroy() {
+		shutdown();
+	}
+
+	/**
+	 * Stop the wheel thread, cancelling all tasks which are not due yet.
+	 * Tasks which have been handed over to the worker executor already
+	 * remain unaffected, apart from not being rescheduled anymore.
+	 */
+	public void shutdown() {
+		Thread wheelThread = this.wheelThread;
+		if (wheelThread == null || !this.running) {
+			return;
+		}
+		this.running = false;
+		LockSupport.unpark(wheelThread);
+		if (Thread.currentThread() != wheelThread) {
+			try {
+				wheelThread.join();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+
+	// TaskScheduler implementation
+
+	@Override
+	@Nullable
+	public ScheduledFuture<?> schedule(Runnable task, Trigger trigger) {
+		WheelTask wheelTask = new WheelTask(errorHandlingTask(task, true), trigger);
+		Date initialTime = wheelTask.nextExecutionTime();
+		if (initialTime == null) {
+			return null;
+		}
+		return schedule(wheelTask, toNanos(initialTime));
+	}
+
+	@Override
+	public ScheduledFuture<?> schedule(Runnable task, Date startTime) {
+		return schedule(new WheelTask(errorHandlingTask(task, false), 0), toNanos(startTime));
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, Date startTime, long period) {
+		Assert.isTrue(period > 0, "Period must be positive");
+		return schedule(new WheelTask(errorHandlingTask(task, true), TimeUnit.MILLISECONDS.toNanos(period)),
+				toNanos(startTime));
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long period) {
+		Assert.isTrue(period > 0, "Period must be positive");
+		return schedule(new WheelTask(errorHandlingTask(task, true), TimeUnit.MILLISECONDS.toNanos(period)),
+				System.nanoTime());
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, Date startTime, long delay) {
+		Assert.isTrue(delay > 0, "Delay must be positive");
+		return schedule(new WheelTask(errorHandlingTask(task, true), -TimeUnit.MILLISECONDS.toNanos(delay)),
+				toNanos(startTime));
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, long delay) {
+		Assert.isTrue(delay > 0, "Delay must be positive");
+		return schedule(new WheelTask(errorHandlingTask(task, true), -TimeUnit.MILLISECONDS.toNanos(delay)),
+				System.nanoTime());
+	}
+
+
+	private Runnable errorHandlingTask(Runnable task, boolean isRepeatingTask) {
+		return TaskUtils.decorateTaskWithErrorHandler(task, this.errorHandler, isRepeatingTask);
+	}
+
+	private static long toNanos(Date time) {
+		return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(time.getTime() - System.currentTimeMillis());
+	}
+
+	private ScheduledFuture<?> schedule(WheelTask task, long deadlineNanos) {
+		Assert.state(this.wheelThread != null, "TimingWheelTaskScheduler not initialized");
+		if (!this.running) {
+			throw new TaskRejectedException("TimingWheelTaskScheduler has been shut down: " + task);
+		}
+		task.deadlineNanos = deadlineNanos;
+		if (deadlineNanos - System.nanoTime() <= 0) {
+			Executor executor = obtainWorkerExecutor();
+			try {
+				executor.execute(task);
+			}
+			catch (RejectedExecutionException ex) {
+				throw new TaskRejectedException("Executor [" + executor + "] did not accept task: " + task, ex);
+			}
+		}
+		else {
+			enqueue(task);
+		}
+		return task;
+	}
+
+	private Executor obtainWorkerExecutor() {
+		Executor executor = this.workerExecutor;
+		Assert.state(executor != null, "No worker Executor set");
+		return executor;
+	}
+
+	/**
+	 * Hand over the given task to the wheel thread, to be placed into the wheel
+	 * on its next tick. Safe to call from any thread.
+	 */
+	private void enqueue(WheelTask task) {
+		this.pendingTasks.add(task);
+		if (!this.running) {
+			// Shut down concurrently: the wheel thread may not see the task anymore.
+			task.cancel(false);
+		}
+	}
+
+
+	// Wheel thread
+
+	private void runWheel() {
+		while (this.running) {
+			long sleepNanos = this.startNanos + (this.currentTick + 1) * this.tickNanos - System.nanoTime();
+			if (sleepNanos > 0) {
+				LockSupport.parkNanos(this, sleepNanos);
+				continue;
+			}
+			long tick = ++this.currentTick;
+			removeCancelledTasks();
+			cascade(tick);
+			addPendingTasks();
+			expireTasks(tick);
+		}
+		cancelRemainingTasks();
+	}
+
+	private void removeCancelledTasks() {
+		WheelTask task;
+		while ((task = this.cancelledTasks.poll()) != null) {
+			Bucket bucket = task.bucket;
+			if (bucket != null) {
+				bucket.remove(task);
+			}
+		}
+	}
+
+	private void addPendingTasks() {
+		WheelTask task;
+		while ((task = this.pendingTasks.poll()) != null) {
+			if (!task.isCancelled()) {
+				long deadlineTicks = task.deadlineNanos - this.startNanos;
+				// Round up: a task must not execute before its deadline.
+				task.expiryTick = (deadlineTicks > 0 ? (deadlineTicks + this.tickNanos - 1) / this.tickNanos : 0);
+				place(task);
+			}
+		}
+	}
+
+	/**
+	 * Place the given task into the finest-grained level which covers its
+	 * expiry tick, or dispatch it right away if it is due already.
+	 */
+	private void place(WheelTask task) {
+		long delta = task.expiryTick - this.currentTick;
+		if (delta <= 0) {
+			dispatch(task);
+			return;
+		}
+		int level = 0;
+		while (level < LEVELS - 1 && delta >= (1L << (this.wheelBits * (level + 1)))) {
+			level++;
+		}
+		long bucketTick = task.expiryTick;
+		long capacity = 1L << (this.wheelBits * LEVELS);
+		if (delta >= capacity) {
+			// Beyond the span of the top level: park in its last bucket, to be placed again later on.
+			bucketTick = this.currentTick + capacity - 1;
+		}
+		int index = (int) ((bucketTick >>> (this.wheelBits * level)) & this.wheelMask);
+		this.wheels[level][index].add(task);
+	}
+
+	/**
+	 * Move tasks down from each coarser-grained level whose current bucket
+	 * starts at the given tick, i.e. whenever the finer-grained level wraps.
+	 */
+	private void cascade(long tick) {
+		for (int level = 1; level < LEVELS; level++) {
+			int shift = this.wheelBits * level;
+			if ((tick & ((1L << shift) - 1)) != 0) {
+				break;
+			}
+			int index = (int) ((tick >>> shift) & this.wheelMask);
+			WheelTask task = this.wheels[level][index].clear();
+			while (task != null) {
+				WheelTask next = task.next;
+				task.next = null;
+				if (!task.isCancelled()) {
+					place(task);
+				}
+				task = next;
+			}
+		}
+	}
+
+	private void expireTasks(long tick) {
+		WheelTask task = this.wheels[0][(int) (tick & this.wheelMask)].clear();
+		while (task != null) {
+			WheelTask next = task.next;
+			task.next = null;
+			if (!task.isCancelled()) {
+				place(task);
+			}
+			task = next;
+		}
+	}
+
+	private void dispatch(WheelTask task) {
+		Executor executor = obtainWorkerExecutor();
+		try {
+			executor.execute(task);
+		}
+		catch (Throwable ex) {
+			task.reject(new TaskRejectedException("Executor [" + executor + "] did not accept task: " + task, ex));
+			if (logger.isWarnEnabled()) {
+				logger.warn("Failed to dispatch due task to worker Executor [" + executor + "]", ex);
+			}
+		}
+	}
+
+	private void cancelRemainingTasks() {
+		for (Bucket[] wheel : this.wheels) {
+			for (Bucket bucket : wheel) {
+				WheelTask task = bucket.clear();
+				while (task != null) {
+					WheelTask next = task.next;
+					task.next = null;
+					task.cancel(false);
+					task = next;
+				}
+			}
+		}
+		WheelTask task;
+		while ((task = this.pendingTasks.poll()) != null) {
+			task.cancel(false);
+		}
+		this.cancelledTasks.clear();
+	}
+
+
+	/**
+	 * Doubly-linked list of the tasks in a wheel bucket,
+	 * only to be accessed by the wheel thread.
+	 */
+	private static final class Bucket {
+
+		@Nullable
+		private WheelTask head;
+
+		@Nullable
+		private WheelTask tail;
+
+		void add(WheelTask task) {
+			task.bucket = this;
+			task.prev = this.tail;
+			task.next = null;
+			if (this.tail != null) {
+				this.tail.next = task;
+			}
+			else {
+				this.head = task;
+			}
+			this.tail = task;
+		}
+
+		void remove(WheelTask task) {
+			if (task.prev != null) {
+				task.prev.next = task.next;
+			}
+			else {
+				this.head = task.next;
+			}
+			if (task.next != null) {
+				task.next.prev = task.prev;
+			}
+			else {
+				this.tail = task.prev;
+			}
+			task.bucket = null;
+			task.prev = null;
+			task.next = null;
+		}
+
+		/**
+		 * Detach all tasks from this bucket.
+		 * @return the first task, linked to the others through {@code next}
+		 */
+		@Nullable
+		WheelTask clear() {
+			WheelTask head = this.head;
+			for (WheelTask task = head; task != null; task = task.next) {
+				task.bucket = null;
+				task.prev = null;
+			}
+			this.head = null;
+			this.tail = null;
+			return head;
+		}
+	}
+
+
+	/**
+	 * Scheduled task handle, running the actual task on the worker executor
+	 * and putting itself back into the wheel for repeated executions.
+	 */
+	private class WheelTask extends FutureTask<Object> implements ScheduledFuture<Object> {
+
+		/** Period in nanoseconds: positive for fixed rate, negative for fixed delay, 0 for one-shot. */
+		private final long period;
+
+		@Nullable
+		private final Trigger trigger;
+
+		private final SimpleTriggerContext triggerContext = new SimpleTriggerContext();
+
+		@Nullable
+		private volatile Date scheduledExecutionTime;
+
+		volatile long deadlineNanos;
+
+		// Wheel placement, only accessed by the wheel thread
+
+		long expiryTick;
+
+		@Nullable
+		Bucket bucket;
+
+		@Nullable
+		WheelTask prev;
+
+		@Nullable
+		WheelTask next;
+
+		WheelTask(Runnable task, long period) {
+			super(task, null);
+			this.period = period;
+			this.trigger = null;
+		}
+
+		WheelTask(Runnable task, Trigger trigger) {
+			super(task, null);
+			this.period = 0;
+			this.trigger = trigger;
+		}
+
+		@Nullable
+		Date nextExecutionTime() {
+			Assert.state(this.trigger != null, "No Trigger");
+			this.scheduledExecutionTime = this.trigger.nextExecutionTime(this.triggerContext);
+			return this.scheduledExecutionTime;
+		}
+
+		@Override
+		public void run() {
+			if (this.trigger != null) {
+				Date actualExecutionTime = new Date();
+				if (!runAndReset()) {
+					return;
+				}
+				Date completionTime = new Date();
+				this.triggerContext.update(this.scheduledExecutionTime, actualExecutionTime, completionTime);
+				Date nextExecutionTime = nextExecutionTime();
+				if (nextExecutionTime == null) {
+					set(null);
+					return;
+				}
+				this.deadlineNanos = toNanos(nextExecutionTime);
+				enqueue(this);
+			}
+			else if (this.period == 0) {
+				super.run();
+			}
+			else if (runAndReset()) {
+				this.deadlineNanos = (this.period > 0 ? this.deadlineNanos + this.period : System.nanoTime() - this.period);
+				enqueue(this);
+			}
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			boolean cancelled = super.cancel(mayInterruptIfRunning);
+			if (cancelled && running) {
+				cancelledTasks.add(this);
+			}
+			return cancelled;
+		}
+
+		void reject(Throwable ex) {
+			setException(ex);
+		}
+
+		@Override
+		public long getDelay(TimeUnit unit) {
+			return unit.convert(this.deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+		}
+
+		@Override
+		public int compareTo(Delayed other) {
+			if (this == other) {
+				return 0;
+			}
+			long diff = getDelay(TimeUnit.NANOSECONDS) - other.getDelay(TimeUnit.NANOSECONDS);
+			return (diff == 0 ? 0 : ((diff < 0) ? -1 : 1));
+		}
+	}
+
+
+	private static ThreadFactory createDefaultThreadFactory() {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("TimingWheelTaskScheduler-");
+		threadFactory.setDaemon(true);
+		return threadFactory;
+	}
+
+}
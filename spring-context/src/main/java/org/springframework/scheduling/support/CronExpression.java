@@ -0,0 +1,273 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.support;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.StringUtils;
+
+/**
+ * Representation of a
+ * <a href="http://www.manpagez.com/man/5/crontab/">Crontab pattern</a>
+ * for computing next execution times based on {@code java.time}, with the
+ * same syntax as {@link CronSequenceGenerator}: six single space-separated
+ * fields, representing second, minute, hour, day, month, weekday.
+ *
+ * <p>Each field is held as a bit mask, with next matching values determined
+ * through bit operations, and next execution times are computed field by
+ * field on the local date-time of the given time zone. Local times which do
+ * not exist due to a daylight saving time transition are skipped, whereas
+ * local times which occur twice match only once.
+ *
+ * <p>Instances are immutable and thread-safe. {@link #parse(String)} shares
+ * instances for identical expressions, e.g. across many {@link CronTrigger
+ * triggers} with the same cron pattern.
+ *
+ * @author agent
+ * @since 5.2
+ * @see CronTrigger
+ */
+public final class CronExpression {
+
+	/** Number of years to search for a matching date, covering the full Gregorian cycle. */
+	private static final int MAX_YEARS = 400;
+
+	private static final Map<String, CronExpression> expressionCache = new ConcurrentReferenceHashMap<>(256);
+
+
+	private final String expression;
+
+	private final long seconds;
+
+	private final long minutes;
+
+	private final int hours;
+
+	/** Days of month, bits 1 to 31. */
+	private final int daysOfMonth;
+
+	/** Months, bits 1 (January) to 12 (December). */
+	private final int months;
+
+	/** ISO days of week, bits 1 (Monday) to 7 (Sunday). */
+	private final int daysOfWeek;
+
+
+	private CronExpression(String expression) {
+		CronSequenceGenerator generator = new CronSequenceGenerator(expression);
+		this.expression = expression;
+		this.seconds = toMask(generator.getSeconds(), 0);
+		this.minutes = toMask(generator.getMinutes(), 0);
+		this.hours = (int) toMask(generator.getHours(), 0);
+		this.daysOfMonth = (int) toMask(generator.getDaysOfMonth(), 0);
+		// Calendar months start with 0
+		this.months = (int) toMask(generator.getMonths(), 1);
+		// Calendar days of week start with 0 for Sunday, ISO days of week with 1 for Monday
+		long daysOfWeek = toMask(generator.getDaysOfWeek(), 0);
+		this.daysOfWeek = (int) (((daysOfWeek & 1) << 7) | (daysOfWeek & 0x7E));
+	}
+
+	private static long toMask(BitSet bits, int offset) {
+		long mask = 0;
+		for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+			mask |= 1L << (i + offset);
+		}
+		return mask;
+	}
+
+
+	/**
+	 * Return the cron pattern that this expression has been parsed from.
+	 */
+	public String getExpression() {
+		return this.expression;
+	}
+
+	/**
+	 * Compute the next execution time after the given date-time,
+	 * in the time zone of the given date-time.
+	 * @param dateTime the date-time to start from (exclusive)
+	 * @return the next matching date-time, with a whole number of seconds,
+	 * or {@code null} if there is none (e.g. for "0 0 0 31 6 *")
+	 */
+	@Nullable
+	public ZonedDateTime next(ZonedDateTime dateTime) {
+		ZoneId zone = dateTime.getZone();
+		ZoneRules rules = zone.getRules();
+		LocalDateTime local = dateTime.toLocalDateTime().truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+		int maxYear = local.getYear() + MAX_YEARS;
+		while (true) {
+			local = nextLocal(local, maxYear);
+			if (local == null) {
+				return null;
+			}
+			List<ZoneOffset> offsets = rules.getValidOffsets(local);
+			if (offsets.isEmpty()) {
+				// Local time in a gap: skip to the end of the gap.
+				ZoneOffsetTransition transition = rules.getTransition(local);
+				local = transition.getDateTimeAfter();
+				continue;
+			}
+			for (ZoneOffset offset : offsets) {
+				// Earlier offset first, i.e. the first occurrence of an overlapping local time
+				ZonedDateTime candidate = ZonedDateTime.ofLocal(local, zone, offset);
+				if (candidate.isAfter(dateTime)) {
+					return candidate;
+				}
+			}
+			local = local.plusSeconds(1);
+		}
+	}
+
+	/**
+	 * Compute the given number of next execution times after the given date-time,
+	 * in the time zone of the given date-time.
+	 * @param dateTime the date-time to start from (exclusive)
+	 * @param count the number of execution times to compute
+	 * @return the next matching date-times in chronological order;
+	 * fewer than requested if the expression does not match any further
+	 */
+	public List<ZonedDateTime> next(ZonedDateTime dateTime, int count) {
+		Assert.isTrue(count >= 0, "Count must not be negative");
+		List<ZonedDateTime> result = new ArrayList<>(count);
+		ZonedDateTime next = dateTime;
+		while (result.size() < count && (next = next(next)) != null) {
+			result.add(next);
+		}
+		return result;
+	}
+
+	/**
+	 * Find the first local date-time at or after the given one which matches
+	 * all fields, going from month down to second and starting over from the
+	 * month whenever a field rolls over.
+	 */
+	@Nullable
+	private LocalDateTime nextLocal(LocalDateTime start, int maxYear) {
+		LocalDateTime local = start;
+		while (local.getYear() <= maxYear) {
+			int month = local.getMonthValue();
+			int nextMonth = nextBit(this.months, month);
+			if (nextMonth != month) {
+				local = (nextMonth != -1 ? local.withDayOfMonth(1).withMonth(nextMonth) :
+						local.withDayOfMonth(1).withMonth(1).plusYears(1)).toLocalDate().atStartOfDay();
+				continue;
+			}
+			LocalDate date = local.toLocalDate();
+			if (!matchesDay(date)) {
+				local = date.plusDays(1).atStartOfDay();
+				continue;
+			}
+			int hour = local.getHour();
+			int nextHour = nextBit(this.hours, hour);
+			if (nextHour != hour) {
+				local = (nextHour != -1 ? date.atTime(nextHour, 0) : date.plusDays(1).atStartOfDay());
+				continue;
+			}
+			int minute = local.getMinute();
+			int nextMinute = nextBit(this.minutes, minute);
+			if (nextMinute != minute) {
+				local = (nextMinute != -1 ? date.atTime(hour, nextMinute) :
+						date.atTime(hour, 0).plusHours(1));
+				continue;
+			}
+			int second = local.getSecond();
+			int nextSecond = nextBit(this.seconds, second);
+			if (nextSecond != second) {
+				local = (nextSecond != -1 ? date.atTime(hour, minute, nextSecond) :
+						date.atTime(hour, minute).plusMinutes(1));
+				continue;
+			}
+			return local;
+		}
+		return null;
+	}
+
+	private boolean matchesDay(LocalDate date) {
+		return ((this.daysOfMonth & (1 << date.getDayOfMonth())) != 0 &&
+				(this.daysOfWeek & (1 << date.getDayOfWeek().getValue())) != 0);
+	}
+
+	/**
+	 * Return the lowest set bit at or above the given index, or -1 if none.
+	 */
+	private static int nextBit(long mask, int fromIndex) {
+		long remaining = mask & (-1L << fromIndex);
+		return (remaining != 0 ? Long.numberOfTrailingZeros(remaining) : -1);
+	}
+
+
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof CronExpression)) {
+			return false;
+		}
+		CronExpression otherCron = (CronExpression) other;
+		return (this.seconds == otherCron.seconds && this.minutes == otherCron.minutes &&
+				this.hours == otherCron.hours && this.daysOfMonth == otherCron.daysOfMonth &&
+				this.months == otherCron.months && this.daysOfWeek == otherCron.daysOfWeek);
+	}
+
+	@Override
+	public int hashCode() {
+		return (17 * this.months + 29 * this.daysOfMonth + 37 * this.daysOfWeek +
+				41 * this.hours + 53 * Long.hashCode(this.minutes) + 61 * Long.hashCode(this.seconds));
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + ": " + this.expression;
+	}
+
+
+	/**
+	 * Parse the given cron pattern, reusing a previously parsed instance
+	 * for an identical pattern (ignoring differences in whitespace).
+	 * @param expression a space-separated list of time fields
+	 * @return the parsed expression
+	 * @throws IllegalArgumentException if the pattern cannot be parsed
+	 * @see CronSequenceGenerator#isValidExpression(String)
+	 */
+	public static CronExpression parse(String expression) {
+		Assert.hasText(expression, "Cron expression must not be empty");
+		String key = StringUtils.arrayToDelimitedString(StringUtils.tokenizeToStringArray(expression, " "), " ");
+		CronExpression cronExpression = expressionCache.get(key);
+		if (cronExpression == null) {
+			cronExpression = new CronExpression(expression);
+			expressionCache.put(key, cronExpression);
+		}
+		return cronExpression;
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -112,6 +112,30 @@ public class CronSequenceGenerator {
 		return this.expression;
 	}
 
+	BitSet getSeconds() {
+		return this.seconds;
+	}
+
+	BitSet getMinutes() {
+		return this.minutes;
+	}
+
+	BitSet getHours() {
+		return this.hours;
+	}
+
+	BitSet getDaysOfMonth() {
+		return this.daysOfMonth;
+	}
+
+	BitSet getMonths() {
+		return this.months;
+	}
+
+	BitSet getDaysOfWeek() {
+		return this.daysOfWeek;
+	}
+
 
 	/**
 	 * Get the next {@link Date} in the sequence matching the Cron pattern and
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,23 +16,32 @@
 
 package org.springframework.scheduling.support;
 
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.util.Date;
 import java.util.TimeZone;
 
 import org.springframework.scheduling.Trigger;
 import org.springframework.scheduling.TriggerContext;
+import org.springframework.util.Assert;
 
 /**
  * {@link Trigger} implementation for cron expressions.
- * Wraps a {@link CronSequenceGenerator}.
+ * Wraps a {@link CronExpression}, as of 5.2 shared across
+ * triggers with the same cron pattern.
  *
  * @author Juergen Hoeller
  * @since 3.0
+ * @see CronExpression
  * @see CronSequenceGenerator
  */
 public class CronTrigger implements Trigger {
 
-	private final CronSequenceGenerator sequenceGenerator;
+	private final String expression;
+
+	private final CronExpression cronExpression;
+
+	private final ZoneId zoneId;
 
 
 	/**
@@ -41,7 +50,7 @@ public class CronTrigger implements Trigger {
 	 * expression conventions
 	 */
 	public CronTrigger(String expression) {
-		this.sequenceGenerator = new CronSequenceGenerator(expression);
+		this(expression, ZoneId.systemDefault());
 	}
 
 	/**
@@ -51,7 +60,21 @@ public class CronTrigger implements Trigger {
 	 * @param timeZone a time zone in which the trigger times will be generated
 	 */
 	public CronTrigger(String expression, TimeZone timeZone) {
-		this.sequenceGenerator = new CronSequenceGenerator(expression, timeZone);
+		this(expression, timeZone.toZoneId());
+	}
+
+	/**
+	 * Build a {@link CronTrigger} from the pattern provided in the given time zone.
+	 * @param expression a space-separated list of time fields, following cron
+	 * expression conventions
+	 * @param zoneId a time zone in which the trigger times will be generated
+	 * @since 5.2
+	 */
+	public CronTrigger(String expression, ZoneId zoneId) {
+		Assert.notNull(zoneId, "ZoneId must not be null");
+		this.expression = expression;
+		this.cronExpression = CronExpression.parse(expression);
+		this.zoneId = zoneId;
 	}
 
 
@@ -59,7 +82,7 @@ public class CronTrigger implements Trigger {
 	 * Return the cron pattern that this trigger has been built with.
 	 */
 	public String getExpression() {
-		return this.sequenceGenerator.getExpression();
+		return this.expression;
 	}
 
 
@@ -84,24 +107,29 @@ public class CronTrigger implements Trigger {
 		else {
 			date = new Date();
 		}
-		return this.sequenceGenerator.next(date);
+		ZonedDateTime next = this.cronExpression.next(ZonedDateTime.ofInstant(date.toInstant(), this.zoneId));
+		if (next == null) {
+			throw new IllegalArgumentException("Invalid cron expression \"" + this.expression +
+					"\" led to runaway search for next trigger");
+		}
+		return Date.from(next.toInstant());
 	}
 
 
 	@Override
 	public boolean equals(Object other) {
 		return (this == other || (other instanceof CronTrigger &&
-				this.sequenceGenerator.equals(((CronTrigger) other).sequenceGenerator)));
+				this.cronExpression.equals(((CronTrigger) other).cronExpression)));
 	}
 
 	@Override
 	public int hashCode() {
-		return this.sequenceGenerator.hashCode();
+		return this.cronExpression.hashCode();
 	}
 
 	@Override
 	public String toString() {
-		return this.sequenceGenerator.toString();
+		return this.cronExpression.toString();
 	}
 
 }
@@ -0,0 +1,396 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.lang.annotation.RetentionPolicy;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Collections;
+import java.util.Date;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.tests.sample.beans.TestBean;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link BeanDefinitionSnapshot} and {@link BeanDefinitionSnapshotPostProcessor}.
+ *
+ * @author agent
+ */
+public class BeanDefinitionSnapshotTests {
+
+	private File snapshotFile;
+
+
+	@Before
+	public void setup() throws IOException {
+		this.snapshotFile = File.createTempFile("beanDefinitions", ".snapshot");
+		this.snapshotFile.deleteOnExit();
+		assertTrue(this.snapshotFile.delete());
+	}
+
+	@After
+	public void cleanup() {
+		this.snapshotFile.delete();
+	}
+
+
+	@Test
+	public void writeAndRestoreSnapshot() {
+		AnnotationConfigApplicationContext ctx = createContext();
+		BeanDefinitionSnapshotPostProcessor postProcessor = addSnapshotPostProcessor(ctx);
+		ctx.refresh();
+		assertFalse(postProcessor.isSnapshotLoaded());
+		assertTrue(this.snapshotFile.isFile());
+		assertBeans(ctx);
+		assertTrue(ctx.getBeanFactory().getBeanDefinition("testBean") instanceof AnnotatedBeanDefinition);
+		ctx.close();
+
+		ctx = createContext();
+		postProcessor = addSnapshotPostProcessor(ctx);
+		ctx.refresh();
+		assertTrue(postProcessor.isSnapshotLoaded());
+		assertBeans(ctx);
+		BeanDefinition bd = ctx.getBeanFactory().getBeanDefinition("testBean");
+		assertTrue(bd instanceof RootBeanDefinition);
+		assertFalse(bd instanceof AnnotatedBeanDefinition);
+		ctx.close();
+	}
+
+	@Test
+	public void deriveBeanDefinitionsForDifferentProfile() {
+		AnnotationConfigApplicationContext ctx = createContext();
+		addSnapshotPostProcessor(ctx);
+		ctx.refresh();
+		assertFalse(ctx.containsBean("profileBean"));
+		ctx.close();
+
+		ctx = createContext();
+		ctx.getEnvironment().setActiveProfiles("other");
+		BeanDefinitionSnapshotPostProcessor postProcessor = addSnapshotPostProcessor(ctx);
+		ctx.refresh();
+		assertFalse(postProcessor.isSnapshotLoaded());
+		assertTrue(ctx.containsBean("profileBean"));
+		ctx.close();
+	}
+
+	@Test
+	public void computeKeyForDifferentRegistrations() {
+		Environment environment = new AnnotationConfigApplicationContext().getEnvironment();
+		BeanDefinitionRegistry registry = new DefaultListableBeanFactory();
+		String emptyKey = BeanDefinitionSnapshot.computeKey(environment, registry, null);
+		assertNotNull(emptyKey);
+		assertEquals(emptyKey, BeanDefinitionSnapshot.computeKey(environment, registry, null));
+		registry.registerBeanDefinition("config", new RootBeanDefinition(SnapshotConfig.class));
+		assertNotEquals(emptyKey, BeanDefinitionSnapshot.computeKey(environment, registry, null));
+	}
+
+	@Test
+	public void computeKeyForDifferentProperties() {
+		ConfigurableEnvironment environment = new AnnotationConfigApplicationContext().getEnvironment();
+		BeanDefinitionRegistry registry = new DefaultListableBeanFactory();
+		String key = BeanDefinitionSnapshot.computeKey(environment, registry, null);
+		environment.getPropertySources().addFirst(
+				new MapPropertySource("custom", Collections.singletonMap("feature.enabled", "true")));
+		String customKey = BeanDefinitionSnapshot.computeKey(environment, registry, null);
+		assertNotEquals(key, customKey);
+		environment.getPropertySources().replace("custom",
+				new MapPropertySource("custom", Collections.singletonMap("feature.enabled", "false")));
+		assertNotEquals(customKey, BeanDefinitionSnapshot.computeKey(environment, registry, null));
+	}
+
+	@Test
+	public void computeKeyForNonEnumerablePropertySource() {
+		ConfigurableEnvironment environment = new AnnotationConfigApplicationContext().getEnvironment();
+		environment.getPropertySources().addLast(
+				new org.springframework.core.env.PropertySource<Object>("opaque", new Object()) {
+					@Override
+					public Object getProperty(String name) {
+						return null;
+					}
+				});
+		assertNull(BeanDefinitionSnapshot.computeKey(environment, new DefaultListableBeanFactory(), null));
+	}
+
+	@Test
+	public void computeKeyForClassLoaderUrls() throws IOException {
+		Environment environment = new AnnotationConfigApplicationContext().getEnvironment();
+		BeanDefinitionRegistry registry = new DefaultListableBeanFactory();
+		String key = BeanDefinitionSnapshot.computeKey(environment, registry, null);
+		ClassLoader systemClassLoader = ClassLoader.getSystemClassLoader();
+		assertEquals(key, BeanDefinitionSnapshot.computeKey(environment, registry, systemClassLoader));
+
+		URL url = this.snapshotFile.getParentFile().toURI().toURL();
+		try (URLClassLoader classLoader = new URLClassLoader(new URL[] {url}, systemClassLoader)) {
+			assertNotEquals(key, BeanDefinitionSnapshot.computeKey(environment, registry, classLoader));
+		}
+		assertNull(BeanDefinitionSnapshot.computeKey(environment, registry, new ClassLoader(systemClassLoader) {}));
+	}
+
+	@Test
+	public void writeAndReadValues() throws IOException {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+		bd.getPropertyValues().add("age", 42);
+		bd.setAttribute("role", RetentionPolicy.RUNTIME);
+		bd.setAttribute("names", new String[] {"a", "b"});
+		bd.setTargetType(TestBean.class);
+		beanFactory.registerBeanDefinition("testBean", bd);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		BeanDefinitionSnapshot.capture(beanFactory, "key", Collections.emptySet()).writeTo(out);
+
+		BeanDefinitionSnapshot snapshot = BeanDefinitionSnapshot.readFrom(
+				new ByteArrayInputStream(out.toByteArray()), getClass().getClassLoader());
+		assertEquals("key", snapshot.getKey());
+		DefaultListableBeanFactory restored = new DefaultListableBeanFactory();
+		assertTrue(snapshot.registerBeanDefinitions(restored));
+		RootBeanDefinition restoredBd = (RootBeanDefinition) restored.getBeanDefinition("testBean");
+		assertEquals(42, restoredBd.getPropertyValues().getPropertyValue("age").getValue());
+		assertSame(RetentionPolicy.RUNTIME, restoredBd.getAttribute("role"));
+		assertArrayEquals(new String[] {"a", "b"}, (String[]) restoredBd.getAttribute("names"));
+		assertSame(TestBean.class, restoredBd.getTargetType());
+		assertEquals(42, restored.getBean("testBean", TestBean.class).getAge());
+	}
+
+	@Test(expected = IOException.class)
+	public void readRejectsUnexpectedClass() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (ObjectOutputStream oos = new ObjectOutputStream(out)) {
+			oos.writeObject(new Date());
+		}
+		BeanDefinitionSnapshot.readFrom(new ByteArrayInputStream(out.toByteArray()), getClass().getClassLoader());
+	}
+
+	@Test
+	public void captureDerivedBeanDefinitionsOnly() throws IOException {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		RootBeanDefinition initialBd = new RootBeanDefinition(TestBean.class);
+		beanFactory.registerBeanDefinition("initialBean", initialBd);
+		initialBd.setAttribute("marker", "value");
+		beanFactory.registerBeanDefinition("testBean", new RootBeanDefinition(TestBean.class));
+		beanFactory.registerAlias("testBean", "alias");
+		BeanDefinitionSnapshot snapshot = writeAndRead(
+				BeanDefinitionSnapshot.capture(beanFactory, "key", Collections.singleton("initialBean")));
+		assertEquals(1, snapshot.getBeanDefinitionCount());
+
+		DefaultListableBeanFactory restored = new DefaultListableBeanFactory();
+		RootBeanDefinition restoredInitialBd = new RootBeanDefinition(TestBean.class);
+		restored.registerBeanDefinition("initialBean", restoredInitialBd);
+		assertTrue(snapshot.registerBeanDefinitions(restored));
+		assertSame(restoredInitialBd, restored.getBeanDefinition("initialBean"));
+		assertEquals("value", restoredInitialBd.getAttribute("marker"));
+		assertTrue(restored.containsBeanDefinition("testBean"));
+		assertTrue(restored.isAlias("alias"));
+	}
+
+	@Test
+	public void registerBeanDefinitionsWithClashingBeanName() throws IOException {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.registerBeanDefinition("testBean", new RootBeanDefinition(TestBean.class));
+		beanFactory.registerBeanDefinition("spouse", new RootBeanDefinition(TestBean.class));
+		BeanDefinitionSnapshot snapshot = writeAndRead(
+				BeanDefinitionSnapshot.capture(beanFactory, "key", Collections.emptySet()));
+
+		DefaultListableBeanFactory restored = new DefaultListableBeanFactory();
+		restored.setAllowBeanDefinitionOverriding(false);
+		RootBeanDefinition existingBd = new RootBeanDefinition(String.class);
+		restored.registerBeanDefinition("spouse", existingBd);
+		assertFalse(snapshot.registerBeanDefinitions(restored));
+		assertSame(existingBd, restored.getBeanDefinition("spouse"));
+		assertFalse(restored.containsBeanDefinition("testBean"));
+	}
+
+	@Test
+	public void registerBeanDefinitionsWithClashingAlias() throws IOException {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.registerBeanDefinition("testBean", new RootBeanDefinition(TestBean.class));
+		beanFactory.registerAlias("testBean", "alias");
+		BeanDefinitionSnapshot snapshot = writeAndRead(
+				BeanDefinitionSnapshot.capture(beanFactory, "key", Collections.emptySet()));
+
+		DefaultListableBeanFactory restored = new DefaultListableBeanFactory();
+		restored.registerBeanDefinition("alias", new RootBeanDefinition(String.class));
+		assertFalse(snapshot.registerBeanDefinitions(restored));
+		assertFalse(restored.containsBeanDefinition("testBean"));
+	}
+
+	@Test
+	public void registerBeanDefinitionsWithMissingInitialBeanDefinition() throws IOException {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.registerBeanDefinition("initialBean", new RootBeanDefinition(TestBean.class));
+		beanFactory.registerBeanDefinition("testBean", new RootBeanDefinition(TestBean.class));
+		BeanDefinitionSnapshot snapshot = writeAndRead(
+				BeanDefinitionSnapshot.capture(beanFactory, "key", Collections.singleton("initialBean")));
+
+		DefaultListableBeanFactory restored = new DefaultListableBeanFactory();
+		assertFalse(snapshot.registerBeanDefinitions(restored));
+		assertFalse(restored.containsBeanDefinition("testBean"));
+	}
+
+	@Test
+	public void snapshotExcludesBeanDefinitionsFromLaterPostProcessors() {
+		AnnotationConfigApplicationContext ctx = createContext(LaterRegistrationConfig.class);
+		addSnapshotPostProcessor(ctx);
+		ctx.refresh();
+		assertEquals("later", ctx.getBean("laterBean"));
+		ctx.close();
+
+		ctx = createContext(LaterRegistrationConfig.class);
+		ctx.setAllowBeanDefinitionOverriding(false);
+		BeanDefinitionSnapshotPostProcessor postProcessor = addSnapshotPostProcessor(ctx);
+		ctx.refresh();
+		assertTrue(postProcessor.isSnapshotLoaded());
+		assertEquals("later", ctx.getBean("laterBean"));
+		assertBeans(ctx);
+		ctx.close();
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void captureWithInstanceSupplier() {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.registerBeanDefinition("testBean", new RootBeanDefinition(TestBean.class, TestBean::new));
+		BeanDefinitionSnapshot.capture(beanFactory, "key", Collections.emptySet());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void captureWithUnsupportedValue() {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+		bd.setAttribute("date", new Date());
+		beanFactory.registerBeanDefinition("testBean", bd);
+		BeanDefinitionSnapshot.capture(beanFactory, "key", Collections.emptySet());
+	}
+
+
+	private AnnotationConfigApplicationContext createContext(Class<?>... additionalClasses) {
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext();
+		ctx.register(SnapshotConfig.class);
+		if (additionalClasses.length > 0) {
+			ctx.register(additionalClasses);
+		}
+		return ctx;
+	}
+
+	private BeanDefinitionSnapshot writeAndRead(BeanDefinitionSnapshot snapshot) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		snapshot.writeTo(out);
+		return BeanDefinitionSnapshot.readFrom(
+				new ByteArrayInputStream(out.toByteArray()), getClass().getClassLoader());
+	}
+
+	private BeanDefinitionSnapshotPostProcessor addSnapshotPostProcessor(AnnotationConfigApplicationContext ctx) {
+		BeanDefinitionSnapshotPostProcessor postProcessor = new BeanDefinitionSnapshotPostProcessor(ctx, this.snapshotFile);
+		ctx.addBeanFactoryPostProcessor(postProcessor);
+		return postProcessor;
+	}
+
+	private void assertBeans(AnnotationConfigApplicationContext ctx) {
+		TestBean testBean = ctx.getBean("testBean", TestBean.class);
+		assertEquals("p1TestBean", testBean.getName());
+		assertSame(ctx.getBean("spouse"), testBean.getSpouse());
+		assertSame(testBean, ctx.getBean(SnapshotConfig.class).testBean());
+		assertEquals(SnapshotConfig.class.getName(),
+				ctx.getBean(ImportedSnapshotConfig.class).importMetadata.getClassName());
+		assertFalse(ctx.containsBean("profileBean"));
+	}
+
+
+	@Configuration
+	@PropertySource("classpath:org/springframework/context/annotation/p1.properties")
+	@Import({ImportedSnapshotConfig.class, ProfileConfig.class})
+	static class SnapshotConfig {
+
+		@Autowired
+		Environment environment;
+
+		@Bean
+		public TestBean testBean() {
+			TestBean testBean = new TestBean(this.environment.getProperty("testbean.name"));
+			testBean.setSpouse(spouse());
+			return testBean;
+		}
+
+		@Bean
+		public TestBean spouse() {
+			return new TestBean("spouse");
+		}
+	}
+
+
+	@Configuration
+	static class ImportedSnapshotConfig implements ImportAware {
+
+		AnnotationMetadata importMetadata;
+
+		@Override
+		public void setImportMetadata(AnnotationMetadata importMetadata) {
+			this.importMetadata = importMetadata;
+		}
+	}
+
+
+	@Configuration
+	@Profile("other")
+	static class ProfileConfig {
+
+		@Bean
+		public String profileBean() {
+			return "profile";
+		}
+	}
+
+
+	@Configuration
+	static class LaterRegistrationConfig {
+
+		@Bean
+		public static BeanDefinitionRegistryPostProcessor laterRegistrar() {
+			return new BeanDefinitionRegistryPostProcessor() {
+				@Override
+				public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) {
+					registry.registerBeanDefinition("laterBean", new RootBeanDefinition(String.class,
+							() -> "later"));
+				}
+				@Override
+				public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+				}
+			};
+		}
+	}
+
+}
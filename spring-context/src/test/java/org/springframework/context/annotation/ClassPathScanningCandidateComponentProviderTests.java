@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,8 +18,10 @@ package org.springframework.context.annotation;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.util.List;
 import java.util.Set;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import example.profilescan.DevComponent;
 import example.profilescan.ProfileAnnotatedComponent;
@@ -127,6 +129,37 @@ public class ClassPathScanningCandidateComponentProviderTests {
 		assertBeanDefinitionType(candidates, expectedBeanDefinitionType);
 	}
 
+	@Test
+	public void defaultsWithParallelScan() {
+		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(true);
+		provider.setResourceLoader(new DefaultResourceLoader(
+				CandidateComponentsTestClassLoader.disableIndex(getClass().getClassLoader())));
+		provider.setParallelScanning(true);
+		testDefault(provider, ScannedGenericBeanDefinition.class);
+	}
+
+	@Test
+	public void antStylePackageWithParallelScan() {
+		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(true);
+		provider.setResourceLoader(new DefaultResourceLoader(
+				CandidateComponentsTestClassLoader.disableIndex(getClass().getClassLoader())));
+		provider.setParallelScanning(true);
+		testAntStyle(provider, ScannedGenericBeanDefinition.class);
+	}
+
+	@Test
+	public void parallelScanWithSameOrderAsSequentialScan() {
+		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(true);
+		provider.setResourceLoader(new DefaultResourceLoader(
+				CandidateComponentsTestClassLoader.disableIndex(getClass().getClassLoader())));
+		assertFalse(provider.isParallelScanning());
+		List<String> sequential = getBeanClassNames(provider.findCandidateComponents(TEST_BASE_PACKAGE));
+		provider.setParallelScanning(true);
+		provider.clearCache();
+		List<String> parallel = getBeanClassNames(provider.findCandidateComponents(TEST_BASE_PACKAGE));
+		assertEquals(sequential, parallel);
+	}
+
 	@Test
 	public void bogusPackageWithScan() {
 		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(true);
@@ -501,6 +534,10 @@ public class ClassPathScanningCandidateComponentProviderTests {
 		}
 	}
 
+	private List<String> getBeanClassNames(Set<BeanDefinition> candidates) {
+		return candidates.stream().map(BeanDefinition::getBeanClassName).collect(Collectors.toList());
+	}
+
 	private boolean containsBeanClass(Set<BeanDefinition> candidates, Class<?> beanClass) {
 		for (BeanDefinition candidate : candidates) {
 			if (beanClass.getName().equals(candidate.getBeanClassName())) {
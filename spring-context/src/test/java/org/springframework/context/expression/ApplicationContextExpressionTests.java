@@ -25,6 +25,9 @@ import java.net.URI;
 import java.net.URL;
 import java.security.AccessControlException;
 import java.security.Permission;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
 
@@ -32,10 +35,12 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.junit.Test;
 
+import org.springframework.beans.DirectFieldAccessor;
 import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanExpressionContext;
 import org.springframework.beans.factory.config.PropertyPlaceholderConfigurer;
 import org.springframework.beans.factory.config.Scope;
 import org.springframework.beans.factory.config.TypedStringValue;
@@ -51,6 +56,17 @@ import org.springframework.core.convert.support.GenericConversionService;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.EncodedResource;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.ParserContext;
+import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.lang.Nullable;
 import org.springframework.tests.Assume;
 import org.springframework.tests.TestGroup;
 import org.springframework.tests.sample.beans.TestBean;
@@ -244,6 +260,119 @@ public class ApplicationContextExpressionTests {
 		}
 	}
 
+	@Test
+	public void prototypeCreationCompilesExpressions() {
+		SpelExpressionParser spelParser = new SpelExpressionParser(
+				new SpelParserConfiguration(SpelCompilerMode.MIXED, getClass().getClassLoader()));
+		List<Expression> parsedExpressions = new ArrayList<>();
+		StandardBeanExpressionResolver resolver = new StandardBeanExpressionResolver();
+		resolver.setExpressionParser(new ExpressionParser() {
+			@Override
+			public Expression parseExpression(String expressionString) {
+				return parseExpression(expressionString, null);
+			}
+			@Override
+			public Expression parseExpression(String expressionString, @Nullable ParserContext context) {
+				Expression expression = spelParser.parseExpression(expressionString, context);
+				parsedExpressions.add(expression);
+				return expression;
+			}
+		});
+
+		GenericApplicationContext ac = new GenericApplicationContext();
+		AnnotationConfigUtils.registerAnnotationConfigProcessors(ac);
+		ac.addBeanFactoryPostProcessor(beanFactory -> beanFactory.setBeanExpressionResolver(resolver));
+		RootBeanDefinition rbd = new RootBeanDefinition(PrototypeTestBean.class);
+		rbd.setScope(RootBeanDefinition.SCOPE_PROTOTYPE);
+		rbd.getPropertyValues().add("country", "#{systemProperties.country}");
+		ac.registerBeanDefinition("test", rbd);
+		ac.refresh();
+
+		try {
+			for (int i = 0; i < 200; i++) {
+				System.getProperties().put("name", "juergen" + i);
+				System.getProperties().put("country", "UK" + i);
+				PrototypeTestBean tb = (PrototypeTestBean) ac.getBean("test");
+				assertEquals("juergen" + i, tb.getName());
+				assertEquals("UK" + i, tb.getCountry());
+			}
+		}
+		finally {
+			System.getProperties().remove("name");
+			System.getProperties().remove("country");
+		}
+
+		assertEquals(2, parsedExpressions.size());
+		for (Expression expression : parsedExpressions) {
+			assertNotNull(expression.getExpressionString() + " not compiled",
+					new DirectFieldAccessor(expression).getPropertyValue("compiledAst"));
+		}
+	}
+
+	@Test
+	public void expressionsNotCompiledByDefault() {
+		StandardBeanExpressionResolver resolver = new StandardBeanExpressionResolver(getClass().getClassLoader());
+		BeanExpressionContext context = new BeanExpressionContext(new DefaultListableBeanFactory(), null);
+		for (int i = 0; i < 200; i++) {
+			assertEquals(3, resolver.evaluate("#{'abc'.length()}", context));
+		}
+		Map<?, ?> expressionCache = (Map<?, ?>) new DirectFieldAccessor(resolver).getPropertyValue("expressionCache");
+		Expression expression = (Expression) expressionCache.get("#{'abc'.length()}");
+		assertNull(new DirectFieldAccessor(expression).getPropertyValue("compiledAst"));
+	}
+
+	@Test
+	public void beanAccessorsAreCompilable() {
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		TestBean tb = new TestBean("tb");
+		bf.registerSingleton("tb", tb);
+		StandardEvaluationContext context = new StandardEvaluationContext(new BeanExpressionContext(bf, null));
+		context.addPropertyAccessor(new BeanExpressionContextAccessor());
+		context.addPropertyAccessor(new BeanFactoryAccessor());
+
+		SpelExpression expression = new SpelExpressionParser().parseRaw("tb.name");
+		assertEquals("tb", expression.getValue(context));
+		assertTrue(expression.compileExpression());
+		assertEquals("tb", expression.getValue(context));
+
+		context = new StandardEvaluationContext(bf);
+		context.addPropertyAccessor(new BeanFactoryAccessor());
+		expression = new SpelExpressionParser().parseRaw("tb");
+		assertSame(tb, expression.getValue(context));
+		assertTrue(expression.compileExpression());
+		assertSame(tb, expression.getValue(context));
+	}
+
+	@Test
+	public void compiledBeanExpressionContextAccessFallsBackForMissingObject() {
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		TestBean tb = new TestBean("tb");
+		bf.registerSingleton("tb", tb);
+		StandardEvaluationContext context = new StandardEvaluationContext(new BeanExpressionContext(bf, null));
+		context.addPropertyAccessor(new BeanExpressionContextAccessor());
+
+		SpelExpression expression = new SpelExpressionParser(
+				new SpelParserConfiguration(SpelCompilerMode.MIXED, getClass().getClassLoader())).parseRaw("tb");
+		assertSame(tb, expression.getValue(context));
+		assertTrue(expression.compileExpression());
+		assertSame(tb, expression.getValue(context));
+
+		// Not in the context: resolved through the next accessor after reverting to interpretation
+		context = new StandardEvaluationContext(new BeanExpressionContext(new DefaultListableBeanFactory(), null));
+		context.addPropertyAccessor(new BeanExpressionContextAccessor());
+		context.addPropertyAccessor(new BeanExpressionContextAccessor() {
+			@Override
+			public boolean canRead(EvaluationContext context, @Nullable Object target, String name) {
+				return true;
+			}
+			@Override
+			public TypedValue read(EvaluationContext context, @Nullable Object target, String name) {
+				return new TypedValue("other");
+			}
+		});
+		assertEquals("other", expression.getValue(context));
+	}
+
 	@Test
 	public void prototypeCreationIsFastEnough() {
 		Assume.group(TestGroup.PERFORMANCE);
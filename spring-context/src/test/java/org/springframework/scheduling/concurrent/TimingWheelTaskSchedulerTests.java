@@ -0,0 +1,177 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.core.task.TaskRejectedException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link TimingWheelTaskScheduler}.
+ *
+ * @author agent
+ */
+public class TimingWheelTaskSchedulerTests {
+
+	private final ExecutorService workerExecutor =
+			Executors.newCachedThreadPool(new CustomizableThreadFactory("worker-"));
+
+	private final TimingWheelTaskScheduler scheduler = new TimingWheelTaskScheduler(this.workerExecutor);
+
+
+	@Before
+	public void setup() {
+		this.scheduler.setTickDuration(Duration.ofMillis(1));
+	}
+
+	@After
+	public void cleanup() {
+		this.scheduler.shutdown();
+		this.workerExecutor.shutdownNow();
+	}
+
+
+	@Test
+	public void scheduleOneShotTask() throws Exception {
+		this.scheduler.afterPropertiesSet();
+		AtomicReference<String> threadName = new AtomicReference<>();
+		long start = System.currentTimeMillis();
+		ScheduledFuture<?> future = this.scheduler.schedule(
+				() -> threadName.set(Thread.currentThread().getName()), new Date(start + 50));
+		assertNull(future.get(1, TimeUnit.SECONDS));
+		assertTrue(System.currentTimeMillis() - start >= 50);
+		assertTrue(threadName.get().startsWith("worker-"));
+		assertTrue(future.isDone());
+	}
+
+	@Test
+	public void scheduleOneShotTaskWithPastStartTime() throws Exception {
+		this.scheduler.afterPropertiesSet();
+		AtomicInteger count = new AtomicInteger();
+		ScheduledFuture<?> future = this.scheduler.schedule(count::incrementAndGet, new Date(0));
+		future.get(1, TimeUnit.SECONDS);
+		assertEquals(1, count.get());
+	}
+
+	@Test(expected = ExecutionException.class)
+	public void scheduleOneShotTaskWithException() throws Exception {
+		this.scheduler.afterPropertiesSet();
+		ScheduledFuture<?> future = this.scheduler.schedule(() -> {
+			throw new IllegalStateException("expected");
+		}, new Date(System.currentTimeMillis() + 10));
+		future.get(1, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void scheduleAtFixedRate() throws Exception {
+		this.scheduler.afterPropertiesSet();
+		CountDownLatch latch = new CountDownLatch(5);
+		ScheduledFuture<?> future = this.scheduler.scheduleAtFixedRate(latch::countDown, 5);
+		assertTrue(latch.await(1, TimeUnit.SECONDS));
+		assertTrue(future.cancel(false));
+		assertTrue(future.isCancelled());
+	}
+
+	@Test
+	public void scheduleWithFixedDelayAndErrorHandler() throws Exception {
+		CountDownLatch latch = new CountDownLatch(3);
+		this.scheduler.setErrorHandler(ex -> latch.countDown());
+		this.scheduler.afterPropertiesSet();
+		ScheduledFuture<?> future = this.scheduler.scheduleWithFixedDelay(() -> {
+			throw new IllegalStateException("expected");
+		}, new Date(), 5);
+		assertTrue(latch.await(1, TimeUnit.SECONDS));
+		future.cancel(false);
+	}
+
+	@Test
+	public void scheduleWithTrigger() throws Exception {
+		this.scheduler.afterPropertiesSet();
+		AtomicInteger count = new AtomicInteger();
+		ScheduledFuture<?> future = this.scheduler.schedule(count::incrementAndGet, triggerContext ->
+				(count.get() < 3 ? new Date(System.currentTimeMillis() + 5) : null));
+		assertNull(future.get(1, TimeUnit.SECONDS));
+		assertEquals(3, count.get());
+	}
+
+	@Test
+	public void cancelBeforeExecution() throws Exception {
+		this.scheduler.afterPropertiesSet();
+		AtomicInteger count = new AtomicInteger();
+		ScheduledFuture<?> future = this.scheduler.schedule(count::incrementAndGet, new Date(System.currentTimeMillis() + 20));
+		assertTrue(future.cancel(false));
+		Thread.sleep(100);
+		assertEquals(0, count.get());
+		assertTrue(future.isCancelled());
+	}
+
+	@Test
+	public void executeAcrossWheelLevels() throws Exception {
+		// 4 buckets per level, i.e. levels spanning 4, 16, 64 and 256 ticks
+		this.scheduler.setWheelSize(4);
+		this.scheduler.afterPropertiesSet();
+		int taskCount = 200;
+		CountDownLatch latch = new CountDownLatch(taskCount);
+		AtomicInteger early = new AtomicInteger();
+		Random random = new Random(42);
+		for (int i = 0; i < taskCount; i++) {
+			long delay = random.nextInt(400);
+			// Allow for millisecond truncation of the Date-based start time
+			long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay - 1);
+			this.scheduler.schedule(() -> {
+				if (System.nanoTime() < deadline) {
+					early.incrementAndGet();
+				}
+				latch.countDown();
+			}, new Date(System.currentTimeMillis() + delay));
+		}
+		assertTrue(latch.await(5, TimeUnit.SECONDS));
+		assertEquals(0, early.get());
+	}
+
+	@Test
+	public void cancelRemainingTasksOnShutdown() {
+		this.scheduler.afterPropertiesSet();
+		ScheduledFuture<?> future = this.scheduler.scheduleAtFixedRate(() -> {}, new Date(System.currentTimeMillis() + 10000), 10);
+		this.scheduler.shutdown();
+		assertTrue(future.isCancelled());
+	}
+
+	@Test(expected = TaskRejectedException.class)
+	public void scheduleAfterShutdown() {
+		this.scheduler.afterPropertiesSet();
+		this.scheduler.shutdown();
+		this.scheduler.schedule(() -> {}, new Date());
+	}
+
+}
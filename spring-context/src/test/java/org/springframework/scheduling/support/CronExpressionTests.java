@@ -0,0 +1,125 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.support;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link CronExpression}.
+ *
+ * @author agent
+ */
+public class CronExpressionTests {
+
+	private static final ZoneId BERLIN = ZoneId.of("Europe/Berlin");
+
+
+	@Test
+	public void sharedForIdenticalExpressions() {
+		CronExpression expression = CronExpression.parse("0 0 9-17 * * MON-FRI");
+		assertSame(expression, CronExpression.parse("0 0 9-17 * * MON-FRI"));
+		assertSame(expression, CronExpression.parse(" 0  0 9-17 * *  MON-FRI"));
+		assertEquals(expression, CronExpression.parse("0 0 9-17 * * 1-5"));
+		assertNotEquals(expression, CronExpression.parse("0 0 9-17 * * *"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidExpression() {
+		CronExpression.parse("0 0 25 * * *");
+	}
+
+	@Test
+	public void nextWithinDay() {
+		CronExpression expression = CronExpression.parse("0 */15 9-17 * * MON-FRI");
+		ZonedDateTime friday = ZonedDateTime.of(2019, 3, 1, 17, 45, 0, 0, BERLIN);
+		assertEquals(ZonedDateTime.of(2019, 3, 4, 9, 0, 0, 0, BERLIN), expression.next(friday));
+		assertEquals(ZonedDateTime.of(2019, 3, 1, 17, 45, 0, 0, BERLIN), expression.next(friday.minusNanos(1)));
+	}
+
+	@Test
+	public void nextInBatch() {
+		CronExpression expression = CronExpression.parse("0 0 0 29 2 *");
+		List<ZonedDateTime> next = expression.next(ZonedDateTime.of(2019, 1, 1, 0, 0, 0, 0, BERLIN), 3);
+		assertEquals(Arrays.asList(ZonedDateTime.of(2020, 2, 29, 0, 0, 0, 0, BERLIN),
+				ZonedDateTime.of(2024, 2, 29, 0, 0, 0, 0, BERLIN),
+				ZonedDateTime.of(2028, 2, 29, 0, 0, 0, 0, BERLIN)), next);
+	}
+
+	@Test
+	public void noNextForImpossibleDate() {
+		CronExpression expression = CronExpression.parse("0 0 0 31 6 *");
+		assertNull(expression.next(ZonedDateTime.of(2019, 1, 1, 0, 0, 0, 0, BERLIN)));
+		assertTrue(expression.next(ZonedDateTime.of(2019, 1, 1, 0, 0, 0, 0, BERLIN), 5).isEmpty());
+	}
+
+	@Test
+	public void skipsMissingLocalTime() {
+		// 2019-03-31 02:00 -> 03:00 in Berlin
+		CronExpression expression = CronExpression.parse("0 30 2 * * *");
+		ZonedDateTime start = ZonedDateTime.of(2019, 3, 31, 1, 0, 0, 0, BERLIN);
+		assertEquals(ZonedDateTime.of(2019, 4, 1, 2, 30, 0, 0, BERLIN), expression.next(start));
+
+		CronExpression hourly = CronExpression.parse("0 0 * * * *");
+		assertEquals(ZonedDateTime.of(2019, 3, 31, 3, 0, 0, 0, BERLIN), hourly.next(start.plusMinutes(30)));
+	}
+
+	@Test
+	public void matchesRepeatedLocalTimeOnce() {
+		// 2019-10-27 03:00 -> 02:00 in Berlin
+		CronExpression expression = CronExpression.parse("0 30 2 * * *");
+		ZonedDateTime start = ZonedDateTime.of(2019, 10, 27, 1, 0, 0, 0, BERLIN);
+		ZonedDateTime first = expression.next(start);
+		assertEquals(ZonedDateTime.ofLocal(LocalDateTime.of(2019, 10, 27, 2, 30), BERLIN, null), first);
+		assertEquals(ZonedDateTime.of(2019, 10, 28, 2, 30, 0, 0, BERLIN), expression.next(first));
+
+		// Starting within the second occurrence of the repeated hour
+		ZonedDateTime repeated = ZonedDateTime.ofLocal(
+				LocalDateTime.of(2019, 10, 27, 2, 10), BERLIN, null).withLaterOffsetAtOverlap();
+		assertEquals(ZonedDateTime.ofLocal(LocalDateTime.of(2019, 10, 27, 2, 30), BERLIN, null)
+				.withLaterOffsetAtOverlap(), expression.next(repeated));
+	}
+
+	@Test
+	@SuppressWarnings("deprecation")
+	public void sameResultsAsSequenceGenerator() {
+		String[] expressions = {"*/15 * 1-4 * * *", "0 */2 1-4 * * *", "0 0 7 ? * MON-FRI",
+				"0 30 23 30 1/3 ?", "57/2 * * * * *", "0 0 0 1 * *", "0 0 12 ? * SUN", "10-20/5 5 5 5 5 *"};
+		TimeZone timeZone = TimeZone.getTimeZone("UTC");
+		for (String expression : expressions) {
+			CronSequenceGenerator generator = new CronSequenceGenerator(expression, timeZone);
+			CronExpression cronExpression = CronExpression.parse(expression);
+			Date date = new Date(2012 - 1900, 6, 1, 9, 53, 50);
+			ZonedDateTime dateTime = ZonedDateTime.ofInstant(date.toInstant(), timeZone.toZoneId());
+			for (int i = 0; i < 20; i++) {
+				date = generator.next(date);
+				dateTime = cronExpression.next(dateTime);
+				assertEquals(expression, date.toInstant(), dateTime.toInstant());
+			}
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,7 +16,7 @@
 
 package org.springframework.core.codec;
 
-import java.nio.CharBuffer;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
@@ -29,11 +29,11 @@ import java.util.stream.Collectors;
 
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import org.springframework.core.ResolvableType;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferUtils;
-import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.core.io.buffer.PooledDataBuffer;
 import org.springframework.core.log.LogFormatUtils;
 import org.springframework.lang.Nullable;
@@ -45,7 +45,8 @@ import org.springframework.util.MimeTypeUtils;
  * Decode from a data buffer stream to a {@code String} stream. Before decoding, this decoder
  * realigns the incoming data buffers so that each buffer ends with a newline.
  * This is to make sure that multibyte characters are decoded properly, and do not cross buffer
- * boundaries. The default delimiters ({@code \n}, {@code \r\n})can be customized.
+ * boundaries. The default delimiters ({@code \n}, {@code \r\n}) can be customized, and are
+ * also recognized when they straddle buffer boundaries.
  *
  * <p>Partially inspired by Netty's {@code DelimiterBasedFrameDecoder}.
  *
@@ -58,8 +59,6 @@ import org.springframework.util.MimeTypeUtils;
  */
 public final class StringDecoder extends AbstractDataBufferDecoder<String> {
 
-	private static final DataBuffer END_FRAME = new DefaultDataBufferFactory().wrap(new byte[0]);
-
 	/** The default charset to use, i.e. "UTF-8". */
 	public static final Charset DEFAULT_CHARSET = StandardCharsets.UTF_8;
 
@@ -93,11 +92,13 @@ public final class StringDecoder extends AbstractDataBufferDecoder<String> {
 
 		List<byte[]> delimiterBytes = getDelimiterBytes(mimeType);
 
-		Flux<DataBuffer> inputFlux = Flux.from(inputStream)
-				.flatMapIterable(dataBuffer -> splitOnDelimiter(dataBuffer, delimiterBytes))
-				.bufferUntil(StringDecoder::isEndFrame)
-				.map(StringDecoder::joinUntilEndFrame)
-				.doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release);
+		Flux<DataBuffer> inputFlux = Flux.defer(() -> {
+			LineSplitter splitter = new LineSplitter(delimiterBytes, this.stripDelimiter);
+			return Flux.from(inputStream)
+					.flatMapIterable(splitter::split)
+					.concatWith(Mono.fromSupplier(splitter::flush))
+					.doFinally(signalType -> splitter.release());
+		}).doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release);
 
 		return super.decode(inputFlux, elementType, mimeType, hints);
 	}
@@ -109,104 +110,13 @@ public final class StringDecoder extends AbstractDataBufferDecoder<String> {
 						.collect(Collectors.toList()));
 	}
 
-	/**
-	 * Split the given data buffer on delimiter boundaries.
-	 * The returned Flux contains an {@link #END_FRAME} buffer after each delimiter.
-	 */
-	private List<DataBuffer> splitOnDelimiter(DataBuffer dataBuffer, List<byte[]> delimiterBytes) {
-		List<DataBuffer> frames = new ArrayList<>();
-		do {
-			int length = Integer.MAX_VALUE;
-			byte[] matchingDelimiter = null;
-			for (byte[] delimiter : delimiterBytes) {
-				int index = indexOf(dataBuffer, delimiter);
-				if (index >= 0 && index < length) {
-					length = index;
-					matchingDelimiter = delimiter;
-				}
-			}
-			DataBuffer frame;
-			int readPosition = dataBuffer.readPosition();
-			if (matchingDelimiter != null) {
-				if (this.stripDelimiter) {
-					frame = dataBuffer.slice(readPosition, length);
-				}
-				else {
-					frame = dataBuffer.slice(readPosition, length + matchingDelimiter.length);
-				}
-				dataBuffer.readPosition(readPosition + length + matchingDelimiter.length);
-
-				frames.add(DataBufferUtils.retain(frame));
-				frames.add(END_FRAME);
-			}
-			else {
-				frame = dataBuffer.slice(readPosition, dataBuffer.readableByteCount());
-				dataBuffer.readPosition(readPosition + dataBuffer.readableByteCount());
-				frames.add(DataBufferUtils.retain(frame));
-			}
-		}
-		while (dataBuffer.readableByteCount() > 0);
-
-		DataBufferUtils.release(dataBuffer);
-		return frames;
-	}
-
-	/**
-	 * Find the given delimiter in the given data buffer.
-	 * @return the index of the delimiter, or -1 if not found.
-	 */
-	private static int indexOf(DataBuffer dataBuffer, byte[] delimiter) {
-		for (int i = dataBuffer.readPosition(); i < dataBuffer.writePosition(); i++) {
-			int dataBufferPos = i;
-			int delimiterPos = 0;
-			while (delimiterPos < delimiter.length) {
-				if (dataBuffer.getByte(dataBufferPos) != delimiter[delimiterPos]) {
-					break;
-				}
-				else {
-					dataBufferPos++;
-					if (dataBufferPos == dataBuffer.writePosition() &&
-							delimiterPos != delimiter.length - 1) {
-						return -1;
-					}
-				}
-				delimiterPos++;
-			}
-			if (delimiterPos == delimiter.length) {
-				return i - dataBuffer.readPosition();
-			}
-		}
-		return -1;
-	}
-
-	/**
-	 * Check whether the given buffer is {@link #END_FRAME}.
-	 */
-	private static boolean isEndFrame(DataBuffer dataBuffer) {
-		return dataBuffer == END_FRAME;
-	}
-
-	/**
-	 * Join the given list of buffers into a single buffer.
-	 */
-	private static DataBuffer joinUntilEndFrame(List<DataBuffer> dataBuffers) {
-		if (!dataBuffers.isEmpty()) {
-			int lastIdx = dataBuffers.size() - 1;
-			if (isEndFrame(dataBuffers.get(lastIdx))) {
-				dataBuffers.remove(lastIdx);
-			}
-		}
-		return dataBuffers.get(0).factory().join(dataBuffers);
-	}
-
 	@Override
 	protected String decodeDataBuffer(DataBuffer dataBuffer, ResolvableType elementType,
 			@Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
 
 		Charset charset = getCharset(mimeType);
-		CharBuffer charBuffer = charset.decode(dataBuffer.asByteBuffer());
+		String value = toString(dataBuffer.asByteBuffer(), charset);
 		DataBufferUtils.release(dataBuffer);
-		String value = charBuffer.toString();
 		LogFormatUtils.traceDebug(logger, traceOn -> {
 			String formatted = LogFormatUtils.formatValue(value, !traceOn);
 			return Hints.getLogPrefix(hints) + "Decoded " + formatted;
@@ -214,6 +124,20 @@ public final class StringDecoder extends AbstractDataBufferDecoder<String> {
 		return value;
 	}
 
+	/**
+	 * Decode the given bytes, straight from the backing array if there is one,
+	 * in order to avoid the intermediate {@code CharBuffer}.
+	 */
+	private static String toString(ByteBuffer byteBuffer, Charset charset) {
+		if (byteBuffer.hasArray()) {
+			return new String(byteBuffer.array(), byteBuffer.arrayOffset() + byteBuffer.position(),
+					byteBuffer.remaining(), charset);
+		}
+		else {
+			return charset.decode(byteBuffer).toString();
+		}
+	}
+
 	private static Charset getCharset(@Nullable MimeType mimeType) {
 		if (mimeType != null && mimeType.getCharset() != null) {
 			return mimeType.getCharset();
@@ -281,4 +205,92 @@ public final class StringDecoder extends AbstractDataBufferDecoder<String> {
 				new MimeType("text", "plain", DEFAULT_CHARSET), MimeTypeUtils.ALL);
 	}
 
+
+	/**
+	 * Splits a stream of data buffers into lines, using a stateful
+	 * {@link DataBufferUtils.Matcher} so that delimiters straddling buffer
+	 * boundaries are recognized. The parts of a line that spans several
+	 * buffers are retained as slices and joined once the line is complete,
+	 * so that partial lines are never copied more than once.
+	 */
+	private static class LineSplitter {
+
+		private final DataBufferUtils.Matcher matcher;
+
+		private final boolean stripDelimiter;
+
+		private final List<DataBuffer> parts = new ArrayList<>();
+
+		public LineSplitter(List<byte[]> delimiters, boolean stripDelimiter) {
+			this.matcher = DataBufferUtils.matcher(delimiters.toArray(new byte[0][]));
+			this.stripDelimiter = stripDelimiter;
+		}
+
+		/**
+		 * Split the given buffer into the lines it completes, keeping the
+		 * remainder for the following buffers.
+		 */
+		public List<DataBuffer> split(DataBuffer dataBuffer) {
+			List<DataBuffer> lines = new ArrayList<>();
+			try {
+				if (dataBuffer.readableByteCount() == 0) {
+					this.parts.add(DataBufferUtils.retain(dataBuffer.slice(dataBuffer.readPosition(), 0)));
+					return lines;
+				}
+				while (dataBuffer.readableByteCount() > 0) {
+					int readPosition = dataBuffer.readPosition();
+					int end = this.matcher.match(dataBuffer);
+					if (end == -1) {
+						this.parts.add(DataBufferUtils.retain(
+								dataBuffer.slice(readPosition, dataBuffer.readableByteCount())));
+						break;
+					}
+					int length = end + 1 - readPosition;
+					dataBuffer.readPosition(end + 1);
+					int delimiterLength = (this.stripDelimiter ? this.matcher.delimiter().length : 0);
+					if (this.parts.isEmpty()) {
+						lines.add(DataBufferUtils.retain(dataBuffer.slice(readPosition, length - delimiterLength)));
+					}
+					else {
+						this.parts.add(DataBufferUtils.retain(dataBuffer.slice(readPosition, length)));
+						DataBuffer line = joinParts();
+						line.writePosition(line.writePosition() - delimiterLength);
+						lines.add(line);
+					}
+				}
+				return lines;
+			}
+			catch (RuntimeException ex) {
+				lines.forEach(DataBufferUtils::release);
+				throw ex;
+			}
+			finally {
+				DataBufferUtils.release(dataBuffer);
+			}
+		}
+
+		/**
+		 * Return the remaining partial line, if any.
+		 */
+		@Nullable
+		public DataBuffer flush() {
+			return (!this.parts.isEmpty() ? joinParts() : null);
+		}
+
+		/**
+		 * Release a remaining partial line, e.g. after an error or cancellation.
+		 */
+		public void release() {
+			this.parts.forEach(DataBufferUtils::release);
+			this.parts.clear();
+		}
+
+		private DataBuffer joinParts() {
+			DataBuffer result = (this.parts.size() == 1 ? this.parts.get(0) :
+					this.parts.get(0).factory().join(this.parts));
+			this.parts.clear();
+			return result;
+		}
+	}
+
 }
@@ -109,7 +109,7 @@ public abstract class AbstractEnvironment implements ConfigurableEnvironment {
 
 	private final MutablePropertySources propertySources = new MutablePropertySources();
 
-	private final ConfigurablePropertyResolver propertyResolver =
+	private final PropertySourcesPropertyResolver propertyResolver =
 			new PropertySourcesPropertyResolver(this.propertySources);
 
 
@@ -478,6 +478,39 @@ public abstract class AbstractEnvironment implements ConfigurableEnvironment {
 		}
 	}
 
+	/**
+	 * Specify whether to keep an index from each requested key to the property
+	 * source which provides its value, resolving repeated lookups for the same
+	 * key with a single hash lookup instead of searching all property sources.
+	 * <p>The default is "false". Only switch this on if the content of the
+	 * property sources does not change after the first lookups: modifications
+	 * of {@link #getPropertySources()} are detected, whereas changes within
+	 * individual property sources require a call to {@link #clearPropertySourceIndex()}.
+	 * @since 5.2
+	 * @see PropertySourcesPropertyResolver#setPropertySourceIndexEnabled
+	 */
+	public void setPropertySourceIndexEnabled(boolean propertySourceIndexEnabled) {
+		this.propertyResolver.setPropertySourceIndexEnabled(propertySourceIndexEnabled);
+	}
+
+	/**
+	 * Return whether the property source index is enabled.
+	 * @since 5.2
+	 */
+	public boolean isPropertySourceIndexEnabled() {
+		return this.propertyResolver.isPropertySourceIndexEnabled();
+	}
+
+	/**
+	 * Clear the property source index, if any, enforcing a full search of
+	 * all property sources on the next lookup of any key.
+	 * @since 5.2
+	 * @see #setPropertySourceIndexEnabled
+	 */
+	public void clearPropertySourceIndex() {
+		this.propertyResolver.clearPropertySourceIndex();
+	}
+
 
 	//---------------------------------------------------------------------
 	// Implementation of ConfigurablePropertyResolver interface
@@ -21,6 +21,7 @@ import java.util.List;
 import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
 import org.springframework.lang.Nullable;
@@ -43,6 +44,8 @@ public class MutablePropertySources implements PropertySources {
 
 	private final List<PropertySource<?>> propertySourceList = new CopyOnWriteArrayList<>();
 
+	private final AtomicInteger modificationCount = new AtomicInteger();
+
 
 	/**
 	 * Create a new {@link MutablePropertySources} object.
@@ -96,6 +99,7 @@ public class MutablePropertySources implements PropertySources {
 	public void addFirst(PropertySource<?> propertySource) {
 		removeIfPresent(propertySource);
 		this.propertySourceList.add(0, propertySource);
+		this.modificationCount.incrementAndGet();
 	}
 
 	/**
@@ -104,6 +108,7 @@ public class MutablePropertySources implements PropertySources {
 	public void addLast(PropertySource<?> propertySource) {
 		removeIfPresent(propertySource);
 		this.propertySourceList.add(propertySource);
+		this.modificationCount.incrementAndGet();
 	}
 
 	/**
@@ -142,7 +147,12 @@ public class MutablePropertySources implements PropertySources {
 	@Nullable
 	public PropertySource<?> remove(String name) {
 		int index = this.propertySourceList.indexOf(PropertySource.named(name));
-		return (index != -1 ? this.propertySourceList.remove(index) : null);
+		if (index == -1) {
+			return null;
+		}
+		PropertySource<?> removed = this.propertySourceList.remove(index);
+		this.modificationCount.incrementAndGet();
+		return removed;
 	}
 
 	/**
@@ -155,6 +165,7 @@ public class MutablePropertySources implements PropertySources {
 	public void replace(String name, PropertySource<?> propertySource) {
 		int index = assertPresentAndGetIndex(name);
 		this.propertySourceList.set(index, propertySource);
+		this.modificationCount.incrementAndGet();
 	}
 
 	/**
@@ -164,6 +175,15 @@ public class MutablePropertySources implements PropertySources {
 		return this.propertySourceList.size();
 	}
 
+	/**
+	 * Return a counter that changes whenever the contained property sources
+	 * or their order are modified, allowing lookup caches to detect staleness.
+	 * @since 5.2
+	 */
+	int getModificationCount() {
+		return this.modificationCount.get();
+	}
+
 	@Override
 	public String toString() {
 		return this.propertySourceList.toString();
@@ -193,6 +213,7 @@ public class MutablePropertySources implements PropertySources {
 	private void addAtIndex(int index, PropertySource<?> propertySource) {
 		removeIfPresent(propertySource);
 		this.propertySourceList.add(index, propertySource);
+		this.modificationCount.incrementAndGet();
 	}
 
 	/**
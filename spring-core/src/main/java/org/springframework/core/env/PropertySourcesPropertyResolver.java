@@ -16,12 +16,19 @@
 
 package org.springframework.core.env;
 
+import java.util.Map;
+
 import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
 
 /**
  * {@link PropertyResolver} implementation that resolves property values against
  * an underlying set of {@link PropertySources}.
  *
+ * <p>By default, every lookup searches all property sources in order. For
+ * effectively immutable property sources, an index of the winning source per
+ * key may be enabled through {@link #setPropertySourceIndexEnabled}.
+ *
  * @author Chris Beams
  * @author Juergen Hoeller
  * @since 3.1
@@ -31,9 +38,18 @@ import org.springframework.lang.Nullable;
  */
 public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 
+	/** Marker for keys that are not present in any property source. */
+	private static final Object NO_PROPERTY_SOURCE = new Object();
+
+
 	@Nullable
 	private final PropertySources propertySources;
 
+	private volatile boolean propertySourceIndexEnabled = false;
+
+	@Nullable
+	private volatile PropertySourceIndex propertySourceIndex;
+
 
 	/**
 	 * Create a new resolver against the given property sources.
@@ -44,9 +60,49 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 	}
 
 
+	/**
+	 * Specify whether to keep an index from each requested key to the property
+	 * source which provides its value, resolving repeated lookups for the same
+	 * key with a single hash lookup instead of searching all property sources.
+	 * <p>The default is "false". Only switch this on if the content of the
+	 * property sources does not change after the first lookups; modifications
+	 * of an underlying {@link MutablePropertySources} are detected, whereas
+	 * changes within individual property sources require a call to
+	 * {@link #clearPropertySourceIndex()}.
+	 * @since 5.2
+	 */
+	public void setPropertySourceIndexEnabled(boolean propertySourceIndexEnabled) {
+		this.propertySourceIndexEnabled = propertySourceIndexEnabled;
+		this.propertySourceIndex = null;
+	}
+
+	/**
+	 * Return whether the property source index is enabled.
+	 * @since 5.2
+	 */
+	public boolean isPropertySourceIndexEnabled() {
+		return this.propertySourceIndexEnabled;
+	}
+
+	/**
+	 * Clear the property source index, if any, enforcing a full search of
+	 * all property sources on the next lookup of any key.
+	 * @since 5.2
+	 * @see #setPropertySourceIndexEnabled
+	 */
+	public void clearPropertySourceIndex() {
+		this.propertySourceIndex = null;
+	}
+
+
 	@Override
 	public boolean containsProperty(String key) {
 		if (this.propertySources != null) {
+			if (this.propertySourceIndexEnabled &&
+					getPropertySourceIndex(this.propertySources).sourcesByKey.get(key) instanceof PropertySource) {
+				// Indexed as providing a non-null value for the key
+				return true;
+			}
 			for (PropertySource<?> propertySource : this.propertySources) {
 				if (propertySource.containsProperty(key)) {
 					return true;
@@ -77,6 +133,42 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 	@Nullable
 	protected <T> T getProperty(String key, Class<T> targetValueType, boolean resolveNestedPlaceholders) {
 		if (this.propertySources != null) {
+			if (this.propertySourceIndexEnabled) {
+				PropertySourceIndex index = getPropertySourceIndex(this.propertySources);
+				Object indexed = index.sourcesByKey.get(key);
+				PropertySource<?> propertySource = null;
+				Object value = null;
+				if (indexed == null) {
+					indexed = NO_PROPERTY_SOURCE;
+					for (PropertySource<?> candidate : this.propertySources) {
+						if (logger.isTraceEnabled()) {
+							logger.trace("Searching for key '" + key + "' in PropertySource '" +
+									candidate.getName() + "'");
+						}
+						value = candidate.getProperty(key);
+						if (value != null) {
+							indexed = propertySource = candidate;
+							break;
+						}
+					}
+					index.sourcesByKey.put(key, indexed);
+				}
+				else if (indexed != NO_PROPERTY_SOURCE) {
+					propertySource = (PropertySource<?>) indexed;
+					value = propertySource.getProperty(key);
+				}
+				if (propertySource != null && value != null) {
+					if (resolveNestedPlaceholders && value instanceof String) {
+						value = resolveNestedPlaceholders((String) value);
+					}
+					logKeyFound(key, propertySource, value);
+					return convertValueIfNecessary(value, targetValueType);
+				}
+				if (logger.isTraceEnabled()) {
+					logger.trace("Could not find key '" + key + "' in any property source");
+				}
+				return null;
+			}
 			for (PropertySource<?> propertySource : this.propertySources) {
 				if (logger.isTraceEnabled()) {
 					logger.trace("Searching for key '" + key + "' in PropertySource '" +
@@ -98,6 +190,21 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 		return null;
 	}
 
+	/**
+	 * Return the property source index for the current state of the given
+	 * property sources, replacing a previous index if outdated.
+	 */
+	private PropertySourceIndex getPropertySourceIndex(PropertySources propertySources) {
+		int modificationCount = (propertySources instanceof MutablePropertySources ?
+				((MutablePropertySources) propertySources).getModificationCount() : 0);
+		PropertySourceIndex index = this.propertySourceIndex;
+		if (index == null || index.modificationCount != modificationCount) {
+			index = new PropertySourceIndex(modificationCount);
+			this.propertySourceIndex = index;
+		}
+		return index;
+	}
+
 	/**
 	 * Log the given key as found in the given {@link PropertySource}, resulting in
 	 * the given value.
@@ -117,4 +224,20 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 		}
 	}
 
+
+	/**
+	 * Index from property keys to their winning property source, valid for a
+	 * specific state of the underlying {@link MutablePropertySources}.
+	 */
+	private static class PropertySourceIndex {
+
+		final int modificationCount;
+
+		final Map<String, Object> sourcesByKey = new ConcurrentReferenceHashMap<>(256);
+
+		PropertySourceIndex(int modificationCount) {
+			this.modificationCount = modificationCount;
+		}
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -442,6 +442,176 @@ public abstract class DataBufferUtils {
 
 	}
 
+	/**
+	 * Return a {@link Matcher} for the given delimiters. The matcher can be used
+	 * to find the delimiters in a stream of data buffers: it keeps its state
+	 * across invocations, so that delimiters which straddle buffer boundaries
+	 * are found as well.
+	 * <p>All delimiters are searched for in a single pass over the data, with
+	 * the longest delimiter winning if several of them end at the same index.
+	 * @param delimiters the delimiters bytes to search for
+	 * @return a stateful matcher for the given delimiters
+	 * @since 5.2
+	 */
+	public static Matcher matcher(byte[]... delimiters) {
+		Assert.notEmpty(delimiters, "'delimiters' must not be empty");
+		return (delimiters.length == 1 ? new KnuthMorrisPrattMatcher(delimiters[0]) :
+				new CompositeMatcher(delimiters));
+	}
+
+
+	/**
+	 * Stateful delimiter matcher for a stream of data buffers,
+	 * as returned by {@link #matcher(byte[]...)}.
+	 * <p>Matchers are not thread-safe: a separate instance is to be
+	 * obtained for each stream of data buffers.
+	 * @since 5.2
+	 */
+	public interface Matcher {
+
+		/**
+		 * Find the first delimiter in the readable bytes of the given buffer,
+		 * taking into account the bytes matched in previously given buffers.
+		 * @param dataBuffer the buffer to search
+		 * @return the index of the last byte of the delimiter in the buffer,
+		 * or -1 if no delimiter ends within the readable bytes of the buffer
+		 */
+		int match(DataBuffer dataBuffer);
+
+		/**
+		 * Return the delimiter that was found by the last successful
+		 * {@link #match(DataBuffer)} invocation.
+		 */
+		byte[] delimiter();
+
+		/**
+		 * Reset the state of this matcher, discarding any partial match.
+		 */
+		void reset();
+	}
+
+
+	/**
+	 * {@link Matcher} for a single delimiter, based on the Knuth-Morris-Pratt
+	 * algorithm so that every byte is examined only once.
+	 */
+	private static class KnuthMorrisPrattMatcher implements Matcher {
+
+		private final byte[] delimiter;
+
+		private final int[] table;
+
+		private int matches = 0;
+
+		public KnuthMorrisPrattMatcher(byte[] delimiter) {
+			Assert.isTrue(delimiter.length > 0, "Delimiter must not be empty");
+			this.delimiter = delimiter.clone();
+			this.table = longestSuffixPrefixTable(this.delimiter);
+		}
+
+		private static int[] longestSuffixPrefixTable(byte[] delimiter) {
+			int[] result = new int[delimiter.length];
+			int length = 0;
+			for (int i = 1; i < delimiter.length; i++) {
+				while (length > 0 && delimiter[i] != delimiter[length]) {
+					length = result[length - 1];
+				}
+				if (delimiter[i] == delimiter[length]) {
+					length++;
+				}
+				result[i] = length;
+			}
+			return result;
+		}
+
+		@Override
+		public int match(DataBuffer dataBuffer) {
+			for (int i = dataBuffer.readPosition(); i < dataBuffer.writePosition(); i++) {
+				if (matchNext(dataBuffer.getByte(i))) {
+					reset();
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		/**
+		 * Advance the state by the given byte.
+		 * @return {@code true} if the delimiter has been matched completely
+		 */
+		boolean matchNext(byte b) {
+			while (this.matches > 0 && b != this.delimiter[this.matches]) {
+				this.matches = this.table[this.matches - 1];
+			}
+			if (b == this.delimiter[this.matches]) {
+				this.matches++;
+			}
+			return (this.matches == this.delimiter.length);
+		}
+
+		@Override
+		public byte[] delimiter() {
+			return this.delimiter;
+		}
+
+		@Override
+		public void reset() {
+			this.matches = 0;
+		}
+	}
+
+
+	/**
+	 * {@link Matcher} for several delimiters, advancing a
+	 * {@link KnuthMorrisPrattMatcher} per delimiter for each byte.
+	 */
+	private static class CompositeMatcher implements Matcher {
+
+		private final KnuthMorrisPrattMatcher[] matchers;
+
+		@Nullable
+		private byte[] delimiter;
+
+		public CompositeMatcher(byte[][] delimiters) {
+			this.matchers = new KnuthMorrisPrattMatcher[delimiters.length];
+			for (int i = 0; i < delimiters.length; i++) {
+				this.matchers[i] = new KnuthMorrisPrattMatcher(delimiters[i]);
+			}
+		}
+
+		@Override
+		public int match(DataBuffer dataBuffer) {
+			for (int i = dataBuffer.readPosition(); i < dataBuffer.writePosition(); i++) {
+				byte b = dataBuffer.getByte(i);
+				byte[] found = null;
+				for (KnuthMorrisPrattMatcher matcher : this.matchers) {
+					if (matcher.matchNext(b) && (found == null || matcher.delimiter.length > found.length)) {
+						found = matcher.delimiter;
+					}
+				}
+				if (found != null) {
+					reset();
+					this.delimiter = found;
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		@Override
+		public byte[] delimiter() {
+			Assert.state(this.delimiter != null, "No delimiter matched yet");
+			return this.delimiter;
+		}
+
+		@Override
+		public void reset() {
+			for (KnuthMorrisPrattMatcher matcher : this.matchers) {
+				matcher.reset();
+			}
+		}
+	}
+
 
 	private static class ReadableByteChannelGenerator implements Consumer<SynchronousSink<DataBuffer>> {
 
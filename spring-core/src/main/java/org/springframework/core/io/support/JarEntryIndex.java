@@ -0,0 +1,154 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.support;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * Index over the entry names of a jar file, as read once from its central
+ * directory, allowing for lookups of all entries below a given path prefix
+ * without walking the entire jar again.
+ *
+ * <p>Indexes are shared per jar file path and invalidated whenever the
+ * size or the last-modified timestamp of the jar file changes. Jar files
+ * which do not correspond to a file on disk (e.g. nested jars) are not
+ * indexed but rather walked on every lookup.
+ *
+ * @author agent
+ * @since 5.2
+ * @see PathMatchingResourcePatternResolver#doFindPathMatchingJarResources
+ */
+final class JarEntryIndex {
+
+	private static final Map<String, JarEntryIndex> indexCache = new ConcurrentReferenceHashMap<>(64);
+
+
+	private final long length;
+
+	private final long lastModified;
+
+	/** Entry names in central directory order. */
+	private final String[] entryNames;
+
+	/** Entry names in alphabetical order. */
+	private final String[] sortedEntryNames;
+
+	/** Central directory position for each alphabetically sorted entry name. */
+	private final int[] sortedPositions;
+
+
+	private JarEntryIndex(List<String> entryNames, long length, long lastModified) {
+		this.length = length;
+		this.lastModified = lastModified;
+		this.entryNames = entryNames.toArray(new String[0]);
+		Integer[] positions = new Integer[this.entryNames.length];
+		for (int i = 0; i < positions.length; i++) {
+			positions[i] = i;
+		}
+		Arrays.sort(positions, (p1, p2) -> this.entryNames[p1].compareTo(this.entryNames[p2]));
+		this.sortedEntryNames = new String[positions.length];
+		this.sortedPositions = new int[positions.length];
+		for (int i = 0; i < positions.length; i++) {
+			this.sortedEntryNames[i] = this.entryNames[positions[i]];
+			this.sortedPositions[i] = positions[i];
+		}
+	}
+
+
+	private boolean isCurrent(File file) {
+		return (file.length() == this.length && file.lastModified() == this.lastModified);
+	}
+
+	private List<String> getEntryNames(String prefix) {
+		if (prefix.isEmpty()) {
+			return Arrays.asList(this.entryNames);
+		}
+		int start = Arrays.binarySearch(this.sortedEntryNames, prefix);
+		if (start < 0) {
+			start = -start - 1;
+		}
+		int end = start;
+		while (end < this.sortedEntryNames.length && this.sortedEntryNames[end].startsWith(prefix)) {
+			end++;
+		}
+		if (start == end) {
+			return Collections.emptyList();
+		}
+		// Restore central directory order for the matching range
+		int[] positions = Arrays.copyOfRange(this.sortedPositions, start, end);
+		Arrays.sort(positions);
+		List<String> result = new ArrayList<>(positions.length);
+		for (int position : positions) {
+			result.add(this.entryNames[position]);
+		}
+		return result;
+	}
+
+
+	/**
+	 * Return the names of all entries in the given jar file which start with
+	 * the given prefix, in central directory order.
+	 * @param jarFile the jar file to introspect
+	 * @param prefix the entry name prefix (may be empty)
+	 * @return the matching entry names
+	 */
+	static List<String> getEntryNames(JarFile jarFile, String prefix) {
+		File file = new File(jarFile.getName());
+		if (!file.isFile()) {
+			return readEntryNames(jarFile, prefix);
+		}
+		String key = file.getAbsolutePath();
+		JarEntryIndex index = indexCache.get(key);
+		if (index == null || !index.isCurrent(file)) {
+			// Take the file state before reading, so that a concurrent modification invalidates the index.
+			long length = file.length();
+			long lastModified = file.lastModified();
+			index = new JarEntryIndex(readEntryNames(jarFile, ""), length, lastModified);
+			indexCache.put(key, index);
+		}
+		return index.getEntryNames(prefix);
+	}
+
+	/**
+	 * Clear the shared jar entry indexes.
+	 */
+	static void clearCache() {
+		indexCache.clear();
+	}
+
+	private static List<String> readEntryNames(JarFile jarFile, String prefix) {
+		List<String> entryNames = new ArrayList<>();
+		for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements();) {
+			String entryName = entries.nextElement().getName();
+			if (entryName.startsWith(prefix)) {
+				entryNames.add(entryName);
+			}
+		}
+		return entryNames;
+	}
+
+}
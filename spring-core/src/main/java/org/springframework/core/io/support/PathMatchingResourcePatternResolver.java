@@ -205,6 +205,8 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 
 	private PathMatcher pathMatcher = new AntPathMatcher();
 
+	private boolean customPathMatcher = false;
+
 
 	/**
 	 * Create a new PathMatchingResourcePatternResolver with a DefaultResourceLoader.
@@ -259,6 +261,7 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 	public void setPathMatcher(PathMatcher pathMatcher) {
 		Assert.notNull(pathMatcher, "PathMatcher must not be null");
 		this.pathMatcher = pathMatcher;
+		this.customPathMatcher = true;
 	}
 
 	/**
@@ -576,6 +579,9 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 	/**
 	 * Find all resources in jar files that match the given location pattern
 	 * via the Ant-style PathMatcher.
+	 * <p>As of 5.2, the entry names of a jar file on disk are indexed once and
+	 * shared across lookups until the jar file changes, with each lookup only
+	 * matching the entries below the non-wildcard part of the pattern.
 	 * @param rootDirResource the root directory as Resource
 	 * @param rootDirURL the pre-resolved root directory URL
 	 * @param subPattern the sub pattern to match (below the root directory)
@@ -645,14 +651,10 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 				rootEntryPath = rootEntryPath + "/";
 			}
 			Set<Resource> result = new LinkedHashSet<>(8);
-			for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements();) {
-				JarEntry entry = entries.nextElement();
-				String entryPath = entry.getName();
-				if (entryPath.startsWith(rootEntryPath)) {
-					String relativePath = entryPath.substring(rootEntryPath.length());
-					if (getPathMatcher().match(subPattern, relativePath)) {
-						result.add(rootDirResource.createRelative(relativePath));
-					}
+			for (String entryPath : JarEntryIndex.getEntryNames(jarFile, rootEntryPath + determineStaticPrefix(subPattern))) {
+				String relativePath = entryPath.substring(rootEntryPath.length());
+				if (getPathMatcher().match(subPattern, relativePath)) {
+					result.add(rootDirResource.createRelative(relativePath));
 				}
 			}
 			return result;
@@ -664,6 +666,23 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		}
 	}
 
+	/**
+	 * Determine the leading directories of the given sub pattern which do not
+	 * contain any wildcards, e.g. "META-INF/" for "META-INF/*.xml".
+	 * <p>Used for narrowing down the jar entries to match against, as long as
+	 * the default {@link AntPathMatcher} is in use.
+	 */
+	private String determineStaticPrefix(String subPattern) {
+		if (this.customPathMatcher) {
+			return "";
+		}
+		int prefixEnd = subPattern.lastIndexOf('/') + 1;
+		while (prefixEnd > 0 && getPathMatcher().isPattern(subPattern.substring(0, prefixEnd))) {
+			prefixEnd = subPattern.lastIndexOf('/', prefixEnd - 2) + 1;
+		}
+		return subPattern.substring(0, prefixEnd);
+	}
+
 	/**
 	 * Resolve the given jar file URL into a JarFile object.
 	 */
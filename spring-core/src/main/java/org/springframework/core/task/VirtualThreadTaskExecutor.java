@@ -0,0 +1,300 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.task;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.CustomizableThreadCreator;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.ListenableFutureTask;
+
+/**
+ * {@link TaskExecutor} implementation that starts a new virtual thread for each
+ * task, on a JVM which supports virtual threads. On older JVMs, it falls back
+ * to a new daemon platform thread for each task, just like a daemon-enabled
+ * {@link SimpleAsyncTaskExecutor}.
+ *
+ * <p>Virtual threads are cheap to create and to block, so this executor does
+ * not reuse threads and does not need a pool size to be tuned: it is meant for
+ * tasks which spend most of their time waiting on blocking I/O. It can be used
+ * wherever a {@link TaskExecutor} or {@link java.util.concurrent.Executor} is
+ * expected, e.g. for {@code @Async} methods, for an {@code ExecutorSubscribableChannel},
+ * for a {@code DefaultMessageListenerContainer}, or for MVC async request processing.
+ *
+ * <p>Supports limiting concurrent tasks through the "concurrencyLimit" bean
+ * property, based on a {@link Semaphore}: callers block while the limit is
+ * reached, or time out according to the given start timeout. By default,
+ * the number of concurrent tasks is unlimited.
+ *
+ * @author agent
+ * @since 5.2
+ * @see #isVirtualThreadSupported()
+ * @see #setConcurrencyLimit
+ * @see SimpleAsyncTaskExecutor
+ */
+public class VirtualThreadTaskExecutor implements AsyncListenableTaskExecutor {
+
+	/**
+	 * Permit any number of concurrent tasks: that is, don't throttle concurrency.
+	 */
+	public static final int UNBOUNDED_CONCURRENCY = -1;
+
+	/** {@code Thread.ofVirtual()} on JDK 21+, otherwise {@code null}. */
+	@Nullable
+	private static final Method ofVirtualMethod = ClassUtils.getMethodIfAvailable(Thread.class, "ofVirtual");
+
+
+	private final String threadNamePrefix;
+
+	private final boolean virtual;
+
+	private final ThreadFactory threadFactory;
+
+	private int concurrencyLimit = UNBOUNDED_CONCURRENCY;
+
+	@Nullable
+	private Semaphore concurrencyPermits;
+
+	@Nullable
+	private TaskDecorator taskDecorator;
+
+
+	/**
+	 * Create a new VirtualThreadTaskExecutor with default thread name prefix.
+	 */
+	public VirtualThreadTaskExecutor() {
+		this(ClassUtils.getShortName(VirtualThreadTaskExecutor.class) + "-");
+	}
+
+	/**
+	 * Create a new VirtualThreadTaskExecutor with the given thread name prefix.
+	 * @param threadNamePrefix the prefix to use for the names of newly created threads
+	 */
+	public VirtualThreadTaskExecutor(String threadNamePrefix) {
+		Assert.notNull(threadNamePrefix, "Thread name prefix must not be null");
+		this.threadNamePrefix = threadNamePrefix;
+		ThreadFactory virtualThreadFactory = createVirtualThreadFactory(threadNamePrefix);
+		this.virtual = (virtualThreadFactory != null);
+		this.threadFactory = (virtualThreadFactory != null ? virtualThreadFactory :
+				createPlatformThreadFactory(threadNamePrefix));
+	}
+
+
+	/**
+	 * Return the prefix to use for the names of newly created threads.
+	 */
+	public final String getThreadNamePrefix() {
+		return this.threadNamePrefix;
+	}
+
+	/**
+	 * Return whether this executor actually starts virtual threads,
+	 * as opposed to falling back to platform threads.
+	 * @see #isVirtualThreadSupported()
+	 */
+	public final boolean isVirtual() {
+		return this.virtual;
+	}
+
+	/**
+	 * Specify a custom {@link TaskDecorator} to be applied to any {@link Runnable}
+	 * about to be executed.
+	 * @see SimpleAsyncTaskExecutor#setTaskDecorator
+	 */
+	public final void setTaskDecorator(TaskDecorator taskDecorator) {
+		this.taskDecorator = taskDecorator;
+	}
+
+	/**
+	 * Set the maximum number of concurrently executing tasks.
+	 * -1 indicates no concurrency limit at all.
+	 * <p>This is designed as a config time setting: changing the limit
+	 * while tasks are executing leads to inconsistent permit counts.
+	 * @see #UNBOUNDED_CONCURRENCY
+	 */
+	public void setConcurrencyLimit(int concurrencyLimit) {
+		Assert.isTrue(concurrencyLimit == UNBOUNDED_CONCURRENCY || concurrencyLimit > 0,
+				"Concurrency limit must be positive or -1 for unbounded concurrency");
+		this.concurrencyLimit = concurrencyLimit;
+		this.concurrencyPermits = (concurrencyLimit > 0 ? new Semaphore(concurrencyLimit) : null);
+	}
+
+	/**
+	 * Return the maximum number of concurrently executing tasks.
+	 */
+	public final int getConcurrencyLimit() {
+		return this.concurrencyLimit;
+	}
+
+	/**
+	 * Return whether the concurrency limit is active.
+	 * @see #getConcurrencyLimit()
+	 * @see #setConcurrencyLimit
+	 */
+	public final boolean isThrottleActive() {
+		return (this.concurrencyPermits != null);
+	}
+
+
+	/**
+	 * Executes the given task on a new thread, waiting for
+	 * a permit if a concurrency limit has been configured.
+	 * @see #execute(Runnable, long)
+	 */
+	@Override
+	public void execute(Runnable task) {
+		execute(task, TIMEOUT_INDEFINITE);
+	}
+
+	/**
+	 * Executes the given task on a new thread, waiting for a permit up to
+	 * the given timeout if a concurrency limit has been configured.
+	 * <p>Executes urgent tasks (with 'immediate' timeout) directly,
+	 * bypassing the concurrency limit (if active).
+	 * @throws TaskTimeoutException if no permit became available in time
+	 * @throws TaskRejectedException if interrupted while waiting for a permit
+	 * @see #TIMEOUT_IMMEDIATE
+	 */
+	@Override
+	public void execute(Runnable task, long startTimeout) {
+		Assert.notNull(task, "Runnable must not be null");
+		Runnable taskToUse = (this.taskDecorator != null ? this.taskDecorator.decorate(task) : task);
+		Semaphore permits = this.concurrencyPermits;
+		if (permits != null && startTimeout > TIMEOUT_IMMEDIATE) {
+			acquirePermit(permits, startTimeout, task);
+			try {
+				doExecute(() -> {
+					try {
+						taskToUse.run();
+					}
+					finally {
+						permits.release();
+					}
+				});
+			}
+			catch (RuntimeException | Error ex) {
+				permits.release();
+				throw ex;
+			}
+		}
+		else {
+			doExecute(taskToUse);
+		}
+	}
+
+	private void acquirePermit(Semaphore permits, long startTimeout, Runnable task) {
+		try {
+			if (startTimeout == TIMEOUT_INDEFINITE) {
+				permits.acquire();
+			}
+			else if (!permits.tryAcquire(startTimeout, TimeUnit.MILLISECONDS)) {
+				throw new TaskTimeoutException("Concurrency limit of " + this.concurrencyLimit +
+						" reached: task not started within " + startTimeout + " ms: " + task);
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new TaskRejectedException("Interrupted while waiting for concurrency permit: " + task, ex);
+		}
+	}
+
+	@Override
+	public Future<?> submit(Runnable task) {
+		FutureTask<Object> future = new FutureTask<>(task, null);
+		execute(future, TIMEOUT_INDEFINITE);
+		return future;
+	}
+
+	@Override
+	public <T> Future<T> submit(Callable<T> task) {
+		FutureTask<T> future = new FutureTask<>(task);
+		execute(future, TIMEOUT_INDEFINITE);
+		return future;
+	}
+
+	@Override
+	public ListenableFuture<?> submitListenable(Runnable task) {
+		ListenableFutureTask<Object> future = new ListenableFutureTask<>(task, null);
+		execute(future, TIMEOUT_INDEFINITE);
+		return future;
+	}
+
+	@Override
+	public <T> ListenableFuture<T> submitListenable(Callable<T> task) {
+		ListenableFutureTask<T> future = new ListenableFutureTask<>(task);
+		execute(future, TIMEOUT_INDEFINITE);
+		return future;
+	}
+
+	/**
+	 * Template method for the actual execution of a task.
+	 * <p>The default implementation creates a new (virtual) Thread and starts it.
+	 * @param task the Runnable to execute
+	 */
+	protected void doExecute(Runnable task) {
+		this.threadFactory.newThread(task).start();
+	}
+
+
+	/**
+	 * Determine whether the current JVM supports virtual threads.
+	 * <p>This is the case on JDK 21+, and on JDK 19/20 with preview
+	 * features enabled.
+	 */
+	public static boolean isVirtualThreadSupported() {
+		return (createVirtualThreadFactory("") != null);
+	}
+
+	/**
+	 * Create a factory for virtual threads with the given name prefix
+	 * and a counter as name suffix, through {@code Thread.ofVirtual()}.
+	 * @return the factory, or {@code null} if virtual threads are not supported
+	 */
+	@Nullable
+	private static ThreadFactory createVirtualThreadFactory(String threadNamePrefix) {
+		if (ofVirtualMethod == null) {
+			return null;
+		}
+		try {
+			Object builder = ofVirtualMethod.invoke(null);
+			// Invoke through the public Thread.Builder interface, not the JDK-internal builder class
+			Class<?> builderType = ClassUtils.forName("java.lang.Thread$Builder", null);
+			builder = builderType.getMethod("name", String.class, long.class).invoke(builder, threadNamePrefix, 1L);
+			return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+		}
+		catch (Throwable ex) {
+			// Virtual threads in preview mode but not enabled, or otherwise not accessible
+			return null;
+		}
+	}
+
+	private static ThreadFactory createPlatformThreadFactory(String threadNamePrefix) {
+		CustomizableThreadCreator threadCreator = new CustomizableThreadCreator(threadNamePrefix);
+		threadCreator.setDaemon(true);
+		return threadCreator::createThread;
+	}
+
+}
@@ -16,8 +16,11 @@
 
 package org.springframework.util;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
@@ -41,6 +44,11 @@ public class PropertyPlaceholderHelper {
 
 	private static final Log logger = LogFactory.getLog(PropertyPlaceholderHelper.class);
 
+	/** Maximum number of parsed values to cache per helper instance. */
+	private static final int PARSED_VALUE_CACHE_LIMIT = 1024;
+
+	private static final ParsedValue NO_PLACEHOLDERS = new ParsedValue(Collections.emptyList(), 0);
+
 	private static final Map<String, String> wellKnownSimplePrefixes = new HashMap<>(4);
 
 	static {
@@ -61,6 +69,8 @@ public class PropertyPlaceholderHelper {
 
 	private final boolean ignoreUnresolvablePlaceholders;
 
+	private final Map<String, ParsedValue> parsedValueCache = new ConcurrentReferenceHashMap<>(256);
+
 
 	/**
 	 * Creates a new {@code PropertyPlaceholderHelper} that uses the supplied prefix and suffix.
@@ -127,61 +137,101 @@ public class PropertyPlaceholderHelper {
 	protected String parseStringValue(
 			String value, PlaceholderResolver placeholderResolver, Set<String> visitedPlaceholders) {
 
-		StringBuilder result = new StringBuilder(value);
+		ParsedValue parsedValue = parseValue(value);
+		if (parsedValue.placeholderCount == 0) {
+			return value;
+		}
 
-		int startIndex = value.indexOf(this.placeholderPrefix);
-		while (startIndex != -1) {
-			int endIndex = findPlaceholderEndIndex(result, startIndex);
-			if (endIndex != -1) {
-				String placeholder = result.substring(startIndex + this.placeholderPrefix.length(), endIndex);
-				String originalPlaceholder = placeholder;
-				if (!visitedPlaceholders.add(originalPlaceholder)) {
-					throw new IllegalArgumentException(
-							"Circular placeholder reference '" + originalPlaceholder + "' in property definitions");
-				}
-				// Recursive invocation, parsing placeholders contained in the placeholder key.
-				placeholder = parseStringValue(placeholder, placeholderResolver, visitedPlaceholders);
-				// Now obtain the value for the fully resolved key...
-				String propVal = placeholderResolver.resolvePlaceholder(placeholder);
-				if (propVal == null && this.valueSeparator != null) {
-					int separatorIndex = placeholder.indexOf(this.valueSeparator);
-					if (separatorIndex != -1) {
-						String actualPlaceholder = placeholder.substring(0, separatorIndex);
-						String defaultValue = placeholder.substring(separatorIndex + this.valueSeparator.length());
-						propVal = placeholderResolver.resolvePlaceholder(actualPlaceholder);
-						if (propVal == null) {
-							propVal = defaultValue;
-						}
-					}
-				}
-				if (propVal != null) {
-					// Recursive invocation, parsing placeholders contained in the
-					// previously resolved placeholder value.
-					propVal = parseStringValue(propVal, placeholderResolver, visitedPlaceholders);
-					result.replace(startIndex, endIndex + this.placeholderSuffix.length(), propVal);
-					if (logger.isTraceEnabled()) {
-						logger.trace("Resolved placeholder '" + placeholder + "'");
+		StringBuilder result = new StringBuilder(value.length());
+		for (Object part : parsedValue.parts) {
+			if (part instanceof String) {
+				result.append((String) part);
+				continue;
+			}
+			String originalPlaceholder = ((Placeholder) part).text;
+			if (!visitedPlaceholders.add(originalPlaceholder)) {
+				throw new IllegalArgumentException(
+						"Circular placeholder reference '" + originalPlaceholder + "' in property definitions");
+			}
+			// Recursive invocation, parsing placeholders contained in the placeholder key.
+			String placeholder = parseStringValue(originalPlaceholder, placeholderResolver, visitedPlaceholders);
+			// Now obtain the value for the fully resolved key...
+			String propVal = placeholderResolver.resolvePlaceholder(placeholder);
+			if (propVal == null && this.valueSeparator != null) {
+				int separatorIndex = placeholder.indexOf(this.valueSeparator);
+				if (separatorIndex != -1) {
+					String actualPlaceholder = placeholder.substring(0, separatorIndex);
+					String defaultValue = placeholder.substring(separatorIndex + this.valueSeparator.length());
+					propVal = placeholderResolver.resolvePlaceholder(actualPlaceholder);
+					if (propVal == null) {
+						propVal = defaultValue;
 					}
-					startIndex = result.indexOf(this.placeholderPrefix, startIndex + propVal.length());
-				}
-				else if (this.ignoreUnresolvablePlaceholders) {
-					// Proceed with unprocessed value.
-					startIndex = result.indexOf(this.placeholderPrefix, endIndex + this.placeholderSuffix.length());
 				}
-				else {
-					throw new IllegalArgumentException("Could not resolve placeholder '" +
-							placeholder + "'" + " in value \"" + value + "\"");
+			}
+			if (propVal != null) {
+				// Recursive invocation, parsing placeholders contained in the
+				// previously resolved placeholder value.
+				propVal = parseStringValue(propVal, placeholderResolver, visitedPlaceholders);
+				result.append(propVal);
+				if (logger.isTraceEnabled()) {
+					logger.trace("Resolved placeholder '" + placeholder + "'");
 				}
-				visitedPlaceholders.remove(originalPlaceholder);
+			}
+			else if (this.ignoreUnresolvablePlaceholders) {
+				// Proceed with unprocessed value.
+				result.append(this.placeholderPrefix).append(originalPlaceholder).append(this.placeholderSuffix);
 			}
 			else {
-				startIndex = -1;
+				throw new IllegalArgumentException("Could not resolve placeholder '" +
+						placeholder + "'" + " in value \"" + value + "\"");
 			}
+			visitedPlaceholders.remove(originalPlaceholder);
 		}
 
 		return result.toString();
 	}
 
+	/**
+	 * Split the given value into literal parts and top-level placeholders,
+	 * caching the outcome for subsequent resolution of the same value.
+	 * <p>Values without placeholders are not cached, and the cache stops
+	 * accepting new entries once it reaches {@link #PARSED_VALUE_CACHE_LIMIT}.
+	 */
+	private ParsedValue parseValue(String value) {
+		int startIndex = value.indexOf(this.placeholderPrefix);
+		if (startIndex == -1) {
+			return NO_PLACEHOLDERS;
+		}
+		ParsedValue parsedValue = this.parsedValueCache.get(value);
+		if (parsedValue != null) {
+			return parsedValue;
+		}
+		List<Object> parts = new ArrayList<>();
+		int placeholderCount = 0;
+		int literalStart = 0;
+		while (startIndex != -1) {
+			int endIndex = findPlaceholderEndIndex(value, startIndex);
+			if (endIndex == -1) {
+				break;
+			}
+			if (startIndex > literalStart) {
+				parts.add(value.substring(literalStart, startIndex));
+			}
+			parts.add(new Placeholder(value.substring(startIndex + this.placeholderPrefix.length(), endIndex)));
+			placeholderCount++;
+			literalStart = endIndex + this.placeholderSuffix.length();
+			startIndex = value.indexOf(this.placeholderPrefix, literalStart);
+		}
+		if (literalStart < value.length()) {
+			parts.add(value.substring(literalStart));
+		}
+		parsedValue = new ParsedValue(parts, placeholderCount);
+		if (this.parsedValueCache.size() < PARSED_VALUE_CACHE_LIMIT) {
+			this.parsedValueCache.put(value, parsedValue);
+		}
+		return parsedValue;
+	}
+
 	private int findPlaceholderEndIndex(CharSequence buf, int startIndex) {
 		int index = startIndex + this.placeholderPrefix.length();
 		int withinNestedPlaceholder = 0;
@@ -222,4 +272,35 @@ public class PropertyPlaceholderHelper {
 		String resolvePlaceholder(String placeholderName);
 	}
 
+
+	/**
+	 * Pre-parsed form of a value: a sequence of literal {@code String} parts
+	 * and {@link Placeholder} parts.
+	 */
+	private static class ParsedValue {
+
+		final List<Object> parts;
+
+		final int placeholderCount;
+
+		ParsedValue(List<Object> parts, int placeholderCount) {
+			this.parts = parts;
+			this.placeholderCount = placeholderCount;
+		}
+	}
+
+
+	/**
+	 * A top-level placeholder within a parsed value, holding the raw text
+	 * between prefix and suffix (possibly containing nested placeholders).
+	 */
+	private static class Placeholder {
+
+		final String text;
+
+		Placeholder(String text) {
+			this.text = text;
+		}
+	}
+
 }
@@ -174,6 +174,45 @@ public class StringDecoderTests extends AbstractDecoderTestCase<StringDecoder> {
 				.verify());
 	}
 
+	@Test
+	public void decodeNewLineAcrossBuffers() {
+		Flux<DataBuffer> input = Flux.just(
+				stringBuffer("abc\r"),
+				stringBuffer("\ndef"),
+				stringBuffer("ghi\r"),
+				stringBuffer("\n"),
+				stringBuffer("\r"),
+				stringBuffer("\njkl")
+		);
+
+		testDecodeAll(input, TYPE, step -> step
+				.expectNext("abc")
+				.expectNext("defghi")
+				.expectNext("")
+				.expectNext("jkl")
+				.expectComplete()
+				.verify(), null, null);
+	}
+
+	@Test
+	public void decodeCustomDelimiterAcrossBuffers() {
+		this.decoder = StringDecoder.allMimeTypes(Collections.singletonList("aab"), true);
+
+		Flux<DataBuffer> input = Flux.just(
+				stringBuffer("fooa"),
+				stringBuffer("aabbara"),
+				stringBuffer("ab"),
+				stringBuffer("baz")
+		);
+
+		testDecodeAll(input, TYPE, step -> step
+				.expectNext("fooa")
+				.expectNext("bar")
+				.expectNext("baz")
+				.expectComplete()
+				.verify(), null, null);
+	}
+
 	@Test
 	public void decodeEmptyFlux() {
 		Flux<DataBuffer> input = Flux.empty();
@@ -19,6 +19,7 @@ package org.springframework.core.env;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -367,4 +368,70 @@ public class PropertySourcesPropertyResolverTests {
 		}
 	}
 
+	@Test
+	public void getProperty_withPropertySourceIndex() {
+		MutablePropertySources sources = new MutablePropertySources();
+		PropertySourcesPropertyResolver resolver = new PropertySourcesPropertyResolver(sources);
+		resolver.setPropertySourceIndexEnabled(true);
+		sources.addFirst(new MockPropertySource("ps1").withProperty("pName", "ps1Value").withProperty("ref", "${pName}"));
+		assertThat(resolver.getProperty("pName"), equalTo("ps1Value"));
+		assertThat(resolver.getProperty("ref"), equalTo("ps1Value"));
+		assertThat(resolver.containsProperty("bogus"), is(false));
+		sources.addFirst(new MockPropertySource("ps2").withProperty("pName", "ps2Value").withProperty("bogus", "value"));
+		assertThat(resolver.getProperty("pName"), equalTo("ps2Value"));
+		assertThat(resolver.getProperty("ref"), equalTo("ps2Value"));
+		assertThat(resolver.containsProperty("bogus"), is(true));
+		sources.remove("ps2");
+		assertThat(resolver.getProperty("pName"), equalTo("ps1Value"));
+		assertThat(resolver.getProperty("bogus"), nullValue());
+	}
+
+	@Test
+	public void containsProperty_withPropertySourceIndexAndNullValue() {
+		Map<String, Object> map = new HashMap<>();
+		map.put("pName", null);
+		MutablePropertySources sources = new MutablePropertySources();
+		sources.addFirst(new MapPropertySource("ps1", map));
+		PropertySourcesPropertyResolver resolver = new PropertySourcesPropertyResolver(sources);
+		resolver.setPropertySourceIndexEnabled(true);
+		assertThat(resolver.getProperty("pName"), nullValue());
+		assertThat(resolver.containsProperty("pName"), is(true));
+		assertThat(resolver.containsProperty("bogus"), is(false));
+	}
+
+	@Test
+	public void getProperty_withPropertySourceIndexFetchesValueOnce() {
+		AtomicInteger count = new AtomicInteger();
+		MutablePropertySources sources = new MutablePropertySources();
+		MockPropertySource source = new MockPropertySource("ps1") {
+			@Override
+			public Object getProperty(String name) {
+				count.incrementAndGet();
+				return super.getProperty(name);
+			}
+		};
+		source.setProperty("pName", "ps1Value");
+		sources.addFirst(source);
+		PropertySourcesPropertyResolver resolver = new PropertySourcesPropertyResolver(sources);
+		resolver.setPropertySourceIndexEnabled(true);
+		assertThat(resolver.getProperty("pName"), equalTo("ps1Value"));
+		assertThat(count.get(), is(1));
+		assertThat(resolver.getProperty("pName"), equalTo("ps1Value"));
+		assertThat(count.get(), is(2));
+	}
+
+	@Test
+	public void getProperty_withPropertySourceIndexAndModifiedPropertySource() {
+		MockPropertySource source = new MockPropertySource("ps1");
+		MutablePropertySources sources = new MutablePropertySources();
+		sources.addFirst(source);
+		PropertySourcesPropertyResolver resolver = new PropertySourcesPropertyResolver(sources);
+		resolver.setPropertySourceIndexEnabled(true);
+		assertThat(resolver.getProperty("pName"), nullValue());
+		source.setProperty("pName", "ps1Value");
+		assertThat(resolver.getProperty("pName"), nullValue());
+		resolver.clearPropertySourceIndex();
+		assertThat(resolver.getProperty("pName"), equalTo("ps1Value"));
+	}
+
 }
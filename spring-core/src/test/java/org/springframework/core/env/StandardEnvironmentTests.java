@@ -105,6 +105,32 @@ public class StandardEnvironmentTests {
 		assertThat(sources.size(), is(2));
 	}
 
+	@Test
+	public void propertySourceIndex() {
+		StandardEnvironment env = new StandardEnvironment();
+		assertFalse(env.isPropertySourceIndexEnabled());
+		env.setPropertySourceIndexEnabled(true);
+		assertTrue(env.isPropertySourceIndexEnabled());
+
+		MockPropertySource ps1 = new MockPropertySource("ps1").withProperty("key", "value1");
+		env.getPropertySources().addFirst(ps1);
+		assertThat(env.getProperty("key"), equalTo("value1"));
+		env.getPropertySources().addFirst(new MockPropertySource("ps2").withProperty("key", "value2"));
+		assertThat(env.getProperty("key"), equalTo("value2"));
+
+		env.getPropertySources().remove("ps2");
+		assertThat(env.getProperty("key"), equalTo("value1"));
+
+		// Changes within a property source require an explicit index reset
+		MockPropertySource ps3 = new MockPropertySource("ps3");
+		env.getPropertySources().addFirst(ps3);
+		assertThat(env.getProperty("key"), equalTo("value1"));
+		ps3.setProperty("key", "value3");
+		assertThat(env.getProperty("key"), equalTo("value1"));
+		env.clearPropertySourceIndex();
+		assertThat(env.getProperty("key"), equalTo("value3"));
+	}
+
 	@Test
 	public void propertySourceTypes() {
 		ConfigurableEnvironment env = new StandardEnvironment();
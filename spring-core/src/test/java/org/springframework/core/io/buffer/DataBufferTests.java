@@ -213,6 +213,20 @@ public class DataBufferTests extends AbstractDataBufferAllocatingTestCase {
 		release(buffer);
 	}
 
+	@Test
+	public void writeStringAfterExistingContent() {
+		DataBuffer buffer = createDataBuffer(4);
+		buffer.write(new byte[] {'a', 'b'});
+		buffer.write("Spring €", StandardCharsets.UTF_8);
+
+		assertEquals(12, buffer.readableByteCount());
+		byte[] result = new byte[12];
+		buffer.read(result);
+
+		assertArrayEquals("abSpring €".getBytes(StandardCharsets.UTF_8), result);
+		release(buffer);
+	}
+
 	@Test
 	public void writeIsoString() {
 		DataBuffer buffer = createDataBuffer(3);
@@ -734,6 +734,36 @@ public class DataBufferUtilsTests extends AbstractDataBufferAllocatingTestCase {
 				.verify();
 	}
 
+	@Test
+	public void matcher() {
+		DataBuffer foo = stringBuffer("foo");
+		DataBuffer bar = stringBuffer("bar");
+
+		byte[] delims = "ooba".getBytes(StandardCharsets.UTF_8);
+		DataBufferUtils.Matcher matcher = DataBufferUtils.matcher(delims);
+		assertEquals(-1, matcher.match(foo));
+		assertEquals(1, matcher.match(bar));
+		assertArrayEquals(delims, matcher.delimiter());
+
+		release(foo, bar);
+	}
 
+	@Test
+	public void compositeMatcher() {
+		DataBuffer first = stringBuffer("abc\r");
+		DataBuffer second = stringBuffer("\ndef\n");
+
+		DataBufferUtils.Matcher matcher = DataBufferUtils.matcher(
+				"\n".getBytes(StandardCharsets.UTF_8), "\r\n".getBytes(StandardCharsets.UTF_8));
+		assertEquals(-1, matcher.match(first));
+		assertEquals(0, matcher.match(second));
+		assertArrayEquals("\r\n".getBytes(StandardCharsets.UTF_8), matcher.delimiter());
+
+		second.readPosition(1);
+		assertEquals(4, matcher.match(second));
+		assertArrayEquals("\n".getBytes(StandardCharsets.UTF_8), matcher.delimiter());
+
+		release(first, second);
+	}
 
 }
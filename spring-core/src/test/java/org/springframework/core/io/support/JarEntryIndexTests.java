@@ -0,0 +1,112 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.support;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.core.io.Resource;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link JarEntryIndex} and its use in {@link PathMatchingResourcePatternResolver}.
+ *
+ * @author agent
+ */
+public class JarEntryIndexTests {
+
+	private File jar;
+
+
+	@Before
+	public void setup() throws IOException {
+		JarEntryIndex.clearCache();
+		this.jar = File.createTempFile("entries", ".jar");
+		this.jar.deleteOnExit();
+		writeJar("META-INF/", "META-INF/beans.xml", "com/", "com/acme/", "com/acme/b/", "com/acme/b/B.class",
+				"com/acme/A.class", "com/other/", "com/other/C.class", "META-INF/other/",
+				"META-INF/other/nested.xml", "com/acme/a/", "com/acme/a/A.class");
+	}
+
+	@After
+	public void cleanup() {
+		JarEntryIndex.clearCache();
+		this.jar.delete();
+	}
+
+
+	@Test
+	public void entryNamesInDirectoryOrder() throws IOException {
+		try (JarFile jarFile = new JarFile(this.jar)) {
+			assertEquals(13, JarEntryIndex.getEntryNames(jarFile, "").size());
+			assertEquals(Arrays.asList("com/acme/", "com/acme/b/", "com/acme/b/B.class", "com/acme/A.class",
+					"com/acme/a/", "com/acme/a/A.class"), JarEntryIndex.getEntryNames(jarFile, "com/acme/"));
+			assertEquals(Arrays.asList("META-INF/", "META-INF/beans.xml", "META-INF/other/", "META-INF/other/nested.xml"),
+					JarEntryIndex.getEntryNames(jarFile, "META-INF/"));
+			assertTrue(JarEntryIndex.getEntryNames(jarFile, "org/").isEmpty());
+		}
+	}
+
+	@Test
+	public void indexInvalidatedOnChange() throws IOException {
+		try (JarFile jarFile = new JarFile(this.jar)) {
+			assertEquals(6, JarEntryIndex.getEntryNames(jarFile, "com/acme/").size());
+		}
+		writeJar("com/", "com/acme/", "com/acme/A.class");
+		assertTrue(this.jar.setLastModified(this.jar.lastModified() + 2000));
+		try (JarFile jarFile = new JarFile(this.jar)) {
+			assertEquals(Arrays.asList("com/acme/", "com/acme/A.class"), JarEntryIndex.getEntryNames(jarFile, "com/acme/"));
+		}
+	}
+
+	@Test
+	public void patternMatchingInJar() throws IOException {
+		PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+		String root = "jar:" + this.jar.toURI().toURL() + "!/";
+		assertFilenames(resolver.getResources(root + "com/acme/**/*.class"), "B.class", "A.class", "A.class");
+		assertFilenames(resolver.getResources(root + "com/*/*.class"), "A.class", "C.class");
+		assertFilenames(resolver.getResources(root + "META-INF/*.xml"), "beans.xml");
+		assertFilenames(resolver.getResources(root + "**/*.xml"), "beans.xml", "nested.xml");
+	}
+
+
+	private void writeJar(String... entryNames) throws IOException {
+		try (JarOutputStream out = new JarOutputStream(new FileOutputStream(this.jar))) {
+			for (String entryName : entryNames) {
+				out.putNextEntry(new ZipEntry(entryName));
+				out.write(entryName.getBytes("UTF-8"));
+				out.closeEntry();
+			}
+		}
+	}
+
+	private void assertFilenames(Resource[] resources, String... filenames) {
+		String[] actual = Arrays.stream(resources).map(Resource::getFilename).toArray(String[]::new);
+		assertArrayEquals(filenames, actual);
+	}
+
+}
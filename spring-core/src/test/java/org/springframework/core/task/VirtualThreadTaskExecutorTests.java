@@ -0,0 +1,112 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.task;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import org.springframework.util.concurrent.ListenableFuture;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link VirtualThreadTaskExecutor}.
+ *
+ * @author agent
+ */
+public class VirtualThreadTaskExecutorTests {
+
+	@Test
+	public void executeOnNewThread() throws Exception {
+		VirtualThreadTaskExecutor executor = new VirtualThreadTaskExecutor("custom-");
+		assertEquals(VirtualThreadTaskExecutor.isVirtualThreadSupported(), executor.isVirtual());
+		ListenableFuture<Thread> future = executor.submitListenable(Thread::currentThread);
+		Thread thread = future.get(1, TimeUnit.SECONDS);
+		assertNotSame(Thread.currentThread(), thread);
+		assertTrue(thread.getName().startsWith("custom-"));
+		assertTrue(thread.isDaemon());
+	}
+
+	@Test
+	public void throttleIsNotActiveByDefault() {
+		VirtualThreadTaskExecutor executor = new VirtualThreadTaskExecutor();
+		assertFalse(executor.isThrottleActive());
+		assertEquals(VirtualThreadTaskExecutor.UNBOUNDED_CONCURRENCY, executor.getConcurrencyLimit());
+	}
+
+	@Test
+	public void concurrencyLimit() throws Exception {
+		VirtualThreadTaskExecutor executor = new VirtualThreadTaskExecutor();
+		executor.setConcurrencyLimit(2);
+		assertTrue(executor.isThrottleActive());
+		AtomicInteger active = new AtomicInteger();
+		AtomicInteger maxActive = new AtomicInteger();
+		int taskCount = 20;
+		CountDownLatch latch = new CountDownLatch(taskCount);
+		for (int i = 0; i < taskCount; i++) {
+			executor.execute(() -> {
+				maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+				try {
+					Thread.sleep(5);
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+				active.decrementAndGet();
+				latch.countDown();
+			});
+		}
+		assertTrue(latch.await(5, TimeUnit.SECONDS));
+		assertTrue(maxActive.get() <= 2);
+	}
+
+	@Test
+	public void concurrencyLimitWithStartTimeout() throws Exception {
+		VirtualThreadTaskExecutor executor = new VirtualThreadTaskExecutor();
+		executor.setConcurrencyLimit(1);
+		CountDownLatch blocker = new CountDownLatch(1);
+		executor.execute(() -> {
+			try {
+				blocker.await();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		try {
+			executor.execute(() -> {}, 10);
+			fail("Should have thrown TaskTimeoutException");
+		}
+		catch (TaskTimeoutException ex) {
+			// expected
+		}
+		CountDownLatch urgent = new CountDownLatch(1);
+		executor.execute(urgent::countDown, AsyncTaskExecutor.TIMEOUT_IMMEDIATE);
+		assertTrue(urgent.await(1, TimeUnit.SECONDS));
+		blocker.countDown();
+		assertEquals("done", executor.submit(() -> "done").get(1, TimeUnit.SECONDS));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidConcurrencyLimit() {
+		new VirtualThreadTaskExecutor().setConcurrencyLimit(0);
+	}
+
+}
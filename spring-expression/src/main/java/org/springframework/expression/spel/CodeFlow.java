@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -85,9 +85,16 @@ public class CodeFlow implements Opcodes {
 
 	/**
 	 * When code generation requires an intermediate variable within a method,
-	 * this method records the next available variable (variable 0 is 'this').
+	 * this method records the next available variable (variable 0 is 'this',
+	 * variables 1 and 2 are the target and the evaluation context).
 	 */
-	private int nextFreeVariableId = 1;
+	private int nextFreeVariableId = 3;
+
+	/**
+	 * Local variables holding the active context object, for nested evaluation
+	 * against elements of a collection (e.g. selection or projection criteria).
+	 */
+	private final Deque<Integer> activeContextVariables = new ArrayDeque<>();
 
 
 	/**
@@ -105,11 +112,33 @@ public class CodeFlow implements Opcodes {
 
 	/**
 	 * Push the byte code to load the target (i.e. what was passed as the first argument
-	 * to CompiledExpression.getValue(target, context))
+	 * to CompiledExpression.getValue(target, context)), or the active context object
+	 * within a {@link #enterActiveContextScope nested scope}.
 	 * @param mv the visitor into which the load instruction should be inserted
 	 */
 	public void loadTarget(MethodVisitor mv) {
-		mv.visitVarInsn(ALOAD, 1);
+		Integer activeContextVariable = this.activeContextVariables.peek();
+		mv.visitVarInsn(ALOAD, (activeContextVariable != null ? activeContextVariable : 1));
+	}
+
+	/**
+	 * Make the given local variable the active context object for the code generated
+	 * until the matching {@link #exitActiveContextScope()}: {@link #loadTarget} then
+	 * loads that variable instead of the target passed to the compiled expression.
+	 * @param variableId the local variable holding the active context object
+	 * @since 5.2
+	 */
+	public void enterActiveContextScope(int variableId) {
+		this.activeContextVariables.push(variableId);
+	}
+
+	/**
+	 * Restore the previous active context object.
+	 * @since 5.2
+	 * @see #enterActiveContextScope(int)
+	 */
+	public void exitActiveContextScope() {
+		this.activeContextVariables.pop();
 	}
 
 	/**
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -30,10 +30,17 @@ import org.springframework.lang.Nullable;
  */
 public class SpelParserConfiguration {
 
+	/**
+	 * System property that specifies the default compiler mode: {@value}.
+	 * <p>The value is the name of a {@link SpelCompilerMode}, e.g. "mixed".
+	 * @since 5.2
+	 */
+	public static final String SPRING_EXPRESSION_COMPILER_MODE_PROPERTY_NAME = "spring.expression.compiler.mode";
+
 	private static final SpelCompilerMode defaultCompilerMode;
 
 	static {
-		String compilerMode = SpringProperties.getProperty("spring.expression.compiler.mode");
+		String compilerMode = SpringProperties.getProperty(SPRING_EXPRESSION_COMPILER_MODE_PROPERTY_NAME);
 		defaultCompilerMode = (compilerMode != null ?
 				SpelCompilerMode.valueOf(compilerMode.toUpperCase()) : SpelCompilerMode.OFF);
 	}
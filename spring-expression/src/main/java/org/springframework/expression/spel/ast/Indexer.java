@@ -194,10 +194,10 @@ public class Indexer extends SpelNodeImpl {
 	@Override
 	public boolean isCompilable() {
 		if (this.indexedType == IndexedType.ARRAY) {
-			return (this.exitTypeDescriptor != null);
+			return (this.exitTypeDescriptor != null && isCompilableIndex(this.children[0]));
 		}
 		else if (this.indexedType == IndexedType.LIST) {
-			return this.children[0].isCompilable();
+			return isCompilableIndex(this.children[0]);
 		}
 		else if (this.indexedType == IndexedType.MAP) {
 			return (this.children[0] instanceof PropertyOrFieldReference || this.children[0].isCompilable());
@@ -211,6 +211,15 @@ public class Indexer extends SpelNodeImpl {
 		return false;
 	}
 
+	/**
+	 * Determine whether the given index node can be compiled to an {@code int} index,
+	 * i.e. whether it evaluates to an {@code int} or {@code Integer}.
+	 */
+	private static boolean isCompilableIndex(SpelNodeImpl index) {
+		return (index.isCompilable() &&
+				("I".equals(index.exitTypeDescriptor) || "Ljava/lang/Integer".equals(index.exitTypeDescriptor)));
+	}
+
 	@Override
 	public void generateCode(MethodVisitor mv, CodeFlow cf) {
 		String descriptor = cf.lastDescriptor();
@@ -255,18 +264,13 @@ public class Indexer extends SpelNodeImpl {
 						//depthPlusOne(exitTypeDescriptor)+"Ljava/lang/Object;");
 				insn = AALOAD;
 			}
-			SpelNodeImpl index = this.children[0];
-			cf.enterCompilationScope();
-			index.generateCode(mv, cf);
-			cf.exitCompilationScope();
+			generateIndexCode(mv, cf, this.children[0]);
 			mv.visitInsn(insn);
 		}
 
 		else if (this.indexedType == IndexedType.LIST) {
 			mv.visitTypeInsn(CHECKCAST, "java/util/List");
-			cf.enterCompilationScope();
-			this.children[0].generateCode(mv, cf);
-			cf.exitCompilationScope();
+			generateIndexCode(mv, cf, this.children[0]);
 			mv.visitMethodInsn(INVOKEINTERFACE, "java/util/List", "get", "(I)Ljava/lang/Object;", true);
 		}
 
@@ -282,6 +286,7 @@ public class Indexer extends SpelNodeImpl {
 			else {
 				cf.enterCompilationScope();
 				this.children[0].generateCode(mv, cf);
+				CodeFlow.insertBoxIfNecessary(mv, cf.lastDescriptor());
 				cf.exitCompilationScope();
 			}
 			mv.visitMethodInsn(
@@ -318,6 +323,19 @@ public class Indexer extends SpelNodeImpl {
 		cf.pushDescriptor(this.exitTypeDescriptor);
 	}
 
+	/**
+	 * Generate the code for the given index node, leaving an {@code int} on the stack.
+	 */
+	private static void generateIndexCode(MethodVisitor mv, CodeFlow cf, SpelNodeImpl index) {
+		cf.enterCompilationScope();
+		index.generateCode(mv, cf);
+		String indexDescriptor = cf.lastDescriptor();
+		if (!"I".equals(indexDescriptor)) {
+			CodeFlow.insertUnboxInsns(mv, 'I', indexDescriptor);
+		}
+		cf.exitCompilationScope();
+	}
+
 	@Override
 	public String toStringAST() {
 		StringBuilder sb = new StringBuilder("[");
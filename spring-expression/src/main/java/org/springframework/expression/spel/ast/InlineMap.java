@@ -20,8 +20,10 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
+import org.springframework.asm.MethodVisitor;
 import org.springframework.expression.EvaluationException;
 import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.CodeFlow;
 import org.springframework.expression.spel.ExpressionState;
 import org.springframework.expression.spel.SpelNode;
 import org.springframework.lang.Nullable;
@@ -164,4 +166,70 @@ public class InlineMap extends SpelNodeImpl {
 		return (Map<Object, Object>) this.constant.getValue();
 	}
 
+	@Override
+	public boolean isCompilable() {
+		return isConstant();
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow codeflow) {
+		final String constantFieldName = "inlineMap$" + codeflow.nextFieldId();
+		final String className = codeflow.getClassName();
+
+		codeflow.registerNewField((cw, cflow) ->
+				cw.visitField(ACC_PRIVATE | ACC_STATIC | ACC_FINAL, constantFieldName, "Ljava/util/Map;", null, null));
+
+		codeflow.registerNewClinit((mVisitor, cflow) -> {
+			generateClinitCode(mVisitor, cflow);
+			mVisitor.visitFieldInsn(PUTSTATIC, className, constantFieldName, "Ljava/util/Map;");
+		});
+
+		mv.visitFieldInsn(GETSTATIC, className, constantFieldName, "Ljava/util/Map;");
+		codeflow.pushDescriptor("Ljava/util/Map");
+	}
+
+	/**
+	 * Generate the code that builds this constant map, as an unmodifiable map
+	 * left on the stack.
+	 */
+	void generateClinitCode(MethodVisitor mv, CodeFlow codeflow) {
+		mv.visitTypeInsn(NEW, "java/util/LinkedHashMap");
+		mv.visitInsn(DUP);
+		mv.visitMethodInsn(INVOKESPECIAL, "java/util/LinkedHashMap", "<init>", "()V", false);
+		int childCount = getChildCount();
+		for (int c = 0; c < childCount; c++) {
+			mv.visitInsn(DUP);
+			SpelNodeImpl keyChild = this.children[c++];
+			if (keyChild instanceof PropertyOrFieldReference) {
+				mv.visitLdcInsn(((PropertyOrFieldReference) keyChild).getName());
+			}
+			else {
+				generateConstantCode(keyChild, mv, codeflow);
+			}
+			generateConstantCode(this.children[c], mv, codeflow);
+			mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Map", "put",
+					"(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;", true);
+			mv.visitInsn(POP);
+		}
+		mv.visitMethodInsn(INVOKESTATIC, "java/util/Collections", "unmodifiableMap",
+				"(Ljava/util/Map;)Ljava/util/Map;", false);
+	}
+
+	private static void generateConstantCode(SpelNodeImpl child, MethodVisitor mv, CodeFlow codeflow) {
+		// Nested lists and maps are built in place rather than through generateCode(),
+		// which would register further static fields and initializers
+		if (child instanceof InlineList) {
+			((InlineList) child).generateClinitCode(codeflow.getClassName(), "", mv, codeflow, true);
+		}
+		else if (child instanceof InlineMap) {
+			((InlineMap) child).generateClinitCode(mv, codeflow);
+		}
+		else {
+			codeflow.enterCompilationScope();
+			child.generateCode(mv, codeflow);
+			CodeFlow.insertBoxIfNecessary(mv, codeflow.lastDescriptor());
+			codeflow.exitCompilationScope();
+		}
+	}
+
 }
@@ -22,8 +22,11 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
 import org.springframework.expression.EvaluationException;
 import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.CodeFlow;
 import org.springframework.expression.spel.ExpressionState;
 import org.springframework.expression.spel.SpelEvaluationException;
 import org.springframework.expression.spel.SpelMessage;
@@ -45,6 +48,8 @@ public class Projection extends SpelNodeImpl {
 
 	private final boolean nullSafe;
 
+	private boolean iterableOperand;
+
 
 	public Projection(boolean nullSafe, int startPos, int endPos, SpelNodeImpl expression) {
 		super(startPos, endPos, expression);
@@ -63,6 +68,8 @@ public class Projection extends SpelNodeImpl {
 
 		Object operand = op.getValue();
 		boolean operandIsArray = ObjectUtils.isArray(operand);
+		// Only an Iterable operand can be compiled: reset for any other type, e.g. a Map
+		this.iterableOperand = (operand instanceof Iterable);
 		// TypeDescriptor operandTypeDescriptor = op.getTypeDescriptor();
 
 		// When the input is a map, we push a special context object on the stack
@@ -120,6 +127,7 @@ public class Projection extends SpelNodeImpl {
 				return new ValueRef.TypedValueHolderValueRef(new TypedValue(resultArray),this);
 			}
 
+			this.exitTypeDescriptor = "Ljava/util/List";
 			return new ValueRef.TypedValueHolderValueRef(new TypedValue(result),this);
 		}
 
@@ -139,6 +147,68 @@ public class Projection extends SpelNodeImpl {
 		return "![" + getChild(0).toStringAST() + "]";
 	}
 
+	/**
+	 * A projection is compilable if it was last evaluated against an {@code Iterable}
+	 * and if its operation is compilable.
+	 */
+	@Override
+	public boolean isCompilable() {
+		return (this.iterableOperand && this.children[0].isCompilable());
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow cf) {
+		if (cf.lastDescriptor() == null) {
+			cf.loadTarget(mv);
+		}
+		Label endOfProjection = new Label();
+		mv.visitTypeInsn(CHECKCAST, "java/lang/Iterable");
+		if (this.nullSafe) {
+			Label notNull = new Label();
+			mv.visitInsn(DUP);
+			mv.visitJumpInsn(IFNONNULL, notNull);
+			mv.visitInsn(POP);
+			mv.visitInsn(ACONST_NULL);
+			mv.visitJumpInsn(GOTO, endOfProjection);
+			mv.visitLabel(notNull);
+		}
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/lang/Iterable", "iterator", "()Ljava/util/Iterator;", true);
+		int iteratorVariable = cf.nextFreeVariableId();
+		mv.visitVarInsn(ASTORE, iteratorVariable);
+		int resultVariable = cf.nextFreeVariableId();
+		mv.visitTypeInsn(NEW, "java/util/ArrayList");
+		mv.visitInsn(DUP);
+		mv.visitMethodInsn(INVOKESPECIAL, "java/util/ArrayList", "<init>", "()V", false);
+		mv.visitVarInsn(ASTORE, resultVariable);
+
+		Label loop = new Label();
+		Label endOfLoop = new Label();
+		mv.visitLabel(loop);
+		mv.visitVarInsn(ALOAD, iteratorVariable);
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Iterator", "hasNext", "()Z", true);
+		mv.visitJumpInsn(IFEQ, endOfLoop);
+		mv.visitVarInsn(ALOAD, iteratorVariable);
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Iterator", "next", "()Ljava/lang/Object;", true);
+		int elementVariable = cf.nextFreeVariableId();
+		mv.visitVarInsn(ASTORE, elementVariable);
+
+		mv.visitVarInsn(ALOAD, resultVariable);
+		cf.enterActiveContextScope(elementVariable);
+		cf.enterCompilationScope();
+		this.children[0].generateCode(mv, cf);
+		CodeFlow.insertBoxIfNecessary(mv, cf.lastDescriptor());
+		cf.exitCompilationScope();
+		cf.exitActiveContextScope();
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/util/List", "add", "(Ljava/lang/Object;)Z", true);
+		mv.visitInsn(POP);
+		mv.visitJumpInsn(GOTO, loop);
+
+		mv.visitLabel(endOfLoop);
+		mv.visitVarInsn(ALOAD, resultVariable);
+		mv.visitLabel(endOfProjection);
+		cf.pushDescriptor("Ljava/util/List");
+	}
+
 	private Class<?> determineCommonType(@Nullable Class<?> oldType, Class<?> newType) {
 		if (oldType == null) {
 			return newType;
@@ -23,9 +23,12 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
 import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.expression.EvaluationException;
 import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.CodeFlow;
 import org.springframework.expression.spel.ExpressionState;
 import org.springframework.expression.spel.SpelEvaluationException;
 import org.springframework.expression.spel.SpelMessage;
@@ -68,6 +71,8 @@ public class Selection extends SpelNodeImpl {
 
 	private final boolean nullSafe;
 
+	private boolean iterableOperand;
+
 
 	public Selection(boolean nullSafe, int variant, int startPos, int endPos, SpelNodeImpl expression) {
 		super(startPos, endPos, expression);
@@ -86,6 +91,8 @@ public class Selection extends SpelNodeImpl {
 		TypedValue op = state.getActiveContextObject();
 		Object operand = op.getValue();
 		SpelNodeImpl selectionCriteria = this.children[0];
+		// Only an Iterable operand can be compiled: reset for any other type, e.g. a Map
+		this.iterableOperand = (operand instanceof Iterable);
 
 		if (operand instanceof Map) {
 			Map<?, ?> mapdata = (Map<?, ?>) operand;
@@ -174,6 +181,7 @@ public class Selection extends SpelNodeImpl {
 			}
 
 			if (operand instanceof Iterable) {
+				this.exitTypeDescriptor = "Ljava/util/List";
 				return new ValueRef.TypedValueHolderValueRef(new TypedValue(result), this);
 			}
 
@@ -203,6 +211,98 @@ public class Selection extends SpelNodeImpl {
 				operand.getClass().getName());
 	}
 
+	/**
+	 * A selection is compilable if it was last evaluated against an {@code Iterable}
+	 * and if its criteria are compilable.
+	 */
+	@Override
+	public boolean isCompilable() {
+		return (this.iterableOperand && this.children[0].isCompilable());
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow cf) {
+		if (cf.lastDescriptor() == null) {
+			cf.loadTarget(mv);
+		}
+		Label endOfSelection = new Label();
+		mv.visitTypeInsn(CHECKCAST, "java/lang/Iterable");
+		if (this.nullSafe) {
+			Label notNull = new Label();
+			mv.visitInsn(DUP);
+			mv.visitJumpInsn(IFNONNULL, notNull);
+			mv.visitInsn(POP);
+			mv.visitInsn(ACONST_NULL);
+			mv.visitJumpInsn(GOTO, endOfSelection);
+			mv.visitLabel(notNull);
+		}
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/lang/Iterable", "iterator", "()Ljava/util/Iterator;", true);
+		int iteratorVariable = cf.nextFreeVariableId();
+		mv.visitVarInsn(ASTORE, iteratorVariable);
+
+		// The result: a list of the selected elements, or the last selected element
+		int resultVariable = cf.nextFreeVariableId();
+		if (this.variant == ALL) {
+			mv.visitTypeInsn(NEW, "java/util/ArrayList");
+			mv.visitInsn(DUP);
+			mv.visitMethodInsn(INVOKESPECIAL, "java/util/ArrayList", "<init>", "()V", false);
+			mv.visitVarInsn(ASTORE, resultVariable);
+		}
+		else if (this.variant == LAST) {
+			mv.visitInsn(ACONST_NULL);
+			mv.visitVarInsn(ASTORE, resultVariable);
+		}
+
+		Label loop = new Label();
+		Label endOfLoop = new Label();
+		mv.visitLabel(loop);
+		mv.visitVarInsn(ALOAD, iteratorVariable);
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Iterator", "hasNext", "()Z", true);
+		mv.visitJumpInsn(IFEQ, endOfLoop);
+		mv.visitVarInsn(ALOAD, iteratorVariable);
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Iterator", "next", "()Ljava/lang/Object;", true);
+		int elementVariable = cf.nextFreeVariableId();
+		mv.visitVarInsn(ASTORE, elementVariable);
+
+		cf.enterActiveContextScope(elementVariable);
+		cf.enterCompilationScope();
+		this.children[0].generateCode(mv, cf);
+		String criteriaDescriptor = cf.lastDescriptor();
+		if (!"Z".equals(criteriaDescriptor)) {
+			CodeFlow.insertUnboxInsns(mv, 'Z', criteriaDescriptor != null ? criteriaDescriptor : "Ljava/lang/Object");
+		}
+		cf.exitCompilationScope();
+		cf.exitActiveContextScope();
+		mv.visitJumpInsn(IFEQ, loop);
+
+		if (this.variant == ALL) {
+			mv.visitVarInsn(ALOAD, resultVariable);
+			mv.visitVarInsn(ALOAD, elementVariable);
+			mv.visitMethodInsn(INVOKEINTERFACE, "java/util/List", "add", "(Ljava/lang/Object;)Z", true);
+			mv.visitInsn(POP);
+			mv.visitJumpInsn(GOTO, loop);
+		}
+		else if (this.variant == LAST) {
+			mv.visitVarInsn(ALOAD, elementVariable);
+			mv.visitVarInsn(ASTORE, resultVariable);
+			mv.visitJumpInsn(GOTO, loop);
+		}
+		else {
+			mv.visitVarInsn(ALOAD, elementVariable);
+			mv.visitJumpInsn(GOTO, endOfSelection);
+		}
+
+		mv.visitLabel(endOfLoop);
+		if (this.variant == FIRST) {
+			mv.visitInsn(ACONST_NULL);
+		}
+		else {
+			mv.visitVarInsn(ALOAD, resultVariable);
+		}
+		mv.visitLabel(endOfSelection);
+		cf.pushDescriptor(this.variant == ALL ? "Ljava/util/List" : "Ljava/lang/Object");
+	}
+
 	@Override
 	public String toStringAST() {
 		StringBuilder sb = new StringBuilder();
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,10 +16,17 @@
 
 package org.springframework.expression.spel.standard;
 
+import java.lang.ref.WeakReference;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -27,6 +34,7 @@ import org.apache.commons.logging.LogFactory;
 import org.springframework.asm.ClassWriter;
 import org.springframework.asm.MethodVisitor;
 import org.springframework.asm.Opcodes;
+import org.springframework.core.SpringProperties;
 import org.springframework.expression.Expression;
 import org.springframework.expression.spel.CodeFlow;
 import org.springframework.expression.spel.CompiledExpression;
@@ -62,15 +70,37 @@ import org.springframework.util.StringUtils;
  *
  * <p>Individual expressions can be compiled by calling {@code SpelCompiler.compile(expression)}.
  *
+ * <p>Compiled expression classes are cached per compiler, keyed by their generated
+ * bytecode, so that recompiling the same expression against the same types reuses
+ * the existing class. The cache is bounded (see {@link #CACHE_LIMIT_PROPERTY_NAME})
+ * and evicts the least recently used classes. Since generated classes are defined in
+ * batches by separate class loaders, a batch can be unloaded once all of its classes
+ * have been evicted and are no longer referenced by any expression.
+ *
  * @author Andy Clement
  * @since 4.1
  */
 public final class SpelCompiler implements Opcodes {
 
+	/**
+	 * System property that specifies the maximum number of compiled expression
+	 * classes to cache per compiler: {@value}.
+	 * <p>The default is 256. A value of 0 disables the cache.
+	 * @since 5.2
+	 */
+	public static final String CACHE_LIMIT_PROPERTY_NAME = "spring.expression.compiler.cacheLimit";
+
 	private static final Log logger = LogFactory.getLog(SpelCompiler.class);
 
 	private static final int CLASSES_DEFINED_LIMIT = 100;
 
+	private static final int DEFAULT_CACHE_LIMIT = 256;
+
+	// Class name used for the cache key, i.e. for comparing the generated bytecode
+	private static final String KEY_CLASS_NAME = "spel/Ex";
+
+	private static final int cacheLimit = initCacheLimit();
+
 	// A compiler is created for each classloader, it manages a child class loader of that
 	// classloader and the child is used to load the compiled expressions.
 	private static final Map<ClassLoader, SpelCompiler> compilers = new ConcurrentReferenceHashMap<>();
@@ -81,9 +111,25 @@ public final class SpelCompiler implements Opcodes {
 	// Counter suffix for generated classes within this SpelCompiler instance
 	private final AtomicInteger suffixId = new AtomicInteger(1);
 
+	// Compiled expression classes by generated bytecode, in access order
+	private final Map<BytecodeKey, Class<? extends CompiledExpression>> compiledClassCache =
+			new LinkedHashMap<BytecodeKey, Class<? extends CompiledExpression>>(16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<BytecodeKey, Class<? extends CompiledExpression>> eldest) {
+					return (size() > cacheLimit);
+				}
+			};
+
+	// All child class loaders created so far, for tracking their unloading
+	private final List<WeakReference<ChildClassLoader>> classLoaders = new LinkedList<>();
+
+	private final AtomicLong compiledClassCount = new AtomicLong();
+
+	private final AtomicLong cacheHitCount = new AtomicLong();
+
 
 	private SpelCompiler(@Nullable ClassLoader classloader) {
-		this.ccl = new ChildClassLoader(classloader);
+		this.ccl = createChildClassLoader(classloader);
 	}
 
 
@@ -132,8 +178,49 @@ public final class SpelCompiler implements Opcodes {
 	 */
 	@Nullable
 	private Class<? extends CompiledExpression> createExpressionClass(SpelNodeImpl expressionToCompile) {
+		if (cacheLimit <= 0) {
+			String className = KEY_CLASS_NAME + getNextSuffix();
+			byte[] data = generateExpressionClass(expressionToCompile, className);
+			return (data != null ? loadClass(StringUtils.replace(className, "/", "."), data) : null);
+		}
+
+		// Generate the class under a fixed name first: identical bytecode means that
+		// an existing class can be reused for the expression
+		byte[] keyData = generateExpressionClass(expressionToCompile, KEY_CLASS_NAME);
+		if (keyData == null) {
+			return null;
+		}
+		BytecodeKey key = new BytecodeKey(keyData);
+		synchronized (this.compiledClassCache) {
+			Class<? extends CompiledExpression> cached = this.compiledClassCache.get(key);
+			if (cached != null) {
+				this.cacheHitCount.incrementAndGet();
+				return cached;
+			}
+		}
+
+		String className = KEY_CLASS_NAME + getNextSuffix();
+		byte[] data = generateExpressionClass(expressionToCompile, className);
+		if (data == null) {
+			return null;
+		}
+		Class<? extends CompiledExpression> clazz = loadClass(StringUtils.replace(className, "/", "."), data);
+		synchronized (this.compiledClassCache) {
+			this.compiledClassCache.put(key, clazz);
+		}
+		return clazz;
+	}
+
+	/**
+	 * Generate the bytecode of the class that encapsulates the compiled expression.
+	 * @param expressionToCompile the expression to be compiled
+	 * @param className the internal name of the class
+	 * @return the bytecode, or {@code null} if the decision was to opt out of
+	 * compilation during code generation
+	 */
+	@Nullable
+	private byte[] generateExpressionClass(SpelNodeImpl expressionToCompile, String className) {
 		// Create class outline 'spel/ExNNN extends org.springframework.expression.spel.CompiledExpression'
-		String className = "spel/Ex" + getNextSuffix();
 		ClassWriter cw = new ExpressionClassWriter();
 		cw.visit(V1_5, ACC_PUBLIC, className, null, "org/springframework/expression/spel/CompiledExpression", null);
 
@@ -179,10 +266,9 @@ public final class SpelCompiler implements Opcodes {
 
 		cf.finish();
 
-		byte[] data = cw.toByteArray();
 		// TODO need to make this conditionally occur based on a debug flag
 		// dump(expressionToCompile.toStringAST(), clazzName, data);
-		return loadClass(StringUtils.replace(className, "/", "."), data);
+		return cw.toByteArray();
 	}
 
 	/**
@@ -195,11 +281,73 @@ public final class SpelCompiler implements Opcodes {
 	 * @return the Class object for the compiled expression
 	 */
 	@SuppressWarnings("unchecked")
-	private Class<? extends CompiledExpression> loadClass(String name, byte[] bytes) {
+	private synchronized Class<? extends CompiledExpression> loadClass(String name, byte[] bytes) {
 		if (this.ccl.getClassesDefinedCount() > CLASSES_DEFINED_LIMIT) {
-			this.ccl = new ChildClassLoader(this.ccl.getParent());
+			this.ccl = createChildClassLoader(this.ccl.getParent());
+		}
+		Class<? extends CompiledExpression> clazz =
+				(Class<? extends CompiledExpression>) this.ccl.defineClass(name, bytes);
+		this.compiledClassCount.incrementAndGet();
+		return clazz;
+	}
+
+	private ChildClassLoader createChildClassLoader(@Nullable ClassLoader parent) {
+		ChildClassLoader childClassLoader = new ChildClassLoader(parent);
+		synchronized (this.classLoaders) {
+			this.classLoaders.removeIf(reference -> reference.get() == null);
+			this.classLoaders.add(new WeakReference<>(childClassLoader));
+		}
+		return childClassLoader;
+	}
+
+	/**
+	 * Return the number of expression classes compiled and loaded by this compiler.
+	 * @since 5.2
+	 */
+	public long getCompiledClassCount() {
+		return this.compiledClassCount.get();
+	}
+
+	/**
+	 * Return the number of compilations that reused a cached expression class.
+	 * @since 5.2
+	 */
+	public long getCacheHitCount() {
+		return this.cacheHitCount.get();
+	}
+
+	/**
+	 * Return the number of expression classes currently held in the cache.
+	 * @since 5.2
+	 * @see #CACHE_LIMIT_PROPERTY_NAME
+	 */
+	public int getCachedClassCount() {
+		synchronized (this.compiledClassCache) {
+			return this.compiledClassCache.size();
+		}
+	}
+
+	/**
+	 * Return the number of class loaders for compiled expressions that have
+	 * not been garbage collected yet, including the currently active one.
+	 * <p>Each class loader holds a batch of compiled expression classes; it
+	 * is collected (unloading its classes) once none of them is referenced
+	 * from the cache or from an expression any more.
+	 * @since 5.2
+	 */
+	public int getClassLoaderCount() {
+		synchronized (this.classLoaders) {
+			int count = 0;
+			for (Iterator<WeakReference<ChildClassLoader>> it = this.classLoaders.iterator(); it.hasNext();) {
+				if (it.next().get() != null) {
+					count++;
+				}
+				else {
+					it.remove();
+				}
+			}
+			return count;
 		}
-		return (Class<? extends CompiledExpression>) this.ccl.defineClass(name, bytes);
 	}
 
 	/**
@@ -243,6 +391,41 @@ public final class SpelCompiler implements Opcodes {
 	}
 
 
+	private static int initCacheLimit() {
+		String cacheLimit = SpringProperties.getProperty(CACHE_LIMIT_PROPERTY_NAME);
+		return (cacheLimit != null ? Integer.parseInt(cacheLimit.trim()) : DEFAULT_CACHE_LIMIT);
+	}
+
+
+	/**
+	 * Cache key for a compiled expression class: the bytecode generated for it
+	 * under a fixed class name, capturing both the expression and the types
+	 * observed during its interpreted evaluation.
+	 */
+	private static final class BytecodeKey {
+
+		private final byte[] bytecode;
+
+		private final int hashCode;
+
+		BytecodeKey(byte[] bytecode) {
+			this.bytecode = bytecode;
+			this.hashCode = Arrays.hashCode(bytecode);
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return (this == other || (other instanceof BytecodeKey &&
+					Arrays.equals(this.bytecode, ((BytecodeKey) other).bytecode)));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+	}
+
+
 	/**
 	 * A ChildClassLoader will load the generated compiled expression classes.
 	 */
@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -365,6 +366,163 @@ public class SpelCompilationCoverageTests extends AbstractExpressionTests {
 		assertEquals("bc", o);
 	}
 
+	@Test
+	public void inlineMap() throws Exception {
+		expression = parser.parseExpression("{a:1,'b':'x',c:{1,2},d:{e:true}}");
+		Object o = expression.getValue();
+		assertEquals("{a=1, b=x, c=[1, 2], d={e=true}}", o.toString());
+		assertCanCompile(expression);
+		o = expression.getValue();
+		assertEquals("{a=1, b=x, c=[1, 2], d={e=true}}", o.toString());
+
+		expression = parser.parseExpression("{'a':'bcde',1:'fghi'}[1].substring(1)");
+		assertEquals("ghi", expression.getValue());
+		assertCanCompile(expression);
+		assertEquals("ghi", expression.getValue());
+
+		expression = parser.parseExpression("{a:#x}");
+		StandardEvaluationContext context = new StandardEvaluationContext();
+		context.setVariable("x", "y");
+		assertEquals("{a=y}", expression.getValue(context).toString());
+		assertCantCompile(expression);
+	}
+
+	@Test
+	public void selection() throws Exception {
+		List<Integer> numbers = new ArrayList<>();
+		Collections.addAll(numbers, 1, 2, 3, 4);
+
+		expression = parser.parseExpression("?[#this > 2]");
+		assertEquals("[3, 4]", expression.getValue(numbers).toString());
+		assertCanCompile(expression);
+		assertEquals("[3, 4]", expression.getValue(numbers).toString());
+		assertEquals("[]", expression.getValue(Collections.singletonList(1)).toString());
+
+		expression = parser.parseExpression("^[#this > 1]");
+		assertEquals(2, expression.getValue(numbers));
+		assertCanCompile(expression);
+		assertEquals(2, expression.getValue(numbers));
+		assertNull(expression.getValue(Collections.singletonList(1)));
+
+		expression = parser.parseExpression("$[#this < 4]");
+		assertEquals(3, expression.getValue(numbers));
+		assertCanCompile(expression);
+		assertEquals(3, expression.getValue(numbers));
+		assertNull(expression.getValue(Collections.singletonList(5)));
+
+		Basket basket = new Basket();
+		expression = parser.parseExpression("items.?[price > 10].size()");
+		assertEquals(2, expression.getValue(basket));
+		assertCanCompile(expression);
+		assertEquals(2, expression.getValue(basket));
+
+		expression = parser.parseExpression("items.?[name.startsWith('b') and price > #root.minPrice]");
+		assertEquals("[banana]", expression.getValue(basket).toString());
+		assertCanCompile(expression);
+		assertEquals("[banana]", expression.getValue(basket).toString());
+
+		// nested selection
+		expression = parser.parseExpression("{{1,2},{3,4}}.?[#this.?[#this > 2].size() > 0]");
+		assertEquals("[[3, 4]]", expression.getValue().toString());
+		assertCanCompile(expression);
+		assertEquals("[[3, 4]]", expression.getValue().toString());
+
+		expression = parser.parseExpression("optionalItems?.?[price > 10]");
+		basket.optionalItems = basket.getItems();
+		assertEquals("[banana, cherry]", expression.getValue(basket).toString());
+		assertCanCompile(expression);
+		assertEquals("[banana, cherry]", expression.getValue(basket).toString());
+		basket.optionalItems = null;
+		assertNull(expression.getValue(basket));
+
+		// Maps and arrays are not compiled
+		expression = parser.parseExpression("?[value > 1]");
+		assertEquals("{b=2}", expression.getValue(Collections.singletonMap("b", 2)).toString());
+		assertCantCompile(expression);
+	}
+
+	@Test
+	public void projection() throws Exception {
+		Basket basket = new Basket();
+
+		expression = parser.parseExpression("items.![name]");
+		assertEquals("[apple, banana, cherry]", expression.getValue(basket).toString());
+		assertCanCompile(expression);
+		assertEquals("[apple, banana, cherry]", expression.getValue(basket).toString());
+
+		expression = parser.parseExpression("items.?[price > 10].![name.toUpperCase()]");
+		assertEquals("[BANANA, CHERRY]", expression.getValue(basket).toString());
+		assertCanCompile(expression);
+		assertEquals("[BANANA, CHERRY]", expression.getValue(basket).toString());
+
+		expression = parser.parseExpression("items.![price]");
+		assertEquals("[5, 20, 30]", expression.getValue(basket).toString());
+		assertCanCompile(expression);
+		assertEquals("[5, 20, 30]", expression.getValue(basket).toString());
+
+		expression = parser.parseExpression("{1,2,3}.![#this * 2]");
+		assertEquals("[2, 4, 6]", expression.getValue().toString());
+		assertCanCompile(expression);
+		assertEquals("[2, 4, 6]", expression.getValue().toString());
+
+		expression = parser.parseExpression("optionalItems?.![name]");
+		basket.optionalItems = basket.getItems();
+		assertEquals("[apple, banana, cherry]", expression.getValue(basket).toString());
+		assertCanCompile(expression);
+		assertEquals("[apple, banana, cherry]", expression.getValue(basket).toString());
+		basket.optionalItems = null;
+		assertNull(expression.getValue(basket));
+	}
+
+	@Test
+	public void selectionAndProjectionOnListThenMap() throws Exception {
+		SpelExpressionParser parser = new SpelExpressionParser(
+				new SpelParserConfiguration(SpelCompilerMode.IMMEDIATE, getClass().getClassLoader()));
+		List<Integer> numbers = Arrays.asList(1, 2);
+		Map<String, Integer> map = Collections.singletonMap("a", 1);
+
+		// The second evaluation triggers compilation, with the Map as last operand
+		expression = parser.parseExpression("?[true]");
+		assertEquals("[1, 2]", expression.getValue(numbers).toString());
+		assertEquals("{a=1}", expression.getValue(map).toString());
+		assertCantCompile(expression);
+		assertEquals("{a=1}", expression.getValue(map).toString());
+
+		expression = parser.parseExpression("![1]");
+		assertEquals("[1, 1]", expression.getValue(numbers).toString());
+		assertEquals("[1]", expression.getValue(map).toString());
+		assertCantCompile(expression);
+		assertEquals("[1]", expression.getValue(map).toString());
+	}
+
+	@Test
+	public void indexerWithComputedIndex() throws Exception {
+		Basket basket = new Basket();
+		StandardEvaluationContext context = new StandardEvaluationContext(basket);
+		context.setVariable("i", 1);
+		context.setVariable("key", "banana");
+
+		expression = parser.parseExpression("items[#i].name");
+		assertEquals("banana", expression.getValue(context));
+		assertCanCompile(expression);
+		assertEquals("banana", expression.getValue(context));
+
+		expression = parser.parseExpression("items[items.size() - 1].name");
+		assertEquals("cherry", expression.getValue(context));
+		assertCanCompile(expression);
+		assertEquals("cherry", expression.getValue(context));
+
+		expression = parser.parseExpression("prices[#key]");
+		assertEquals(20, expression.getValue(context));
+		assertCanCompile(expression);
+		assertEquals(20, expression.getValue(context));
+
+		expression = parser.parseExpression("{1:'one',2:'two'}[items.size() - 1]");
+		assertEquals("two", expression.getValue(context));
+		assertCanCompile(expression);
+		assertEquals("two", expression.getValue(context));
+	}
+
 	@SuppressWarnings("rawtypes")
 	@Test
 	public void nestedInlineLists() throws Exception {
@@ -1023,7 +1181,7 @@ public class SpelCompilationCoverageTests extends AbstractExpressionTests {
 
 		expression = parser.parseExpression("#negate(#ints.?[#this<2][0])");
 		assertEquals("-1", expression.getValue(context, Integer.class).toString());
-		// Selection isn't compilable.
+		// Selection over an array isn't compilable.
 		assertFalse(((SpelNodeImpl)((SpelExpression) expression).getAST()).isCompilable());
 	}
 
@@ -5027,13 +5185,14 @@ public class SpelCompilationCoverageTests extends AbstractExpressionTests {
 		Field f = SpelExpression.class.getDeclaredField("compiledAst");
 		Set<Object> classloadersUsed = new HashSet<>();
 		for (int i = 0; i < 1500; i++) {  // 1500 is greater than SpelCompiler.CLASSES_DEFINED_LIMIT
-			expression = parser.parseExpression("4 + 5");
-			assertEquals(9, (int) expression.getValue(Integer.class));
+			// Distinct expressions, since identical ones share a cached class
+			expression = parser.parseExpression(i + " + 5");
+			assertEquals(i + 5, (int) expression.getValue(Integer.class));
 			assertCanCompile(expression);
 			f.setAccessible(true);
 			CompiledExpression cEx = (CompiledExpression) f.get(expression);
 			classloadersUsed.add(cEx.getClass().getClassLoader());
-			assertEquals(9, (int) expression.getValue(Integer.class));
+			assertEquals(i + 5, (int) expression.getValue(Integer.class));
 		}
 		assertTrue(classloadersUsed.size() > 1);
 	}
@@ -5124,6 +5283,63 @@ public class SpelCompilationCoverageTests extends AbstractExpressionTests {
 	}
 
 
+	public static class Basket {
+
+		public int minPrice = 10;
+
+		public List<Item> optionalItems;
+
+		private final List<Item> items = new ArrayList<>();
+
+		private final Map<String, Integer> prices = new HashMap<>();
+
+		public Basket() {
+			addItem("apple", 5);
+			addItem("banana", 20);
+			addItem("cherry", 30);
+		}
+
+		private void addItem(String name, int price) {
+			this.items.add(new Item(name, price));
+			this.prices.put(name, price);
+		}
+
+		public List<Item> getItems() {
+			return this.items;
+		}
+
+		public Map<String, Integer> getPrices() {
+			return this.prices;
+		}
+	}
+
+
+	public static class Item {
+
+		private final String name;
+
+		private final int price;
+
+		public Item(String name, int price) {
+			this.name = name;
+			this.price = price;
+		}
+
+		public String getName() {
+			return this.name;
+		}
+
+		public int getPrice() {
+			return this.price;
+		}
+
+		@Override
+		public String toString() {
+			return this.name;
+		}
+	}
+
+
 	public static class MyMessage implements Message<String> {
 
 		public MessageHeaders getHeaders() {
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.expression.spel.standard;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.HashSet;
+
+import org.junit.Test;
+
+import org.springframework.expression.spel.CompiledExpression;
+import org.springframework.expression.spel.ast.SpelNodeImpl;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link SpelCompiler}.
+ *
+ * @author agent
+ */
+public class SpelCompilerTests {
+
+	private final SpelCompiler compiler =
+			SpelCompiler.getCompiler(new URLClassLoader(new URL[0], getClass().getClassLoader()));
+
+
+	@Test
+	public void reuseClassForSameExpression() {
+		CompiledExpression first = compile("'abc'.length() + 2", "xyz");
+		CompiledExpression second = compile("'abc'.length() + 2", "xyz");
+
+		assertNotNull(first);
+		assertNotNull(second);
+		assertSame(first.getClass(), second.getClass());
+		assertEquals(5, first.getValue(null, null));
+		assertEquals(5, second.getValue(null, null));
+		assertEquals(1, this.compiler.getCompiledClassCount());
+		assertEquals(1, this.compiler.getCacheHitCount());
+		assertEquals(1, this.compiler.getCachedClassCount());
+		assertEquals(1, this.compiler.getClassLoaderCount());
+	}
+
+	@Test
+	public void separateClassForDifferentTypes() {
+		CompiledExpression first = compile("#root.size()", new ArrayList<>());
+		CompiledExpression second = compile("#root.isEmpty()", new ArrayList<>());
+		CompiledExpression third = compile("#root.size()", new HashSet<>());
+
+		assertNotSame(first.getClass(), second.getClass());
+		assertNotSame(first.getClass(), third.getClass());
+		assertEquals(0, first.getValue(new ArrayList<>(), null));
+		assertEquals(true, second.getValue(new ArrayList<>(), null));
+		assertEquals(0, third.getValue(new HashSet<>(), null));
+		assertEquals(3, this.compiler.getCompiledClassCount());
+		assertEquals(0, this.compiler.getCacheHitCount());
+		assertEquals(3, this.compiler.getCachedClassCount());
+	}
+
+
+	private CompiledExpression compile(String expressionString, Object root) {
+		SpelExpression expression = (SpelExpression) new SpelExpressionParser().parseExpression(expressionString);
+		expression.getValue(root);
+		return this.compiler.compile((SpelNodeImpl) expression.getAST());
+	}
+
+}
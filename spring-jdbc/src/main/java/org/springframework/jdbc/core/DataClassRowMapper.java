@@ -0,0 +1,433 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.beans.ConstructorProperties;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.BeanInstantiationException;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * {@link RowMapper} implementation that converts a row into a new instance
+ * of the specified mapped target class through its constructor, e.g. for
+ * immutable value classes, Kotlin data classes or Java records.
+ *
+ * <p>The constructor to use is the Kotlin primary constructor, or otherwise the
+ * single public constructor (or single declared constructor) of the target class.
+ * Constructor parameter names are taken from a {@link ConstructorProperties}
+ * declaration, if present, or otherwise resolved through the configured
+ * {@link ParameterNameDiscoverer}. They are matched to column names as obtained
+ * from result set meta-data in the same way as {@link BeanPropertyRowMapper}
+ * matches property names: either directly or by transforming a camel case name
+ * into a name separating the parts with underscores.
+ *
+ * <p>In contrast to {@link BeanPropertyRowMapper}, the result set meta-data is
+ * introspected once per query rather than for each row: the resulting plan of
+ * column indexes per constructor parameter is cached by the column labels of the
+ * {@link ResultSet}, with each row turning into a plain sequence of column
+ * retrievals and a single constructor invocation. A mapper instance may be
+ * shared across concurrent queries, with or without the same columns.
+ *
+ * <p>Every constructor parameter needs a corresponding column in the result set.
+ * Additional columns are ignored. Values are converted to the parameter types
+ * through the configured {@link ConversionService}, if necessary.
+ *
+ * @author agent
+ * @since 5.2
+ * @param <T> the result type
+ * @see BeanPropertyRowMapper
+ */
+public class DataClassRowMapper<T> implements RowMapper<T> {
+
+	/** Maximum number of distinct sets of column labels to keep column indexes for. */
+	private static final int COLUMN_INDEX_CACHE_LIMIT = 16;
+
+	/** Logger available to subclasses. */
+	protected final Log logger = LogFactory.getLog(getClass());
+
+	/** The class we are mapping to. */
+	private final Class<T> mappedClass;
+
+	/** The constructor to invoke for each row. */
+	private final Constructor<T> mappedConstructor;
+
+	/** The names of the constructor parameters. */
+	private final String[] parameterNames;
+
+	/** The constructor parameters, for value retrieval and conversion. */
+	private final MethodParameter[] parameters;
+
+	/** The constructor parameter types, for value conversion. */
+	private final TypeDescriptor[] parameterTypes;
+
+	/** Whether we're defaulting primitives when mapping a null value. */
+	private boolean primitivesDefaultedForNullValue = false;
+
+	/** ConversionService for binding JDBC values to constructor parameters. */
+	@Nullable
+	private ConversionService conversionService = DefaultConversionService.getSharedInstance();
+
+	/** Column indexes per constructor parameter, keyed by the column labels of a ResultSet. */
+	private final Map<List<String>, int[]> columnIndexCache = new ConcurrentHashMap<>(4);
+
+	/** The mapping plan for the most recently mapped ResultSet. */
+	@Nullable
+	private volatile MappingPlan mappingPlan;
+
+
+	/**
+	 * Create a new {@code DataClassRowMapper}, using a
+	 * {@link DefaultParameterNameDiscoverer} for constructor parameter names.
+	 * @param mappedClass the class that each row should be mapped to
+	 */
+	public DataClassRowMapper(Class<T> mappedClass) {
+		this(mappedClass, new DefaultParameterNameDiscoverer());
+	}
+
+	/**
+	 * Create a new {@code DataClassRowMapper}.
+	 * @param mappedClass the class that each row should be mapped to
+	 * @param parameterNameDiscoverer the ParameterNameDiscoverer to use for
+	 * resolving constructor parameter names
+	 */
+	public DataClassRowMapper(Class<T> mappedClass, ParameterNameDiscoverer parameterNameDiscoverer) {
+		Assert.notNull(mappedClass, "Mapped class must not be null");
+		Assert.notNull(parameterNameDiscoverer, "ParameterNameDiscoverer must not be null");
+		this.mappedClass = mappedClass;
+		this.mappedConstructor = determineConstructor(mappedClass);
+		this.parameterNames = determineParameterNames(this.mappedConstructor, parameterNameDiscoverer);
+		int paramCount = this.mappedConstructor.getParameterCount();
+		this.parameters = new MethodParameter[paramCount];
+		this.parameterTypes = new TypeDescriptor[paramCount];
+		for (int i = 0; i < paramCount; i++) {
+			this.parameters[i] = new MethodParameter(this.mappedConstructor, i);
+			this.parameterTypes[i] = new TypeDescriptor(this.parameters[i]);
+		}
+	}
+
+
+	/**
+	 * Get the class that we are mapping to.
+	 */
+	public final Class<T> getMappedClass() {
+		return this.mappedClass;
+	}
+
+	/**
+	 * Get the constructor that we are mapping to.
+	 */
+	public final Constructor<T> getMappedConstructor() {
+		return this.mappedConstructor;
+	}
+
+	/**
+	 * Set whether we're defaulting Java primitives in the case of mapping a null value
+	 * from corresponding database fields.
+	 * <p>Default is {@code false}, throwing an exception when nulls are mapped to Java primitives.
+	 */
+	public void setPrimitivesDefaultedForNullValue(boolean primitivesDefaultedForNullValue) {
+		this.primitivesDefaultedForNullValue = primitivesDefaultedForNullValue;
+	}
+
+	/**
+	 * Return whether we're defaulting Java primitives in the case of mapping a null value
+	 * from corresponding database fields.
+	 */
+	public boolean isPrimitivesDefaultedForNullValue() {
+		return this.primitivesDefaultedForNullValue;
+	}
+
+	/**
+	 * Set a {@link ConversionService} for binding JDBC values to constructor
+	 * parameters, or {@code null} for none.
+	 * <p>Default is a {@link DefaultConversionService}.
+	 */
+	public void setConversionService(@Nullable ConversionService conversionService) {
+		this.conversionService = conversionService;
+	}
+
+	/**
+	 * Return a {@link ConversionService} for binding JDBC values to constructor
+	 * parameters, or {@code null} if none.
+	 */
+	@Nullable
+	public ConversionService getConversionService() {
+		return this.conversionService;
+	}
+
+
+	@SuppressWarnings("unchecked")
+	private static <T> Constructor<T> determineConstructor(Class<T> mappedClass) {
+		Constructor<T> ctor = BeanUtils.findPrimaryConstructor(mappedClass);
+		if (ctor != null) {
+			return ctor;
+		}
+		Constructor<?>[] ctors = mappedClass.getConstructors();
+		if (ctors.length == 1) {
+			return (Constructor<T>) ctors[0];
+		}
+		ctors = mappedClass.getDeclaredConstructors();
+		if (ctors.length == 1) {
+			return (Constructor<T>) ctors[0];
+		}
+		throw new InvalidDataAccessApiUsageException("Cannot determine unique constructor for mapped class [" +
+				mappedClass.getName() + "]: declare a single constructor for row mapping");
+	}
+
+	private static String[] determineParameterNames(Constructor<?> ctor, ParameterNameDiscoverer parameterNameDiscoverer) {
+		ConstructorProperties cp = ctor.getAnnotation(ConstructorProperties.class);
+		String[] paramNames = (cp != null ? cp.value() : parameterNameDiscoverer.getParameterNames(ctor));
+		if (paramNames == null) {
+			throw new InvalidDataAccessApiUsageException("Cannot resolve parameter names for constructor " + ctor +
+					": compile with '-parameters' or declare @ConstructorProperties");
+		}
+		if (paramNames.length != ctor.getParameterCount()) {
+			throw new InvalidDataAccessApiUsageException("Number of parameter names does not match " +
+					"number of parameters for constructor " + ctor);
+		}
+		return paramNames;
+	}
+
+	/**
+	 * Convert a name in camelCase to an underscored name in lower case.
+	 * Any upper case letters are converted to lower case with a preceding underscore.
+	 * @param name the original name
+	 * @return the converted name
+	 * @see #lowerCaseName
+	 */
+	protected String underscoreName(String name) {
+		if (!StringUtils.hasLength(name)) {
+			return "";
+		}
+		StringBuilder result = new StringBuilder();
+		result.append(lowerCaseName(name.substring(0, 1)));
+		for (int i = 1; i < name.length(); i++) {
+			String s = name.substring(i, i + 1);
+			String slc = lowerCaseName(s);
+			if (!s.equals(slc)) {
+				result.append("_").append(slc);
+			}
+			else {
+				result.append(s);
+			}
+		}
+		return result.toString();
+	}
+
+	/**
+	 * Convert the given name to lower case.
+	 * By default, conversions will happen within the US locale.
+	 * @param name the original name
+	 * @return the converted name
+	 */
+	protected String lowerCaseName(String name) {
+		return name.toLowerCase(Locale.US);
+	}
+
+
+	/**
+	 * Extract the constructor arguments from the current row and
+	 * invoke the constructor of the mapped class.
+	 * <p>Introspects the result set meta-data for the first row of
+	 * each result set only, resolving the column indexes once per
+	 * distinct set of column labels.
+	 * @see java.sql.ResultSetMetaData
+	 */
+	@Override
+	public T mapRow(ResultSet rs, int rowNumber) throws SQLException {
+		MappingPlan plan = this.mappingPlan;
+		if (plan == null || rowNumber == 0 || !plan.appliesTo(rs)) {
+			plan = new MappingPlan(rs, getColumnIndexes(rs));
+			this.mappingPlan = plan;
+		}
+
+		int[] columnIndexes = plan.columnIndexes;
+		Object[] args = new Object[columnIndexes.length];
+		for (int i = 0; i < columnIndexes.length; i++) {
+			args[i] = getParameterValue(rs, columnIndexes[i], i, rowNumber);
+		}
+		try {
+			return BeanUtils.instantiateClass(this.mappedConstructor, args);
+		}
+		catch (BeanInstantiationException ex) {
+			throw new DataRetrievalFailureException(
+					"Unable to map row " + rowNumber + " to constructor " + this.mappedConstructor, ex);
+		}
+	}
+
+	/**
+	 * Return the column index for each constructor parameter in the given
+	 * result set, resolving them for a new set of column labels only.
+	 */
+	private int[] getColumnIndexes(ResultSet rs) throws SQLException {
+		ResultSetMetaData rsmd = rs.getMetaData();
+		int columnCount = rsmd.getColumnCount();
+		List<String> columnLabels = new ArrayList<>(columnCount);
+		for (int index = 1; index <= columnCount; index++) {
+			columnLabels.add(JdbcUtils.lookupColumnName(rsmd, index));
+		}
+		int[] columnIndexes = this.columnIndexCache.get(columnLabels);
+		if (columnIndexes == null) {
+			columnIndexes = resolveColumnIndexes(columnLabels);
+			if (this.columnIndexCache.size() < COLUMN_INDEX_CACHE_LIMIT) {
+				this.columnIndexCache.put(columnLabels, columnIndexes);
+			}
+		}
+		return columnIndexes;
+	}
+
+	/**
+	 * Resolve the column index for each constructor parameter
+	 * from the given column labels.
+	 */
+	private int[] resolveColumnIndexes(List<String> columnLabels) {
+		Map<String, Integer> columns = new HashMap<>(columnLabels.size() * 2);
+		for (int index = columnLabels.size(); index >= 1; index--) {
+			columns.put(lowerCaseName(StringUtils.delete(columnLabels.get(index - 1), " ")), index);
+		}
+
+		int[] columnIndexes = new int[this.parameterNames.length];
+		for (int i = 0; i < this.parameterNames.length; i++) {
+			String name = this.parameterNames[i];
+			Integer index = columns.get(lowerCaseName(name));
+			if (index == null) {
+				index = columns.get(underscoreName(name));
+			}
+			if (index == null) {
+				throw new InvalidDataAccessApiUsageException("Given ResultSet does not contain a column for " +
+						"constructor parameter '" + name + "' of class [" + this.mappedClass.getName() + "]");
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Mapping column '" + columnLabels.get(index - 1) +
+						"' to constructor parameter '" + name + "' of type '" +
+						ClassUtils.getQualifiedName(this.parameters[i].getParameterType()) + "'");
+			}
+			columnIndexes[i] = index;
+		}
+		return columnIndexes;
+	}
+
+	/**
+	 * Retrieve the value for the specified constructor parameter,
+	 * converting it to the parameter type if necessary.
+	 */
+	@Nullable
+	private Object getParameterValue(ResultSet rs, int index, int paramIndex, int rowNumber) throws SQLException {
+		MethodParameter param = this.parameters[paramIndex];
+		Class<?> paramType = param.getParameterType();
+		Object value = getColumnValue(rs, index, param);
+		if (value == null) {
+			if (paramType.isPrimitive()) {
+				if (!this.primitivesDefaultedForNullValue) {
+					throw new TypeMismatchException((Object) null, paramType);
+				}
+				if (logger.isDebugEnabled()) {
+					logger.debug("Defaulting primitive constructor parameter '" + this.parameterNames[paramIndex] +
+							"' for null value in row " + rowNumber);
+				}
+				return Array.get(Array.newInstance(paramType, 1), 0);
+			}
+			return null;
+		}
+		if (!ClassUtils.isAssignableValue(paramType, value)) {
+			ConversionService cs = getConversionService();
+			if (cs == null) {
+				throw new TypeMismatchException(value, paramType);
+			}
+			value = cs.convert(value, TypeDescriptor.forObject(value), this.parameterTypes[paramIndex]);
+		}
+		return value;
+	}
+
+	/**
+	 * Retrieve a JDBC object value for the specified column.
+	 * <p>The default implementation calls
+	 * {@link JdbcUtils#getResultSetValue(java.sql.ResultSet, int, Class)}.
+	 * Subclasses may override this to check specific value types upfront,
+	 * or to post-process values return from {@code getResultSetValue}.
+	 * @param rs is the ResultSet holding the data
+	 * @param index is the column index
+	 * @param param the constructor parameter that the value is expected to match
+	 * @return the Object value
+	 * @throws SQLException in case of extraction failure
+	 * @see org.springframework.jdbc.support.JdbcUtils#getResultSetValue(java.sql.ResultSet, int, Class)
+	 */
+	@Nullable
+	protected Object getColumnValue(ResultSet rs, int index, MethodParameter param) throws SQLException {
+		return JdbcUtils.getResultSetValue(rs, index, param.getParameterType());
+	}
+
+
+	/**
+	 * Static factory method to create a new {@code DataClassRowMapper}
+	 * (with the mapped class specified only once).
+	 * @param mappedClass the class that each row should be mapped to
+	 */
+	public static <T> DataClassRowMapper<T> newInstance(Class<T> mappedClass) {
+		return new DataClassRowMapper<>(mappedClass);
+	}
+
+
+	/**
+	 * Column indexes per constructor parameter for a specific ResultSet.
+	 */
+	private static class MappingPlan {
+
+		private final WeakReference<ResultSet> resultSet;
+
+		final int[] columnIndexes;
+
+		MappingPlan(ResultSet resultSet, int[] columnIndexes) {
+			this.resultSet = new WeakReference<>(resultSet);
+			this.columnIndexes = columnIndexes;
+		}
+
+		boolean appliesTo(ResultSet rs) {
+			return (this.resultSet.get() == rs);
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,7 +16,10 @@
 
 package org.springframework.jdbc.core;
 
+import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -25,6 +28,7 @@ import org.springframework.dao.IncorrectResultSizeDataAccessException;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
 
 /**
  * Interface specifying a basic set of JDBC operations.
@@ -938,6 +942,52 @@ public interface JdbcOperations {
 	<T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
 			ParameterizedPreparedStatementSetter<T> pss) throws DataAccessException;
 
+	/**
+	 * Execute multiple batches using the supplied SQL statement with the arguments
+	 * obtained from the supplied Iterator, sending a batch to the database whenever
+	 * 'batchSize' arguments have been added to the statement.
+	 * <p>In contrast to {@link #batchUpdate(String, Collection, int, ParameterizedPreparedStatementSetter)},
+	 * the arguments are consumed lazily and no per-row update counts are retained,
+	 * allowing for an arbitrary number of rows to be streamed through a single
+	 * {@link java.sql.PreparedStatement}. For a {@link java.util.stream.Stream},
+	 * pass in its {@link java.util.stream.Stream#iterator() Iterator}.
+	 * <p>Driver-level batch rewriting, e.g. into multi-row inserts, applies to
+	 * each batch as configured on the JDBC driver.
+	 * <p>The default implementation collects 'batchSize' arguments at a time and
+	 * delegates to {@link #batchUpdate(String, Collection, int, ParameterizedPreparedStatementSetter)}
+	 * for each batch, summing up its update counts.
+	 * @param sql the SQL statement to execute
+	 * @param batchArgs the Iterator providing the batch arguments for the statement
+	 * @param batchSize batch size
+	 * @param pss the ParameterizedPreparedStatementSetter to use
+	 * @return an array containing for each batch the total number of rows affected
+	 * by the updates in the batch, or {@link java.sql.Statement#SUCCESS_NO_INFO}
+	 * if the driver did not report a row count for each update in the batch
+	 * @since 5.2
+	 */
+	default <T> int[] batchUpdate(String sql, Iterator<T> batchArgs, int batchSize,
+			ParameterizedPreparedStatementSetter<T> pss) throws DataAccessException {
+
+		Assert.isTrue(batchSize > 0, "Batch size must be greater than 0");
+		List<Integer> rowCounts = new ArrayList<>();
+		List<T> batch = new ArrayList<>(batchSize);
+		while (batchArgs.hasNext()) {
+			batch.add(batchArgs.next());
+			if (batch.size() == batchSize || !batchArgs.hasNext()) {
+				for (int[] updateCounts : batchUpdate(sql, batch, batchSize, pss)) {
+					int rowCount = 0;
+					for (int updateCount : updateCounts) {
+						rowCount = (rowCount < 0 || updateCount < 0 ?
+								Statement.SUCCESS_NO_INFO : rowCount + updateCount);
+					}
+					rowCounts.add(rowCount);
+				}
+				batch.clear();
+			}
+		}
+		return rowCounts.stream().mapToInt(Integer::intValue).toArray();
+	}
+
 
 	//-------------------------------------------------------------------------
 	// Methods dealing with callable statements
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -29,9 +29,11 @@ import java.sql.SQLException;
 import java.sql.SQLWarning;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -1067,6 +1069,72 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		return result;
 	}
 
+	@Override
+	public <T> int[] batchUpdate(String sql, final Iterator<T> batchArgs, final int batchSize,
+			final ParameterizedPreparedStatementSetter<T> pss) throws DataAccessException {
+
+		Assert.isTrue(batchSize > 0, "Batch size must be greater than 0");
+		if (logger.isDebugEnabled()) {
+			logger.debug("Executing streaming SQL batch update [" + sql + "] with a batch size of " + batchSize);
+		}
+		int[] result = execute(sql, (PreparedStatementCallback<int[]>) ps -> {
+			int[] batchCounts = new int[16];
+			int batchIdx = 0;
+			try {
+				boolean batchSupported = JdbcUtils.supportsBatchUpdates(ps.getConnection());
+				int n = 0;
+				int rowCount = 0;
+				while (batchArgs.hasNext()) {
+					pss.setValues(ps, batchArgs.next());
+					n++;
+					if (batchSupported) {
+						ps.addBatch();
+					}
+					else {
+						rowCount = addUpdateCount(rowCount, ps.executeUpdate());
+					}
+					if (n == batchSize || !batchArgs.hasNext()) {
+						if (batchSupported) {
+							if (logger.isTraceEnabled()) {
+								logger.trace("Sending SQL batch update #" + (batchIdx + 1) + " with " + n + " items");
+							}
+							for (int count : ps.executeBatch()) {
+								rowCount = addUpdateCount(rowCount, count);
+							}
+						}
+						if (batchIdx == batchCounts.length) {
+							batchCounts = Arrays.copyOf(batchCounts, batchIdx * 2);
+						}
+						batchCounts[batchIdx++] = rowCount;
+						n = 0;
+						rowCount = 0;
+					}
+				}
+				return Arrays.copyOf(batchCounts, batchIdx);
+			}
+			finally {
+				if (pss instanceof ParameterDisposer) {
+					((ParameterDisposer) pss).cleanupParameters();
+				}
+			}
+		});
+
+		Assert.state(result != null, "No result array");
+		return result;
+	}
+
+	/**
+	 * Add the given update count to the accumulated row count of a batch,
+	 * degrading to {@link Statement#SUCCESS_NO_INFO} once any update
+	 * does not report a row count.
+	 */
+	private static int addUpdateCount(int rowCount, int updateCount) {
+		if (rowCount < 0 || updateCount < 0) {
+			return Statement.SUCCESS_NO_INFO;
+		}
+		return rowCount + updateCount;
+	}
+
 
 	//-------------------------------------------------------------------------
 	// Methods dealing with callable statements
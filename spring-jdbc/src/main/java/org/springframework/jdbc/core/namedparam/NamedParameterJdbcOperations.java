@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,9 @@
 
 package org.springframework.jdbc.core.namedparam;
 
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -28,6 +31,7 @@ import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
 
 /**
  * Interface specifying a basic set of JDBC operations allowing the use
@@ -509,4 +513,46 @@ public interface NamedParameterJdbcOperations {
 	 */
 	int[] batchUpdate(String sql, SqlParameterSource[] batchArgs);
 
+	/**
+	 * Execute multiple batches using the supplied SQL statement with the arguments
+	 * obtained from the supplied Iterator, sending a batch to the database whenever
+	 * 'batchSize' arguments have been added to the statement.
+	 * <p>The SQL statement is parsed once and all arguments are bound to a single
+	 * {@link java.sql.PreparedStatement}, based on the parameter types and any
+	 * collection expansion of the first {@link SqlParameterSource}. Arguments are
+	 * consumed lazily and no per-row update counts are retained, so the Iterator
+	 * may be backed by a {@link java.util.stream.Stream} of arbitrary size, e.g.
+	 * {@code beans.map(BeanPropertySqlParameterSource::new).iterator()}.
+	 * <p>The default implementation collects 'batchSize' arguments at a time and
+	 * delegates to {@link #batchUpdate(String, SqlParameterSource[])} for each batch,
+	 * summing up its update counts.
+	 * @param sql the SQL statement to execute
+	 * @param batchArgs the Iterator of {@link SqlParameterSource} providing the
+	 * batch arguments for the statement
+	 * @param batchSize batch size
+	 * @return an array containing for each batch the total number of rows affected
+	 * by the updates in the batch, or {@link java.sql.Statement#SUCCESS_NO_INFO}
+	 * if the driver did not report a row count for each update in the batch
+	 * @since 5.2
+	 * @see JdbcOperations#batchUpdate(String, Iterator, int, org.springframework.jdbc.core.ParameterizedPreparedStatementSetter)
+	 */
+	default int[] batchUpdate(String sql, Iterator<? extends SqlParameterSource> batchArgs, int batchSize) {
+		Assert.isTrue(batchSize > 0, "Batch size must be greater than 0");
+		List<Integer> rowCounts = new ArrayList<>();
+		List<SqlParameterSource> batch = new ArrayList<>(batchSize);
+		while (batchArgs.hasNext()) {
+			batch.add(batchArgs.next());
+			if (batch.size() == batchSize || !batchArgs.hasNext()) {
+				int rowCount = 0;
+				for (int updateCount : batchUpdate(sql, batch.toArray(new SqlParameterSource[0]))) {
+					rowCount = (rowCount < 0 || updateCount < 0 ?
+							Statement.SUCCESS_NO_INFO : rowCount + updateCount);
+				}
+				rowCounts.add(rowCount);
+				batch.clear();
+			}
+		}
+		return rowCounts.stream().mapToInt(Integer::intValue).toArray();
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package org.springframework.jdbc.core.namedparam;
 
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -377,6 +378,38 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 				});
 	}
 
+	@Override
+	public int[] batchUpdate(String sql, Iterator<? extends SqlParameterSource> batchArgs, int batchSize) {
+		if (!batchArgs.hasNext()) {
+			return new int[0];
+		}
+
+		SqlParameterSource firstArgs = batchArgs.next();
+		ParsedSql parsedSql = getParsedSql(sql);
+		PreparedStatementCreatorFactory pscf = getPreparedStatementCreatorFactory(parsedSql, firstArgs);
+
+		Iterator<SqlParameterSource> allArgs = new Iterator<SqlParameterSource>() {
+			private boolean first = true;
+			@Override
+			public boolean hasNext() {
+				return (this.first || batchArgs.hasNext());
+			}
+			@Override
+			public SqlParameterSource next() {
+				if (this.first) {
+					this.first = false;
+					return firstArgs;
+				}
+				return batchArgs.next();
+			}
+		};
+
+		return getJdbcOperations().batchUpdate(pscf.getSql(), allArgs, batchSize, (ps, paramSource) -> {
+			Object[] values = NamedParameterUtils.buildValueArray(parsedSql, paramSource, null);
+			pscf.newPreparedStatementSetter(values).setValues(ps);
+		});
+	}
+
 
 	/**
 	 * Build a {@link PreparedStatementCreator} based on the given SQL and named parameters.
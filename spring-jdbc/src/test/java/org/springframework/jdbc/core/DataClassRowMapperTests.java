@@ -0,0 +1,181 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.jdbc.core.test.ConstructorPerson;
+
+import static org.junit.Assert.*;
+import static org.mockito.BDDMockito.*;
+
+/**
+ * @author agent
+ */
+public class DataClassRowMapperTests extends AbstractRowMapperTests {
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+
+	@Test
+	public void testStaticQueryWithDataClass() throws Exception {
+		Mock mock = new Mock();
+		List<ConstructorPerson> result = mock.getJdbcTemplate().query(
+				"select name, age, birth_date, balance from people",
+				new DataClassRowMapper<>(ConstructorPerson.class));
+		assertEquals(1, result.size());
+		verifyPerson(result.get(0));
+		mock.verifyClosed();
+	}
+
+	@Test
+	public void testMappingPlanReusedForSameResultSet() throws Exception {
+		ResultSet rs = mockResultSet("BALANCE", "ID", "BIRTH_DATE", "AGE", "NAME");
+		DataClassRowMapper<ConstructorPerson> mapper = new DataClassRowMapper<>(ConstructorPerson.class);
+		for (int i = 0; i < 3; i++) {
+			verifyPerson(mapper.mapRow(rs, i));
+		}
+		verify(rs, times(1)).getMetaData();
+
+		mapper.mapRow(rs, 0);
+		verify(rs, times(2)).getMetaData();
+	}
+
+	@Test
+	public void testConcurrentUseWithDifferentColumns() throws Exception {
+		ResultSet rs1 = mockResultSet("BALANCE", "ID", "BIRTH_DATE", "AGE", "NAME");
+		ResultSet rs2 = mockResultSet("NAME", "AGE", "BIRTH_DATE", "BALANCE");
+		DataClassRowMapper<ConstructorPerson> mapper = new DataClassRowMapper<>(ConstructorPerson.class);
+		int threadCount = 4;
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < threadCount; i++) {
+				ResultSet rs = (i % 2 == 0 ? rs1 : rs2);
+				futures.add(executor.submit(() -> {
+					for (int row = 0; row < 500; row++) {
+						verifyPerson(mapper.mapRow(rs, row % 50));
+					}
+					return null;
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get(10, TimeUnit.SECONDS);
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testNullForPrimitive() throws Exception {
+		Mock mock = new Mock(MockType.TWO);
+		thrown.expect(TypeMismatchException.class);
+		mock.getJdbcTemplate().query("select name, age, birth_date, balance from people",
+				new DataClassRowMapper<>(ConstructorPerson.class));
+	}
+
+	@Test
+	public void testNullForPrimitiveDefaulted() throws Exception {
+		Mock mock = new Mock(MockType.TWO);
+		DataClassRowMapper<ConstructorPerson> mapper = new DataClassRowMapper<>(ConstructorPerson.class);
+		mapper.setPrimitivesDefaultedForNullValue(true);
+		List<ConstructorPerson> result = mock.getJdbcTemplate().query(
+				"select name, age, birth_date, balance from people", mapper);
+		assertEquals(1, result.size());
+		assertEquals(0L, result.get(0).age());
+		assertEquals("Bubba", result.get(0).name());
+	}
+
+	@Test
+	public void testMissingColumn() throws Exception {
+		Mock mock = new Mock(MockType.THREE);
+		thrown.expect(InvalidDataAccessApiUsageException.class);
+		mock.getJdbcTemplate().query("select last_name as \"Last Name\", age, birth_date, balance from people",
+				new DataClassRowMapper<>(ConstructorPerson.class));
+	}
+
+	@Test
+	public void testAmbiguousConstructor() {
+		thrown.expect(InvalidDataAccessApiUsageException.class);
+		new DataClassRowMapper<>(TwoConstructorPerson.class);
+	}
+
+
+	private static ResultSet mockResultSet(String... columnLabels) throws SQLException {
+		ResultSet rs = mock(ResultSet.class);
+		ResultSetMetaData rsmd = mock(ResultSetMetaData.class);
+		given(rs.getMetaData()).willReturn(rsmd);
+		given(rsmd.getColumnCount()).willReturn(columnLabels.length);
+		for (int i = 0; i < columnLabels.length; i++) {
+			int index = i + 1;
+			given(rsmd.getColumnLabel(index)).willReturn(columnLabels[i]);
+			switch (columnLabels[i]) {
+				case "BALANCE":
+					given(rs.getBigDecimal(index)).willReturn(new BigDecimal("1234.56"));
+					break;
+				case "BIRTH_DATE":
+					given(rs.getTimestamp(index)).willReturn(new Timestamp(1221222L));
+					break;
+				case "AGE":
+					given(rs.getLong(index)).willReturn(22L);
+					break;
+				case "NAME":
+					given(rs.getString(index)).willReturn("Bubba");
+					break;
+			}
+		}
+		return rs;
+	}
+
+	private void verifyPerson(ConstructorPerson person) {
+		assertEquals("Bubba", person.name());
+		assertEquals(22L, person.age());
+		assertEquals(new Date(1221222L), person.birthDate());
+		assertEquals(new BigDecimal("1234.56"), person.balance());
+	}
+
+
+	public static class TwoConstructorPerson {
+
+		public TwoConstructorPerson(String name) {
+		}
+
+		public TwoConstructorPerson(String name, long age) {
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -30,6 +30,7 @@ import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -786,6 +787,74 @@ public class JdbcTemplateTests {
 		verify(this.connection, atLeastOnce()).close();
 	}
 
+	@Test
+	public void testBatchUpdateWithIteratorOfObjects() throws Exception {
+		final String sql = "UPDATE NOSUCHTABLE SET DATE_DISPATCHED = SYSDATE WHERE ID = ?";
+		final List<Integer> ids = Arrays.asList(100, 200, 300, 400, 500);
+
+		given(this.preparedStatement.executeBatch()).willReturn(
+				new int[] {1, 2}, new int[] {1, Statement.SUCCESS_NO_INFO}, new int[] {3});
+		mockDatabaseMetaData(true);
+
+		ParameterizedPreparedStatementSetter<Integer> setter = (ps, argument) -> ps.setInt(1, argument.intValue());
+		JdbcTemplate template = new JdbcTemplate(this.dataSource, false);
+
+		int[] actualRowsAffected = template.batchUpdate(sql, ids.iterator(), 2, setter);
+		assertEquals("executed 3 batches", 3, actualRowsAffected.length);
+		assertEquals(3, actualRowsAffected[0]);
+		assertEquals(Statement.SUCCESS_NO_INFO, actualRowsAffected[1]);
+		assertEquals(3, actualRowsAffected[2]);
+
+		verify(this.preparedStatement, times(5)).addBatch();
+		verify(this.preparedStatement, times(3)).executeBatch();
+		for (Integer id : ids) {
+			verify(this.preparedStatement).setInt(1, id);
+		}
+		verify(this.preparedStatement).close();
+		verify(this.connection, atLeastOnce()).close();
+	}
+
+	@Test
+	public void testBatchUpdateWithIteratorAndNoBatchSupport() throws Exception {
+		final String sql = "UPDATE NOSUCHTABLE SET DATE_DISPATCHED = SYSDATE WHERE ID = ?";
+		final List<Integer> ids = Arrays.asList(100, 200, 300);
+
+		given(this.preparedStatement.executeUpdate()).willReturn(1, 2, 3);
+		mockDatabaseMetaData(false);
+
+		ParameterizedPreparedStatementSetter<Integer> setter = (ps, argument) -> ps.setInt(1, argument.intValue());
+		JdbcTemplate template = new JdbcTemplate(this.dataSource, false);
+
+		int[] actualRowsAffected = template.batchUpdate(sql, ids.iterator(), 2, setter);
+		assertEquals(2, actualRowsAffected.length);
+		assertEquals(3, actualRowsAffected[0]);
+		assertEquals(3, actualRowsAffected[1]);
+
+		verify(this.preparedStatement, never()).addBatch();
+		verify(this.preparedStatement, times(3)).executeUpdate();
+		verify(this.preparedStatement).close();
+		verify(this.connection, atLeastOnce()).close();
+	}
+
+	@Test
+	public void testBatchUpdateWithIteratorThroughDefaultMethod() {
+		final String sql = "UPDATE NOSUCHTABLE SET DATE_DISPATCHED = SYSDATE WHERE ID = ?";
+		ParameterizedPreparedStatementSetter<Integer> setter = (ps, argument) -> ps.setInt(1, argument.intValue());
+		Iterator<Integer> batchArgs = Arrays.asList(100, 200, 300, 400, 500).iterator();
+		JdbcOperations operations = mock(JdbcOperations.class);
+		given(operations.batchUpdate(sql, batchArgs, 2, setter)).willCallRealMethod();
+		given(operations.batchUpdate(sql, Arrays.asList(100, 200), 2, setter)).willReturn(new int[][] {{1, 2}});
+		given(operations.batchUpdate(sql, Arrays.asList(300, 400), 2, setter)).willReturn(
+				new int[][] {{1, Statement.SUCCESS_NO_INFO}});
+		given(operations.batchUpdate(sql, Collections.singletonList(500), 2, setter)).willReturn(new int[][] {{3}});
+
+		int[] actualRowsAffected = operations.batchUpdate(sql, batchArgs, 2, setter);
+		assertEquals("executed 3 batches", 3, actualRowsAffected.length);
+		assertEquals(3, actualRowsAffected[0]);
+		assertEquals(Statement.SUCCESS_NO_INFO, actualRowsAffected[1]);
+		assertEquals(3, actualRowsAffected[2]);
+	}
+
 	@Test
 	public void testCouldNotGetConnectionForOperationOrExceptionTranslator() throws SQLException {
 		SQLException sqlException = new SQLException("foo", "07xxx");
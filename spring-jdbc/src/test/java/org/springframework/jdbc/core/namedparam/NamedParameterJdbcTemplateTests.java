@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,10 +21,13 @@ import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Types;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -470,6 +473,60 @@ public class NamedParameterJdbcTemplateTests {
 		verify(connection, atLeastOnce()).close();
 	}
 
+	@Test
+	public void testBatchUpdateWithIteratorOfSqlParameterSource() throws Exception {
+		List<SqlParameterSource> ids = new ArrayList<>();
+		ids.add(new MapSqlParameterSource("id", 100));
+		ids.add(new MapSqlParameterSource("id", 200));
+		ids.add(new MapSqlParameterSource("id", 300));
+
+		given(preparedStatement.executeBatch()).willReturn(new int[] {1, 1}, new int[] {1});
+		given(connection.getMetaData()).willReturn(databaseMetaData);
+		namedParameterTemplate = new NamedParameterJdbcTemplate(new JdbcTemplate(dataSource, false));
+
+		int[] actualRowsAffected = namedParameterTemplate.batchUpdate(
+				"UPDATE NOSUCHTABLE SET DATE_DISPATCHED = SYSDATE WHERE ID = :id", ids.iterator(), 2);
+		assertEquals("executed 2 batches", 2, actualRowsAffected.length);
+		assertEquals(2, actualRowsAffected[0]);
+		assertEquals(1, actualRowsAffected[1]);
+		verify(connection).prepareStatement("UPDATE NOSUCHTABLE SET DATE_DISPATCHED = SYSDATE WHERE ID = ?");
+		verify(preparedStatement).setObject(1, 100);
+		verify(preparedStatement).setObject(1, 200);
+		verify(preparedStatement).setObject(1, 300);
+		verify(preparedStatement, times(3)).addBatch();
+		verify(preparedStatement, times(2)).executeBatch();
+		verify(preparedStatement, atLeastOnce()).close();
+		verify(connection, atLeastOnce()).close();
+	}
+
+	@Test
+	public void testBatchUpdateWithEmptyIterator() throws Exception {
+		int[] actualRowsAffected = namedParameterTemplate.batchUpdate(
+				"UPDATE NOSUCHTABLE SET DATE_DISPATCHED = SYSDATE WHERE ID = :id",
+				Collections.<SqlParameterSource>emptyIterator(), 2);
+		assertEquals(0, actualRowsAffected.length);
+		verify(connection, never()).prepareStatement(anyString());
+	}
+
+	@Test
+	public void testBatchUpdateWithIteratorThroughDefaultMethod() {
+		final String sql = "UPDATE NOSUCHTABLE SET DATE_DISPATCHED = SYSDATE WHERE ID = :id";
+		SqlParameterSource first = new MapSqlParameterSource("id", 100);
+		SqlParameterSource second = new MapSqlParameterSource("id", 200);
+		SqlParameterSource third = new MapSqlParameterSource("id", 300);
+		Iterator<SqlParameterSource> batchArgs = Arrays.asList(first, second, third).iterator();
+		NamedParameterJdbcOperations operations = mock(NamedParameterJdbcOperations.class);
+		given(operations.batchUpdate(sql, batchArgs, 2)).willCallRealMethod();
+		given(operations.batchUpdate(sql, new SqlParameterSource[] {first, second})).willReturn(new int[] {1, 2});
+		given(operations.batchUpdate(sql, new SqlParameterSource[] {third})).willReturn(
+				new int[] {Statement.SUCCESS_NO_INFO});
+
+		int[] actualRowsAffected = operations.batchUpdate(sql, batchArgs, 2);
+		assertEquals("executed 2 batches", 2, actualRowsAffected.length);
+		assertEquals(3, actualRowsAffected[0]);
+		assertEquals(Statement.SUCCESS_NO_INFO, actualRowsAffected[1]);
+	}
+
 	@Test
 	public void testBatchUpdateWithInClause() throws Exception {
 		@SuppressWarnings("unchecked")
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -131,4 +131,31 @@ public @interface JmsListener {
 	 */
 	String concurrency() default "";
 
+	/**
+	 * The maximum number of messages to receive and process as a batch, within
+	 * a single transaction, if any. Overrides the value defined by the container
+	 * factory used to create the listener container.
+	 * <p>Unless declared as a {@link #batch()} listener, the listener method is
+	 * invoked for each message of a batch in turn, still with a single commit
+	 * per batch.
+	 * <p>Only supported by polling listener containers such as
+	 * {@link org.springframework.jms.listener.DefaultMessageListenerContainer}.
+	 * @since 5.2
+	 * @see org.springframework.jms.listener.AbstractPollingMessageListenerContainer#setBatchSize
+	 */
+	String batchSize() default "";
+
+	/**
+	 * Whether the listener method receives an entire batch of messages at once,
+	 * through a {@code List} parameter: either as a list of converted payloads
+	 * or as a list of {@link org.springframework.messaging.Message Messages}.
+	 * Only applies if the listener container receives messages in batches,
+	 * as per {@link #batchSize()}.
+	 * <p>Default is "false": a {@code List} parameter receives the converted
+	 * payload of a single message then. May be a placeholder or a SpEL
+	 * expression resolving to "true" or "false".
+	 * @since 5.2
+	 */
+	String batch() default "";
+
 }
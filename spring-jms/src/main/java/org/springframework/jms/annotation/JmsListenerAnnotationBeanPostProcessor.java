@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -284,6 +284,18 @@ public class JmsListenerAnnotationBeanPostProcessor
 		if (StringUtils.hasText(jmsListener.concurrency())) {
 			endpoint.setConcurrency(resolve(jmsListener.concurrency()));
 		}
+		if (StringUtils.hasText(jmsListener.batchSize())) {
+			String batchSize = resolve(jmsListener.batchSize());
+			if (StringUtils.hasText(batchSize)) {
+				endpoint.setBatchSize(Integer.parseInt(batchSize.trim()));
+			}
+		}
+		if (StringUtils.hasText(jmsListener.batch())) {
+			String batch = resolve(jmsListener.batch());
+			if (StringUtils.hasText(batch)) {
+				endpoint.setBatchListener(Boolean.parseBoolean(batch.trim()));
+			}
+		}
 
 		JmsListenerContainerFactory<?> factory = null;
 		String containerFactoryBeanName = resolve(jmsListener.containerFactory());
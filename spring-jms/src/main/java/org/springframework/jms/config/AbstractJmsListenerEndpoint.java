@@ -19,6 +19,7 @@ package org.springframework.jms.config;
 import javax.jms.MessageListener;
 
 import org.springframework.jms.listener.AbstractMessageListenerContainer;
+import org.springframework.jms.listener.AbstractPollingMessageListenerContainer;
 import org.springframework.jms.listener.MessageListenerContainer;
 import org.springframework.jms.listener.endpoint.JmsActivationSpecConfig;
 import org.springframework.jms.listener.endpoint.JmsMessageEndpointManager;
@@ -49,6 +50,9 @@ public abstract class AbstractJmsListenerEndpoint implements JmsListenerEndpoint
 	@Nullable
 	private String concurrency;
 
+	@Nullable
+	private Integer batchSize;
+
 
 	public void setId(String id) {
 		this.id = id;
@@ -124,6 +128,28 @@ public abstract class AbstractJmsListenerEndpoint implements JmsListenerEndpoint
 		return this.concurrency;
 	}
 
+	/**
+	 * Set the maximum number of messages to receive and process as a batch,
+	 * within a single transaction, if any.
+	 * <p>Only supported by polling listener containers such as
+	 * {@link org.springframework.jms.listener.DefaultMessageListenerContainer};
+	 * ignored otherwise.
+	 * @since 5.2
+	 * @see org.springframework.jms.listener.AbstractPollingMessageListenerContainer#setBatchSize
+	 */
+	public void setBatchSize(@Nullable Integer batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Return the maximum number of messages to process as a batch, if any.
+	 * @since 5.2
+	 */
+	@Nullable
+	public Integer getBatchSize() {
+		return this.batchSize;
+	}
+
 
 	@Override
 	public void setupListenerContainer(MessageListenerContainer listenerContainer) {
@@ -148,6 +174,9 @@ public abstract class AbstractJmsListenerEndpoint implements JmsListenerEndpoint
 		if (getConcurrency() != null) {
 			listenerContainer.setConcurrency(getConcurrency());
 		}
+		if (getBatchSize() != null && listenerContainer instanceof AbstractPollingMessageListenerContainer) {
+			((AbstractPollingMessageListenerContainer) listenerContainer).setBatchSize(getBatchSize());
+		}
 		setupMessageListener(listenerContainer);
 	}
 
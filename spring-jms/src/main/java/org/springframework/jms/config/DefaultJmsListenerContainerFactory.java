@@ -18,6 +18,7 @@ package org.springframework.jms.config;
 
 import java.util.concurrent.Executor;
 
+import org.springframework.jms.listener.ConsumerScalingPolicy;
 import org.springframework.jms.listener.DefaultMessageListenerContainer;
 import org.springframework.lang.Nullable;
 import org.springframework.transaction.PlatformTransactionManager;
@@ -57,6 +58,18 @@ public class DefaultJmsListenerContainerFactory
 	@Nullable
 	private Long receiveTimeout;
 
+	@Nullable
+	private Integer batchSize;
+
+	@Nullable
+	private Long batchTimeout;
+
+	@Nullable
+	private ConsumerScalingPolicy scalingPolicy;
+
+	@Nullable
+	private Long metricsInterval;
+
 	@Nullable
 	private Long recoveryInterval;
 
@@ -113,6 +126,38 @@ public class DefaultJmsListenerContainerFactory
 		this.receiveTimeout = receiveTimeout;
 	}
 
+	/**
+	 * @since 5.2
+	 * @see DefaultMessageListenerContainer#setBatchSize
+	 */
+	public void setBatchSize(Integer batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * @since 5.2
+	 * @see DefaultMessageListenerContainer#setBatchTimeout
+	 */
+	public void setBatchTimeout(Long batchTimeout) {
+		this.batchTimeout = batchTimeout;
+	}
+
+	/**
+	 * @since 5.2
+	 * @see DefaultMessageListenerContainer#setScalingPolicy
+	 */
+	public void setScalingPolicy(ConsumerScalingPolicy scalingPolicy) {
+		this.scalingPolicy = scalingPolicy;
+	}
+
+	/**
+	 * @since 5.2
+	 * @see DefaultMessageListenerContainer#setMetricsInterval
+	 */
+	public void setMetricsInterval(Long metricsInterval) {
+		this.metricsInterval = metricsInterval;
+	}
+
 	/**
 	 * @see DefaultMessageListenerContainer#setRecoveryInterval
 	 */
@@ -158,6 +203,18 @@ public class DefaultJmsListenerContainerFactory
 		if (this.receiveTimeout != null) {
 			container.setReceiveTimeout(this.receiveTimeout);
 		}
+		if (this.batchSize != null) {
+			container.setBatchSize(this.batchSize);
+		}
+		if (this.batchTimeout != null) {
+			container.setBatchTimeout(this.batchTimeout);
+		}
+		if (this.scalingPolicy != null) {
+			container.setScalingPolicy(this.scalingPolicy);
+		}
+		if (this.metricsInterval != null) {
+			container.setMetricsInterval(this.metricsInterval);
+		}
 
 		if (this.backOff != null) {
 			container.setBackOff(this.backOff);
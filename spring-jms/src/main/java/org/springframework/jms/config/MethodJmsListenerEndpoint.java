@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package org.springframework.jms.config;
 
 import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.List;
 
 import org.springframework.aop.framework.AopProxyUtils;
 import org.springframework.aop.support.AopUtils;
@@ -26,7 +27,9 @@ import org.springframework.beans.factory.BeanFactoryAware;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.beans.factory.config.EmbeddedValueResolver;
 import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.jms.listener.AbstractPollingMessageListenerContainer;
 import org.springframework.jms.listener.MessageListenerContainer;
+import org.springframework.jms.listener.adapter.BatchMessagingMessageListenerAdapter;
 import org.springframework.jms.listener.adapter.MessagingMessageListenerAdapter;
 import org.springframework.jms.support.QosSettings;
 import org.springframework.jms.support.converter.MessageConverter;
@@ -64,6 +67,8 @@ public class MethodJmsListenerEndpoint extends AbstractJmsListenerEndpoint imple
 	@Nullable
 	private StringValueResolver embeddedValueResolver;
 
+	private boolean batchListener = false;
+
 
 	/**
 	 * Set the actual bean instance to invoke this endpoint method on.
@@ -131,6 +136,28 @@ public class MethodJmsListenerEndpoint extends AbstractJmsListenerEndpoint imple
 		this.embeddedValueResolver = embeddedValueResolver;
 	}
 
+	/**
+	 * Set whether the listener method receives an entire batch of messages
+	 * at once, through a {@code List} parameter, if the listener container
+	 * receives messages in batches.
+	 * <p>Default is "false": the method is invoked for each message in turn,
+	 * with a {@code List} parameter receiving the converted payload of a
+	 * single message.
+	 * @since 5.2
+	 * @see #setBatchSize
+	 */
+	public void setBatchListener(boolean batchListener) {
+		this.batchListener = batchListener;
+	}
+
+	/**
+	 * Return whether the listener method receives an entire batch of messages.
+	 * @since 5.2
+	 */
+	public boolean isBatchListener() {
+		return this.batchListener;
+	}
+
 	/**
 	 * Set the {@link BeanFactory} to use to resolve expressions (may be {@code null}).
 	 */
@@ -146,7 +173,8 @@ public class MethodJmsListenerEndpoint extends AbstractJmsListenerEndpoint imple
 	protected MessagingMessageListenerAdapter createMessageListener(MessageListenerContainer container) {
 		Assert.state(this.messageHandlerMethodFactory != null,
 				"Could not create message listener - MessageHandlerMethodFactory not set");
-		MessagingMessageListenerAdapter messageListener = createMessageListenerInstance();
+		MessagingMessageListenerAdapter messageListener = (isBatchListener(container) ?
+				createBatchMessageListenerInstance() : createMessageListenerInstance());
 		InvocableHandlerMethod invocableHandlerMethod =
 				this.messageHandlerMethodFactory.createInvocableHandlerMethod(getBean(), getMethod());
 		messageListener.setHandlerMethod(invocableHandlerMethod);
@@ -182,6 +210,41 @@ public class MethodJmsListenerEndpoint extends AbstractJmsListenerEndpoint imple
 		return new MessagingMessageListenerAdapter();
 	}
 
+	/**
+	 * Create an empty {@link BatchMessagingMessageListenerAdapter} instance,
+	 * for a listener method that consumes batches of messages.
+	 * @return a new {@code BatchMessagingMessageListenerAdapter} or subclass thereof
+	 * @since 5.2
+	 */
+	protected MessagingMessageListenerAdapter createBatchMessageListenerInstance() {
+		return new BatchMessagingMessageListenerAdapter();
+	}
+
+	/**
+	 * Determine whether the listener method consumes batches of messages:
+	 * that is, whether it has been declared as a {@link #setBatchListener
+	 * batch listener} and the given container receives messages in batches.
+	 * Otherwise, the method is invoked for each message of a batch in turn.
+	 * @param container the listener container
+	 * @throws IllegalStateException if a batch listener method does not
+	 * declare a {@code List} parameter for the batch
+	 * @since 5.2
+	 * @see org.springframework.jms.listener.AbstractPollingMessageListenerContainer#setBatchSize
+	 */
+	protected boolean isBatchListener(MessageListenerContainer container) {
+		Method method = getMethod();
+		if (!this.batchListener || method == null || !(container instanceof AbstractPollingMessageListenerContainer) ||
+				((AbstractPollingMessageListenerContainer) container).getBatchSize() <= 1) {
+			return false;
+		}
+		for (Class<?> parameterType : method.getParameterTypes()) {
+			if (List.class.isAssignableFrom(parameterType)) {
+				return true;
+			}
+		}
+		throw new IllegalStateException("Batch listener method must declare a List parameter: " + method);
+	}
+
 	/**
 	 * Return the default response destination, if any.
 	 */
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -27,7 +27,11 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
 import javax.jms.Destination;
@@ -55,7 +59,11 @@ import org.springframework.util.ObjectUtils;
  * <p>By default, only one single Session will be cached, with further requested
  * Sessions being created and disposed on demand. Consider raising the
  * {@link #setSessionCacheSize "sessionCacheSize" value} in case of a
- * high-concurrency environment.
+ * high-concurrency environment. As of 5.2, the cached Sessions for each
+ * acknowledgement mode are spread across lock-free queues selected by thread,
+ * so that concurrent threads don't contend for a single Session list.
+ * Statistics about the use of the Session cache are exposed through
+ * {@link #getSessionCheckoutCount()} and related methods.
  *
  * <p>When using the JMS 1.0.2 API, this ConnectionFactory will switch
  * into queue/topic mode according to the JMS API methods used at runtime:
@@ -93,7 +101,13 @@ public class CachingConnectionFactory extends SingleConnectionFactory {
 
 	private volatile boolean active = true;
 
-	private final ConcurrentMap<Integer, LinkedList<Session>> cachedSessions = new ConcurrentHashMap<>();
+	private final ConcurrentMap<Integer, SessionPool> cachedSessions = new ConcurrentHashMap<>();
+
+	private final LongAdder sessionCheckoutCount = new LongAdder();
+
+	private final LongAdder sessionCreationCount = new LongAdder();
+
+	private final LongAdder sessionWaitTime = new LongAdder();
 
 
 	/**
@@ -176,6 +190,34 @@ public class CachingConnectionFactory extends SingleConnectionFactory {
 		return this.cacheConsumers;
 	}
 
+	/**
+	 * Return the number of Sessions obtained from this factory's shared
+	 * Connection so far, either from the cache or newly created.
+	 * @since 5.2
+	 */
+	public long getSessionCheckoutCount() {
+		return this.sessionCheckoutCount.sum();
+	}
+
+	/**
+	 * Return the number of physical JMS Sessions created by this factory,
+	 * i.e. the number of Session checkouts that could not be served from the cache.
+	 * @since 5.2
+	 */
+	public long getSessionCreationCount() {
+		return this.sessionCreationCount.sum();
+	}
+
+	/**
+	 * Return the accumulated time (in milliseconds) that callers spent
+	 * obtaining Sessions from the cache, not including the creation of
+	 * new Sessions on a cache miss.
+	 * @since 5.2
+	 */
+	public long getSessionWaitTime() {
+		return TimeUnit.NANOSECONDS.toMillis(this.sessionWaitTime.sum());
+	}
+
 
 	/**
 	 * Resets the Session cache as well.
@@ -185,15 +227,14 @@ public class CachingConnectionFactory extends SingleConnectionFactory {
 		this.active = false;
 
 		synchronized (this.cachedSessions) {
-			for (LinkedList<Session> sessionList : this.cachedSessions.values()) {
-				synchronized (sessionList) {
-					for (Session session : sessionList) {
-						try {
-							session.close();
-						}
-						catch (Throwable ex) {
-							logger.trace("Could not close cached JMS Session", ex);
-						}
+			for (SessionPool sessionPool : this.cachedSessions.values()) {
+				Session session;
+				while ((session = sessionPool.poll()) != null) {
+					try {
+						session.close();
+					}
+					catch (Throwable ex) {
+						logger.trace("Could not close cached JMS Session", ex);
 					}
 				}
 			}
@@ -215,13 +256,10 @@ public class CachingConnectionFactory extends SingleConnectionFactory {
 			return null;
 		}
 
-		LinkedList<Session> sessionList = this.cachedSessions.computeIfAbsent(mode, k -> new LinkedList<>());
-		Session session = null;
-		synchronized (sessionList) {
-			if (!sessionList.isEmpty()) {
-				session = sessionList.removeFirst();
-			}
-		}
+		this.sessionCheckoutCount.increment();
+		long startTime = System.nanoTime();
+		Session session = getSessionPool(mode).poll();
+		this.sessionWaitTime.add(System.nanoTime() - startTime);
 		if (session != null) {
 			if (logger.isTraceEnabled()) {
 				logger.trace("Found cached JMS Session for mode " + mode + ": " +
@@ -230,14 +268,20 @@ public class CachingConnectionFactory extends SingleConnectionFactory {
 		}
 		else {
 			Session targetSession = createSession(con, mode);
+			this.sessionCreationCount.increment();
 			if (logger.isDebugEnabled()) {
 				logger.debug("Registering cached JMS Session for mode " + mode + ": " + targetSession);
 			}
-			session = getCachedSessionProxy(targetSession, sessionList);
+			// Going through the deprecated variant for subclasses that still override it
+			session = getCachedSessionProxy(targetSession, new SessionModeList(mode));
 		}
 		return session;
 	}
 
+	private SessionPool getSessionPool(Integer mode) {
+		return this.cachedSessions.computeIfAbsent(mode, k -> new SessionPool());
+	}
+
 	/**
 	 * Wrap the given Session with a proxy that delegates every method call to it
 	 * but adapts close calls. This is useful for allowing application code to
@@ -245,8 +289,34 @@ public class CachingConnectionFactory extends SingleConnectionFactory {
 	 * @param target the original Session to wrap
 	 * @param sessionList the List of cached Sessions that the given Session belongs to
 	 * @return the wrapped Session
+	 * @deprecated as of 5.2, in favor of {@link #getCachedSessionProxy(Session, Integer)};
+	 * the given List is not used as a cache anymore, with the Session being returned
+	 * to the cache for its Session mode instead
 	 */
+	@Deprecated
 	protected Session getCachedSessionProxy(Session target, LinkedList<Session> sessionList) {
+		if (sessionList instanceof SessionModeList) {
+			return getCachedSessionProxy(target, ((SessionModeList) sessionList).mode);
+		}
+		try {
+			return getCachedSessionProxy(target, target.getAcknowledgeMode());
+		}
+		catch (JMSException ex) {
+			throw new IllegalStateException("Could not determine acknowledgement mode of " + target, ex);
+		}
+	}
+
+	/**
+	 * Wrap the given Session with a proxy that delegates every method call to it
+	 * but adapts close calls. This is useful for allowing application code to
+	 * handle a special framework Session just like an ordinary Session.
+	 * @param target the original Session to wrap
+	 * @param mode the Session mode that the given Session has been created with,
+	 * determining the cache that it gets returned to on close
+	 * @return the wrapped Session
+	 * @since 5.2
+	 */
+	protected Session getCachedSessionProxy(Session target, Integer mode) {
 		List<Class<?>> classes = new ArrayList<>(3);
 		classes.add(SessionProxy.class);
 		if (target instanceof QueueSession) {
@@ -255,8 +325,90 @@ public class CachingConnectionFactory extends SingleConnectionFactory {
 		if (target instanceof TopicSession) {
 			classes.add(TopicSession.class);
 		}
-		return (Session) Proxy.newProxyInstance(SessionProxy.class.getClassLoader(),
-				ClassUtils.toClassArray(classes), new CachedSessionInvocationHandler(target, sessionList));
+		CachedSessionInvocationHandler handler = new CachedSessionInvocationHandler(target, getSessionPool(mode));
+		handler.proxy = (Session) Proxy.newProxyInstance(SessionProxy.class.getClassLoader(),
+				ClassUtils.toClassArray(classes), handler);
+		return handler.proxy;
+	}
+
+
+	/**
+	 * Session list passed to {@link #getCachedSessionProxy(Session, LinkedList)},
+	 * carrying the mode of the given Session.
+	 */
+	@SuppressWarnings("serial")
+	private static class SessionModeList extends LinkedList<Session> {
+
+		private final Integer mode;
+
+		public SessionModeList(Integer mode) {
+			this.mode = mode;
+		}
+	}
+
+
+	/**
+	 * Pool of cached Sessions for a specific Session mode, spread across a number
+	 * of lock-free queues. Each thread returns Sessions to and obtains Sessions
+	 * from the queue that it maps to, falling back to the other queues if empty.
+	 */
+	private class SessionPool {
+
+		private final ConcurrentLinkedQueue<CachedSessionInvocationHandler>[] queues;
+
+		private final AtomicInteger size = new AtomicInteger();
+
+		@SuppressWarnings("unchecked")
+		public SessionPool() {
+			int queueCount = Math.max(1, Math.min(getSessionCacheSize(), Runtime.getRuntime().availableProcessors()));
+			this.queues = new ConcurrentLinkedQueue[queueCount];
+			for (int i = 0; i < queueCount; i++) {
+				this.queues[i] = new ConcurrentLinkedQueue<>();
+			}
+		}
+
+		@Nullable
+		public Session poll() {
+			int index = getQueueIndex();
+			for (int i = 0; i < this.queues.length; i++) {
+				CachedSessionInvocationHandler handler = this.queues[(index + i) % this.queues.length].poll();
+				if (handler != null) {
+					this.size.decrementAndGet();
+					handler.cached = false;
+					return handler.proxy;
+				}
+			}
+			return null;
+		}
+
+		/**
+		 * Reserve a place for a Session to be returned, if the cache size allows.
+		 * Needs to be followed by {@link #add} or {@link #cancel}.
+		 */
+		public boolean reserve() {
+			int current;
+			do {
+				current = this.size.get();
+				if (current >= getSessionCacheSize()) {
+					return false;
+				}
+			}
+			while (!this.size.compareAndSet(current, current + 1));
+			return true;
+		}
+
+		public void add(CachedSessionInvocationHandler handler) {
+			handler.cached = true;
+			this.queues[getQueueIndex()].offer(handler);
+		}
+
+		public void cancel() {
+			this.size.decrementAndGet();
+		}
+
+		private int getQueueIndex() {
+			return (int) (Thread.currentThread().getId() % this.queues.length);
+		}
 	}
 
 
@@ -267,7 +419,12 @@ public class CachingConnectionFactory extends SingleConnectionFactory {
 
 		private final Session target;
 
-		private final LinkedList<Session> sessionList;
+		private final SessionPool sessionPool;
+
+		@Nullable
+		private Session proxy;
+
+		private volatile boolean cached = false;
 
 		private final Map<DestinationCacheKey, MessageProducer> cachedProducers = new HashMap<>();
 
@@ -275,9 +432,9 @@ public class CachingConnectionFactory extends SingleConnectionFactory {
 
 		private boolean transactionOpen = false;
 
-		public CachedSessionInvocationHandler(Session target, LinkedList<Session> sessionList) {
+		public CachedSessionInvocationHandler(Session target, SessionPool sessionPool) {
 			this.target = target;
-			this.sessionList = sessionList;
+			this.sessionPool = sessionPool;
 		}
 
 		@Override
@@ -297,19 +454,20 @@ public class CachingConnectionFactory extends SingleConnectionFactory {
 			}
 			else if (methodName.equals("close")) {
 				// Handle close method: don't pass the call on.
-				if (active) {
-					synchronized (this.sessionList) {
-						if (this.sessionList.size() < getSessionCacheSize()) {
-							try {
-								logicalClose((Session) proxy);
-								// Remain open in the session list.
-								return null;
-							}
-							catch (JMSException ex) {
-								logger.trace("Logical close of cached JMS Session failed - discarding it", ex);
-								// Proceed to physical close from here...
-							}
-						}
+				if (this.cached) {
+					// Allow for multiple close calls...
+					return null;
+				}
+				if (active && this.sessionPool.reserve()) {
+					try {
+						logicalClose();
+						// Remain open in the session pool.
+						return null;
+					}
+					catch (JMSException ex) {
+						this.sessionPool.cancel();
+						logger.trace("Logical close of cached JMS Session failed - discarding it", ex);
+						// Proceed to physical close from here...
 					}
 				}
 				// If we get here, we're supposed to shut down.
@@ -438,7 +596,7 @@ public class CachingConnectionFactory extends SingleConnectionFactory {
 			return new CachedMessageConsumer(consumer);
 		}
 
-		private void logicalClose(Session proxy) throws JMSException {
+		private void logicalClose() throws JMSException {
 			// Preserve rollback-on-close semantics.
 			if (this.transactionOpen && this.target.getTransacted()) {
 				this.transactionOpen = false;
@@ -452,15 +610,8 @@ public class CachingConnectionFactory extends SingleConnectionFactory {
 					it.remove();
 				}
 			}
-			// Allow for multiple close calls...
-			boolean returned = false;
-			synchronized (this.sessionList) {
-				if (!this.sessionList.contains(proxy)) {
-					this.sessionList.addLast(proxy);
-					returned = true;
-				}
-			}
-			if (returned && logger.isTraceEnabled()) {
+			this.sessionPool.add(this);
+			if (logger.isTraceEnabled()) {
 				logger.trace("Returned cached Session: " + this.target);
 			}
 		}
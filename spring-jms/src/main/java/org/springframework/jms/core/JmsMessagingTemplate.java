@@ -17,6 +17,7 @@
 package org.springframework.jms.core;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import javax.jms.ConnectionFactory;
 import javax.jms.Destination;
 import javax.jms.JMSException;
@@ -236,6 +237,121 @@ public class JmsMessagingTemplate extends AbstractMessagingTemplate<Destination>
 		send(destinationName, message);
 	}
 
+	/**
+	 * Send a message to the default destination, without waiting for the
+	 * JMS provider to acknowledge the send.
+	 * @param message the message to send
+	 * @return a future that completes once the message has been sent, or
+	 * completes exceptionally with a {@link MessagingException} if the send failed
+	 * @since 5.2
+	 * @see JmsTemplate#sendAsync(Destination, MessageCreator)
+	 */
+	public CompletableFuture<Void> sendAsync(Message<?> message) throws MessagingException {
+		Destination defaultDestination = getDefaultDestination();
+		if (defaultDestination != null) {
+			return sendAsync(defaultDestination, message);
+		}
+		else {
+			return sendAsync(getRequiredDefaultDestinationName(), message);
+		}
+	}
+
+	/**
+	 * Send a message to the given destination, without waiting for the
+	 * JMS provider to acknowledge the send.
+	 * @param destination the target destination
+	 * @param message the message to send
+	 * @return a future that completes once the message has been sent, or
+	 * completes exceptionally with a {@link MessagingException} if the send failed
+	 * @since 5.2
+	 * @see JmsTemplate#sendAsync(Destination, MessageCreator)
+	 */
+	public CompletableFuture<Void> sendAsync(Destination destination, Message<?> message)
+			throws MessagingException {
+
+		try {
+			return adaptSendFuture(obtainJmsTemplate().sendAsync(destination, createMessageCreator(message)));
+		}
+		catch (JmsException ex) {
+			throw convertJmsException(ex);
+		}
+	}
+
+	/**
+	 * Send a message to the given destination, without waiting for the
+	 * JMS provider to acknowledge the send.
+	 * @param destinationName the name of the target destination
+	 * @param message the message to send
+	 * @return a future that completes once the message has been sent, or
+	 * completes exceptionally with a {@link MessagingException} if the send failed
+	 * @since 5.2
+	 * @see JmsTemplate#sendAsync(String, MessageCreator)
+	 */
+	public CompletableFuture<Void> sendAsync(String destinationName, Message<?> message)
+			throws MessagingException {
+
+		try {
+			return adaptSendFuture(obtainJmsTemplate().sendAsync(destinationName, createMessageCreator(message)));
+		}
+		catch (JmsException ex) {
+			throw convertJmsException(ex);
+		}
+	}
+
+	/**
+	 * Convert the given Object to serialized form, possibly using a
+	 * {@link org.springframework.messaging.converter.MessageConverter}, wrap it
+	 * as a message and send it to the default destination, without waiting for
+	 * the JMS provider to acknowledge the send.
+	 * @param payload the Object to use as payload
+	 * @return a future that completes once the message has been sent, or
+	 * completes exceptionally with a {@link MessagingException} if the send failed
+	 * @since 5.2
+	 */
+	public CompletableFuture<Void> convertAndSendAsync(Object payload) throws MessagingException {
+		Destination defaultDestination = getDefaultDestination();
+		if (defaultDestination != null) {
+			return convertAndSendAsync(defaultDestination, payload);
+		}
+		else {
+			return convertAndSendAsync(getRequiredDefaultDestinationName(), payload);
+		}
+	}
+
+	/**
+	 * Convert the given Object to serialized form, possibly using a
+	 * {@link org.springframework.messaging.converter.MessageConverter}, wrap it
+	 * as a message and send it to the given destination, without waiting for
+	 * the JMS provider to acknowledge the send.
+	 * @param destination the target destination
+	 * @param payload the Object to use as payload
+	 * @return a future that completes once the message has been sent, or
+	 * completes exceptionally with a {@link MessagingException} if the send failed
+	 * @since 5.2
+	 */
+	public CompletableFuture<Void> convertAndSendAsync(Destination destination, Object payload)
+			throws MessagingException {
+
+		return sendAsync(destination, doConvert(payload, null, null));
+	}
+
+	/**
+	 * Convert the given Object to serialized form, possibly using a
+	 * {@link org.springframework.messaging.converter.MessageConverter}, wrap it
+	 * as a message and send it to the given destination, without waiting for
+	 * the JMS provider to acknowledge the send.
+	 * @param destinationName the name of the target destination
+	 * @param payload the Object to use as payload
+	 * @return a future that completes once the message has been sent, or
+	 * completes exceptionally with a {@link MessagingException} if the send failed
+	 * @since 5.2
+	 */
+	public CompletableFuture<Void> convertAndSendAsync(String destinationName, Object payload)
+			throws MessagingException {
+
+		return sendAsync(destinationName, doConvert(payload, null, null));
+	}
+
 	@Override
 	@Nullable
 	public Message<?> receive() {
@@ -359,6 +475,19 @@ public class JmsMessagingTemplate extends AbstractMessagingTemplate<Destination>
 		}
 	}
 
+	private CompletableFuture<Void> adaptSendFuture(CompletableFuture<Void> future) {
+		CompletableFuture<Void> result = new CompletableFuture<>();
+		future.whenComplete((value, ex) -> {
+			if (ex == null) {
+				result.complete(null);
+			}
+			else {
+				result.completeExceptionally(ex instanceof JmsException ? convertJmsException((JmsException) ex) : ex);
+			}
+		});
+		return result;
+	}
+
 	protected void doSend(String destinationName, Message<?> message) {
 		try {
 			obtainJmsTemplate().send(destinationName, createMessageCreator(message));
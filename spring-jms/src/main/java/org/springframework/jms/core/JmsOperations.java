@@ -16,6 +16,7 @@
 
 package org.springframework.jms.core;
 
+import java.util.concurrent.CompletableFuture;
 import javax.jms.Destination;
 import javax.jms.Message;
 import javax.jms.Queue;
@@ -194,6 +195,132 @@ public interface JmsOperations {
 		throws JmsException;
 
 
+	//---------------------------------------------------------------------------------------
+	// Convenience methods for sending messages asynchronously
+	//---------------------------------------------------------------------------------------
+
+	/**
+	 * Send a message to the default destination, without waiting for the
+	 * JMS provider to acknowledge the send.
+	 * <p>This will only work with a default destination specified!
+	 * <p>The default implementation delegates to {@link #send(MessageCreator)},
+	 * returning a completed future.
+	 * @param messageCreator callback to create a message
+	 * @return a future that completes once the message has been sent, or
+	 * completes exceptionally with a {@link JmsException} if the send failed
+	 * @throws JmsException checked JMSException converted to unchecked,
+	 * if the send failed before the message was handed over to the provider
+	 * @since 5.2
+	 */
+	default CompletableFuture<Void> sendAsync(MessageCreator messageCreator) throws JmsException {
+		send(messageCreator);
+		return CompletableFuture.completedFuture(null);
+	}
+
+	/**
+	 * Send a message to the specified destination, without waiting for the
+	 * JMS provider to acknowledge the send.
+	 * <p>The default implementation delegates to {@link #send(Destination, MessageCreator)},
+	 * returning a completed future.
+	 * @param destination the destination to send this message to
+	 * @param messageCreator callback to create a message
+	 * @return a future that completes once the message has been sent, or
+	 * completes exceptionally with a {@link JmsException} if the send failed
+	 * @throws JmsException checked JMSException converted to unchecked,
+	 * if the send failed before the message was handed over to the provider
+	 * @since 5.2
+	 */
+	default CompletableFuture<Void> sendAsync(Destination destination, MessageCreator messageCreator)
+			throws JmsException {
+
+		send(destination, messageCreator);
+		return CompletableFuture.completedFuture(null);
+	}
+
+	/**
+	 * Send a message to the specified destination, without waiting for the
+	 * JMS provider to acknowledge the send.
+	 * <p>The default implementation delegates to {@link #send(String, MessageCreator)},
+	 * returning a completed future.
+	 * @param destinationName the name of the destination to send this message to
+	 * (to be resolved to an actual destination by a DestinationResolver)
+	 * @param messageCreator callback to create a message
+	 * @return a future that completes once the message has been sent, or
+	 * completes exceptionally with a {@link JmsException} if the send failed
+	 * @throws JmsException checked JMSException converted to unchecked,
+	 * if the send failed before the message was handed over to the provider
+	 * @since 5.2
+	 */
+	default CompletableFuture<Void> sendAsync(String destinationName, MessageCreator messageCreator)
+			throws JmsException {
+
+		send(destinationName, messageCreator);
+		return CompletableFuture.completedFuture(null);
+	}
+
+	/**
+	 * Send the given object to the default destination, converting the object
+	 * to a JMS message with a configured MessageConverter, without waiting for
+	 * the JMS provider to acknowledge the send.
+	 * <p>This will only work with a default destination specified!
+	 * <p>The default implementation delegates to {@link #convertAndSend(Object)},
+	 * returning a completed future.
+	 * @param message the object to convert to a message
+	 * @return a future that completes once the message has been sent, or
+	 * completes exceptionally with a {@link JmsException} if the send failed
+	 * @throws JmsException checked JMSException converted to unchecked,
+	 * if the send failed before the message was handed over to the provider
+	 * @since 5.2
+	 */
+	default CompletableFuture<Void> convertAndSendAsync(Object message) throws JmsException {
+		convertAndSend(message);
+		return CompletableFuture.completedFuture(null);
+	}
+
+	/**
+	 * Send the given object to the specified destination, converting the object
+	 * to a JMS message with a configured MessageConverter, without waiting for
+	 * the JMS provider to acknowledge the send.
+	 * <p>The default implementation delegates to {@link #convertAndSend(Destination, Object)},
+	 * returning a completed future.
+	 * @param destination the destination to send this message to
+	 * @param message the object to convert to a message
+	 * @return a future that completes once the message has been sent, or
+	 * completes exceptionally with a {@link JmsException} if the send failed
+	 * @throws JmsException checked JMSException converted to unchecked,
+	 * if the send failed before the message was handed over to the provider
+	 * @since 5.2
+	 */
+	default CompletableFuture<Void> convertAndSendAsync(Destination destination, Object message)
+			throws JmsException {
+
+		convertAndSend(destination, message);
+		return CompletableFuture.completedFuture(null);
+	}
+
+	/**
+	 * Send the given object to the specified destination, converting the object
+	 * to a JMS message with a configured MessageConverter, without waiting for
+	 * the JMS provider to acknowledge the send.
+	 * <p>The default implementation delegates to {@link #convertAndSend(String, Object)},
+	 * returning a completed future.
+	 * @param destinationName the name of the destination to send this message to
+	 * (to be resolved to an actual destination by a DestinationResolver)
+	 * @param message the object to convert to a message
+	 * @return a future that completes once the message has been sent, or
+	 * completes exceptionally with a {@link JmsException} if the send failed
+	 * @throws JmsException checked JMSException converted to unchecked,
+	 * if the send failed before the message was handed over to the provider
+	 * @since 5.2
+	 */
+	default CompletableFuture<Void> convertAndSendAsync(String destinationName, Object message)
+			throws JmsException {
+
+		convertAndSend(destinationName, message);
+		return CompletableFuture.completedFuture(null);
+	}
+
+
 	//---------------------------------------------------------------------------------------
 	// Convenience methods for receiving messages
 	//---------------------------------------------------------------------------------------
@@ -16,6 +16,15 @@
 
 package org.springframework.jms.core;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import javax.jms.CompletionListener;
 import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
 import javax.jms.DeliveryMode;
@@ -29,7 +38,9 @@ import javax.jms.QueueBrowser;
 import javax.jms.Session;
 import javax.jms.TemporaryQueue;
 
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.jms.JmsException;
+import org.springframework.jms.UncategorizedJmsException;
 import org.springframework.jms.connection.ConnectionFactoryUtils;
 import org.springframework.jms.connection.JmsResourceHolder;
 import org.springframework.jms.support.JmsUtils;
@@ -75,6 +86,16 @@ import org.springframework.util.Assert;
  * application's environment naming context via JNDI; application servers
  * typically expose pooled, transaction-aware factories there.
  *
+ * <p>The {@code sendAsync} and {@code convertAndSendAsync} methods send
+ * through a pooled Session and MessageProducer per destination, on a
+ * dedicated Connection, using JMS 2.0 {@link CompletionListener asynchronous
+ * sends}. This allows for pipelining sends without waiting for the provider to
+ * acknowledge each one. The number of unacknowledged sends is capped by the
+ * {@link #setMaxInFlightSends "maxInFlightSends"} setting, and the number of
+ * pooled producers by the {@link #setMaxPooledProducers "maxPooledProducers"}
+ * setting. With a JMS 1.1 provider, messages are sent synchronously through
+ * the pooled producers. The pooled resources are released on {@link #destroy()}.
+ *
  * @author Mark Pollack
  * @author Juergen Hoeller
  * @author Stephane Nicoll
@@ -86,7 +107,7 @@ import org.springframework.util.Assert;
  * @see javax.jms.MessageProducer
  * @see javax.jms.MessageConsumer
  */
-public class JmsTemplate extends JmsDestinationAccessor implements JmsOperations {
+public class JmsTemplate extends JmsDestinationAccessor implements JmsOperations, DisposableBean {
 
 	/** Internal ResourceFactory adapter for interacting with ConnectionFactoryUtils. */
 	private final JmsTemplateResourceFactory transactionalResourceFactory = new JmsTemplateResourceFactory();
@@ -119,6 +140,18 @@ public class JmsTemplate extends JmsDestinationAccessor implements JmsOperations
 	private long timeToLive = Message.DEFAULT_TIME_TO_LIVE;
 
 
+	private int maxInFlightSends = 256;
+
+	private long inFlightSendTimeout = 30000;
+
+	private int maxPooledProducers = 32;
+
+	@Nullable
+	private AsyncProducerPool asyncProducerPool;
+
+	private final Object asyncProducerPoolMonitor = new Object();
+
+
 	/**
 	 * Create a new JmsTemplate for bean-style usage.
 	 * <p>Note: The ConnectionFactory has to be set before using the instance.
@@ -457,6 +490,72 @@ public class JmsTemplate extends JmsDestinationAccessor implements JmsOperations
 		return this.timeToLive;
 	}
 
+	/**
+	 * Set the maximum number of asynchronous sends that may be awaiting
+	 * acknowledgement by the JMS provider at any given time. Further
+	 * {@code sendAsync} calls block until a pending send completes, up to
+	 * the {@link #setInFlightSendTimeout "inFlightSendTimeout"}.
+	 * <p>Default is 256. Needs to be set before the first asynchronous send.
+	 * @since 5.2
+	 * @see #sendAsync(Destination, MessageCreator)
+	 */
+	public void setMaxInFlightSends(int maxInFlightSends) {
+		Assert.isTrue(maxInFlightSends > 0, "'maxInFlightSends' must be 1 or higher");
+		this.maxInFlightSends = maxInFlightSends;
+	}
+
+	/**
+	 * Return the maximum number of asynchronous sends awaiting acknowledgement.
+	 * @since 5.2
+	 */
+	public int getMaxInFlightSends() {
+		return this.maxInFlightSends;
+	}
+
+	/**
+	 * Set the maximum time (in milliseconds) that a {@code sendAsync} call
+	 * waits for a pending send to complete once the
+	 * {@link #setMaxInFlightSends "maxInFlightSends"} limit has been reached.
+	 * If exceeded, the call fails with an {@link UncategorizedJmsException},
+	 * e.g. if the JMS provider never acknowledges outstanding sends.
+	 * <p>Default is 30000 (30 seconds). 0 lets the call fail right away.
+	 * @since 5.2
+	 * @see #setMaxInFlightSends
+	 */
+	public void setInFlightSendTimeout(long inFlightSendTimeout) {
+		Assert.isTrue(inFlightSendTimeout >= 0, "'inFlightSendTimeout' must not be negative");
+		this.inFlightSendTimeout = inFlightSendTimeout;
+	}
+
+	/**
+	 * Return the maximum time to wait for a pending send to complete.
+	 * @since 5.2
+	 */
+	public long getInFlightSendTimeout() {
+		return this.inFlightSendTimeout;
+	}
+
+	/**
+	 * Set the maximum number of destinations to keep a Session and
+	 * MessageProducer pooled for, for asynchronous sends. Once exceeded,
+	 * the producer for the least recently used destination is closed.
+	 * <p>Default is 32. Needs to be set before the first asynchronous send.
+	 * @since 5.2
+	 * @see #sendAsync(Destination, MessageCreator)
+	 */
+	public void setMaxPooledProducers(int maxPooledProducers) {
+		Assert.isTrue(maxPooledProducers > 0, "'maxPooledProducers' must be 1 or higher");
+		this.maxPooledProducers = maxPooledProducers;
+	}
+
+	/**
+	 * Return the maximum number of destinations to pool producers for.
+	 * @since 5.2
+	 */
+	public int getMaxPooledProducers() {
+		return this.maxPooledProducers;
+	}
+
 
 	//---------------------------------------------------------------------------------------
 	// JmsOperations execute methods
@@ -695,6 +794,141 @@ public class JmsTemplate extends JmsDestinationAccessor implements JmsOperations
 	}
 
 
+	//---------------------------------------------------------------------------------------
+	// Convenience methods for sending messages asynchronously
+	//---------------------------------------------------------------------------------------
+
+	@Override
+	public CompletableFuture<Void> sendAsync(MessageCreator messageCreator) throws JmsException {
+		Destination defaultDestination = getDefaultDestination();
+		if (defaultDestination != null) {
+			return sendAsync(defaultDestination, messageCreator);
+		}
+		else {
+			return sendAsync(getRequiredDefaultDestinationName(), messageCreator);
+		}
+	}
+
+	/**
+	 * Send a message to the specified destination through a pooled producer,
+	 * without waiting for the JMS provider to acknowledge the send.
+	 * <p>Within a transaction, or with {@link #setSessionTransacted transacted}
+	 * Sessions, the message is sent synchronously via {@link #send(Destination,
+	 * MessageCreator)} instead, participating in the transaction as usual.
+	 */
+	@Override
+	public CompletableFuture<Void> sendAsync(Destination destination, MessageCreator messageCreator)
+			throws JmsException {
+
+		if (!isAsyncSendAllowed()) {
+			send(destination, messageCreator);
+			return CompletableFuture.completedFuture(null);
+		}
+		return obtainAsyncProducerPool().send(destination, messageCreator);
+	}
+
+	/**
+	 * Send a message to the specified destination through a pooled producer,
+	 * without waiting for the JMS provider to acknowledge the send.
+	 * <p>Within a transaction, or with {@link #setSessionTransacted transacted}
+	 * Sessions, the message is sent synchronously via {@link #send(String,
+	 * MessageCreator)} instead, participating in the transaction as usual.
+	 */
+	@Override
+	public CompletableFuture<Void> sendAsync(String destinationName, MessageCreator messageCreator)
+			throws JmsException {
+
+		if (!isAsyncSendAllowed()) {
+			send(destinationName, messageCreator);
+			return CompletableFuture.completedFuture(null);
+		}
+		return obtainAsyncProducerPool().send(destinationName, messageCreator);
+	}
+
+	@Override
+	public CompletableFuture<Void> convertAndSendAsync(Object message) throws JmsException {
+		Destination defaultDestination = getDefaultDestination();
+		if (defaultDestination != null) {
+			return convertAndSendAsync(defaultDestination, message);
+		}
+		else {
+			return convertAndSendAsync(getRequiredDefaultDestinationName(), message);
+		}
+	}
+
+	@Override
+	public CompletableFuture<Void> convertAndSendAsync(Destination destination, final Object message)
+			throws JmsException {
+
+		return sendAsync(destination, session -> getRequiredMessageConverter().toMessage(message, session));
+	}
+
+	@Override
+	public CompletableFuture<Void> convertAndSendAsync(String destinationName, final Object message)
+			throws JmsException {
+
+		return sendAsync(destinationName, session -> getRequiredMessageConverter().toMessage(message, session));
+	}
+
+	/**
+	 * Actually send the given JMS message asynchronously, notifying the given
+	 * listener once the JMS provider has acknowledged the send.
+	 * @param producer the JMS MessageProducer to send with
+	 * @param message the JMS Message to send
+	 * @param completionListener the listener to notify
+	 * @throws JMSException if thrown by JMS API methods
+	 * @since 5.2
+	 * @see #doSend(MessageProducer, Message)
+	 */
+	protected void doSendAsync(MessageProducer producer, Message message, CompletionListener completionListener)
+			throws JMSException {
+
+		if (this.deliveryDelay >= 0) {
+			producer.setDeliveryDelay(this.deliveryDelay);
+		}
+		if (isExplicitQosEnabled()) {
+			producer.send(message, getDeliveryMode(), getPriority(), getTimeToLive(), completionListener);
+		}
+		else {
+			producer.send(message, completionListener);
+		}
+	}
+
+	/**
+	 * Determine whether messages may be sent through the pooled producers:
+	 * not with transacted Sessions and not within a transaction.
+	 */
+	private boolean isAsyncSendAllowed() {
+		return (!isSessionTransacted() && !TransactionSynchronizationManager.isActualTransactionActive());
+	}
+
+	private AsyncProducerPool obtainAsyncProducerPool() {
+		synchronized (this.asyncProducerPoolMonitor) {
+			if (this.asyncProducerPool == null) {
+				this.asyncProducerPool = new AsyncProducerPool(this.maxInFlightSends, this.maxPooledProducers);
+			}
+			return this.asyncProducerPool;
+		}
+	}
+
+	/**
+	 * Close the Connection, Sessions and MessageProducers pooled for
+	 * asynchronous sends, if any. Sends that are still in flight may fail.
+	 * @since 5.2
+	 */
+	@Override
+	public void destroy() {
+		AsyncProducerPool pool;
+		synchronized (this.asyncProducerPoolMonitor) {
+			pool = this.asyncProducerPool;
+			this.asyncProducerPool = null;
+		}
+		if (pool != null) {
+			pool.close();
+		}
+	}
+
+
 	//---------------------------------------------------------------------------------------
 	// Convenience methods for receiving messages
 	//---------------------------------------------------------------------------------------
@@ -1191,4 +1425,232 @@ public class JmsTemplate extends JmsDestinationAccessor implements JmsOperations
 		}
 	}
 
+
+	/**
+	 * Pool of Sessions and MessageProducers per destination on a dedicated
+	 * Connection, used for asynchronous sends. Holds up to the given number
+	 * of producers, closing the least recently used one beyond that.
+	 */
+	private class AsyncProducerPool {
+
+		private final int maxInFlightSends;
+
+		private final Semaphore inFlightSends;
+
+		private final int maxProducers;
+
+		private final Map<Object, PooledProducer> producers = new LinkedHashMap<>(16, 0.75f, true);
+
+		@Nullable
+		private Connection connection;
+
+		private volatile boolean asyncSendSupported = true;
+
+		public AsyncProducerPool(int maxInFlightSends, int maxProducers) {
+			this.maxInFlightSends = maxInFlightSends;
+			this.inFlightSends = new Semaphore(maxInFlightSends);
+			this.maxProducers = maxProducers;
+		}
+
+		/**
+		 * Send a message to the given destination, specified as a Destination
+		 * or as a destination name, through the pooled producer for it.
+		 */
+		public CompletableFuture<Void> send(Object destination, MessageCreator messageCreator) {
+			Assert.notNull(messageCreator, "MessageCreator must not be null");
+			acquireInFlightPermit();
+			CompletableFuture<Void> future = new CompletableFuture<>();
+			PooledProducer producer = null;
+			try {
+				do {
+					producer = obtainProducer(destination);
+				}
+				while (!producer.send(messageCreator, future));
+			}
+			catch (JMSException ex) {
+				this.inFlightSends.release();
+				if (producer != null) {
+					removeProducer(producer);
+				}
+				throw convertJmsAccessException(ex);
+			}
+			catch (RuntimeException | Error ex) {
+				this.inFlightSends.release();
+				throw ex;
+			}
+			return future;
+		}
+
+		private void acquireInFlightPermit() {
+			try {
+				if (!this.inFlightSends.tryAcquire(inFlightSendTimeout, TimeUnit.MILLISECONDS)) {
+					throw new UncategorizedJmsException("No asynchronous send completed within " +
+							inFlightSendTimeout + " ms: " + this.maxInFlightSends +
+							" sends still awaiting acknowledgement by the JMS provider");
+				}
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new UncategorizedJmsException("Interrupted while waiting for in-flight sends to complete", ex);
+			}
+		}
+
+		private PooledProducer obtainProducer(Object destination) {
+			PooledProducer producer;
+			PooledProducer evicted = null;
+			synchronized (this.producers) {
+				producer = this.producers.get(destination);
+				if (producer == null) {
+					producer = new PooledProducer(destination);
+					this.producers.put(destination, producer);
+					if (this.producers.size() > this.maxProducers) {
+						Iterator<PooledProducer> it = this.producers.values().iterator();
+						evicted = it.next();
+						it.remove();
+					}
+				}
+			}
+			if (evicted != null) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Closing pooled producer for least recently used destination: " +
+							evicted.destination);
+				}
+				evicted.close();
+			}
+			return producer;
+		}
+
+		private void removeProducer(PooledProducer producer) {
+			synchronized (this.producers) {
+				this.producers.remove(producer.destination, producer);
+			}
+			producer.close();
+		}
+
+		public synchronized Connection obtainConnection() throws JMSException {
+			if (this.connection == null) {
+				this.connection = createConnection();
+			}
+			return this.connection;
+		}
+
+		public synchronized void resetConnection() {
+			ConnectionFactoryUtils.releaseConnection(this.connection, getConnectionFactory(), false);
+			this.connection = null;
+		}
+
+		public void close() {
+			List<PooledProducer> producersToClose;
+			synchronized (this.producers) {
+				producersToClose = new ArrayList<>(this.producers.values());
+				this.producers.clear();
+			}
+			producersToClose.forEach(PooledProducer::close);
+			resetConnection();
+		}
+
+
+		/**
+		 * Session and MessageProducer for a single destination, used by one thread at a time.
+		 */
+		private class PooledProducer {
+
+			private final Object destination;
+
+			@Nullable
+			private Session session;
+
+			@Nullable
+			private MessageProducer producer;
+
+			private boolean closed;
+
+			public PooledProducer(Object destination) {
+				this.destination = destination;
+			}
+
+			/**
+			 * Send a message through this producer.
+			 * @return {@code false} if this producer has been closed in the meantime,
+			 * e.g. evicted from the pool, so that the send needs to be retried
+			 * through a current producer
+			 */
+			public synchronized boolean send(MessageCreator messageCreator, CompletableFuture<Void> future)
+					throws JMSException {
+
+				if (this.closed) {
+					return false;
+				}
+				if (this.session == null || this.producer == null) {
+					Session session;
+					try {
+						session = createSession(obtainConnection());
+					}
+					catch (JMSException ex) {
+						resetConnection();
+						throw ex;
+					}
+					Destination destination = (this.destination instanceof Destination ?
+							(Destination) this.destination : resolveDestinationName(session, (String) this.destination));
+					this.producer = createProducer(session, destination);
+					this.session = session;
+				}
+				Message message = messageCreator.createMessage(this.session);
+				if (logger.isDebugEnabled()) {
+					logger.debug("Sending created message asynchronously: " + message);
+				}
+				if (asyncSendSupported) {
+					try {
+						doSendAsync(this.producer, message, new FutureCompletionListener(future));
+						return true;
+					}
+					catch (AbstractMethodError | UnsupportedOperationException ex) {
+						// JMS 1.1 provider -> fall back to synchronous sends.
+						logger.debug("JMS provider does not support asynchronous sends - sending synchronously");
+						asyncSendSupported = false;
+					}
+				}
+				doSend(this.producer, message);
+				inFlightSends.release();
+				future.complete(null);
+				return true;
+			}
+
+			public synchronized void close() {
+				JmsUtils.closeMessageProducer(this.producer);
+				JmsUtils.closeSession(this.session);
+				this.producer = null;
+				this.session = null;
+				this.closed = true;
+			}
+		}
+
+
+		/**
+		 * CompletionListener that completes the given future and releases
+		 * the in-flight permit of the send.
+		 */
+		private class FutureCompletionListener implements CompletionListener {
+
+			private final CompletableFuture<Void> future;
+
+			public FutureCompletionListener(CompletableFuture<Void> future) {
+				this.future = future;
+			}
+
+			@Override
+			public void onCompletion(Message message) {
+				inFlightSends.release();
+				this.future.complete(null);
+			}
+
+			@Override
+			public void onException(Message message, Exception ex) {
+				inFlightSends.release();
+				this.future.completeExceptionally(ex instanceof JMSException ?
+						convertJmsAccessException((JMSException) ex) : new UncategorizedJmsException(ex));
+			}
+		}
+	}
+
 }
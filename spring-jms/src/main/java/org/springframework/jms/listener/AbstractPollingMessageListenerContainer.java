@@ -16,6 +16,8 @@
 
 package org.springframework.jms.listener;
 
+import java.util.ArrayList;
+import java.util.List;
 import javax.jms.Connection;
 import javax.jms.Destination;
 import javax.jms.JMSException;
@@ -47,6 +49,14 @@ import org.springframework.util.Assert;
  * to the concrete implementation. The receive timeout for each attempt can be
  * configured through the {@link #setReceiveTimeout "receiveTimeout"} property.
  *
+ * <p>Each attempt may also receive a batch of messages, as configured through the
+ * {@link #setBatchSize "batchSize"} and {@link #setBatchTimeout "batchTimeout"}
+ * properties. All messages of a batch are processed within the same transaction
+ * and committed (or acknowledged) once, which is typically much cheaper than a
+ * commit round-trip to the JMS provider per message. A {@link BatchMessageListener}
+ * receives the entire batch at once, whereas any other listener is invoked for
+ * each message of the batch in turn.
+ *
  * <p>The underlying mechanism is based on standard JMS MessageConsumer handling,
  * which is perfectly compatible with both native JMS and JMS in a Java EE environment.
  * Neither the JMS {@code MessageConsumer.setMessageListener} facility  nor the JMS
@@ -94,6 +104,10 @@ public abstract class AbstractPollingMessageListenerContainer extends AbstractMe
 
 	private long receiveTimeout = DEFAULT_RECEIVE_TIMEOUT;
 
+	private int batchSize = 1;
+
+	private long batchTimeout = 0;
+
 
 	@Override
 	public void setSessionTransacted(boolean sessionTransacted) {
@@ -182,6 +196,58 @@ public abstract class AbstractPollingMessageListenerContainer extends AbstractMe
 		return this.receiveTimeout;
 	}
 
+	/**
+	 * Specify the maximum number of messages to receive and process as a
+	 * batch, within a single transaction. The default is 1, receiving and
+	 * processing one message at a time.
+	 * <p>A batch is complete when it contains the given number of messages,
+	 * or when the {@link #setBatchTimeout "batchTimeout"} has elapsed since
+	 * its first message was received, whichever comes first.
+	 * <p>If the listener fails, the transaction for the entire batch is rolled
+	 * back (or the session recovered, in client acknowledge mode). Messages
+	 * redelivered as a consequence are then processed one at a time, each in its
+	 * own transaction, so that the remaining messages of a batch get processed
+	 * even if a single message keeps failing. Note that this requires either
+	 * "sessionTransacted" or "CLIENT_ACKNOWLEDGE" for redelivery to happen.
+	 * @since 5.2
+	 * @see BatchMessageListener
+	 * @see #setBatchTimeout
+	 */
+	public void setBatchSize(int batchSize) {
+		Assert.isTrue(batchSize > 0, "'batchSize' must be greater than 0");
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Return the maximum number of messages to process as a batch.
+	 * @since 5.2
+	 */
+	public int getBatchSize() {
+		return this.batchSize;
+	}
+
+	/**
+	 * Specify how long to wait for further messages of a batch, in
+	 * <b>milliseconds</b>, once its first message has been received.
+	 * The default is 0, only adding messages that are immediately available.
+	 * <p><b>NOTE:</b> Just like the receive timeout, this value needs to
+	 * be smaller than the transaction timeout, if any.
+	 * @since 5.2
+	 * @see #setBatchSize
+	 */
+	public void setBatchTimeout(long batchTimeout) {
+		Assert.isTrue(batchTimeout >= 0, "'batchTimeout' must not be negative");
+		this.batchTimeout = batchTimeout;
+	}
+
+	/**
+	 * Return how long to wait for further messages of a batch (ms).
+	 * @since 5.2
+	 */
+	public long getBatchTimeout() {
+		return this.batchTimeout;
+	}
+
 
 	@Override
 	public void initialize() {
@@ -302,8 +368,10 @@ public abstract class AbstractPollingMessageListenerContainer extends AbstractMe
 			}
 			Message message = receiveMessage(consumerToUse);
 			if (message != null) {
+				List<Message> batch = (this.batchSize > 1 ? receiveBatch(consumerToUse, message) : null);
 				if (logger.isDebugEnabled()) {
-					logger.debug("Received message of type [" + message.getClass() + "] from consumer [" +
+					logger.debug("Received " + (batch != null ? batch.size() + " messages" :
+							"message of type [" + message.getClass() + "]") + " from consumer [" +
 							consumerToUse + "] of " + (transactional ? "transactional " : "") + "session [" +
 							sessionToUse + "]");
 				}
@@ -315,7 +383,12 @@ public abstract class AbstractPollingMessageListenerContainer extends AbstractMe
 							obtainConnectionFactory(), new LocallyExposedJmsResourceHolder(sessionToUse));
 				}
 				try {
-					doExecuteListener(sessionToUse, message);
+					if (batch != null) {
+						doExecuteListener(sessionToUse, batch);
+					}
+					else {
+						doExecuteListener(sessionToUse, message);
+					}
 				}
 				catch (Throwable ex) {
 					if (status != null) {
@@ -418,6 +491,38 @@ public abstract class AbstractPollingMessageListenerContainer extends AbstractMe
 		return receiveFromConsumer(consumer, getReceiveTimeout());
 	}
 
+	/**
+	 * Receive further messages from the given consumer, completing a batch
+	 * that starts with the given message.
+	 * <p>A redelivered first message is returned on its own, so that messages
+	 * of a batch that failed are processed one at a time on redelivery.
+	 * @param consumer the MessageConsumer to use
+	 * @param firstMessage the first message of the batch
+	 * @return the batch of messages, containing at least the first message
+	 * @throws JMSException if thrown by JMS methods
+	 * @since 5.2
+	 * @see #setBatchSize
+	 * @see #setBatchTimeout
+	 */
+	protected List<Message> receiveBatch(MessageConsumer consumer, Message firstMessage) throws JMSException {
+		List<Message> messages = new ArrayList<>(this.batchSize);
+		messages.add(firstMessage);
+		if (firstMessage.getJMSRedelivered()) {
+			return messages;
+		}
+		long deadline = System.currentTimeMillis() + this.batchTimeout;
+		while (messages.size() < this.batchSize) {
+			long remaining = deadline - System.currentTimeMillis();
+			// A negative timeout indicates a no-wait receive operation
+			Message message = receiveFromConsumer(consumer, (remaining > 0 ? remaining : -1));
+			if (message == null) {
+				break;
+			}
+			messages.add(message);
+		}
+		return messages;
+	}
+
 	/**
 	 * Template method that gets called right when a new message has been received,
 	 * before attempting to process it. Allows subclasses to react to the event
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jms.listener;
+
+import java.util.List;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.Session;
+
+/**
+ * Variant of the standard JMS {@link javax.jms.MessageListener} interface,
+ * receiving a batch of messages at once along with the underlying JMS Session.
+ *
+ * <p>Supported by Spring's {@link DefaultMessageListenerContainer} when
+ * configured with a {@link AbstractPollingMessageListenerContainer#setBatchSize
+ * batch size} greater than 1: all messages of a batch are received within
+ * the same transaction (or acknowledged together), and the transaction is
+ * committed once after the listener returns. An exception thrown by the
+ * listener rolls back the entire batch. Listener containers that dispatch
+ * one message at a time invoke this listener with a single-element list.
+ *
+ * @author agent
+ * @since 5.2
+ * @see AbstractPollingMessageListenerContainer#setBatchSize
+ * @see AbstractPollingMessageListenerContainer#setBatchTimeout
+ */
+@FunctionalInterface
+public interface BatchMessageListener {
+
+	/**
+	 * Callback for processing a batch of received JMS messages.
+	 * @param messages the received JMS messages (never empty), in the
+	 * order of reception
+	 * @param session the underlying JMS Session (never {@code null})
+	 * @throws JMSException if thrown by JMS methods
+	 */
+	void onMessages(List<Message> messages, Session session) throws JMSException;
+
+}
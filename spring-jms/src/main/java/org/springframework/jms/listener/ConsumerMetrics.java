@@ -0,0 +1,174 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jms.listener;
+
+/**
+ * Immutable snapshot of the consumer metrics of a
+ * {@link DefaultMessageListenerContainer}, covering a single metrics interval.
+ *
+ * <p>A delivery refers to a single listener invocation, i.e. a single message
+ * or, with batch consumption, a single batch of messages.
+ *
+ * @author agent
+ * @since 5.2
+ * @see DefaultMessageListenerContainer#getConsumerMetrics()
+ * @see ConsumerScalingPolicy
+ */
+public final class ConsumerMetrics {
+
+	private final long interval;
+
+	private final long deliveryCount;
+
+	private final long processingTime;
+
+	private final long idleReceiveCount;
+
+	private final int queueDepth;
+
+	private final int scheduledConsumerCount;
+
+	private final int activeConsumerCount;
+
+	private final int concurrentConsumers;
+
+	private final int maxConcurrentConsumers;
+
+
+	/**
+	 * Create a new {@code ConsumerMetrics} instance.
+	 * @param interval the length of the interval (in milliseconds)
+	 * @param deliveryCount the number of deliveries within the interval
+	 * @param processingTime the accumulated processing time of all
+	 * deliveries within the interval (in milliseconds)
+	 * @param idleReceiveCount the number of receive attempts within the
+	 * interval that returned without a message
+	 * @param queueDepth the number of messages waiting in the queue,
+	 * or -1 if not known
+	 * @param scheduledConsumerCount the number of currently scheduled consumers
+	 * @param activeConsumerCount the number of currently active consumers
+	 * @param concurrentConsumers the minimum number of consumers
+	 * @param maxConcurrentConsumers the maximum number of consumers
+	 */
+	public ConsumerMetrics(long interval, long deliveryCount, long processingTime, long idleReceiveCount,
+			int queueDepth, int scheduledConsumerCount, int activeConsumerCount,
+			int concurrentConsumers, int maxConcurrentConsumers) {
+
+		this.interval = interval;
+		this.deliveryCount = deliveryCount;
+		this.processingTime = processingTime;
+		this.idleReceiveCount = idleReceiveCount;
+		this.queueDepth = queueDepth;
+		this.scheduledConsumerCount = scheduledConsumerCount;
+		this.activeConsumerCount = activeConsumerCount;
+		this.concurrentConsumers = concurrentConsumers;
+		this.maxConcurrentConsumers = maxConcurrentConsumers;
+	}
+
+
+	/**
+	 * Return the length of the interval (in milliseconds).
+	 */
+	public long getInterval() {
+		return this.interval;
+	}
+
+	/**
+	 * Return the number of deliveries within the interval.
+	 */
+	public long getDeliveryCount() {
+		return this.deliveryCount;
+	}
+
+	/**
+	 * Return the number of deliveries per second within the interval.
+	 */
+	public double getDeliveryRate() {
+		return (this.interval > 0 ? this.deliveryCount * 1000d / this.interval : 0);
+	}
+
+	/**
+	 * Return the accumulated processing time of all deliveries within
+	 * the interval (in milliseconds).
+	 */
+	public long getProcessingTime() {
+		return this.processingTime;
+	}
+
+	/**
+	 * Return the average processing time of a delivery within the interval
+	 * (in milliseconds), or 0 if there were no deliveries.
+	 */
+	public double getAverageProcessingTime() {
+		return (this.deliveryCount > 0 ? (double) this.processingTime / this.deliveryCount : 0);
+	}
+
+	/**
+	 * Return the number of receive attempts within the interval that
+	 * returned without a message.
+	 */
+	public long getIdleReceiveCount() {
+		return this.idleReceiveCount;
+	}
+
+	/**
+	 * Return the number of messages waiting in the queue at the end of
+	 * the interval, or -1 if not known.
+	 * @see DefaultMessageListenerContainer#setQueueDepthBrowseLimit
+	 */
+	public int getQueueDepth() {
+		return this.queueDepth;
+	}
+
+	/**
+	 * Return the number of consumers scheduled at the end of the interval.
+	 */
+	public int getScheduledConsumerCount() {
+		return this.scheduledConsumerCount;
+	}
+
+	/**
+	 * Return the number of consumers active at the end of the interval.
+	 */
+	public int getActiveConsumerCount() {
+		return this.activeConsumerCount;
+	}
+
+	/**
+	 * Return the minimum number of consumers of the container.
+	 */
+	public int getConcurrentConsumers() {
+		return this.concurrentConsumers;
+	}
+
+	/**
+	 * Return the maximum number of consumers of the container.
+	 */
+	public int getMaxConcurrentConsumers() {
+		return this.maxConcurrentConsumers;
+	}
+
+
+	@Override
+	public String toString() {
+		return "ConsumerMetrics [interval=" + this.interval + "ms, deliveries=" + this.deliveryCount +
+				", processingTime=" + this.processingTime + "ms, idleReceives=" + this.idleReceiveCount +
+				", queueDepth=" + this.queueDepth + ", scheduledConsumers=" + this.scheduledConsumerCount +
+				", activeConsumers=" + this.activeConsumerCount + "]";
+	}
+
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jms.listener;
+
+/**
+ * Strategy interface for determining the number of concurrent consumers of a
+ * {@link DefaultMessageListenerContainer}, based on the {@link ConsumerMetrics}
+ * collected by the container over its metrics interval.
+ *
+ * <p>A scaling policy replaces the container's built-in scaling heuristics,
+ * which are driven by the "idleConsumerLimit" and "idleTaskExecutionLimit"
+ * settings. The container keeps the number of scheduled consumers between
+ * its "concurrentConsumers" and "maxConcurrentConsumers" limits in any case.
+ *
+ * @author agent
+ * @since 5.2
+ * @see DefaultMessageListenerContainer#setScalingPolicy
+ * @see ThroughputScalingPolicy
+ */
+@FunctionalInterface
+public interface ConsumerScalingPolicy {
+
+	/**
+	 * Determine the number of consumers that the container should run,
+	 * given the metrics of the last interval.
+	 * <p>A value outside the container's concurrency limits is adjusted
+	 * to the nearest limit.
+	 * @param metrics the metrics collected over the last interval
+	 * @return the target number of consumers
+	 */
+	int getTargetConsumerCount(ConsumerMetrics metrics);
+
+}
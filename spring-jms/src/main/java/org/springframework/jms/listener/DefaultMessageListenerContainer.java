@@ -16,12 +16,18 @@
 
 package org.springframework.jms.listener;
 
+import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.jms.Connection;
+import javax.jms.Destination;
 import javax.jms.JMSException;
 import javax.jms.MessageConsumer;
+import javax.jms.Queue;
+import javax.jms.QueueBrowser;
 import javax.jms.Session;
 
 import org.springframework.core.Constants;
@@ -98,6 +104,13 @@ import org.springframework.util.backoff.FixedBackOff;
  * number of 1 consumer, otherwise you'd receive the same message multiple times on
  * the same node.
  *
+ * <p>Alternatively, a {@link #setScalingPolicy ConsumerScalingPolicy} can take
+ * over dynamic scaling, periodically determining the number of consumers from the
+ * {@link ConsumerMetrics} collected by this container, such as the delivery rate,
+ * the processing time, idle receives and optionally the
+ * {@link #setQueueDepthBrowseLimit queue depth}. Those metrics are collected in
+ * any case and exposed through {@link #getConsumerMetrics()}.
+ *
  * <p><b>Note: Don't use Spring's {@link org.springframework.jms.connection.CachingConnectionFactory}
  * in combination with dynamic scaling.</b> Ideally, don't use it with a message
  * listener container at all, since it is generally preferable to let the
@@ -135,6 +148,12 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 	 */
 	public static final long DEFAULT_RECOVERY_INTERVAL = 5000;
 
+	/**
+	 * The default metrics interval: 5000 ms = 5 seconds.
+	 * @since 5.2
+	 */
+	public static final long DEFAULT_METRICS_INTERVAL = 5000;
+
 
 	/**
 	 * Constant that indicates to cache no JMS resources at all.
@@ -191,6 +210,26 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 
 	private int idleTaskExecutionLimit = 1;
 
+	@Nullable
+	private ConsumerScalingPolicy scalingPolicy;
+
+	private long metricsInterval = DEFAULT_METRICS_INTERVAL;
+
+	private int queueDepthBrowseLimit = 0;
+
+	private int targetConsumerCount = 0;
+
+	private final AtomicLong deliveryCount = new AtomicLong();
+
+	private final AtomicLong processingTime = new AtomicLong();
+
+	private final AtomicLong idleReceiveCount = new AtomicLong();
+
+	private final AtomicLong metricsIntervalStart = new AtomicLong(System.nanoTime());
+
+	@Nullable
+	private volatile ConsumerMetrics consumerMetrics;
+
 	private final Set<AsyncMessageListenerInvoker> scheduledInvokers = new HashSet<>();
 
 	private int activeInvokerCount = 0;
@@ -508,6 +547,81 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 		}
 	}
 
+	/**
+	 * Specify a policy that determines the number of concurrent consumers
+	 * from the metrics collected by this container, once per metrics interval.
+	 * <p>A scaling policy replaces the built-in scaling heuristics based on the
+	 * "idleConsumerLimit" and "idleTaskExecutionLimit" settings, scheduling and
+	 * shutting down consumers within the "concurrentConsumers" and
+	 * "maxConcurrentConsumers" limits as demanded by the policy.
+	 * <p>Default is none, applying the built-in scaling heuristics.
+	 * @since 5.2
+	 * @see ThroughputScalingPolicy
+	 * @see #setMetricsInterval
+	 * @see #setMaxConcurrentConsumers
+	 */
+	public void setScalingPolicy(@Nullable ConsumerScalingPolicy scalingPolicy) {
+		synchronized (this.lifecycleMonitor) {
+			this.scalingPolicy = scalingPolicy;
+			this.targetConsumerCount = 0;
+		}
+	}
+
+	/**
+	 * Return the policy that determines the number of concurrent consumers, if any.
+	 */
+	@Nullable
+	public ConsumerScalingPolicy getScalingPolicy() {
+		synchronized (this.lifecycleMonitor) {
+			return this.scalingPolicy;
+		}
+	}
+
+	/**
+	 * Specify the interval (in milliseconds) over which consumer metrics are
+	 * collected before being exposed and passed to the scaling policy, if any.
+	 * <p>The default is 5000 ms, that is, 5 seconds. Note that metrics are only
+	 * evaluated by consumers in between receive attempts, so the effective
+	 * interval may be extended by up to the "receiveTimeout".
+	 * @since 5.2
+	 * @see #getConsumerMetrics()
+	 * @see #setScalingPolicy
+	 */
+	public void setMetricsInterval(long metricsInterval) {
+		Assert.isTrue(metricsInterval > 0, "'metricsInterval' must be greater than 0");
+		this.metricsInterval = metricsInterval;
+	}
+
+	/**
+	 * Return the interval over which consumer metrics are collected.
+	 */
+	public long getMetricsInterval() {
+		return this.metricsInterval;
+	}
+
+	/**
+	 * Specify the maximum number of messages to count through a JMS
+	 * {@link QueueBrowser} in order to determine the depth of the queue
+	 * at the end of each metrics interval.
+	 * <p>The default is 0, not browsing the queue at all. Browsing only applies
+	 * to queues, and only if the consumer collecting the metrics holds on to
+	 * its JMS {@code Session}, i.e. with cache level {@link #CACHE_SESSION}
+	 * or higher.
+	 * @since 5.2
+	 * @see ConsumerMetrics#getQueueDepth()
+	 */
+	public void setQueueDepthBrowseLimit(int queueDepthBrowseLimit) {
+		Assert.isTrue(queueDepthBrowseLimit >= 0, "'queueDepthBrowseLimit' must not be negative");
+		this.queueDepthBrowseLimit = queueDepthBrowseLimit;
+	}
+
+	/**
+	 * Return the maximum number of messages to count for the queue depth.
+	 */
+	public int getQueueDepthBrowseLimit() {
+		return this.queueDepthBrowseLimit;
+	}
+
 
 	//-------------------------------------------------------------------------
 	// Implementation of AbstractMessageListenerContainer's template methods
@@ -548,6 +662,7 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 	 */
 	@Override
 	protected void doInitialize() throws JMSException {
+		this.metricsIntervalStart.set(System.nanoTime());
 		synchronized (this.lifecycleMonitor) {
 			for (int i = 0; i < this.concurrentConsumers; i++) {
 				scheduleNewInvoker();
@@ -742,6 +857,7 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 	@Override
 	protected void messageReceived(Object invoker, Session session) {
 		((AsyncMessageListenerInvoker) invoker).setIdle(false);
+		((AsyncMessageListenerInvoker) invoker).deliveryStartTime = System.nanoTime();
 		scheduleNewInvokerIfAppropriate();
 	}
 
@@ -751,6 +867,7 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 	@Override
 	protected void noMessageReceived(Object invoker, Session session) {
 		((AsyncMessageListenerInvoker) invoker).setIdle(true);
+		this.idleReceiveCount.incrementAndGet();
 	}
 
 	/**
@@ -760,15 +877,17 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 	 * if the specified "idleConsumerLimit" has not been reached either.
 	 * <p>Called once a message has been received, in order to scale up while
 	 * processing the message in the invoker that originally received it.
+	 * Does not schedule a new invoker if a scaling policy has been specified.
 	 * @see #setTaskExecutor
 	 * @see #getMaxConcurrentConsumers()
 	 * @see #getIdleConsumerLimit()
+	 * @see #setScalingPolicy
 	 */
 	protected void scheduleNewInvokerIfAppropriate() {
 		if (isRunning()) {
 			resumePausedTasks();
 			synchronized (this.lifecycleMonitor) {
-				if (this.scheduledInvokers.size() < this.maxConcurrentConsumers &&
+				if (this.scalingPolicy == null && this.scheduledInvokers.size() < this.maxConcurrentConsumers &&
 						getIdleInvokerCount() < this.idleConsumerLimit) {
 					scheduleNewInvoker();
 					if (logger.isDebugEnabled()) {
@@ -786,10 +905,22 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 	 * that this invoker task has already accumulated (in a row)
 	 */
 	private boolean shouldRescheduleInvoker(int idleTaskExecutionCount) {
-		boolean superfluous =
-				(idleTaskExecutionCount >= this.idleTaskExecutionLimit && getIdleInvokerCount() > 1);
+		boolean superfluous = (this.scalingPolicy == null &&
+				idleTaskExecutionCount >= this.idleTaskExecutionLimit && getIdleInvokerCount() > 1);
 		return (this.scheduledInvokers.size() <=
-				(superfluous ? this.concurrentConsumers : this.maxConcurrentConsumers));
+				(superfluous ? this.concurrentConsumers : getConsumerLimit()));
+	}
+
+	/**
+	 * Determine the current upper limit for the number of scheduled invokers:
+	 * "maxConcurrentConsumers", or the target number of consumers as
+	 * determined by the scaling policy, if any.
+	 */
+	private int getConsumerLimit() {
+		if (this.scalingPolicy != null && this.targetConsumerCount > 0) {
+			return Math.min(this.targetConsumerCount, this.maxConcurrentConsumers);
+		}
+		return this.maxConcurrentConsumers;
 	}
 
 	/**
@@ -807,6 +938,124 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 	}
 
 
+	/**
+	 * Return the consumer metrics collected over the last completed
+	 * metrics interval, or {@code null} if no interval has completed yet.
+	 * @since 5.2
+	 * @see #setMetricsInterval
+	 */
+	@Nullable
+	public ConsumerMetrics getConsumerMetrics() {
+		return this.consumerMetrics;
+	}
+
+	/**
+	 * Record the processing time of a delivery by the given invoker, if any,
+	 * and complete the current metrics interval if it has elapsed.
+	 */
+	private void updateMetrics(AsyncMessageListenerInvoker invoker) {
+		long now = System.nanoTime();
+		if (invoker.deliveryStartTime != 0) {
+			this.deliveryCount.incrementAndGet();
+			this.processingTime.addAndGet(now - invoker.deliveryStartTime);
+			invoker.deliveryStartTime = 0;
+		}
+		long intervalStart = this.metricsIntervalStart.get();
+		long interval = TimeUnit.NANOSECONDS.toMillis(now - intervalStart);
+		if (interval >= this.metricsInterval && this.metricsIntervalStart.compareAndSet(intervalStart, now)) {
+			long deliveryCount = this.deliveryCount.getAndSet(0);
+			long processingTime = TimeUnit.NANOSECONDS.toMillis(this.processingTime.getAndSet(0));
+			long idleReceiveCount = this.idleReceiveCount.getAndSet(0);
+			int queueDepth = browseQueueDepth(invoker.session);
+			ConsumerMetrics metrics;
+			synchronized (this.lifecycleMonitor) {
+				metrics = new ConsumerMetrics(interval, deliveryCount, processingTime, idleReceiveCount,
+						queueDepth, this.scheduledInvokers.size(), this.activeInvokerCount,
+						this.concurrentConsumers, this.maxConcurrentConsumers);
+			}
+			this.consumerMetrics = metrics;
+			if (logger.isDebugEnabled()) {
+				logger.debug("Collected " + metrics + " for " + getDestinationDescription());
+			}
+			applyScalingPolicy(metrics);
+		}
+	}
+
+	/**
+	 * Determine the depth of the target queue through a JMS {@link QueueBrowser},
+	 * counting up to the "queueDepthBrowseLimit".
+	 * @return the number of messages in the queue, or -1 if not determined
+	 */
+	private int browseQueueDepth(@Nullable Session session) {
+		if (this.queueDepthBrowseLimit == 0 || session == null || isPubSubDomain()) {
+			return -1;
+		}
+		QueueBrowser browser = null;
+		try {
+			Destination destination = getDestination();
+			if (destination == null) {
+				String destinationName = getDestinationName();
+				Assert.state(destinationName != null, "No destination set");
+				destination = resolveDestinationName(session, destinationName);
+			}
+			if (!(destination instanceof Queue)) {
+				return -1;
+			}
+			browser = session.createBrowser((Queue) destination, getMessageSelector());
+			Enumeration<?> messages = browser.getEnumeration();
+			int count = 0;
+			while (count < this.queueDepthBrowseLimit && messages.hasMoreElements()) {
+				messages.nextElement();
+				count++;
+			}
+			return count;
+		}
+		catch (JMSException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Could not browse queue depth for " + getDestinationDescription(), ex);
+			}
+			return -1;
+		}
+		finally {
+			JmsUtils.closeQueueBrowser(browser);
+		}
+	}
+
+	/**
+	 * Pass the given metrics to the scaling policy, if any, and schedule new
+	 * invokers as necessary. Superfluous invokers shut down on their own, once
+	 * they notice that the number of scheduled invokers exceeds the target.
+	 */
+	private void applyScalingPolicy(ConsumerMetrics metrics) {
+		ConsumerScalingPolicy scalingPolicy = this.scalingPolicy;
+		if (scalingPolicy == null) {
+			return;
+		}
+		int target;
+		try {
+			target = scalingPolicy.getTargetConsumerCount(metrics);
+		}
+		catch (RuntimeException ex) {
+			logger.warn("ConsumerScalingPolicy failed to determine target consumer count", ex);
+			return;
+		}
+		synchronized (this.lifecycleMonitor) {
+			this.targetConsumerCount =
+					Math.max(this.concurrentConsumers, Math.min(target, this.maxConcurrentConsumers));
+			if (isRunning()) {
+				int missing = this.targetConsumerCount - this.scheduledInvokers.size();
+				for (int i = 0; i < missing; i++) {
+					scheduleNewInvoker();
+				}
+				if (missing != 0 && logger.isDebugEnabled()) {
+					logger.debug("Adjusted target consumer count to " + this.targetConsumerCount +
+							" for " + getDestinationDescription());
+				}
+			}
+		}
+	}
+
+
 	/**
 	 * Overridden to accept a failure in the initial setup - leaving it up to the
 	 * asynchronous invokers to establish the shared Connection on first access.
@@ -1059,6 +1308,8 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 
 		private int idleTaskExecutionCount = 0;
 
+		private long deliveryStartTime = 0;
+
 		private volatile boolean idle = true;
 
 		@Nullable
@@ -1171,7 +1422,7 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 					if (wasWaiting) {
 						activeInvokerCount++;
 					}
-					if (scheduledInvokers.size() > maxConcurrentConsumers) {
+					if (scheduledInvokers.size() > getConsumerLimit()) {
 						active = false;
 					}
 				}
@@ -1192,6 +1443,7 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 			}
 			finally {
 				this.currentReceiveThread = null;
+				updateMetrics(this);
 			}
 		}
 
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jms.listener;
+
+import org.springframework.util.Assert;
+
+/**
+ * Default {@link ConsumerScalingPolicy} that sizes the consumers of a container
+ * for the throughput observed in the last interval.
+ *
+ * <p>The number of consumers required is derived from the time spent processing
+ * messages in the last interval, divided by the length of the interval and the
+ * {@link #setTargetUtilization target utilization} of each consumer. If the
+ * queue depth is known, the time required to process the waiting messages is
+ * added, so that the backlog gets drained within a single interval. Otherwise,
+ * consumers that did not encounter a single idle receive are taken as a sign of
+ * a backlog, leading to one more consumer than currently scheduled.
+ *
+ * <p>In order to avoid overshooting, the number of consumers changes by at
+ * most {@link #setMaxStep "maxStep"} per interval, in either direction.
+ *
+ * @author agent
+ * @since 5.2
+ * @see DefaultMessageListenerContainer#setScalingPolicy
+ */
+public class ThroughputScalingPolicy implements ConsumerScalingPolicy {
+
+	private double targetUtilization = 0.8;
+
+	private int maxStep = 2;
+
+
+	/**
+	 * Specify the fraction of time that each consumer should spend processing
+	 * messages, as opposed to waiting for messages.
+	 * <p>The default is 0.8. Lower values lead to more consumers being
+	 * scheduled for the same load.
+	 */
+	public void setTargetUtilization(double targetUtilization) {
+		Assert.isTrue(targetUtilization > 0 && targetUtilization <= 1,
+				"'targetUtilization' must be greater than 0 and not greater than 1");
+		this.targetUtilization = targetUtilization;
+	}
+
+	/**
+	 * Return the fraction of time that each consumer should spend processing messages.
+	 */
+	public double getTargetUtilization() {
+		return this.targetUtilization;
+	}
+
+	/**
+	 * Specify the maximum number of consumers to add or remove per interval.
+	 * <p>The default is 2.
+	 */
+	public void setMaxStep(int maxStep) {
+		Assert.isTrue(maxStep > 0, "'maxStep' must be 1 or higher");
+		this.maxStep = maxStep;
+	}
+
+	/**
+	 * Return the maximum number of consumers to add or remove per interval.
+	 */
+	public int getMaxStep() {
+		return this.maxStep;
+	}
+
+
+	@Override
+	public int getTargetConsumerCount(ConsumerMetrics metrics) {
+		int current = metrics.getScheduledConsumerCount();
+		if (metrics.getInterval() <= 0) {
+			return current;
+		}
+		double work = metrics.getProcessingTime();
+		int queueDepth = metrics.getQueueDepth();
+		if (queueDepth > 0) {
+			work += queueDepth * metrics.getAverageProcessingTime();
+		}
+		int required = (int) Math.ceil(work / (metrics.getInterval() * this.targetUtilization));
+		if (queueDepth < 0 && metrics.getDeliveryCount() > 0 && metrics.getIdleReceiveCount() == 0) {
+			required = Math.max(required, current + 1);
+		}
+		return Math.max(current - this.maxStep, Math.min(required, current + this.maxStep));
+	}
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jms.listener.adapter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.jms.JMSException;
+import javax.jms.Session;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.jms.listener.BatchMessageListener;
+import org.springframework.lang.Nullable;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.handler.invocation.InvocableHandlerMethod;
+import org.springframework.messaging.support.MessageBuilder;
+
+/**
+ * A {@link MessagingMessageListenerAdapter} that invokes its handler method
+ * with a batch of messages, as received by a listener container configured
+ * with a {@link org.springframework.jms.listener.AbstractPollingMessageListenerContainer#setBatchSize
+ * batch size}.
+ *
+ * <p>The handler method receives the batch as a {@code List} parameter: either
+ * a {@code List<Message<?>>} of Spring {@link Message Messages}, exposing the
+ * headers of each message, or a list of converted payloads. The JMS
+ * {@link javax.jms.Session} can be injected as an additional argument. A result
+ * object returned from the handler method is sent as a reply to the last
+ * message of the batch.
+ *
+ * @author agent
+ * @since 5.2
+ * @see BatchMessageListener
+ */
+public class BatchMessagingMessageListenerAdapter extends MessagingMessageListenerAdapter
+		implements BatchMessageListener {
+
+	private boolean messageList = false;
+
+
+	@Override
+	public void setHandlerMethod(InvocableHandlerMethod handlerMethod) {
+		super.setHandlerMethod(handlerMethod);
+		this.messageList = isMessageList(handlerMethod);
+	}
+
+	private static boolean isMessageList(InvocableHandlerMethod handlerMethod) {
+		for (MethodParameter parameter : handlerMethod.getMethodParameters()) {
+			if (List.class.isAssignableFrom(parameter.getParameterType())) {
+				Class<?> elementType = ResolvableType.forMethodParameter(parameter).getGeneric(0).resolve();
+				return (elementType != null && Message.class.isAssignableFrom(elementType));
+			}
+		}
+		return false;
+	}
+
+
+	@Override
+	public void onMessage(javax.jms.Message jmsMessage, @Nullable Session session) throws JMSException {
+		doOnMessages(Collections.singletonList(jmsMessage), session);
+	}
+
+	@Override
+	public void onMessages(List<javax.jms.Message> jmsMessages, Session session) throws JMSException {
+		doOnMessages(jmsMessages, session);
+	}
+
+	private void doOnMessages(List<javax.jms.Message> jmsMessages, @Nullable Session session) {
+		List<Object> batch = new ArrayList<>(jmsMessages.size());
+		for (javax.jms.Message jmsMessage : jmsMessages) {
+			Message<?> message = toMessagingMessage(jmsMessage);
+			batch.add(this.messageList ? message : message.getPayload());
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Processing batch of " + batch.size() + " messages");
+		}
+		Object result = invokeHandler(MessageBuilder.withPayload(batch).build(), session);
+		if (result != null) {
+			handleResult(result, jmsMessages.get(jmsMessages.size() - 1), session);
+		}
+		else {
+			logger.trace("No result object given - no result to handle");
+		}
+	}
+
+	@Nullable
+	private Object invokeHandler(Message<?> message, @Nullable Session session) {
+		InvocableHandlerMethod handlerMethod = getHandlerMethod();
+		try {
+			return handlerMethod.invoke(message, session);
+		}
+		catch (MessagingException ex) {
+			throw new ListenerExecutionFailedException(
+					createMessagingErrorMessage("Listener method could not be invoked with incoming batch"), ex);
+		}
+		catch (Exception ex) {
+			throw new ListenerExecutionFailedException("Listener method '" +
+					handlerMethod.getMethod().toGenericString() + "' threw exception", ex);
+		}
+	}
+
+}
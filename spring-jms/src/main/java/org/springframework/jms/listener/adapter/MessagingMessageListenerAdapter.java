@@ -62,7 +62,7 @@ public class MessagingMessageListenerAdapter extends AbstractAdaptableMessageLis
 		this.handlerMethod = handlerMethod;
 	}
 
-	private InvocableHandlerMethod getHandlerMethod() {
+	InvocableHandlerMethod getHandlerMethod() {
 		Assert.state(this.handlerMethod != null, "No HandlerMethod set");
 		return this.handlerMethod;
 	}
@@ -123,7 +123,7 @@ public class MessagingMessageListenerAdapter extends AbstractAdaptableMessageLis
 		}
 	}
 
-	private String createMessagingErrorMessage(String description) {
+	String createMessagingErrorMessage(String description) {
 		InvocableHandlerMethod handlerMethod = getHandlerMethod();
 		StringBuilder sb = new StringBuilder(description).append("\n")
 				.append("Endpoint handler details:\n")
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import java.io.Serializable;
 import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import javax.jms.Destination;
 import javax.jms.InvalidDestinationException;
@@ -42,6 +43,7 @@ import org.springframework.jms.StubTextMessage;
 import org.springframework.jms.listener.DefaultMessageListenerContainer;
 import org.springframework.jms.listener.MessageListenerContainer;
 import org.springframework.jms.listener.SimpleMessageListenerContainer;
+import org.springframework.jms.listener.adapter.BatchMessagingMessageListenerAdapter;
 import org.springframework.jms.listener.adapter.ListenerExecutionFailedException;
 import org.springframework.jms.listener.adapter.MessagingMessageListenerAdapter;
 import org.springframework.jms.listener.adapter.ReplyFailureException;
@@ -65,6 +67,7 @@ import org.springframework.validation.Validator;
 import org.springframework.validation.annotation.Validated;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
@@ -117,6 +120,37 @@ public class MethodJmsListenerEndpointTests {
 		assertNotNull(endpoint.createMessageListener(this.container));
 	}
 
+	@Test
+	public void createBatchMessageListener() throws JMSException {
+		DefaultMessageListenerContainer container = new DefaultMessageListenerContainer();
+		container.setBatchSize(10);
+
+		MessagingMessageListenerAdapter listener = createInstance(this.factory,
+				getListenerMethod("resolveBatch", List.class), container, true);
+		assertTrue(listener instanceof BatchMessagingMessageListenerAdapter);
+		((BatchMessagingMessageListenerAdapter) listener).onMessages(Arrays.asList(
+				createSimpleJmsTextMessage("test"), createSimpleJmsTextMessage("test")), mock(Session.class));
+		assertListenerMethodInvocation(this.sample, "resolveBatch");
+
+		listener = createInstance(this.factory,
+				getListenerMethod("resolveBatch", List.class), container, false);
+		assertFalse(listener instanceof BatchMessagingMessageListenerAdapter);
+
+		container.setBatchSize(1);
+		listener = createInstance(this.factory,
+				getListenerMethod("resolveBatch", List.class), container, true);
+		assertFalse(listener instanceof BatchMessagingMessageListenerAdapter);
+	}
+
+	@Test
+	public void createBatchMessageListenerWithoutListParameter() {
+		DefaultMessageListenerContainer container = new DefaultMessageListenerContainer();
+		container.setBatchSize(10);
+
+		thrown.expect(IllegalStateException.class);
+		createInstance(this.factory, getListenerMethod("resolveGenericMessage", Message.class), container, true);
+	}
+
 	@Test
 	public void setExtraCollaborators() {
 		MessageConverter messageConverter = mock(MessageConverter.class);
@@ -456,10 +490,17 @@ public class MethodJmsListenerEndpointTests {
 	private MessagingMessageListenerAdapter createInstance(
 			DefaultMessageHandlerMethodFactory factory, Method method, MessageListenerContainer container) {
 
+		return createInstance(factory, method, container, false);
+	}
+
+	private MessagingMessageListenerAdapter createInstance(DefaultMessageHandlerMethodFactory factory,
+			Method method, MessageListenerContainer container, boolean batchListener) {
+
 		MethodJmsListenerEndpoint endpoint = new MethodJmsListenerEndpoint();
 		endpoint.setBean(this.sample);
 		endpoint.setMethod(method);
 		endpoint.setMessageHandlerMethodFactory(factory);
+		endpoint.setBatchListener(batchListener);
 		return endpoint.createMessageListener(container);
 	}
 
@@ -530,6 +571,11 @@ public class MethodJmsListenerEndpointTests {
 			assertNotNull("Session not injected", session);
 		}
 
+		public void resolveBatch(List<String> payloads) {
+			this.invocations.put("resolveBatch", true);
+			assertEquals("Wrong batch", Arrays.asList("test", "test"), payloads);
+		}
+
 		public void resolveGenericMessage(Message<String> message) {
 			this.invocations.put("resolveGenericMessage", true);
 			assertNotNull("Generic message not injected", message);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2014 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,14 @@
 
 package org.springframework.jms.connection;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
 import javax.jms.ExceptionListener;
@@ -529,4 +537,114 @@ public class SingleConnectionFactoryTests {
 		verify(con).close();
 	}
 
+	@Test
+	public void testCachingConnectionFactoryWithSessionCacheSize() throws JMSException {
+		ConnectionFactory cf = mock(ConnectionFactory.class);
+		Connection con = mock(Connection.class);
+		Session session1 = mock(Session.class);
+		Session session2 = mock(Session.class);
+		Session session3 = mock(Session.class);
+
+		given(cf.createConnection()).willReturn(con);
+		given(con.createSession(false, Session.AUTO_ACKNOWLEDGE)).willReturn(session1, session2, session3);
+
+		CachingConnectionFactory scf = new CachingConnectionFactory(cf);
+		scf.setSessionCacheSize(2);
+		Connection con1 = scf.createConnection();
+		Session cached1 = con1.createSession(false, Session.AUTO_ACKNOWLEDGE);
+		Session cached2 = con1.createSession(false, Session.AUTO_ACKNOWLEDGE);
+		Session cached3 = con1.createSession(false, Session.AUTO_ACKNOWLEDGE);
+		cached1.close();
+		cached1.close();
+		cached2.close();
+		cached3.close();  // exceeds cache size -> physical close
+		verify(session3).close();
+
+		Session reused1 = con1.createSession(false, Session.AUTO_ACKNOWLEDGE);
+		Session reused2 = con1.createSession(false, Session.AUTO_ACKNOWLEDGE);
+		assertNotSame(reused1, reused2);
+		assertTrue(reused1 == cached1 || reused1 == cached2);
+		assertTrue(reused2 == cached1 || reused2 == cached2);
+		reused1.close();
+		reused2.close();
+
+		assertEquals(5, scf.getSessionCheckoutCount());
+		assertEquals(3, scf.getSessionCreationCount());
+		assertTrue(scf.getSessionWaitTime() >= 0);
+
+		con1.close();
+		scf.destroy();
+		verify(session1).close();
+		verify(session2).close();
+		verify(session3).close();
+	}
+
+	@Test
+	@SuppressWarnings("deprecation")
+	public void testCachingConnectionFactoryWithSessionProxyOverrides() throws JMSException {
+		ConnectionFactory cf = mock(ConnectionFactory.class);
+		Connection con = mock(Connection.class);
+		Session txSession = mock(Session.class);
+		given(cf.createConnection()).willReturn(con);
+		given(con.createSession(true, Session.AUTO_ACKNOWLEDGE)).willReturn(txSession);
+
+		List<String> invocations = new ArrayList<>();
+		CachingConnectionFactory scf = new CachingConnectionFactory(cf) {
+			@Override
+			protected Session getCachedSessionProxy(Session target, LinkedList<Session> sessionList) {
+				invocations.add("list");
+				return super.getCachedSessionProxy(target, sessionList);
+			}
+			@Override
+			protected Session getCachedSessionProxy(Session target, Integer mode) {
+				invocations.add("mode " + mode);
+				return super.getCachedSessionProxy(target, mode);
+			}
+		};
+		Connection con1 = scf.createConnection();
+		Session session1 = con1.createSession(true, Session.AUTO_ACKNOWLEDGE);
+		session1.close();
+		Session session2 = con1.createSession(true, Session.AUTO_ACKNOWLEDGE);
+		assertSame(session1, session2);
+		assertEquals(Arrays.asList("list", "mode " + Session.SESSION_TRANSACTED), invocations);
+		scf.destroy();
+	}
+
+	@Test
+	public void testCachingConnectionFactoryWithConcurrentSessions() throws Exception {
+		ConnectionFactory cf = mock(ConnectionFactory.class);
+		Connection con = mock(Connection.class);
+		given(cf.createConnection()).willReturn(con);
+		given(con.createSession(false, Session.AUTO_ACKNOWLEDGE)).will(invocation -> mock(Session.class));
+
+		CachingConnectionFactory scf = new CachingConnectionFactory(cf);
+		scf.setSessionCacheSize(8);
+		int threadCount = 8;
+		int iterations = 200;
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < threadCount; i++) {
+				futures.add(executor.submit(() -> {
+					Connection connection = scf.createConnection();
+					for (int j = 0; j < iterations; j++) {
+						Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+						session.close();
+					}
+					return null;
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get(10, TimeUnit.SECONDS);
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+
+		assertEquals(threadCount * iterations, scf.getSessionCheckoutCount());
+		assertTrue(scf.getSessionCreationCount() <= threadCount);
+		scf.destroy();
+	}
+
 }
@@ -19,6 +19,8 @@ package org.springframework.jms.core;
 import java.io.Writer;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import javax.jms.Destination;
 import javax.jms.JMSException;
 import javax.jms.MessageFormatException;
@@ -186,6 +188,50 @@ public class JmsMessagingTemplateTests {
 		assertTextMessage(this.messageCreator.getValue());
 	}
 
+	@Test
+	public void sendAsync() throws Exception {
+		Destination destination = new Destination() {};
+		Message<String> message = createTextMessage();
+		CompletableFuture<Void> jmsFuture = new CompletableFuture<>();
+		given(this.jmsTemplate.sendAsync(eq(destination), any(MessageCreator.class))).willReturn(jmsFuture);
+
+		CompletableFuture<Void> future = this.messagingTemplate.sendAsync(destination, message);
+		verify(this.jmsTemplate).sendAsync(eq(destination), this.messageCreator.capture());
+		assertTextMessage(this.messageCreator.getValue());
+		assertFalse(future.isDone());
+		jmsFuture.complete(null);
+		assertNull(future.get());
+	}
+
+	@Test
+	public void sendAsyncNameFailure() throws Exception {
+		CompletableFuture<Void> jmsFuture = new CompletableFuture<>();
+		given(this.jmsTemplate.sendAsync(eq("myQueue"), any(MessageCreator.class))).willReturn(jmsFuture);
+
+		CompletableFuture<Void> future = this.messagingTemplate.sendAsync("myQueue", createTextMessage());
+		jmsFuture.completeExceptionally(new DestinationResolutionException("Not found"));
+		try {
+			future.get();
+			fail("Should have thrown ExecutionException");
+		}
+		catch (ExecutionException ex) {
+			assertTrue(ex.getCause() instanceof org.springframework.messaging.core.DestinationResolutionException);
+		}
+	}
+
+	@Test
+	public void convertAndSendAsyncDefaultDestinationName() throws Exception {
+		this.messagingTemplate.setDefaultDestinationName("myQueue");
+		given(this.jmsTemplate.sendAsync(eq("myQueue"), any(MessageCreator.class)))
+				.willReturn(CompletableFuture.completedFuture(null));
+
+		CompletableFuture<Void> future = this.messagingTemplate.convertAndSendAsync("my Payload");
+		verify(this.jmsTemplate).sendAsync(eq("myQueue"), this.messageCreator.capture());
+		TextMessage textMessage = createTextMessage(this.messageCreator.getValue());
+		assertEquals("my Payload", textMessage.getText());
+		assertNull(future.get());
+	}
+
 	@Test
 	public void convertAndSendPayload() throws JMSException {
 		Destination destination = new Destination() {};
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jms.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import javax.jms.CompletionListener;
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageProducer;
+import javax.jms.Queue;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.jms.JmsException;
+import org.springframework.jms.UncategorizedJmsException;
+
+import static org.junit.Assert.*;
+import static org.mockito.BDDMockito.*;
+
+/**
+ * Unit tests for the asynchronous send operations of {@link JmsTemplate}.
+ *
+ * @author agent
+ */
+public class JmsTemplateAsyncSendTests {
+
+	private final ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+
+	private final Connection connection = mock(Connection.class);
+
+	private final Session session = mock(Session.class);
+
+	private final MessageProducer producer = mock(MessageProducer.class);
+
+	private final Queue queue = mock(Queue.class);
+
+	private final TextMessage message = mock(TextMessage.class);
+
+	private final List<CompletionListener> completionListeners = new ArrayList<>();
+
+	private final JmsTemplate template = new JmsTemplate(this.connectionFactory);
+
+
+	@Before
+	public void setup() throws JMSException {
+		given(this.connectionFactory.createConnection()).willReturn(this.connection);
+		given(this.connection.createSession(false, Session.AUTO_ACKNOWLEDGE)).willReturn(this.session);
+		given(this.session.createProducer(this.queue)).willReturn(this.producer);
+		given(this.session.createTextMessage("Hello")).willReturn(this.message);
+		given(this.session.createQueue("testQueue")).willReturn(this.queue);
+		willAnswer(invocation -> this.completionListeners.add(invocation.getArgument(1)))
+				.given(this.producer).send(eq(this.message), any(CompletionListener.class));
+	}
+
+
+	@Test
+	public void sendAsyncThroughPooledProducer() throws Exception {
+		CompletableFuture<Void> future1 = this.template.sendAsync(this.queue, session -> session.createTextMessage("Hello"));
+		CompletableFuture<Void> future2 = this.template.convertAndSendAsync(this.queue, "Hello");
+		assertFalse(future1.isDone());
+		assertFalse(future2.isDone());
+		assertEquals(2, this.completionListeners.size());
+
+		this.completionListeners.get(1).onCompletion(this.message);
+		assertTrue(future2.isDone());
+		assertFalse(future1.isDone());
+		this.completionListeners.get(0).onCompletion(this.message);
+		assertNull(future1.get());
+
+		verify(this.connectionFactory, times(1)).createConnection();
+		verify(this.connection, times(1)).createSession(false, Session.AUTO_ACKNOWLEDGE);
+		verify(this.session, times(1)).createProducer(this.queue);
+		verify(this.producer, never()).close();
+	}
+
+	@Test
+	public void sendAsyncToDestinationName() throws Exception {
+		CompletableFuture<Void> future = this.template.convertAndSendAsync("testQueue", "Hello");
+		this.template.convertAndSendAsync("testQueue", "Hello");
+		this.completionListeners.get(0).onCompletion(this.message);
+
+		assertNull(future.get());
+		verify(this.session, times(1)).createQueue("testQueue");
+		verify(this.session, times(1)).createProducer(this.queue);
+	}
+
+	@Test
+	public void sendAsyncWithExplicitQos() throws Exception {
+		this.template.setExplicitQosEnabled(true);
+		this.template.setPriority(9);
+		this.template.convertAndSendAsync(this.queue, "Hello");
+
+		verify(this.producer).send(eq(this.message), eq(Message.DEFAULT_DELIVERY_MODE), eq(9),
+				eq(Message.DEFAULT_TIME_TO_LIVE), any(CompletionListener.class));
+	}
+
+	@Test
+	public void sendAsyncFailure() throws Exception {
+		CompletableFuture<Void> future = this.template.convertAndSendAsync(this.queue, "Hello");
+		this.completionListeners.get(0).onException(this.message, new JMSException("Failed"));
+
+		assertTrue(future.isCompletedExceptionally());
+		try {
+			future.get();
+			fail("Should have thrown ExecutionException");
+		}
+		catch (ExecutionException ex) {
+			assertTrue(ex.getCause() instanceof JmsException);
+			assertEquals("Failed", ex.getCause().getCause().getMessage());
+		}
+	}
+
+	@Test
+	public void sendAsyncFailureBeforeHandOver() throws Exception {
+		willThrow(new JMSException("Failed")).given(this.producer).send(eq(this.message), any(CompletionListener.class));
+		try {
+			this.template.convertAndSendAsync(this.queue, "Hello");
+			fail("Should have thrown JmsException");
+		}
+		catch (JmsException ex) {
+			assertEquals("Failed", ex.getCause().getMessage());
+		}
+		verify(this.producer).close();
+		verify(this.session).close();
+
+		willAnswer(invocation -> this.completionListeners.add(invocation.getArgument(1)))
+				.given(this.producer).send(eq(this.message), any(CompletionListener.class));
+		this.template.convertAndSendAsync(this.queue, "Hello");
+		assertEquals(1, this.completionListeners.size());
+		verify(this.connection, times(2)).createSession(false, Session.AUTO_ACKNOWLEDGE);
+	}
+
+	@Test
+	public void sendAsyncWithJms11Provider() throws Exception {
+		willThrow(new AbstractMethodError()).given(this.producer).send(eq(this.message), any(CompletionListener.class));
+		CompletableFuture<Void> future1 = this.template.convertAndSendAsync(this.queue, "Hello");
+		CompletableFuture<Void> future2 = this.template.convertAndSendAsync(this.queue, "Hello");
+
+		assertNull(future1.get());
+		assertNull(future2.get());
+		verify(this.producer, times(2)).send(this.message);
+		verify(this.producer, times(1)).send(eq(this.message), any(CompletionListener.class));
+	}
+
+	@Test
+	public void sendAsyncWithTransactedSession() throws Exception {
+		Session transactedSession = mock(Session.class);
+		given(this.connection.createSession(true, Session.AUTO_ACKNOWLEDGE)).willReturn(transactedSession);
+		given(transactedSession.getTransacted()).willReturn(true);
+		given(transactedSession.createProducer(this.queue)).willReturn(this.producer);
+		given(transactedSession.createTextMessage("Hello")).willReturn(this.message);
+		this.template.setSessionTransacted(true);
+
+		CompletableFuture<Void> future = this.template.convertAndSendAsync(this.queue, "Hello");
+		assertNull(future.get());
+		verify(this.producer).send(this.message);
+		verify(transactedSession).commit();
+		verify(this.producer).close();
+	}
+
+	@Test
+	public void maxInFlightSends() throws Exception {
+		this.template.setMaxInFlightSends(1);
+		CompletableFuture<Void> future1 = this.template.convertAndSendAsync(this.queue, "Hello");
+		CompletableFuture<CompletableFuture<Void>> future2 =
+				CompletableFuture.supplyAsync(() -> this.template.convertAndSendAsync(this.queue, "Hello"));
+
+		Thread.sleep(100);
+		assertFalse(future2.isDone());
+		this.completionListeners.get(0).onCompletion(this.message);
+		assertTrue(future1.isDone());
+		assertFalse(future2.get(5, TimeUnit.SECONDS).isDone());
+		assertEquals(2, this.completionListeners.size());
+	}
+
+	@Test
+	public void maxInFlightSendsWithTimeout() throws Exception {
+		this.template.setMaxInFlightSends(1);
+		this.template.setInFlightSendTimeout(50);
+		this.template.convertAndSendAsync(this.queue, "Hello");
+		try {
+			this.template.convertAndSendAsync(this.queue, "Hello");
+			fail("Should have thrown UncategorizedJmsException");
+		}
+		catch (UncategorizedJmsException ex) {
+			assertTrue(ex.getMessage().contains("50 ms"));
+		}
+		assertEquals(1, this.completionListeners.size());
+
+		this.completionListeners.get(0).onCompletion(this.message);
+		this.template.convertAndSendAsync(this.queue, "Hello");
+		assertEquals(2, this.completionListeners.size());
+	}
+
+	@Test
+	public void maxPooledProducers() throws Exception {
+		Queue otherQueue = mock(Queue.class);
+		MessageProducer otherProducer = mock(MessageProducer.class);
+		given(this.session.createProducer(otherQueue)).willReturn(otherProducer);
+		this.template.setMaxPooledProducers(1);
+
+		this.template.convertAndSendAsync(this.queue, "Hello");
+		verify(this.producer, never()).close();
+		this.template.convertAndSendAsync(otherQueue, "Hello");
+		verify(this.producer).close();
+		verify(otherProducer, never()).close();
+		this.template.convertAndSendAsync(this.queue, "Hello");
+		verify(otherProducer).close();
+
+		verify(this.session, times(2)).createProducer(this.queue);
+		verify(this.session, times(1)).createProducer(otherQueue);
+		assertEquals(2, this.completionListeners.size());
+	}
+
+	@Test
+	public void destroyClosesPooledResources() throws Exception {
+		this.template.convertAndSendAsync(this.queue, "Hello");
+		this.template.destroy();
+
+		verify(this.producer).close();
+		verify(this.session).close();
+		verify(this.connection).close();
+	}
+
+}
@@ -16,12 +16,25 @@
 
 package org.springframework.jms.listener;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntSupplier;
 import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
 import javax.jms.Destination;
 import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageListener;
+import javax.jms.Queue;
+import javax.jms.QueueBrowser;
+import javax.jms.Session;
 
 import org.junit.Test;
 import org.mockito.invocation.InvocationOnMock;
@@ -102,6 +115,210 @@ public class DefaultMessageListenerContainerTests {
 		runnable2.waitForCompletion();
 	}
 
+	@Test
+	public void receiveBatch() throws JMSException {
+		Message message1 = mock(Message.class);
+		Message message2 = mock(Message.class);
+		Message message3 = mock(Message.class);
+		MessageConsumer consumer = mock(MessageConsumer.class);
+		given(consumer.receive(1000)).willReturn(message1);
+		given(consumer.receiveNoWait()).willReturn(message2, message3, null);
+		Session session = mock(Session.class);
+		given(session.getTransacted()).willReturn(true);
+
+		List<List<Message>> batches = new ArrayList<>();
+		DefaultMessageListenerContainer container = createBatchContainer(5);
+		container.setMessageListener((BatchMessageListener) (messages, s) -> batches.add(messages));
+
+		assertTrue(container.receiveAndExecute(this, session, consumer));
+		assertEquals(1, batches.size());
+		assertEquals(Arrays.asList(message1, message2, message3), batches.get(0));
+		verify(session, times(1)).commit();
+		verify(session, never()).rollback();
+	}
+
+	@Test
+	public void receiveBatchUpToBatchSize() throws JMSException {
+		Message message = mock(Message.class);
+		MessageConsumer consumer = mock(MessageConsumer.class);
+		given(consumer.receive(1000)).willReturn(message);
+		given(consumer.receiveNoWait()).willReturn(message);
+		Session session = mock(Session.class);
+		given(session.getTransacted()).willReturn(true);
+
+		List<Message> received = new ArrayList<>();
+		DefaultMessageListenerContainer container = createBatchContainer(3);
+		container.setMessageListener((MessageListener) received::add);
+
+		assertTrue(container.receiveAndExecute(this, session, consumer));
+		assertEquals(3, received.size());
+		verify(consumer, times(2)).receiveNoWait();
+		verify(session, times(1)).commit();
+	}
+
+	@Test
+	public void receiveBatchWithTimeout() throws JMSException {
+		Message message1 = mock(Message.class);
+		Message message2 = mock(Message.class);
+		MessageConsumer consumer = mock(MessageConsumer.class);
+		given(consumer.receive(1000)).willReturn(message1);
+		given(consumer.receive(longThat(timeout -> timeout <= 500))).willReturn(message2, (Message) null);
+		Session session = mock(Session.class);
+		given(session.getTransacted()).willReturn(true);
+
+		List<List<Message>> batches = new ArrayList<>();
+		DefaultMessageListenerContainer container = createBatchContainer(5);
+		container.setBatchTimeout(500);
+		container.setMessageListener((BatchMessageListener) (messages, s) -> batches.add(messages));
+
+		assertTrue(container.receiveAndExecute(this, session, consumer));
+		assertEquals(Arrays.asList(message1, message2), batches.get(0));
+	}
+
+	@Test
+	public void receiveBatchRollbackOnFailure() throws JMSException {
+		Message message1 = mock(Message.class);
+		Message message2 = mock(Message.class);
+		MessageConsumer consumer = mock(MessageConsumer.class);
+		given(consumer.receive(1000)).willReturn(message1);
+		given(consumer.receiveNoWait()).willReturn(message2, (Message) null);
+		Session session = mock(Session.class);
+		given(session.getTransacted()).willReturn(true);
+
+		DefaultMessageListenerContainer container = createBatchContainer(5);
+		container.setMessageListener((BatchMessageListener) (messages, s) -> {
+			throw new IllegalStateException("Test exception");
+		});
+		container.setErrorHandler(ex -> {});
+
+		assertTrue(container.receiveAndExecute(this, session, consumer));
+		verify(session).rollback();
+		verify(session, never()).commit();
+	}
+
+	@Test
+	public void receiveBatchWithRedeliveredMessage() throws JMSException {
+		Message message = mock(Message.class);
+		given(message.getJMSRedelivered()).willReturn(true);
+		MessageConsumer consumer = mock(MessageConsumer.class);
+		given(consumer.receive(1000)).willReturn(message);
+		Session session = mock(Session.class);
+		given(session.getTransacted()).willReturn(true);
+
+		List<List<Message>> batches = new ArrayList<>();
+		DefaultMessageListenerContainer container = createBatchContainer(5);
+		container.setMessageListener((BatchMessageListener) (messages, s) -> batches.add(messages));
+
+		assertTrue(container.receiveAndExecute(this, session, consumer));
+		assertEquals(Arrays.asList(message), batches.get(0));
+		verify(consumer, never()).receiveNoWait();
+		verify(session).commit();
+	}
+
+
+	@Test
+	public void scalingPolicyAdjustsConsumerCount() throws Exception {
+		QueueBrowser browser = mock(QueueBrowser.class);
+		given(browser.getEnumeration()).will(invocation -> Collections.enumeration(Arrays.asList("a", "b", "c")));
+		AtomicInteger target = new AtomicInteger(3);
+		AtomicReference<ConsumerMetrics> lastMetrics = new AtomicReference<>();
+
+		DefaultMessageListenerContainer container = createReceivingContainer(browser);
+		container.setMaxConcurrentConsumers(5);
+		container.setQueueDepthBrowseLimit(2);
+		container.setScalingPolicy(metrics -> {
+			lastMetrics.set(metrics);
+			return target.get();
+		});
+		container.afterPropertiesSet();
+		container.start();
+		try {
+			awaitConsumerCount(container::getScheduledConsumerCount, 3);
+			ConsumerMetrics metrics = lastMetrics.get();
+			assertNotNull(metrics);
+			assertEquals(2, metrics.getQueueDepth());
+			assertEquals(1, metrics.getConcurrentConsumers());
+			assertEquals(5, metrics.getMaxConcurrentConsumers());
+			verify(browser, atLeastOnce()).close();
+
+			target.set(10);
+			awaitConsumerCount(container::getScheduledConsumerCount, 5);
+
+			target.set(0);
+			awaitConsumerCount(container::getScheduledConsumerCount, 1);
+		}
+		finally {
+			container.shutdown();
+		}
+	}
+
+	@Test
+	public void consumerMetricsWithoutScalingPolicy() throws Exception {
+		QueueBrowser browser = mock(QueueBrowser.class);
+		DefaultMessageListenerContainer container = createReceivingContainer(browser);
+		assertNull(container.getConsumerMetrics());
+		container.afterPropertiesSet();
+		container.start();
+		try {
+			ConsumerMetrics metrics = null;
+			for (int i = 0; i < 500 && metrics == null; i++) {
+				Thread.sleep(10);
+				metrics = container.getConsumerMetrics();
+			}
+			assertNotNull(metrics);
+			assertTrue(metrics.getDeliveryCount() > 0);
+			assertTrue(metrics.getDeliveryRate() > 0);
+			assertEquals(-1, metrics.getQueueDepth());
+			assertEquals(1, metrics.getScheduledConsumerCount());
+			verifyZeroInteractions(browser);
+		}
+		finally {
+			container.shutdown();
+		}
+	}
+
+	private void awaitConsumerCount(IntSupplier consumerCount, int expected) throws InterruptedException {
+		for (int i = 0; i < 500 && consumerCount.getAsInt() != expected; i++) {
+			Thread.sleep(10);
+		}
+		assertEquals(expected, consumerCount.getAsInt());
+	}
+
+	private DefaultMessageListenerContainer createReceivingContainer(QueueBrowser browser) throws JMSException {
+		MessageConsumer consumer = mock(MessageConsumer.class);
+		given(consumer.receive(anyLong())).will(invocation -> {
+			Thread.sleep(1);
+			return mock(Message.class);
+		});
+		Session session = mock(Session.class);
+		given(session.createConsumer(any(), any())).willReturn(consumer);
+		given(session.createBrowser(any(), any())).willReturn(browser);
+		Connection connection = mock(Connection.class);
+		given(connection.createSession(anyBoolean(), anyInt())).willReturn(session);
+		ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+		given(connectionFactory.createConnection()).willReturn(connection);
+
+		DefaultMessageListenerContainer container = new DefaultMessageListenerContainer();
+		container.setConnectionFactory(connectionFactory);
+		container.setDestination(mock(Queue.class));
+		container.setMessageListener((MessageListener) message -> {});
+		container.setMetricsInterval(20);
+		return container;
+	}
+
+	private DefaultMessageListenerContainer createBatchContainer(int batchSize) {
+		DefaultMessageListenerContainer container = new DefaultMessageListenerContainer() {
+			@Override
+			protected void messageReceived(Object invoker, Session session) {
+			}
+		};
+		container.setConnectionFactory(createSuccessfulConnectionFactory());
+		container.setDestination(new Destination() {});
+		container.setSessionTransacted(true);
+		container.setAcceptMessagesWhileStopping(true);
+		container.setBatchSize(batchSize);
+		return container;
+	}
 
 	private DefaultMessageListenerContainer createRunningContainer() {
 		DefaultMessageListenerContainer container = createContainer(createSuccessfulConnectionFactory());
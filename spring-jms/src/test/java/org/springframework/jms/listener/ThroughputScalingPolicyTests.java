@@ -0,0 +1,77 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jms.listener;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link ThroughputScalingPolicy}.
+ *
+ * @author agent
+ */
+public class ThroughputScalingPolicyTests {
+
+	private final ThroughputScalingPolicy policy = new ThroughputScalingPolicy();
+
+
+	@Test
+	public void scaleForProcessingTime() {
+		// 4 consumers busy for 2000 ms out of 1000 ms -> 2000 / 800 = 3 consumers
+		assertEquals(3, this.policy.getTargetConsumerCount(metrics(1000, 100, 2000, 10, -1, 4)));
+		// 2 consumers busy for 1900 ms out of 1000 ms -> 3 consumers
+		assertEquals(3, this.policy.getTargetConsumerCount(metrics(1000, 100, 1900, 1, -1, 2)));
+	}
+
+	@Test
+	public void scaleUpWithoutIdleReceives() {
+		assertEquals(3, this.policy.getTargetConsumerCount(metrics(1000, 10, 100, 0, -1, 2)));
+	}
+
+	@Test
+	public void scaleForQueueDepth() {
+		// 100 ms work plus 50 waiting messages of 10 ms each -> 600 / 800 = 1 consumer
+		assertEquals(1, this.policy.getTargetConsumerCount(metrics(1000, 10, 100, 0, 50, 1)));
+		// 1000 ms work plus 500 waiting messages of 10 ms each -> 6000 / 800 = 8 consumers, in steps of 2
+		assertEquals(3, this.policy.getTargetConsumerCount(metrics(1000, 100, 1000, 0, 500, 1)));
+		this.policy.setMaxStep(10);
+		assertEquals(8, this.policy.getTargetConsumerCount(metrics(1000, 100, 1000, 0, 500, 1)));
+	}
+
+	@Test
+	public void scaleDownWhenIdle() {
+		assertEquals(3, this.policy.getTargetConsumerCount(metrics(1000, 0, 0, 50, -1, 5)));
+		this.policy.setMaxStep(10);
+		assertEquals(0, this.policy.getTargetConsumerCount(metrics(1000, 0, 0, 50, 0, 5)));
+	}
+
+	@Test
+	public void targetUtilization() {
+		this.policy.setTargetUtilization(0.5);
+		assertEquals(4, this.policy.getTargetConsumerCount(metrics(1000, 100, 2000, 10, -1, 4)));
+	}
+
+
+	private static ConsumerMetrics metrics(long interval, long deliveryCount, long processingTime,
+			long idleReceiveCount, int queueDepth, int scheduledConsumerCount) {
+
+		return new ConsumerMetrics(interval, deliveryCount, processingTime, idleReceiveCount,
+				queueDepth, scheduledConsumerCount, scheduledConsumerCount, 1, 10);
+	}
+
+}
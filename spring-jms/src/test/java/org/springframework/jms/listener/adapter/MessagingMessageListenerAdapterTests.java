@@ -18,6 +18,8 @@ package org.springframework.jms.listener.adapter;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import javax.jms.DeliveryMode;
 import javax.jms.Destination;
@@ -154,6 +156,32 @@ public class MessagingMessageListenerAdapterTests {
 		message.getHeaders(); // Triggers headers resolution
 	}
 
+	@Test
+	public void batchOfPayloads() throws JMSException {
+		BatchMessagingMessageListenerAdapter listener = getBatchInstance("batchPayloads", List.class);
+		listener.onMessages(Arrays.asList(new StubTextMessage("foo"), new StubTextMessage("bar")), mock(Session.class));
+		assertEquals(Arrays.asList("foo", "bar"), this.sample.batchPayloads);
+	}
+
+	@Test
+	public void batchOfMessages() throws JMSException {
+		BatchMessagingMessageListenerAdapter listener = getBatchInstance("batchMessages", List.class);
+		StubTextMessage jmsMessage = new StubTextMessage("foo");
+		jmsMessage.setStringProperty("order", "1");
+		listener.onMessages(Arrays.asList(jmsMessage, new StubTextMessage("bar")), mock(Session.class));
+		assertEquals(2, this.sample.batchMessages.size());
+		assertEquals("foo", this.sample.batchMessages.get(0).getPayload());
+		assertEquals("1", this.sample.batchMessages.get(0).getHeaders().get("order"));
+		assertEquals("bar", this.sample.batchMessages.get(1).getPayload());
+	}
+
+	@Test
+	public void batchOfOne() throws JMSException {
+		BatchMessagingMessageListenerAdapter listener = getBatchInstance("batchPayloads", List.class);
+		listener.onMessage(new StubTextMessage("foo"), mock(Session.class));
+		assertEquals(Collections.singletonList("foo"), this.sample.batchPayloads);
+	}
+
 	@Test
 	public void incomingMessageUsesMessageConverter() throws JMSException {
 		javax.jms.Message jmsMessage = mock(javax.jms.Message.class);
@@ -376,6 +404,13 @@ public class MessagingMessageListenerAdapterTests {
 		return adapter;
 	}
 
+	protected BatchMessagingMessageListenerAdapter getBatchInstance(String methodName, Class<?>... parameterTypes) {
+		Method m = ReflectionUtils.findMethod(SampleBean.class, methodName, parameterTypes);
+		BatchMessagingMessageListenerAdapter adapter = new BatchMessagingMessageListenerAdapter();
+		adapter.setHandlerMethod(factory.createInvocableHandlerMethod(sample, m));
+		return adapter;
+	}
+
 	private void initializeFactory(DefaultMessageHandlerMethodFactory factory) {
 		factory.setBeanFactory(new StaticListableBeanFactory());
 		factory.afterPropertiesSet();
@@ -387,10 +422,22 @@ public class MessagingMessageListenerAdapterTests {
 
 		public final List<Message<String>> simples = new ArrayList<>();
 
+		public final List<String> batchPayloads = new ArrayList<>();
+
+		public final List<Message<String>> batchMessages = new ArrayList<>();
+
 		public void simple(Message<String> input) {
 			simples.add(input);
 		}
 
+		public void batchPayloads(List<String> input) {
+			batchPayloads.addAll(input);
+		}
+
+		public void batchMessages(List<Message<String>> input) {
+			batchMessages.addAll(input);
+		}
+
 		public Message<String> echo(Message<String> input) {
 			return MessageBuilder.withPayload(input.getPayload())
 					.setHeader(JmsHeaders.TYPE, "reply")
@@ -17,6 +17,8 @@
 package org.springframework.http;
 
 import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.net.InetSocketAddress;
 import java.net.URI;
 import java.nio.charset.Charset;
@@ -34,6 +36,7 @@ import java.util.Base64;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
@@ -49,6 +52,7 @@ import org.springframework.util.CollectionUtils;
 import org.springframework.util.LinkedCaseInsensitiveMap;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 
 /**
@@ -404,14 +408,27 @@ public class HttpHeaders implements MultiValueMap<String, String>, Serializable
 	};
 
 
+	/**
+	 * Lower case form of the header names declared as constants in this class,
+	 * saving the case conversion on lookups with one of these constants.
+	 */
+	private static final Map<String, String> LOWER_CASE_HEADER_NAMES = initLowerCaseHeaderNames();
+
+
 	final MultiValueMap<String, String> headers;
 
+	@Nullable
+	private transient volatile ParsedHeader<MediaType> parsedContentType;
+
+	@Nullable
+	private transient volatile ParsedHeader<List<MediaType>> parsedAccept;
+
 
 	/**
 	 * Construct a new, empty instance of the {@code HttpHeaders} object.
 	 */
 	public HttpHeaders() {
-		this(CollectionUtils.toMultiValueMap(new LinkedCaseInsensitiveMap<>(8, Locale.ENGLISH)));
+		this(CollectionUtils.toMultiValueMap(new HeaderNameMap<>(8)));
 	}
 
 	/**
@@ -438,7 +455,17 @@ public class HttpHeaders implements MultiValueMap<String, String>, Serializable
 	 * <p>Returns an empty list when the acceptable media types are unspecified.
 	 */
 	public List<MediaType> getAccept() {
-		return MediaType.parseMediaTypes(get(ACCEPT));
+		List<String> values = get(ACCEPT);
+		if (CollectionUtils.isEmpty(values)) {
+			return MediaType.parseMediaTypes(values);
+		}
+		ParsedHeader<List<MediaType>> parsed = this.parsedAccept;
+		if (parsed == null || !parsed.matches(values)) {
+			parsed = new ParsedHeader<>(new ArrayList<>(values), MediaType.parseMediaTypes(values));
+			this.parsedAccept = parsed;
+		}
+		// Copy: callers may sort or otherwise modify the returned list
+		return new ArrayList<>(parsed.value);
 	}
 
 	/**
@@ -923,7 +950,15 @@ public class HttpHeaders implements MultiValueMap<String, String>, Serializable
 	@Nullable
 	public MediaType getContentType() {
 		String value = getFirst(CONTENT_TYPE);
-		return (StringUtils.hasLength(value) ? MediaType.parseMediaType(value) : null);
+		if (!StringUtils.hasLength(value)) {
+			return null;
+		}
+		ParsedHeader<MediaType> parsed = this.parsedContentType;
+		if (parsed == null || !parsed.matches(value)) {
+			parsed = new ParsedHeader<>(value, MediaType.parseMediaType(value));
+			this.parsedContentType = parsed;
+		}
+		return parsed.value;
 	}
 
 	/**
@@ -1729,6 +1764,20 @@ public class HttpHeaders implements MultiValueMap<String, String>, Serializable
 				.collect(Collectors.joining(", ", "[", "]"));
 	}
 
+	private static Map<String, String> initLowerCaseHeaderNames() {
+		Map<String, String> headerNames = new HashMap<>(128);
+		for (Field field : HttpHeaders.class.getDeclaredFields()) {
+			int modifiers = field.getModifiers();
+			if (Modifier.isPublic(modifiers) && Modifier.isStatic(modifiers) && field.getType() == String.class) {
+				String headerName = (String) ReflectionUtils.getField(field, null);
+				if (headerName != null) {
+					headerNames.put(headerName, headerName.toLowerCase(Locale.ENGLISH));
+				}
+			}
+		}
+		return headerNames;
+	}
+
 	// Package-private: used in ResponseCookie
 	static String formatDate(long date) {
 		Instant instant = Instant.ofEpochMilli(date);
@@ -1736,4 +1785,45 @@ public class HttpHeaders implements MultiValueMap<String, String>, Serializable
 		return DATE_FORMATTERS[0].format(time);
 	}
 
+
+	/**
+	 * Case-insensitive map of header names that uses the pre-computed lower
+	 * case form for the header names declared in {@link HttpHeaders}.
+	 */
+	@SuppressWarnings("serial")
+	private static class HeaderNameMap<V> extends LinkedCaseInsensitiveMap<V> {
+
+		HeaderNameMap(int initialCapacity) {
+			super(initialCapacity, Locale.ENGLISH);
+		}
+
+		@Override
+		protected String convertKey(String key) {
+			String lowerCaseKey = LOWER_CASE_HEADER_NAMES.get(key);
+			return (lowerCaseKey != null ? lowerCaseKey : super.convertKey(key));
+		}
+	}
+
+
+	/**
+	 * A parsed header value along with the raw value it was parsed from, so
+	 * that it can be reused for as long as the raw value remains the same,
+	 * no matter how the underlying headers are modified.
+	 */
+	private static final class ParsedHeader<T> {
+
+		private final Object rawValue;
+
+		private final T value;
+
+		ParsedHeader(Object rawValue, T value) {
+			this.rawValue = rawValue;
+			this.value = value;
+		}
+
+		boolean matches(@Nullable Object rawValue) {
+			return (this.rawValue == rawValue || this.rawValue.equals(rawValue));
+		}
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,11 +16,13 @@
 
 package org.springframework.http.codec;
 
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
@@ -56,10 +58,20 @@ public class ServerSentEventHttpMessageWriter implements HttpMessageWriter<Objec
 
 	private static final List<MediaType> WRITABLE_MEDIA_TYPES = Collections.singletonList(MediaType.TEXT_EVENT_STREAM);
 
+	private static final String KEEP_ALIVE_COMMENT = ":\n\n";
+
+	private static final int MAX_BATCH_SIZE = 256;
+
 
 	@Nullable
 	private final Encoder<?> encoder;
 
+	@Nullable
+	private Duration flushInterval;
+
+	@Nullable
+	private Duration keepAliveInterval;
+
 
 	/**
 	 * Constructor without an {@code Encoder}. In this mode only {@code String}
@@ -87,6 +99,56 @@ public class ServerSentEventHttpMessageWriter implements HttpMessageWriter<Objec
 		return this.encoder;
 	}
 
+	/**
+	 * Switch to the batching mode in which each event is rendered into a single
+	 * buffer, and the events written within the given interval are flushed
+	 * together, as a single buffer, at the end of the interval.
+	 * <p>This reduces the number of buffers and flushes per event, at the expense
+	 * of delaying each event by up to the given interval. {@link Duration#ZERO}
+	 * renders each event into a single buffer and flushes it right away.
+	 * <p>By default this is not set, in which case each event is written as
+	 * several buffers and flushed individually.
+	 * @param flushInterval the batching window, or {@code null} for the default mode
+	 * @since 5.2
+	 */
+	public void setFlushInterval(@Nullable Duration flushInterval) {
+		Assert.isTrue(flushInterval == null || !flushInterval.isNegative(), "'flushInterval' must not be negative");
+		this.flushInterval = flushInterval;
+	}
+
+	/**
+	 * Return the configured batching window, if any.
+	 * @since 5.2
+	 */
+	@Nullable
+	public Duration getFlushInterval() {
+		return this.flushInterval;
+	}
+
+	/**
+	 * Write a comment line as keep-alive whenever no event has been written
+	 * for the given interval, e.g. to prevent proxies from closing idle
+	 * connections.
+	 * <p>By default this is not set, in which case no keep-alive comments
+	 * are written.
+	 * @param keepAliveInterval the idle interval, or {@code null} for none
+	 * @since 5.2
+	 */
+	public void setKeepAliveInterval(@Nullable Duration keepAliveInterval) {
+		Assert.isTrue(keepAliveInterval == null || (!keepAliveInterval.isNegative() && !keepAliveInterval.isZero()),
+				"'keepAliveInterval' must be positive");
+		this.keepAliveInterval = keepAliveInterval;
+	}
+
+	/**
+	 * Return the configured keep-alive interval, if any.
+	 * @since 5.2
+	 */
+	@Nullable
+	public Duration getKeepAliveInterval() {
+		return this.keepAliveInterval;
+	}
+
 	@Override
 	public List<MediaType> getWritableMediaTypes() {
 		return WRITABLE_MEDIA_TYPES;
@@ -107,7 +169,16 @@ public class ServerSentEventHttpMessageWriter implements HttpMessageWriter<Objec
 		DataBufferFactory bufferFactory = message.bufferFactory();
 
 		message.getHeaders().setContentType(mediaType);
-		return message.writeAndFlushWith(encode(input, elementType, mediaType, bufferFactory, hints));
+		if (this.flushInterval != null) {
+			return message.writeAndFlushWith(encodeBatched(input, elementType, mediaType, bufferFactory, hints));
+		}
+		Flux<Publisher<DataBuffer>> result = encode(input, elementType, mediaType, bufferFactory, hints);
+		if (this.keepAliveInterval != null) {
+			Charset charset = getCharset(mediaType);
+			result = withKeepAlive(result, this.keepAliveInterval, () -> Mono.fromSupplier(() ->
+					writeText(KEEP_ALIVE_COMMENT, charset, bufferFactory)));
+		}
+		return message.writeAndFlushWith(result);
 	}
 
 	private Flux<Publisher<DataBuffer>> encode(Publisher<?> input, ResolvableType elementType,
@@ -122,23 +193,8 @@ public class ServerSentEventHttpMessageWriter implements HttpMessageWriter<Objec
 					(ServerSentEvent<?>) element : ServerSentEvent.builder().data(element).build());
 
 			StringBuilder sb = new StringBuilder();
-			String id = sse.id();
-			String event = sse.event();
-			Duration retry = sse.retry();
-			String comment = sse.comment();
+			writeFields(sse, sb);
 			Object data = sse.data();
-			if (id != null) {
-				writeField("id", id, sb);
-			}
-			if (event != null) {
-				writeField("event", event, sb);
-			}
-			if (retry != null) {
-				writeField("retry", retry.toMillis(), sb);
-			}
-			if (comment != null) {
-				sb.append(':').append(StringUtils.replace(comment, "\n", "\n:")).append("\n");
-			}
 			if (data != null) {
 				sb.append("data:");
 			}
@@ -150,6 +206,157 @@ public class ServerSentEventHttpMessageWriter implements HttpMessageWriter<Objec
 		});
 	}
 
+	private Flux<Publisher<DataBuffer>> encodeBatched(Publisher<?> input, ResolvableType elementType,
+			MediaType mediaType, DataBufferFactory factory, Map<String, Object> hints) {
+
+		Assert.state(this.flushInterval != null, "No flush interval");
+		ResolvableType valueType = (ServerSentEvent.class.isAssignableFrom(elementType.toClass()) ?
+				elementType.getGeneric() : elementType);
+
+		Flux<DataBuffer> events = Flux.from(input)
+				.concatMap(element -> encodeEvent(element, valueType, mediaType, factory, hints));
+		if (this.keepAliveInterval != null) {
+			events = withKeepAlive(events, this.keepAliveInterval, () -> encodeKeepAlive(mediaType, factory));
+		}
+
+		Flux<Publisher<DataBuffer>> result;
+		if (this.flushInterval.isZero()) {
+			result = events.map(Mono::just);
+		}
+		else {
+			result = events
+					.bufferTimeout(MAX_BATCH_SIZE, this.flushInterval)
+					.map(buffers -> Mono.just(joinBatch(buffers, factory)));
+		}
+		return result.doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release);
+	}
+
+	/**
+	 * Render a single event, including the trailing blank line, into a single buffer.
+	 */
+	private Mono<DataBuffer> encodeEvent(Object element, ResolvableType valueType,
+			MediaType mediaType, DataBufferFactory factory, Map<String, Object> hints) {
+
+		ServerSentEvent<?> sse = (element instanceof ServerSentEvent ?
+				(ServerSentEvent<?>) element : ServerSentEvent.builder().data(element).build());
+		Charset charset = getCharset(mediaType);
+
+		StringBuilder sb = new StringBuilder();
+		writeFields(sse, sb);
+		Object data = sse.data();
+		if (data == null) {
+			sb.append("\n");
+			return Mono.fromSupplier(() -> writeText(sb, charset, factory));
+		}
+		else if (data instanceof String) {
+			sb.append("data:").append(StringUtils.replace((String) data, "\n", "\ndata:")).append("\n\n");
+			return Mono.fromSupplier(() -> writeText(sb, charset, factory));
+		}
+		else if (this.encoder == null) {
+			return Mono.error(new CodecException("No SSE encoder configured and the data is not String."));
+		}
+		sb.append("data:");
+		return encodeData(data, valueType, mediaType, factory, hints)
+				.collectList()
+				.map(buffers -> {
+					int size = 0;
+					for (DataBuffer buffer : buffers) {
+						size += buffer.readableByteCount();
+					}
+					DataBuffer result = factory.allocateBuffer(sb.length() + size + 2);
+					try {
+						result.write(sb, charset);
+						for (DataBuffer buffer : buffers) {
+							result.write(buffer);
+						}
+						return result.write("\n", charset);
+					}
+					catch (RuntimeException ex) {
+						DataBufferUtils.release(result);
+						throw ex;
+					}
+					finally {
+						buffers.forEach(DataBufferUtils::release);
+					}
+				});
+	}
+
+	private DataBuffer encodeKeepAlive(MediaType mediaType, DataBufferFactory factory) {
+		return writeText(KEEP_ALIVE_COMMENT, getCharset(mediaType), factory);
+	}
+
+	private static DataBuffer writeText(CharSequence text, Charset charset, DataBufferFactory factory) {
+		DataBuffer buffer = factory.allocateBuffer(text.length());
+		try {
+			return buffer.write(text, charset);
+		}
+		catch (RuntimeException ex) {
+			DataBufferUtils.release(buffer);
+			throw ex;
+		}
+	}
+
+	private static DataBuffer joinBatch(List<DataBuffer> buffers, DataBufferFactory factory) {
+		if (buffers.size() == 1) {
+			return buffers.get(0);
+		}
+		int size = 0;
+		for (DataBuffer buffer : buffers) {
+			size += buffer.readableByteCount();
+		}
+		DataBuffer result = factory.allocateBuffer(size);
+		try {
+			for (DataBuffer buffer : buffers) {
+				result.write(buffer);
+			}
+			return result;
+		}
+		catch (RuntimeException ex) {
+			DataBufferUtils.release(result);
+			throw ex;
+		}
+		finally {
+			buffers.forEach(DataBufferUtils::release);
+		}
+	}
+
+	/**
+	 * Merge keep-alive elements into the given stream, whenever it has been
+	 * idle for the given interval, up until the stream terminates.
+	 */
+	private static <T> Flux<T> withKeepAlive(Flux<T> source, Duration interval, Supplier<T> keepAliveSupplier) {
+		return source.publish(shared -> Flux.merge(shared, shared
+				.map(element -> Boolean.TRUE)
+				.startWith(Boolean.TRUE)
+				.switchMap(element -> Flux.interval(interval, interval).map(tick -> keepAliveSupplier.get()))
+				.takeUntilOther(shared.ignoreElements())));
+	}
+
+	private static Charset getCharset(MediaType mediaType) {
+		Charset charset = mediaType.getCharset();
+		Assert.notNull(charset, "Expected MediaType with charset");
+		return charset;
+	}
+
+	private void writeFields(ServerSentEvent<?> sse, StringBuilder sb) {
+		String id = sse.id();
+		String event = sse.event();
+		Duration retry = sse.retry();
+		String comment = sse.comment();
+		if (id != null) {
+			writeField("id", id, sb);
+		}
+		if (event != null) {
+			writeField("event", event, sb);
+		}
+		if (retry != null) {
+			writeField("retry", retry.toMillis(), sb);
+		}
+		if (comment != null) {
+			sb.append(':').append(StringUtils.replace(comment, "\n", "\n:")).append("\n");
+		}
+	}
+
 	private void writeField(String fieldName, Object fieldValue, StringBuilder stringBuilder) {
 		stringBuilder.append(fieldName);
 		stringBuilder.append(':');
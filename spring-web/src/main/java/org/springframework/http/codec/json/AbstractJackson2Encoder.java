@@ -32,6 +32,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import com.fasterxml.jackson.databind.exc.InvalidDefinitionException;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
@@ -56,8 +57,9 @@ import org.springframework.util.MimeType;
 
 /**
  * Base class providing support methods for Jackson 2.9 encoding. For non-streaming use
- * cases, {@link Flux} elements are collected into a {@link List} before serialization for
- * performance reason.
+ * cases, {@link Flux} elements are written incrementally as the elements of a single
+ * JSON array, using one {@link JsonGenerator} per subscription, so that the whole
+ * sequence does not need to be buffered in memory.
  *
  * @author Sebastien Deleuze
  * @author Arjen Poutsma
@@ -122,41 +124,105 @@ public abstract class AbstractJackson2Encoder extends Jackson2CodecSupport imple
 					encodeValue(value, mimeType, bufferFactory, elementType, hints, encoding)).flux();
 		}
 		else {
-			return this.streamingMediaTypes.stream()
+			byte[] separator = this.streamingMediaTypes.stream()
 					.filter(mediaType -> mediaType.isCompatibleWith(mimeType))
 					.findFirst()
-					.map(mediaType -> {
-						byte[] separator =
-								STREAM_SEPARATORS.getOrDefault(mediaType, NEWLINE_SEPARATOR);
-						return Flux.from(inputStream).map(value -> {
-							DataBuffer buffer =
-									encodeValue(value, mimeType, bufferFactory, elementType, hints,
-											encoding);
-							if (separator != null) {
-								buffer.write(separator);
-							}
-							return buffer;
-						});
+					.map(mediaType -> STREAM_SEPARATORS.getOrDefault(mediaType, NEWLINE_SEPARATOR))
+					.orElse(null);
+			if (separator != null) {
+				ObjectWriter writer = createObjectWriter(elementType, mimeType, hints);
+				return Flux.from(inputStream).map(value -> {
+					DataBuffer buffer = encodeValue(value, bufferFactory, writer, hints, encoding);
+					buffer.write(separator);
+					return buffer;
+				});
+			}
+			else {
+				return encodeArray(inputStream, bufferFactory, elementType, mimeType, hints, encoding);
+			}
+		}
+	}
+
+	/**
+	 * Encode the elements of the given stream as a single JSON array, writing
+	 * each element, along with the array start and element separator, to its
+	 * own data buffer as soon as it is received. A single {@link JsonGenerator}
+	 * is created per subscription, and the closing of the array is written to
+	 * a last data buffer when the input completes.
+	 */
+	private Flux<DataBuffer> encodeArray(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+			ResolvableType elementType, @Nullable MimeType mimeType, @Nullable Map<String, Object> hints,
+			JsonEncoding encoding) {
+
+		ObjectWriter writer = createObjectWriter(elementType, mimeType, hints);
+		return Flux.defer(() -> {
+			DataBufferOutputStream outputStream = new DataBufferOutputStream();
+			JsonGenerator generator;
+			SequenceWriter sequenceWriter;
+			try {
+				generator = getObjectMapper().getFactory().createGenerator(outputStream, encoding);
+				sequenceWriter = writer.writeValuesAsArray(generator);
+			}
+			catch (IOException ex) {
+				return Flux.error(new IllegalStateException("Unexpected I/O error while creating generator", ex));
+			}
+			return Flux.from(inputStream)
+					.map(value -> {
+						logValue(value, hints);
+						return writeToBuffer(outputStream, bufferFactory, generator, () -> sequenceWriter.write(value));
 					})
-					.orElseGet(() -> {
-						ResolvableType listType =
-								ResolvableType.forClassWithGenerics(List.class, elementType);
-						return Flux.from(inputStream).collectList().map(list ->
-								encodeValue(list, mimeType, bufferFactory, listType, hints,
-										encoding)).flux();
+					.concatWith(Mono.fromCallable(() ->
+							writeToBuffer(outputStream, bufferFactory, generator, sequenceWriter::close)))
+					.doFinally(signalType -> {
+						outputStream.detach();
+						try {
+							generator.close();
+						}
+						catch (IOException ex) {
+							// ignore: content written after detaching is discarded
+						}
 					});
+		});
+	}
+
+	private DataBuffer writeToBuffer(DataBufferOutputStream outputStream, DataBufferFactory bufferFactory,
+			JsonGenerator generator, JsonWriteCallback callback) {
+
+		DataBuffer buffer = bufferFactory.allocateBuffer();
+		boolean release = true;
+		outputStream.attach(buffer);
+		try {
+			callback.write();
+			generator.flush();
+			release = false;
+		}
+		catch (InvalidDefinitionException ex) {
+			throw new CodecException("Type definition error: " + ex.getType(), ex);
+		}
+		catch (JsonProcessingException ex) {
+			throw new EncodingException("JSON encoding error: " + ex.getOriginalMessage(), ex);
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Unexpected I/O error while writing to data buffer", ex);
+		}
+		finally {
+			outputStream.detach();
+			if (release) {
+				DataBufferUtils.release(buffer);
+			}
 		}
+		return buffer;
 	}
 
 	private DataBuffer encodeValue(Object value, @Nullable MimeType mimeType, DataBufferFactory bufferFactory,
 			ResolvableType elementType, @Nullable Map<String, Object> hints, JsonEncoding encoding) {
 
-		if (!Hints.isLoggingSuppressed(hints)) {
-			LogFormatUtils.traceDebug(logger, traceOn -> {
-				String formatted = LogFormatUtils.formatValue(value, !traceOn);
-				return Hints.getLogPrefix(hints) + "Encoding [" + formatted + "]";
-			});
-		}
+		ObjectWriter writer = createObjectWriter(elementType, mimeType, hints);
+		return encodeValue(value, bufferFactory, writer, hints, encoding);
+	}
+
+	private ObjectWriter createObjectWriter(ResolvableType elementType, @Nullable MimeType mimeType,
+			@Nullable Map<String, Object> hints) {
 
 		JavaType javaType = getJavaType(elementType.getType(), null);
 		Class<?> jsonView = (hints != null ? (Class<?>) hints.get(Jackson2CodecSupport.JSON_VIEW_HINT) : null);
@@ -167,15 +233,29 @@ public abstract class AbstractJackson2Encoder extends Jackson2CodecSupport imple
 			writer = writer.forType(javaType);
 		}
 
-		writer = customizeWriter(writer, mimeType, elementType, hints);
+		return customizeWriter(writer, mimeType, elementType, hints);
+	}
+
+	private void logValue(Object value, @Nullable Map<String, Object> hints) {
+		if (!Hints.isLoggingSuppressed(hints)) {
+			LogFormatUtils.traceDebug(logger, traceOn -> {
+				String formatted = LogFormatUtils.formatValue(value, !traceOn);
+				return Hints.getLogPrefix(hints) + "Encoding [" + formatted + "]";
+			});
+		}
+	}
+
+	private DataBuffer encodeValue(Object value, DataBufferFactory bufferFactory, ObjectWriter writer,
+			@Nullable Map<String, Object> hints, JsonEncoding encoding) {
+
+		logValue(value, hints);
 
 		DataBuffer buffer = bufferFactory.allocateBuffer();
 		boolean release = true;
 		OutputStream outputStream = buffer.asOutputStream();
 
 		try {
-			JsonGenerator generator =
-					getObjectMapper().getFactory().createGenerator(outputStream, encoding);
+			JsonGenerator generator = getObjectMapper().getFactory().createGenerator(outputStream, encoding);
 			writer.writeValue(generator, value);
 			release = false;
 		}
@@ -249,4 +329,48 @@ public abstract class AbstractJackson2Encoder extends Jackson2CodecSupport imple
 		return parameter.getMethodAnnotation(annotType);
 	}
 
+
+	/**
+	 * Write operation against a {@link JsonGenerator} shared across elements.
+	 */
+	@FunctionalInterface
+	private interface JsonWriteCallback {
+
+		void write() throws IOException;
+	}
+
+
+	/**
+	 * {@link OutputStream} that writes to the currently attached {@link DataBuffer},
+	 * allowing a single {@link JsonGenerator} to write to a series of buffers.
+	 * Content written while no buffer is attached is discarded.
+	 */
+	private static class DataBufferOutputStream extends OutputStream {
+
+		@Nullable
+		private DataBuffer buffer;
+
+		public void attach(DataBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		public void detach() {
+			this.buffer = null;
+		}
+
+		@Override
+		public void write(int b) {
+			if (this.buffer != null) {
+				this.buffer.write((byte) b);
+			}
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			if (this.buffer != null) {
+				this.buffer.write(b, off, len);
+			}
+		}
+	}
+
 }
@@ -17,6 +17,7 @@
 package org.springframework.http.codec.json;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Function;
@@ -91,12 +92,19 @@ final class Jackson2Tokenizer {
 	}
 
 	private Flux<TokenBuffer> tokenize(DataBuffer dataBuffer) {
-		byte[] bytes = new byte[dataBuffer.readableByteCount()];
-		dataBuffer.read(bytes);
-		DataBufferUtils.release(dataBuffer);
-
 		try {
-			this.inputFeeder.feedInput(bytes, 0, bytes.length);
+			ByteBuffer byteBuffer = dataBuffer.asByteBuffer();
+			if (byteBuffer.hasArray()) {
+				// Feed the backing array directly: the parser consumes all input
+				// before returning NOT_AVAILABLE, so the buffer can be released after
+				int offset = byteBuffer.arrayOffset() + byteBuffer.position();
+				this.inputFeeder.feedInput(byteBuffer.array(), offset, offset + byteBuffer.remaining());
+			}
+			else {
+				byte[] bytes = new byte[dataBuffer.readableByteCount()];
+				dataBuffer.read(bytes);
+				this.inputFeeder.feedInput(bytes, 0, bytes.length);
+			}
 			return parseTokenBufferFlux();
 		}
 		catch (JsonProcessingException ex) {
@@ -106,6 +114,9 @@ final class Jackson2Tokenizer {
 		catch (IOException ex) {
 			return Flux.error(ex);
 		}
+		finally {
+			DataBufferUtils.release(dataBuffer);
+		}
 	}
 
 	private Flux<TokenBuffer> endOfInput() {
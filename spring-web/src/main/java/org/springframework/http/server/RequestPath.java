@@ -57,7 +57,17 @@ public interface RequestPath extends PathContainer {
 	 * Create a new {@code RequestPath} with the given parameters.
 	 */
 	static RequestPath parse(URI uri, @Nullable String contextPath) {
-		return new DefaultRequestPath(uri, contextPath);
+		return new DefaultRequestPath(uri.getRawPath(), contextPath);
+	}
+
+	/**
+	 * Create a new {@code RequestPath} with the given parameters.
+	 * @param rawPath the raw (encoded) path of the request URI
+	 * @param contextPath the context path, if any
+	 * @since 5.2
+	 */
+	static RequestPath parse(String rawPath, @Nullable String contextPath) {
+		return new DefaultRequestPath(rawPath, contextPath);
 	}
 
 }
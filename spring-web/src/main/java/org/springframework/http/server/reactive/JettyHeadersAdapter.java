@@ -115,8 +115,10 @@ class JettyHeadersAdapter implements MultiValueMap<String, String> {
 	@Nullable
 	@Override
 	public List<String> get(Object key) {
-		if (containsKey(key)) {
-			return this.headers.getValuesList((String) key);
+		if (key instanceof String) {
+			// Single lookup: getValuesList returns an empty list for a missing header
+			List<String> values = this.headers.getValuesList((String) key);
+			return (!values.isEmpty() ? values : null);
 		}
 		return null;
 	}
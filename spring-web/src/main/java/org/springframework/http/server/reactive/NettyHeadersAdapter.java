@@ -114,8 +114,10 @@ class NettyHeadersAdapter implements MultiValueMap<String, String> {
 	@Override
 	@Nullable
 	public List<String> get(Object key) {
-		if (containsKey(key)) {
-			return this.headers.getAll((String) key);
+		if (key instanceof String) {
+			// Single lookup: getAll returns an empty list for a missing header
+			List<String> values = this.headers.getAll((String) key);
+			return (!values.isEmpty() ? values : null);
 		}
 		return null;
 	}
@@ -17,6 +17,7 @@
 package org.springframework.http.server.reactive;
 
 import java.util.AbstractSet;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Enumeration;
@@ -129,8 +130,19 @@ class TomcatHeadersAdapter implements MultiValueMap<String, String> {
 	@Override
 	@Nullable
 	public List<String> get(Object key) {
-		if (containsKey(key)) {
-			return Collections.list(this.headers.values((String) key));
+		if (key instanceof String) {
+			String name = (String) key;
+			int index = this.headers.findHeader(name, 0);
+			if (index == -1) {
+				return null;
+			}
+			if (this.headers.findHeader(name, index + 1) == -1) {
+				// Fast path for single-valued headers, mutable like the list below
+				List<String> values = new ArrayList<>(1);
+				values.add(this.headers.getValue(index).toString());
+				return values;
+			}
+			return Collections.list(this.headers.values(name));
 		}
 		return null;
 	}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.cache;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * An immutable snapshot of an HTTP response held in a {@link ResponseCacheStore}:
+ * status, headers and body, along with the point in time at which it expires,
+ * and the values of the request headers listed in its {@code Vary} header.
+ *
+ * @author agent
+ * @since 5.2
+ */
+public final class CachedResponse implements Serializable {
+
+	private static final long serialVersionUID = 3506155298423867461L;
+
+
+	private final int statusCode;
+
+	private final HttpHeaders headers;
+
+	private final byte[] body;
+
+	private final long created;
+
+	private final long expires;
+
+	private final Map<String, String> varyValues;
+
+
+	/**
+	 * Create a new cached response.
+	 * @param statusCode the HTTP status code
+	 * @param headers the response headers, including the {@code ETag} and
+	 * {@code Last-Modified} headers to use for conditional requests, if any
+	 * @param body the response body
+	 * @param created the time at which the response was created, in milliseconds
+	 * @param timeToLive the time for which the response remains fresh, in milliseconds
+	 * @param varyValues the values of the request headers listed in the
+	 * {@code Vary} response header, keyed by header name
+	 */
+	public CachedResponse(int statusCode, HttpHeaders headers, byte[] body,
+			long created, long timeToLive, Map<String, String> varyValues) {
+
+		Assert.notNull(headers, "HttpHeaders must not be null");
+		Assert.notNull(body, "Body must not be null");
+		Assert.notNull(varyValues, "Vary values must not be null");
+		HttpHeaders headersToUse = new HttpHeaders();
+		headersToUse.putAll(headers);
+		this.statusCode = statusCode;
+		this.headers = HttpHeaders.readOnlyHttpHeaders(headersToUse);
+		this.body = body;
+		this.created = created;
+		this.expires = created + timeToLive;
+		this.varyValues = (varyValues.isEmpty() ? Collections.emptyMap() :
+				Collections.unmodifiableMap(new LinkedHashMap<>(varyValues)));
+	}
+
+
+	/**
+	 * Return the HTTP status code of the response.
+	 */
+	public int getStatusCode() {
+		return this.statusCode;
+	}
+
+	/**
+	 * Return the (read-only) headers of the response.
+	 */
+	public HttpHeaders getHeaders() {
+		return this.headers;
+	}
+
+	/**
+	 * Return the body of the response.
+	 * <p>The returned array is shared and must not be modified.
+	 */
+	public byte[] getBody() {
+		return this.body;
+	}
+
+	/**
+	 * Return the values of the request headers listed in the {@code Vary}
+	 * header of the response, at the time the response was created.
+	 */
+	public Map<String, String> getVaryValues() {
+		return this.varyValues;
+	}
+
+	/**
+	 * Whether the response is no longer fresh at the given point in time.
+	 * @param now the current time in milliseconds
+	 */
+	public boolean isExpired(long now) {
+		return (now >= this.expires);
+	}
+
+	/**
+	 * Return the age of the response in seconds, for use in an {@code Age} header.
+	 * @param now the current time in milliseconds
+	 */
+	public long getAge(long now) {
+		return Math.max(0, (now - this.created) / 1000);
+	}
+
+	/**
+	 * Whether the given request matches the request header values the
+	 * response was created for, as listed in its {@code Vary} header.
+	 * @param requestHeaderValues function that returns the value of a request
+	 * header, with multiple values joined by {@code ", "}, or {@code null}
+	 */
+	public boolean matchesVary(Function<String, String> requestHeaderValues) {
+		for (Map.Entry<String, String> entry : this.varyValues.entrySet()) {
+			if (!ObjectUtils.nullSafeEquals(entry.getValue(), requestHeaderValues.apply(entry.getKey()))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Whether a conditional request with the given {@code If-None-Match} and
+	 * {@code If-Modified-Since} values can be answered with a
+	 * {@code 304 Not Modified} response. As per RFC 7232, {@code If-None-Match}
+	 * takes precedence if present.
+	 * @param ifNoneMatch the {@code If-None-Match} request header values, if any
+	 * @param ifModifiedSince the {@code If-Modified-Since} request header, or -1
+	 */
+	public boolean isNotModified(List<String> ifNoneMatch, long ifModifiedSince) {
+		if (!ifNoneMatch.isEmpty()) {
+			String eTag = this.headers.getETag();
+			if (eTag == null) {
+				return false;
+			}
+			for (String value : ifNoneMatch) {
+				for (String requestETag : value.split(",")) {
+					requestETag = requestETag.trim();
+					if ("*".equals(requestETag) || stripWeakPrefix(requestETag).equals(stripWeakPrefix(eTag))) {
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+		long lastModified = this.headers.getLastModified();
+		return (ifModifiedSince != -1 && lastModified != -1 && lastModified / 1000 <= ifModifiedSince / 1000);
+	}
+
+	private static String stripWeakPrefix(String eTag) {
+		return (eTag.startsWith("W/") ? eTag.substring(2) : eTag);
+	}
+
+}
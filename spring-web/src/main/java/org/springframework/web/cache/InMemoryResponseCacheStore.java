@@ -0,0 +1,187 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link ResponseCacheStore} that keeps responses in memory, bounded by both
+ * the number of entries and the total size of the cached bodies. Once either
+ * limit is exceeded, the least recently used entries are evicted.
+ *
+ * <p>Lookups do not lock: they only record an access stamp on the entry.
+ * Updates are serialized, with the least recently used entry determined
+ * from the access stamps when an eviction is needed.
+ *
+ * @author agent
+ * @since 5.2
+ */
+public class InMemoryResponseCacheStore implements ResponseCacheStore {
+
+	/** Default maximum number of cached responses. */
+	public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+	/** Default maximum total size of the cached response bodies (10 MB). */
+	public static final long DEFAULT_MAX_TOTAL_SIZE = 10 * 1024 * 1024;
+
+
+	private final int maxEntries;
+
+	private final long maxTotalSize;
+
+	private final Map<String, Entry> responses = new ConcurrentHashMap<>(64);
+
+	private final AtomicLong accessCounter = new AtomicLong();
+
+	private volatile long totalSize;
+
+
+	/**
+	 * Create an instance with {@link #DEFAULT_MAX_ENTRIES} and
+	 * {@link #DEFAULT_MAX_TOTAL_SIZE}.
+	 */
+	public InMemoryResponseCacheStore() {
+		this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_TOTAL_SIZE);
+	}
+
+	/**
+	 * Create an instance with the given limits.
+	 * @param maxEntries the maximum number of cached responses
+	 * @param maxTotalSize the maximum total size of the cached response bodies, in bytes
+	 */
+	public InMemoryResponseCacheStore(int maxEntries, long maxTotalSize) {
+		Assert.isTrue(maxEntries > 0, "'maxEntries' must be positive");
+		Assert.isTrue(maxTotalSize > 0, "'maxTotalSize' must be positive");
+		this.maxEntries = maxEntries;
+		this.maxTotalSize = maxTotalSize;
+	}
+
+
+	/**
+	 * Return the maximum number of cached responses.
+	 */
+	public int getMaxEntries() {
+		return this.maxEntries;
+	}
+
+	/**
+	 * Return the maximum total size of the cached response bodies, in bytes.
+	 */
+	public long getMaxTotalSize() {
+		return this.maxTotalSize;
+	}
+
+	/**
+	 * Return the number of cached responses.
+	 */
+	public int size() {
+		return this.responses.size();
+	}
+
+	/**
+	 * Return the total size of the cached response bodies, in bytes.
+	 */
+	public long getTotalSize() {
+		return this.totalSize;
+	}
+
+
+	@Override
+	@Nullable
+	public CachedResponse get(String key) {
+		Entry entry = this.responses.get(key);
+		if (entry == null) {
+			return null;
+		}
+		entry.lastAccess = this.accessCounter.incrementAndGet();
+		return entry.response;
+	}
+
+	@Override
+	public synchronized void put(String key, CachedResponse response) {
+		long size = response.getBody().length;
+		if (size > this.maxTotalSize) {
+			evict(key);
+			return;
+		}
+		Entry entry = new Entry(response, this.accessCounter.incrementAndGet());
+		Entry previous = this.responses.put(key, entry);
+		long totalSize = this.totalSize + size - (previous != null ? previous.size() : 0);
+		while (this.responses.size() > this.maxEntries || totalSize > this.maxTotalSize) {
+			String eldestKey = findLeastRecentlyUsed(entry);
+			if (eldestKey == null) {
+				break;
+			}
+			Entry eldest = this.responses.remove(eldestKey);
+			if (eldest != null) {
+				totalSize -= eldest.size();
+			}
+		}
+		this.totalSize = totalSize;
+	}
+
+	@Nullable
+	private String findLeastRecentlyUsed(Entry excluded) {
+		String eldestKey = null;
+		long eldestAccess = Long.MAX_VALUE;
+		for (Map.Entry<String, Entry> candidate : this.responses.entrySet()) {
+			Entry entry = candidate.getValue();
+			if (entry != excluded && entry.lastAccess < eldestAccess) {
+				eldestKey = candidate.getKey();
+				eldestAccess = entry.lastAccess;
+			}
+		}
+		return eldestKey;
+	}
+
+	@Override
+	public synchronized void evict(String key) {
+		Entry previous = this.responses.remove(key);
+		if (previous != null) {
+			this.totalSize -= previous.size();
+		}
+	}
+
+	@Override
+	public synchronized void clear() {
+		this.responses.clear();
+		this.totalSize = 0;
+	}
+
+
+	private static final class Entry {
+
+		final CachedResponse response;
+
+		volatile long lastAccess;
+
+		Entry(CachedResponse response, long lastAccess) {
+			this.response = response;
+			this.lastAccess = lastAccess;
+		}
+
+		long size() {
+			return this.response.getBody().length;
+		}
+	}
+
+}
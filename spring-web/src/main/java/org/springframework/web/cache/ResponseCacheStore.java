@@ -0,0 +1,63 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.cache;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Strategy for storing {@link CachedResponse cached responses} by key.
+ *
+ * <p>Implementations must be thread-safe. They are free to evict entries at
+ * any time, e.g. in order to stay within a memory budget, and may be backed
+ * by a store shared across application instances.
+ *
+ * @author agent
+ * @since 5.2
+ * @see InMemoryResponseCacheStore
+ */
+public interface ResponseCacheStore {
+
+	/**
+	 * Return the response cached under the given key, if any.
+	 * <p>The returned response may have expired, in which case it is not
+	 * used by the caller, and is removed via {@link #evict(String)}.
+	 * @param key the cache key
+	 * @return the cached response, or {@code null} if none
+	 */
+	@Nullable
+	CachedResponse get(String key);
+
+	/**
+	 * Store the given response under the given key, replacing any response
+	 * previously stored under the same key.
+	 * @param key the cache key
+	 * @param response the response to store
+	 */
+	void put(String key, CachedResponse response);
+
+	/**
+	 * Remove the response cached under the given key, if any.
+	 * @param key the cache key
+	 */
+	void evict(String key);
+
+	/**
+	 * Remove all cached responses.
+	 */
+	void clear();
+
+}
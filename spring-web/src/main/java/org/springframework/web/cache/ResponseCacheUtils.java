@@ -0,0 +1,205 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.cache;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Helper methods shared by the Servlet and reactive response cache filters,
+ * deciding which requests may be served from the cache, which responses may
+ * be cached and for how long, based on the {@code Cache-Control} and
+ * {@code Expires} headers, e.g. as set through
+ * {@link org.springframework.http.CacheControl CacheControl}.
+ *
+ * @author agent
+ * @since 5.2
+ */
+public abstract class ResponseCacheUtils {
+
+	/**
+	 * Headers copied from a cached response to a {@code 304 Not Modified}
+	 * response, as per RFC 7232 section 4.1.
+	 */
+	public static final List<String> NOT_MODIFIED_HEADERS = Collections.unmodifiableList(Arrays.asList(
+			HttpHeaders.CACHE_CONTROL, HttpHeaders.CONTENT_LOCATION, HttpHeaders.ETAG,
+			HttpHeaders.EXPIRES, HttpHeaders.LAST_MODIFIED, HttpHeaders.VARY));
+
+
+	/**
+	 * Whether responses to requests with the given method may be cached:
+	 * {@code GET} responses are cached, and also used for {@code HEAD} requests.
+	 */
+	public static boolean isCacheableMethod(@Nullable String method) {
+		return (HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method));
+	}
+
+	/**
+	 * Whether the request may be served from the cache, based on its
+	 * {@code Cache-Control} and {@code Pragma} headers. A request with
+	 * "no-cache" must be passed on, but its response may still be cached.
+	 * @param cacheControl the request {@code Cache-Control} header, if any
+	 * @param pragma the request {@code Pragma} header, if any
+	 */
+	public static boolean isCacheLookupAllowed(@Nullable String cacheControl, @Nullable String pragma) {
+		if (cacheControl != null) {
+			String value = cacheControl.toLowerCase(Locale.ENGLISH);
+			return !(value.contains("no-cache") || value.contains("no-store"));
+		}
+		return (pragma == null || !pragma.toLowerCase(Locale.ENGLISH).contains("no-cache"));
+	}
+
+	/**
+	 * Whether the response to the request may be stored in the cache, based
+	 * on its {@code Cache-Control} and {@code Authorization} headers.
+	 * @param cacheControl the request {@code Cache-Control} header, if any
+	 * @param authorization the request {@code Authorization} header, if any
+	 */
+	public static boolean isStoreAllowed(@Nullable String cacheControl, @Nullable String authorization) {
+		return (authorization == null &&
+				(cacheControl == null || !cacheControl.toLowerCase(Locale.ENGLISH).contains("no-store")));
+	}
+
+	/**
+	 * Determine for how long the given response may be cached, from the
+	 * "s-maxage" or "max-age" directive of its {@code Cache-Control} header,
+	 * or else from its {@code Expires} header.
+	 * <p>Only {@code 200} responses without {@code Set-Cookie} and without
+	 * "no-store", "no-cache" or "private" directives can be cached, and a
+	 * {@code Vary} header with "*" prevents caching.
+	 * @param statusCode the response status code
+	 * @param headers the response headers
+	 * @param now the current time in milliseconds
+	 * @return the time to live in milliseconds, or 0 if the response cannot be cached
+	 */
+	public static long getTimeToLive(int statusCode, HttpHeaders headers, long now) {
+		if (statusCode != HttpStatus.OK.value() || headers.containsKey(HttpHeaders.SET_COOKIE) ||
+				headers.getVary().contains("*")) {
+			return 0;
+		}
+		long maxAge = -1;
+		long sharedMaxAge = -1;
+		String cacheControl = headers.getCacheControl();
+		if (cacheControl != null) {
+			for (String directive : StringUtils.tokenizeToStringArray(cacheControl, ",")) {
+				directive = directive.toLowerCase(Locale.ENGLISH);
+				if (directive.equals("no-store") || directive.equals("no-cache") ||
+						directive.startsWith("no-cache=") || directive.startsWith("private")) {
+					return 0;
+				}
+				else if (directive.startsWith("s-maxage=")) {
+					sharedMaxAge = parseSeconds(directive.substring(9));
+				}
+				else if (directive.startsWith("max-age=")) {
+					maxAge = parseSeconds(directive.substring(8));
+				}
+			}
+		}
+		if (sharedMaxAge != -1) {
+			return sharedMaxAge * 1000;
+		}
+		if (maxAge != -1) {
+			return maxAge * 1000;
+		}
+		long expires = -1;
+		try {
+			expires = headers.getExpires();
+		}
+		catch (IllegalArgumentException ex) {
+			// Invalid Expires value: treat as expired, as per RFC 7234 section 5.3
+		}
+		return (expires > now ? expires - now : 0);
+	}
+
+	private static long parseSeconds(String value) {
+		try {
+			return Math.max(0, Long.parseLong(StringUtils.trimAllWhitespace(value)));
+		}
+		catch (NumberFormatException ex) {
+			return 0;
+		}
+	}
+
+	/**
+	 * Return the values of the request headers listed in the {@code Vary}
+	 * header of the given response, keyed by header name.
+	 * @param responseHeaders the response headers
+	 * @param requestHeaderValues function that returns the value of a request
+	 * header, with multiple values joined by {@code ", "}, or {@code null}
+	 */
+	public static Map<String, String> getVaryValues(HttpHeaders responseHeaders,
+			Function<String, String> requestHeaderValues) {
+
+		List<String> vary = responseHeaders.getVary();
+		if (vary.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		Map<String, String> varyValues = new LinkedHashMap<>(vary.size());
+		for (String headerName : vary) {
+			varyValues.put(headerName, requestHeaderValues.apply(headerName));
+		}
+		return varyValues;
+	}
+
+	/**
+	 * Create a cache key from the given request method, path and query, and
+	 * an optional application-specific key, e.g. a tenant identifier.
+	 * {@code HEAD} requests use the same key as {@code GET} requests.
+	 * @param path the request path
+	 * @param query the raw request query, if any
+	 * @param extraKey an additional key, if any
+	 */
+	public static String createKey(String path, @Nullable String query, @Nullable String extraKey) {
+		StringBuilder builder = new StringBuilder(path.length() + 16);
+		builder.append("GET ").append(path);
+		if (StringUtils.hasLength(query)) {
+			builder.append('?').append(query);
+		}
+		if (extraKey != null) {
+			builder.append(' ').append(extraKey);
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Generate a strong ETag value from the given response body.
+	 * <p>This is done once, when the response is stored in the cache.
+	 * @param body the response body
+	 * @return the ETag header value
+	 * @see org.springframework.web.filter.ShallowEtagHeaderFilter
+	 */
+	public static String generateETag(byte[] body) {
+		StringBuilder builder = new StringBuilder(37);
+		builder.append("\"0");
+		DigestUtils.appendMd5DigestAsHex(body, builder);
+		builder.append('"');
+		return builder.toString();
+	}
+
+}
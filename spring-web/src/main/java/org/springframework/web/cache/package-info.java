@@ -0,0 +1,10 @@
+/**
+ * Support for server-side caching of HTTP responses, shared by the Servlet
+ * {@code ResponseCacheFilter} and the reactive {@code ResponseCacheWebFilter}.
+ */
+@NonNullApi
+@NonNullFields
+package org.springframework.web.cache;
+
+import org.springframework.lang.NonNullApi;
+import org.springframework.lang.NonNullFields;
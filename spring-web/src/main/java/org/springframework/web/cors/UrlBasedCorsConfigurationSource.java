@@ -21,11 +21,15 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 import javax.servlet.http.HttpServletRequest;
 
+import org.springframework.http.server.PathContainer;
 import org.springframework.lang.Nullable;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.Assert;
 import org.springframework.util.PathMatcher;
+import org.springframework.web.util.ServletRequestPathUtils;
 import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * Provide a per request {@link CorsConfiguration} instance based on a
@@ -33,6 +37,8 @@ import org.springframework.web.util.UrlPathHelper;
  *
  * <p>Exact path mapping URIs (such as {@code "/admin"}) are supported
  * as well as Ant-style path patterns (such as {@code "/admin/**"}).
+ * Alternatively, a {@link PathPatternParser} may be configured in order to
+ * match pre-parsed {@link PathPattern}s against the parsed request path.
  *
  * @author Sebastien Deleuze
  * @since 4.2
@@ -45,6 +51,11 @@ public class UrlBasedCorsConfigurationSource implements CorsConfigurationSource
 
 	private UrlPathHelper urlPathHelper = new UrlPathHelper();
 
+	@Nullable
+	private PathPatternParser patternParser;
+
+	private final Map<PathPattern, CorsConfiguration> pathPatternConfigurations = new LinkedHashMap<>();
+
 
 	/**
 	 * Set the PathMatcher implementation to use for matching URL paths
@@ -56,6 +67,20 @@ public class UrlBasedCorsConfigurationSource implements CorsConfigurationSource
 		this.pathMatcher = pathMatcher;
 	}
 
+	/**
+	 * Set the {@link PathPatternParser} to use for parsing the registered URL
+	 * patterns into {@link PathPattern}s, which are then matched against the
+	 * request path {@link ServletRequestPathUtils#parseAndCache parsed} once
+	 * per request, instead of using the {@link #setPathMatcher PathMatcher}
+	 * and {@link #setUrlPathHelper UrlPathHelper}.
+	 * <p>By default this is not set.
+	 * @since 5.2
+	 */
+	public void setPatternParser(@Nullable PathPatternParser patternParser) {
+		this.patternParser = patternParser;
+		initPathPatternConfigurations();
+	}
+
 	/**
 	 * Shortcut to same property on underlying {@link #setUrlPathHelper UrlPathHelper}.
 	 * @see org.springframework.web.util.UrlPathHelper#setAlwaysUseFullPath
@@ -97,6 +122,7 @@ public class UrlBasedCorsConfigurationSource implements CorsConfigurationSource
 		if (corsConfigurations != null) {
 			this.corsConfigurations.putAll(corsConfigurations);
 		}
+		initPathPatternConfigurations();
 	}
 
 	/**
@@ -111,12 +137,33 @@ public class UrlBasedCorsConfigurationSource implements CorsConfigurationSource
 	 */
 	public void registerCorsConfiguration(String path, CorsConfiguration config) {
 		this.corsConfigurations.put(path, config);
+		initPathPatternConfigurations();
+	}
+
+	private void initPathPatternConfigurations() {
+		this.pathPatternConfigurations.clear();
+		if (this.patternParser != null) {
+			for (Map.Entry<String, CorsConfiguration> entry : this.corsConfigurations.entrySet()) {
+				this.pathPatternConfigurations.put(this.patternParser.parse(entry.getKey()), entry.getValue());
+			}
+		}
 	}
 
 
 	@Override
 	@Nullable
 	public CorsConfiguration getCorsConfiguration(HttpServletRequest request) {
+		if (this.patternParser != null) {
+			PathContainer path = (ServletRequestPathUtils.hasParsedRequestPath(request) ?
+					ServletRequestPathUtils.getParsedRequestPath(request) :
+					ServletRequestPathUtils.parseAndCache(request)).pathWithinApplication();
+			for (Map.Entry<PathPattern, CorsConfiguration> entry : this.pathPatternConfigurations.entrySet()) {
+				if (entry.getKey().matches(path)) {
+					return entry.getValue();
+				}
+			}
+			return null;
+		}
 		String lookupPath = this.urlPathHelper.getLookupPathForRequest(request);
 		for (Map.Entry<String, CorsConfiguration> entry : this.corsConfigurations.entrySet()) {
 			if (this.pathMatcher.match(entry.getKey(), lookupPath)) {
@@ -0,0 +1,505 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.filter;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.function.Function;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.web.cache.CachedResponse;
+import org.springframework.web.cache.InMemoryResponseCacheStore;
+import org.springframework.web.cache.ResponseCacheStore;
+import org.springframework.web.cache.ResponseCacheUtils;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+/**
+ * {@link javax.servlet.Filter} that caches {@code GET} responses in a
+ * {@link ResponseCacheStore} and serves subsequent {@code GET} and {@code HEAD}
+ * requests for the same URL from the cache, without invoking the filter chain.
+ *
+ * <p>Only {@code 200} responses that declare their freshness through a
+ * {@code Cache-Control} "max-age" or "s-maxage" directive, or through an
+ * {@code Expires} header, are cached, e.g. as set via
+ * {@link org.springframework.http.CacheControl CacheControl}. Responses with
+ * "private", "no-cache" or "no-store" directives or with a {@code Set-Cookie}
+ * header are never cached, and neither are responses to requests with an
+ * {@code Authorization} header. Request headers listed in the {@code Vary}
+ * header of a cached response must match for it to be used.
+ *
+ * <p>Conditional requests are answered from the cache with a
+ * {@code 304 "Not Modified"} status if the cached {@code ETag} or
+ * {@code Last-Modified} value matches. An {@code ETag} can be
+ * {@link #setGenerateETag generated} for cached responses that don't have one.
+ *
+ * <p>The response body is buffered only for {@code GET} requests, and only
+ * kept if the response turns out to be cacheable. Once the body exceeds the
+ * {@link #setMaxBodySize maximum body size}, buffering stops and the content
+ * written so far as well as any further content is passed through to the
+ * response as it is written. Content caching can be
+ * disabled for streaming responses through
+ * {@link ShallowEtagHeaderFilter#disableContentCaching}.
+ *
+ * @author agent
+ * @since 5.2
+ * @see org.springframework.web.filter.reactive.ResponseCacheWebFilter
+ */
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+	private ResponseCacheStore store = new InMemoryResponseCacheStore();
+
+	@Nullable
+	private Function<HttpServletRequest, String> keyResolver;
+
+	private boolean generateETag = false;
+
+	private int maxBodySize = 1024 * 1024;
+
+
+	/**
+	 * Configure the store for cached responses, possibly shared with other
+	 * filter instances.
+	 * <p>By default an {@link InMemoryResponseCacheStore} is used.
+	 */
+	public void setStore(ResponseCacheStore store) {
+		Assert.notNull(store, "ResponseCacheStore must not be null");
+		this.store = store;
+	}
+
+	/**
+	 * Return the configured store for cached responses.
+	 */
+	public ResponseCacheStore getStore() {
+		return this.store;
+	}
+
+	/**
+	 * Configure a function that returns an additional cache key for a request,
+	 * combined with the request path and query, e.g. to keep separate cache
+	 * entries per tenant. The function may return {@code null}.
+	 * <p>By default this is not set.
+	 */
+	public void setKeyResolver(@Nullable Function<HttpServletRequest, String> keyResolver) {
+		this.keyResolver = keyResolver;
+	}
+
+	/**
+	 * Whether to generate an {@code ETag} from the body of cached responses
+	 * that don't have one. The value is computed once, when the response is
+	 * stored, as opposed to on every request as with
+	 * {@link ShallowEtagHeaderFilter}.
+	 * <p>By default this is set to {@code false}.
+	 */
+	public void setGenerateETag(boolean generateETag) {
+		this.generateETag = generateETag;
+	}
+
+	/**
+	 * Return whether an {@code ETag} is generated for cached responses.
+	 */
+	public boolean isGenerateETag() {
+		return this.generateETag;
+	}
+
+	/**
+	 * Configure the maximum size of a response body that may be cached.
+	 * This is also the maximum number of bytes buffered per response: larger
+	 * bodies are streamed through to the client without being cached.
+	 * <p>By default this is set to 1MB.
+	 */
+	public void setMaxBodySize(int maxBodySize) {
+		Assert.isTrue(maxBodySize >= 0, "'maxBodySize' must not be negative");
+		this.maxBodySize = maxBodySize;
+	}
+
+	/**
+	 * Return the maximum size of a response body that may be cached.
+	 */
+	public int getMaxBodySize() {
+		return this.maxBodySize;
+	}
+
+
+	/**
+	 * The default value is {@code false} so that the filter may delay caching
+	 * the response until the last asynchronously dispatched thread.
+	 */
+	@Override
+	protected boolean shouldNotFilterAsyncDispatch() {
+		return false;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+
+		String cacheControl = request.getHeader(HttpHeaders.CACHE_CONTROL);
+		if (!ResponseCacheUtils.isCacheableMethod(request.getMethod()) ||
+				!ResponseCacheUtils.isStoreAllowed(cacheControl, request.getHeader(HttpHeaders.AUTHORIZATION))) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+
+		String key = getCacheKey(request);
+		HttpServletResponse responseToUse = response;
+		if (!isAsyncDispatch(request)) {
+			if (ResponseCacheUtils.isCacheLookupAllowed(cacheControl, request.getHeader(HttpHeaders.PRAGMA))) {
+				CachedResponse cachedResponse = this.store.get(key);
+				if (cachedResponse != null) {
+					long now = System.currentTimeMillis();
+					if (cachedResponse.isExpired(now)) {
+						this.store.evict(key);
+					}
+					else if (cachedResponse.matchesVary(name -> getHeaderValue(request, name))) {
+						writeCachedResponse(request, response, cachedResponse, now);
+						return;
+					}
+				}
+			}
+			if (HttpMethod.HEAD.matches(request.getMethod())) {
+				filterChain.doFilter(request, response);
+				return;
+			}
+			if (!(response instanceof ContentCachingResponseWrapper)) {
+				responseToUse = new BodySizeLimitingResponseWrapper(response, request, this.maxBodySize);
+			}
+		}
+
+		filterChain.doFilter(request, responseToUse);
+
+		if (!isAsyncStarted(request) && !ShallowEtagHeaderFilter.isContentCachingDisabled(request)) {
+			updateResponse(request, responseToUse, key);
+		}
+	}
+
+	/**
+	 * Determine the cache key for the given request.
+	 * <p>The default implementation combines the request URI and query string
+	 * with the result of the {@link #setKeyResolver key resolver}, if any.
+	 * @param request the current request
+	 * @return the cache key
+	 */
+	protected String getCacheKey(HttpServletRequest request) {
+		String extraKey = (this.keyResolver != null ? this.keyResolver.apply(request) : null);
+		return ResponseCacheUtils.createKey(request.getRequestURI(), request.getQueryString(), extraKey);
+	}
+
+	private void writeCachedResponse(HttpServletRequest request, HttpServletResponse response,
+			CachedResponse cachedResponse, long now) throws IOException {
+
+		HttpHeaders headers = cachedResponse.getHeaders();
+		response.setHeader(HttpHeaders.AGE, Long.toString(cachedResponse.getAge(now)));
+		if (cachedResponse.isNotModified(
+				Collections.list(request.getHeaders(HttpHeaders.IF_NONE_MATCH)), getIfModifiedSince(request))) {
+			response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+			for (String headerName : ResponseCacheUtils.NOT_MODIFIED_HEADERS) {
+				List<String> values = headers.get(headerName);
+				if (values != null) {
+					values.forEach(value -> response.addHeader(headerName, value));
+				}
+			}
+			return;
+		}
+		response.setStatus(cachedResponse.getStatusCode());
+		headers.forEach((headerName, values) -> values.forEach(value -> response.addHeader(headerName, value)));
+		response.setContentLength(cachedResponse.getBody().length);
+		if (!HttpMethod.HEAD.matches(request.getMethod())) {
+			response.getOutputStream().write(cachedResponse.getBody());
+		}
+	}
+
+	private void updateResponse(HttpServletRequest request, HttpServletResponse response, String key)
+			throws IOException {
+
+		ContentCachingResponseWrapper responseWrapper =
+				WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+		if (responseWrapper == null) {
+			return;
+		}
+		HttpServletResponse rawResponse = (HttpServletResponse) responseWrapper.getResponse();
+		boolean overflow = (responseWrapper instanceof BodySizeLimitingResponseWrapper &&
+				((BodySizeLimitingResponseWrapper) responseWrapper).isOverflow());
+		if (!overflow && !rawResponse.isCommitted() && responseWrapper.getContentSize() <= this.maxBodySize) {
+			HttpHeaders headers = getResponseHeaders(responseWrapper);
+			long now = System.currentTimeMillis();
+			long timeToLive = ResponseCacheUtils.getTimeToLive(responseWrapper.getStatusCode(), headers, now);
+			if (timeToLive > 0) {
+				byte[] body = responseWrapper.getContentAsByteArray();
+				if (this.generateETag && headers.getETag() == null) {
+					String eTag = ResponseCacheUtils.generateETag(body);
+					headers.setETag(eTag);
+					rawResponse.setHeader(HttpHeaders.ETAG, eTag);
+				}
+				this.store.put(key, new CachedResponse(responseWrapper.getStatusCode(), headers, body, now,
+						timeToLive, ResponseCacheUtils.getVaryValues(headers, name -> getHeaderValue(request, name))));
+			}
+		}
+		responseWrapper.copyBodyToResponse();
+	}
+
+	private static HttpHeaders getResponseHeaders(HttpServletResponse response) {
+		HttpHeaders headers = new HttpHeaders();
+		for (String headerName : response.getHeaderNames()) {
+			if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(headerName) &&
+					!HttpHeaders.TRANSFER_ENCODING.equalsIgnoreCase(headerName)) {
+				headers.put(headerName, new ArrayList<>(response.getHeaders(headerName)));
+			}
+		}
+		String contentType = response.getContentType();
+		if (contentType != null && !headers.containsKey(HttpHeaders.CONTENT_TYPE)) {
+			headers.set(HttpHeaders.CONTENT_TYPE, contentType);
+		}
+		return headers;
+	}
+
+	@Nullable
+	private static String getHeaderValue(HttpServletRequest request, String headerName) {
+		Enumeration<String> values = request.getHeaders(headerName);
+		if (values == null || !values.hasMoreElements()) {
+			return null;
+		}
+		return String.join(", ", Collections.list(values));
+	}
+
+	private static long getIfModifiedSince(HttpServletRequest request) {
+		try {
+			return request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+		}
+		catch (IllegalArgumentException ex) {
+			return -1;
+		}
+	}
+
+
+	/**
+	 * Content caching wrapper that stops buffering once the body exceeds the
+	 * maximum body size: it then copies the content buffered so far to the
+	 * response and writes any further content to the response directly.
+	 */
+	private static class BodySizeLimitingResponseWrapper
+			extends ShallowEtagHeaderFilter.HttpStreamingAwareContentCachingResponseWrapper {
+
+		private final HttpServletRequest request;
+
+		private final int maxBodySize;
+
+		private boolean overflow;
+
+		@Nullable
+		private ServletOutputStream outputStream;
+
+		@Nullable
+		private PrintWriter writer;
+
+		public BodySizeLimitingResponseWrapper(HttpServletResponse response, HttpServletRequest request, int maxBodySize) {
+			super(response, request);
+			this.request = request;
+			this.maxBodySize = maxBodySize;
+		}
+
+		/**
+		 * Whether the body exceeded the maximum body size and has been passed
+		 * through to the response rather than buffered.
+		 */
+		public boolean isOverflow() {
+			return this.overflow;
+		}
+
+		@Override
+		public ServletOutputStream getOutputStream() throws IOException {
+			if (ShallowEtagHeaderFilter.isContentCachingDisabled(this.request)) {
+				return getResponse().getOutputStream();
+			}
+			if (this.outputStream == null) {
+				this.outputStream = new SizeLimitingOutputStream(super.getOutputStream());
+			}
+			return this.outputStream;
+		}
+
+		@Override
+		public PrintWriter getWriter() throws IOException {
+			if (ShallowEtagHeaderFilter.isContentCachingDisabled(this.request)) {
+				return getResponse().getWriter();
+			}
+			if (this.writer == null) {
+				String characterEncoding = getCharacterEncoding();
+				this.writer = new ResponsePrintWriter(getOutputStream(),
+						characterEncoding != null ? characterEncoding : WebUtils.DEFAULT_CHARACTER_ENCODING);
+			}
+			return this.writer;
+		}
+
+		@Override
+		public void setContentLength(int len) {
+			setContentLengthLong(len);
+		}
+
+		@Override
+		public void setContentLengthLong(long len) {
+			if (!this.overflow && len > this.maxBodySize) {
+				// Known to exceed the limit: don't even start to buffer
+				getResponse().setContentLengthLong(len);
+				handleOverflow();
+			}
+			else if (this.overflow) {
+				getResponse().setContentLengthLong(len);
+			}
+			else {
+				super.setContentLengthLong(len);
+			}
+		}
+
+		@Override
+		public void setBufferSize(int size) {
+			super.setBufferSize(Math.min(size, this.maxBodySize));
+		}
+
+		@Override
+		public void flushBuffer() throws IOException {
+			if (this.overflow) {
+				getResponse().flushBuffer();
+			}
+		}
+
+		private void handleOverflow() {
+			this.overflow = true;
+			try {
+				copyBodyToResponse(false);
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException("Failed to copy buffered content to response", ex);
+			}
+		}
+
+
+		private class SizeLimitingOutputStream extends ServletOutputStream {
+
+			private final ServletOutputStream cachingStream;
+
+			public SizeLimitingOutputStream(ServletOutputStream cachingStream) {
+				this.cachingStream = cachingStream;
+			}
+
+			@Override
+			public void write(int b) throws IOException {
+				obtainTargetStream(1).write(b);
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				obtainTargetStream(len).write(b, off, len);
+			}
+
+			private ServletOutputStream obtainTargetStream(int len) throws IOException {
+				if (!overflow && getContentSize() + len > maxBodySize) {
+					overflow = true;
+					copyBodyToResponse(false);
+				}
+				return (overflow ? getResponse().getOutputStream() : this.cachingStream);
+			}
+
+			@Override
+			public void flush() throws IOException {
+				if (overflow) {
+					getResponse().getOutputStream().flush();
+				}
+			}
+
+			@Override
+			public boolean isReady() {
+				return this.cachingStream.isReady();
+			}
+
+			@Override
+			public void setWriteListener(WriteListener writeListener) {
+				this.cachingStream.setWriteListener(writeListener);
+			}
+		}
+	}
+
+
+	/**
+	 * PrintWriter that passes each write on to the underlying stream right away,
+	 * but flushes that stream only on an explicit {@link #flush()}.
+	 */
+	private static class ResponsePrintWriter extends PrintWriter {
+
+		private final ServletOutputStream outputStream;
+
+		public ResponsePrintWriter(ServletOutputStream outputStream, String characterEncoding)
+				throws UnsupportedEncodingException {
+
+			super(new OutputStreamWriter(new FilterOutputStream(outputStream) {
+				@Override
+				public void write(byte[] b, int off, int len) throws IOException {
+					this.out.write(b, off, len);
+				}
+				@Override
+				public void flush() {
+				}
+			}, characterEncoding));
+			this.outputStream = outputStream;
+		}
+
+		@Override
+		public void write(char[] buf, int off, int len) {
+			super.write(buf, off, len);
+			super.flush();
+		}
+
+		@Override
+		public void write(String s, int off, int len) {
+			super.write(s, off, len);
+			super.flush();
+		}
+
+		@Override
+		public void write(int c) {
+			super.write(c);
+			super.flush();
+		}
+
+		@Override
+		public void flush() {
+			super.flush();
+			try {
+				this.outputStream.flush();
+			}
+			catch (IOException ex) {
+				setError();
+			}
+		}
+	}
+
+}
@@ -206,12 +206,17 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 		request.setAttribute(STREAMING_ATTRIBUTE, true);
 	}
 
-	private static boolean isContentCachingDisabled(HttpServletRequest request) {
+	static boolean isContentCachingDisabled(HttpServletRequest request) {
 		return (request.getAttribute(STREAMING_ATTRIBUTE) != null);
 	}
 
 
-	private static class HttpStreamingAwareContentCachingResponseWrapper extends ContentCachingResponseWrapper {
+	/**
+	 * Content caching wrapper that falls back on the raw response once content
+	 * caching has been {@link #disableContentCaching disabled}. Also used by
+	 * {@link ResponseCacheFilter}.
+	 */
+	static class HttpStreamingAwareContentCachingResponseWrapper extends ContentCachingResponseWrapper {
 
 		private final HttpServletRequest request;
 
@@ -0,0 +1,341 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.filter.reactive;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.CollectionUtils;
+import org.springframework.web.cache.CachedResponse;
+import org.springframework.web.cache.InMemoryResponseCacheStore;
+import org.springframework.web.cache.ResponseCacheStore;
+import org.springframework.web.cache.ResponseCacheUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+/**
+ * Reactive {@link WebFilter} that caches {@code GET} responses in a
+ * {@link ResponseCacheStore} and serves subsequent {@code GET} and {@code HEAD}
+ * requests for the same URL from the cache, without invoking the filter chain.
+ * This is the reactive equivalent of
+ * {@link org.springframework.web.filter.ResponseCacheFilter ResponseCacheFilter},
+ * with the same rules for which responses are cached and for how long.
+ *
+ * <p>The response body is aggregated only if the response is cacheable, as
+ * determined from its status and headers at the time it is written, and only
+ * up to the {@link #setMaxBodySize maximum body size}: once that is exceeded,
+ * the buffers held so far and all further buffers are passed through. Responses
+ * written with {@link ServerHttpResponse#writeAndFlushWith} are not cached.
+ *
+ * <p><strong>Note:</strong> the store is accessed on the calling thread and
+ * must not block, which is the case with the default
+ * {@link InMemoryResponseCacheStore}.
+ *
+ * @author agent
+ * @since 5.2
+ */
+public class ResponseCacheWebFilter implements WebFilter {
+
+	private ResponseCacheStore store = new InMemoryResponseCacheStore();
+
+	@Nullable
+	private Function<ServerWebExchange, String> keyResolver;
+
+	private boolean generateETag = false;
+
+	private int maxBodySize = 1024 * 1024;
+
+
+	/**
+	 * Configure the store for cached responses, possibly shared with other
+	 * filter instances.
+	 * <p>By default an {@link InMemoryResponseCacheStore} is used.
+	 */
+	public void setStore(ResponseCacheStore store) {
+		Assert.notNull(store, "ResponseCacheStore must not be null");
+		this.store = store;
+	}
+
+	/**
+	 * Return the configured store for cached responses.
+	 */
+	public ResponseCacheStore getStore() {
+		return this.store;
+	}
+
+	/**
+	 * Configure a function that returns an additional cache key for an exchange,
+	 * combined with the request path and query, e.g. to keep separate cache
+	 * entries per tenant. The function may return {@code null}.
+	 * <p>By default this is not set.
+	 */
+	public void setKeyResolver(@Nullable Function<ServerWebExchange, String> keyResolver) {
+		this.keyResolver = keyResolver;
+	}
+
+	/**
+	 * Whether to generate an {@code ETag} from the body of cached responses
+	 * that don't have one. The value is computed once, when the response is stored.
+	 * <p>By default this is set to {@code false}.
+	 */
+	public void setGenerateETag(boolean generateETag) {
+		this.generateETag = generateETag;
+	}
+
+	/**
+	 * Return whether an {@code ETag} is generated for cached responses.
+	 */
+	public boolean isGenerateETag() {
+		return this.generateETag;
+	}
+
+	/**
+	 * Configure the maximum size of a response body that may be cached.
+	 * This is also the maximum number of bytes held back per response: larger
+	 * bodies are streamed through to the client without being cached.
+	 * <p>By default this is set to 1MB.
+	 */
+	public void setMaxBodySize(int maxBodySize) {
+		Assert.isTrue(maxBodySize >= 0, "'maxBodySize' must not be negative");
+		this.maxBodySize = maxBodySize;
+	}
+
+	/**
+	 * Return the maximum size of a response body that may be cached.
+	 */
+	public int getMaxBodySize() {
+		return this.maxBodySize;
+	}
+
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+		ServerHttpRequest request = exchange.getRequest();
+		HttpHeaders requestHeaders = request.getHeaders();
+		String cacheControl = requestHeaders.getCacheControl();
+		if (!ResponseCacheUtils.isCacheableMethod(request.getMethodValue()) ||
+				!ResponseCacheUtils.isStoreAllowed(cacheControl, requestHeaders.getFirst(HttpHeaders.AUTHORIZATION))) {
+			return chain.filter(exchange);
+		}
+
+		String key = getCacheKey(exchange);
+		if (ResponseCacheUtils.isCacheLookupAllowed(cacheControl, requestHeaders.getPragma())) {
+			CachedResponse cachedResponse = this.store.get(key);
+			if (cachedResponse != null) {
+				long now = System.currentTimeMillis();
+				if (cachedResponse.isExpired(now)) {
+					this.store.evict(key);
+				}
+				else if (cachedResponse.matchesVary(name -> getHeaderValue(requestHeaders, name))) {
+					return writeCachedResponse(exchange, cachedResponse, now);
+				}
+			}
+		}
+
+		if (HttpMethod.HEAD.equals(request.getMethod())) {
+			return chain.filter(exchange);
+		}
+		ServerHttpResponse response = new ResponseCachingDecorator(exchange.getResponse(), requestHeaders, key);
+		return chain.filter(exchange.mutate().response(response).build());
+	}
+
+	/**
+	 * Determine the cache key for the given exchange.
+	 * <p>The default implementation combines the raw request path and query
+	 * with the result of the {@link #setKeyResolver key resolver}, if any.
+	 * @param exchange the current exchange
+	 * @return the cache key
+	 */
+	protected String getCacheKey(ServerWebExchange exchange) {
+		String extraKey = (this.keyResolver != null ? this.keyResolver.apply(exchange) : null);
+		ServerHttpRequest request = exchange.getRequest();
+		return ResponseCacheUtils.createKey(request.getURI().getRawPath(), request.getURI().getRawQuery(), extraKey);
+	}
+
+	private Mono<Void> writeCachedResponse(ServerWebExchange exchange, CachedResponse cachedResponse, long now) {
+		ServerHttpRequest request = exchange.getRequest();
+		ServerHttpResponse response = exchange.getResponse();
+		HttpHeaders headers = cachedResponse.getHeaders();
+		response.getHeaders().set(HttpHeaders.AGE, Long.toString(cachedResponse.getAge(now)));
+		if (cachedResponse.isNotModified(request.getHeaders().getIfNoneMatch(), getIfModifiedSince(request))) {
+			response.setStatusCode(HttpStatus.NOT_MODIFIED);
+			for (String headerName : ResponseCacheUtils.NOT_MODIFIED_HEADERS) {
+				List<String> values = headers.get(headerName);
+				if (values != null) {
+					response.getHeaders().put(headerName, new ArrayList<>(values));
+				}
+			}
+			return response.setComplete();
+		}
+		response.setStatusCode(HttpStatus.resolve(cachedResponse.getStatusCode()));
+		headers.forEach((headerName, values) -> response.getHeaders().put(headerName, new ArrayList<>(values)));
+		response.getHeaders().setContentLength(cachedResponse.getBody().length);
+		if (HttpMethod.HEAD.equals(request.getMethod())) {
+			return response.setComplete();
+		}
+		return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(cachedResponse.getBody())));
+	}
+
+	@Nullable
+	private static String getHeaderValue(HttpHeaders headers, String headerName) {
+		List<String> values = headers.get(headerName);
+		return (!CollectionUtils.isEmpty(values) ? String.join(", ", values) : null);
+	}
+
+	private static long getIfModifiedSince(ServerHttpRequest request) {
+		try {
+			return request.getHeaders().getIfModifiedSince();
+		}
+		catch (IllegalArgumentException ex) {
+			return -1;
+		}
+	}
+
+
+	/**
+	 * Response decorator that aggregates and stores the body of cacheable responses.
+	 */
+	private class ResponseCachingDecorator extends ServerHttpResponseDecorator {
+
+		private final HttpHeaders requestHeaders;
+
+		private final String key;
+
+		public ResponseCachingDecorator(ServerHttpResponse delegate, HttpHeaders requestHeaders, String key) {
+			super(delegate);
+			this.requestHeaders = requestHeaders;
+			this.key = key;
+		}
+
+		@Override
+		public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+			HttpStatus status = getStatusCode();
+			int statusCode = (status != null ? status.value() : HttpStatus.OK.value());
+			long now = System.currentTimeMillis();
+			long timeToLive = ResponseCacheUtils.getTimeToLive(statusCode, getHeaders(), now);
+			if (timeToLive <= 0) {
+				return super.writeWith(body);
+			}
+			if (getHeaders().getContentLength() > getMaxBodySize()) {
+				return super.writeWith(body);
+			}
+			BodyAggregator aggregator = new BodyAggregator(statusCode, now, timeToLive);
+			return super.writeWith(Flux.<DataBuffer>from(body)
+					.flatMapIterable(aggregator::add)
+					.concatWith(Flux.defer(aggregator::complete))
+					.doOnCancel(aggregator::release)
+					.doOnError(ex -> aggregator.release()));
+		}
+
+		private void storeResponse(int statusCode, byte[] bytes, long now, long timeToLive) {
+			HttpHeaders headers = new HttpHeaders();
+			getHeaders().forEach((headerName, values) -> headers.put(headerName, new ArrayList<>(values)));
+			headers.remove(HttpHeaders.CONTENT_LENGTH);
+			headers.remove(HttpHeaders.TRANSFER_ENCODING);
+			if (isGenerateETag() && headers.getETag() == null) {
+				String eTag = ResponseCacheUtils.generateETag(bytes);
+				headers.setETag(eTag);
+				getHeaders().setETag(eTag);
+			}
+			getStore().put(this.key, new CachedResponse(statusCode, headers, bytes, now, timeToLive,
+					ResponseCacheUtils.getVaryValues(headers, name -> getHeaderValue(this.requestHeaders, name))));
+		}
+
+
+		/**
+		 * Holds back the buffers of a cacheable response until it completes,
+		 * counting bytes per buffer, and releases them for writing as soon as
+		 * the maximum body size is exceeded.
+		 */
+		private class BodyAggregator {
+
+			private final int statusCode;
+
+			private final long now;
+
+			private final long timeToLive;
+
+			private List<DataBuffer> buffers = new ArrayList<>();
+
+			private int byteCount;
+
+			private boolean overflow;
+
+			public BodyAggregator(int statusCode, long now, long timeToLive) {
+				this.statusCode = statusCode;
+				this.now = now;
+				this.timeToLive = timeToLive;
+			}
+
+			public synchronized List<DataBuffer> add(DataBuffer buffer) {
+				if (this.overflow) {
+					return Collections.singletonList(buffer);
+				}
+				this.byteCount += buffer.readableByteCount();
+				this.buffers.add(buffer);
+				if (this.byteCount > getMaxBodySize()) {
+					this.overflow = true;
+					return takeBuffers();
+				}
+				return Collections.emptyList();
+			}
+
+			public synchronized Flux<DataBuffer> complete() {
+				if (this.overflow) {
+					return Flux.empty();
+				}
+				byte[] bytes = new byte[this.byteCount];
+				int offset = 0;
+				for (DataBuffer buffer : this.buffers) {
+					int count = buffer.readableByteCount();
+					buffer.asByteBuffer().get(bytes, offset, count);
+					offset += count;
+				}
+				storeResponse(this.statusCode, bytes, this.now, this.timeToLive);
+				return Flux.fromIterable(takeBuffers());
+			}
+
+			public synchronized void release() {
+				takeBuffers().forEach(DataBufferUtils::release);
+			}
+
+			private List<DataBuffer> takeBuffers() {
+				List<DataBuffer> buffers = this.buffers;
+				this.buffers = new ArrayList<>();
+				return buffers;
+			}
+		}
+	}
+
+}
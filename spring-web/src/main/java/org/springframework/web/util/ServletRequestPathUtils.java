@@ -0,0 +1,144 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util;
+
+import javax.servlet.ServletRequest;
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.http.server.RequestPath;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * Utility class to parse the path of an {@link HttpServletRequest} to a
+ * {@link RequestPath} and cache it in a request attribute for further access.
+ * This can then be used for URL path matching with
+ * {@link org.springframework.web.util.pattern.PathPattern PathPattern}s.
+ *
+ * <p>The path within the application is the path within the Servlet mapping
+ * in the case of a prefix based Servlet mapping such as "/myServlet/*", and
+ * otherwise the path within the context path. Unlike
+ * {@link UrlPathHelper#getLookupPathForRequest}, the parsed path is neither
+ * decoded nor stripped of semicolon content: path segments keep their raw
+ * value and expose path parameters separately.
+ *
+ * @author agent
+ * @since 5.2
+ */
+public abstract class ServletRequestPathUtils {
+
+	/**
+	 * Name of the request attribute that holds the parsed {@link RequestPath}.
+	 */
+	public static final String PATH_ATTRIBUTE = ServletRequestPathUtils.class.getName() + ".PATH";
+
+
+	/**
+	 * Parse the {@link HttpServletRequest#getRequestURI() requestURI} to a
+	 * {@link RequestPath} and save it in the request attribute
+	 * {@link #PATH_ATTRIBUTE} for subsequent use with
+	 * {@link org.springframework.web.util.pattern.PathPattern parsed patterns}.
+	 * <p>The returned {@code RequestPath} will have both the contextPath and
+	 * any servletPath (for a prefix based Servlet mapping) removed from its
+	 * {@link RequestPath#pathWithinApplication() pathWithinApplication}.
+	 * @param request the current request
+	 * @return the parsed path, also saved as a request attribute
+	 */
+	public static RequestPath parseAndCache(HttpServletRequest request) {
+		RequestPath requestPath = parse(request);
+		request.setAttribute(PATH_ATTRIBUTE, requestPath);
+		return requestPath;
+	}
+
+	/**
+	 * Return a {@link #parseAndCache previously} parsed {@link RequestPath}.
+	 * @param request the current request
+	 * @return the parsed path
+	 * @throws IllegalArgumentException if the path has not been parsed
+	 */
+	public static RequestPath getParsedRequestPath(ServletRequest request) {
+		RequestPath path = (RequestPath) request.getAttribute(PATH_ATTRIBUTE);
+		Assert.notNull(path, "Expected parsed RequestPath in request attribute \"" + PATH_ATTRIBUTE + "\".");
+		return path;
+	}
+
+	/**
+	 * Check for a {@link #parseAndCache previously} parsed {@link RequestPath}.
+	 * @param request the current request
+	 * @return whether a parsed path is present
+	 */
+	public static boolean hasParsedRequestPath(ServletRequest request) {
+		return (request.getAttribute(PATH_ATTRIBUTE) != null);
+	}
+
+	/**
+	 * Set the cached, parsed {@code RequestPath} to the given value,
+	 * or remove it if the value is {@code null}.
+	 * @param requestPath the value to set to, or if {@code null} the cache
+	 * value is cleared
+	 * @param request the current request
+	 */
+	public static void setParsedRequestPath(@Nullable RequestPath requestPath, ServletRequest request) {
+		if (requestPath != null) {
+			request.setAttribute(PATH_ATTRIBUTE, requestPath);
+		}
+		else {
+			request.removeAttribute(PATH_ATTRIBUTE);
+		}
+	}
+
+	/**
+	 * Remove the request attribute {@link #PATH_ATTRIBUTE} that holds a
+	 * {@link #parseAndCache previously} parsed {@link RequestPath}.
+	 * @param request the current request
+	 */
+	public static void clearParsedRequestPath(ServletRequest request) {
+		request.removeAttribute(PATH_ATTRIBUTE);
+	}
+
+
+	private static RequestPath parse(HttpServletRequest request) {
+		boolean include = WebUtils.isIncludeRequest(request);
+		String requestUri = (include ?
+				(String) request.getAttribute(WebUtils.INCLUDE_REQUEST_URI_ATTRIBUTE) : request.getRequestURI());
+		String contextPath = (include ?
+				(String) request.getAttribute(WebUtils.INCLUDE_CONTEXT_PATH_ATTRIBUTE) : request.getContextPath());
+		String servletPath = (include ?
+				(String) request.getAttribute(WebUtils.INCLUDE_SERVLET_PATH_ATTRIBUTE) : request.getServletPath());
+		String pathInfo = (include ?
+				(String) request.getAttribute(WebUtils.INCLUDE_PATH_INFO_ATTRIBUTE) : request.getPathInfo());
+		if (requestUri == null) {
+			requestUri = "";
+		}
+		if (contextPath == null || "/".equals(contextPath)) {
+			contextPath = "";
+		}
+		if (StringUtils.hasText(servletPath) && pathInfo != null) {
+			// Prefix based Servlet mapping: treat the Servlet path as part of the context path,
+			// provided that it matches the raw request URI (i.e. it does not need decoding)
+			String servletContextPath = contextPath + servletPath;
+			if (!servletContextPath.endsWith("/") && requestUri.startsWith(servletContextPath) &&
+					(requestUri.length() == servletContextPath.length() ||
+							requestUri.charAt(servletContextPath.length()) == '/')) {
+				contextPath = servletContextPath;
+			}
+		}
+		return RequestPath.parse(requestUri, contextPath);
+	}
+
+}
@@ -134,6 +134,43 @@ public class HttpHeadersTests {
 		assertEquals("Invalid Content-Type header", "text/html;charset=UTF-8", headers.getFirst("Content-Type"));
 	}
 
+	@Test
+	public void contentTypeParsedOnceAndUpdatedOnModification() {
+		headers.set(HttpHeaders.CONTENT_TYPE, "text/html;charset=UTF-8");
+		MediaType contentType = headers.getContentType();
+		assertSame(contentType, headers.getContentType());
+
+		headers.get("content-type").set(0, "text/plain");
+		assertEquals(MediaType.TEXT_PLAIN, headers.getContentType());
+
+		headers.remove("CONTENT-TYPE");
+		assertNull(headers.getContentType());
+	}
+
+	@Test
+	public void acceptParsedOnceAndUpdatedOnModification() {
+		headers.set(HttpHeaders.ACCEPT, "text/html, text/plain");
+		List<MediaType> accept = headers.getAccept();
+		assertEquals(Arrays.asList(MediaType.TEXT_HTML, MediaType.TEXT_PLAIN), accept);
+
+		accept.clear();
+		assertEquals("Modifying the returned list should not affect the headers",
+				Arrays.asList(MediaType.TEXT_HTML, MediaType.TEXT_PLAIN), headers.getAccept());
+
+		headers.add("accept", "application/json");
+		assertEquals(Arrays.asList(MediaType.TEXT_HTML, MediaType.TEXT_PLAIN, MediaType.APPLICATION_JSON),
+				headers.getAccept());
+	}
+
+	@Test
+	public void headerNameLookupIsCaseInsensitive() {
+		headers.set("cache-control", "no-cache");
+		assertEquals("no-cache", headers.getFirst(HttpHeaders.CACHE_CONTROL));
+		headers.set("X-Custom", "a");
+		assertEquals("a", headers.getFirst("x-custom"));
+		assertEquals(Arrays.asList("cache-control", "X-Custom"), new ArrayList<>(headers.keySet()));
+	}
+
 	@Test
 	public void location() throws URISyntaxException {
 		URI location = new URI("http://www.example.com/hotels");
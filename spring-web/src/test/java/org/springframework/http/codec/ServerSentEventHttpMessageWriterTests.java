@@ -227,6 +227,77 @@ public class ServerSentEventHttpMessageWriterTests extends AbstractDataBufferAll
 				.verify();
 	}
 
+	@Test
+	public void writeSingleBufferPerEvent() {
+		this.messageWriter.setFlushInterval(Duration.ZERO);
+		ServerSentEvent<?> event = ServerSentEvent.builder().data("foo\nbar").id("c42").event("foo").build();
+
+		Flux<ServerSentEvent> source = Flux.just(event, ServerSentEvent.builder().comment("baz").build());
+		testWrite(source, outputMessage, ServerSentEvent.class);
+
+		StepVerifier.create(outputMessage.getBody())
+				.consumeNextWith(stringConsumer("id:c42\nevent:foo\ndata:foo\ndata:bar\n\n"))
+				.consumeNextWith(stringConsumer(":baz\n\n"))
+				.expectComplete()
+				.verify();
+	}
+
+	@Test
+	public void writePojoSingleBufferPerEvent() {
+		this.messageWriter.setFlushInterval(Duration.ZERO);
+
+		Flux<Pojo> source = Flux.just(new Pojo("foofoo", "barbar"), new Pojo("foofoofoo", "barbarbar"));
+		testWrite(source, outputMessage, Pojo.class);
+
+		StepVerifier.create(outputMessage.getBody())
+				.consumeNextWith(stringConsumer("data:{\"foo\":\"foofoo\",\"bar\":\"barbar\"}\n\n"))
+				.consumeNextWith(stringConsumer("data:{\"foo\":\"foofoofoo\",\"bar\":\"barbarbar\"}\n\n"))
+				.expectComplete()
+				.verify();
+	}
+
+	@Test
+	public void writeBatched() {
+		this.messageWriter.setFlushInterval(Duration.ofSeconds(1));
+
+		StepVerifier.withVirtualTime(() -> {
+					Flux<String> source = Flux.just("foo", "bar")
+							.concatWith(Mono.delay(Duration.ofSeconds(2)).map(l -> "baz"));
+					return this.messageWriter.write(source, forClass(String.class),
+							MediaType.TEXT_EVENT_STREAM, outputMessage, HINTS);
+				})
+				.thenAwait(Duration.ofSeconds(3))
+				.verifyComplete();
+
+		StepVerifier.create(outputMessage.getBody())
+				.consumeNextWith(stringConsumer("data:foo\n\ndata:bar\n\n"))
+				.consumeNextWith(stringConsumer("data:baz\n\n"))
+				.expectComplete()
+				.verify();
+	}
+
+	@Test
+	public void writeKeepAlive() {
+		this.messageWriter.setKeepAliveInterval(Duration.ofSeconds(2));
+
+		StepVerifier.withVirtualTime(() -> {
+					Mono<String> source = Mono.delay(Duration.ofSeconds(5)).map(l -> "foo");
+					return this.messageWriter.write(source, forClass(String.class),
+							MediaType.TEXT_EVENT_STREAM, outputMessage, HINTS);
+				})
+				.thenAwait(Duration.ofSeconds(5))
+				.verifyComplete();
+
+		StepVerifier.create(outputMessage.getBody())
+				.consumeNextWith(stringConsumer(":\n\n"))
+				.consumeNextWith(stringConsumer(":\n\n"))
+				.consumeNextWith(stringConsumer("data:"))
+				.consumeNextWith(stringConsumer("foo\n"))
+				.consumeNextWith(stringConsumer("\n"))
+				.expectComplete()
+				.verify();
+	}
+
 
 	private <T> void testWrite(Publisher<T> source, MockServerHttpResponse response, Class<T> clazz) {
 		testWrite(source, MediaType.TEXT_EVENT_STREAM, response, clazz);
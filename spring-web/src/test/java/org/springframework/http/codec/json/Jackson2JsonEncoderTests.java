@@ -123,11 +123,17 @@ public class Jackson2JsonEncoderTests extends AbstractEncoderTestCase<Jackson2Js
 		);
 
 		testEncode(input, Pojo.class, step -> step
-				.consumeNextWith(expectString("[" +
-						"{\"foo\":\"foo\",\"bar\":\"bar\"}," +
-						"{\"foo\":\"foofoo\",\"bar\":\"barbar\"}," +
-						"{\"foo\":\"foofoofoo\",\"bar\":\"barbarbar\"}]")
-						.andThen(DataBufferUtils::release))
+				.consumeNextWith(expectString("[{\"foo\":\"foo\",\"bar\":\"bar\"}"))
+				.consumeNextWith(expectString(",{\"foo\":\"foofoo\",\"bar\":\"barbar\"}"))
+				.consumeNextWith(expectString(",{\"foo\":\"foofoofoo\",\"bar\":\"barbarbar\"}"))
+				.consumeNextWith(expectString("]"))
+				.verifyComplete());
+	}
+
+	@Test
+	public void encodeNonStreamEmpty() {
+		testEncode(Flux.empty(), Pojo.class, step -> step
+				.consumeNextWith(expectString("[]"))
 				.verifyComplete());
 	}
 
@@ -136,8 +142,9 @@ public class Jackson2JsonEncoderTests extends AbstractEncoderTestCase<Jackson2Js
 		Flux<ParentClass> input = Flux.just(new Foo(), new Bar());
 
 		testEncode(input, ParentClass.class, step -> step
-				.consumeNextWith(expectString("[{\"type\":\"foo\"},{\"type\":\"bar\"}]")
-						.andThen(DataBufferUtils::release))
+				.consumeNextWith(expectString("[{\"type\":\"foo\"}"))
+				.consumeNextWith(expectString(",{\"type\":\"bar\"}"))
+				.consumeNextWith(expectString("]"))
 				.verifyComplete());
 	}
 
@@ -22,14 +22,17 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.function.Consumer;
 
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.Test;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
 import org.springframework.core.ResolvableType;
 import org.springframework.core.codec.AbstractEncoderTestCase;
 import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.core.io.buffer.support.DataBufferTestUtils;
 import org.springframework.http.codec.Pojo;
 import org.springframework.http.codec.ServerSentEvent;
@@ -104,9 +107,23 @@ public class Jackson2SmileEncoderTests extends AbstractEncoderTestCase<Jackson2S
 				new Pojo("foofoofoo", "barbarbar"));
 
 		Flux<Pojo> input = Flux.fromIterable(list);
-
-		testEncode(input, Pojo.class, step -> step
-				.consumeNextWith(expect(list, List.class)));
+		Flux<DataBuffer> result = this.encoder.encode(input, this.bufferFactory,
+				ResolvableType.forClass(Pojo.class), SMILE_MIME_TYPE, null);
+
+		StepVerifier.create(DataBufferUtils.join(result))
+				.consumeNextWith(dataBuffer -> {
+					try {
+						JavaType listType = this.mapper.getTypeFactory().constructCollectionType(List.class, Pojo.class);
+						assertEquals(list, this.mapper.readerFor(listType).readValue(dataBuffer.asInputStream()));
+					}
+					catch (IOException ex) {
+						throw new UncheckedIOException(ex);
+					}
+					finally {
+						release(dataBuffer);
+					}
+				})
+				.verifyComplete();
 	}
 
 	@Test
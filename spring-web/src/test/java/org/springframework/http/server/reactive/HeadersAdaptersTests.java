@@ -17,6 +17,7 @@
 package org.springframework.http.server.reactive;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Locale;
 
 import io.netty.handler.codec.http.DefaultHttpHeaders;
@@ -69,6 +70,14 @@ public class HeadersAdaptersTests {
 		assertNull(this.headers.get("Unknown"));
 	}
 
+	@Test
+	public void getShouldBeCaseInsensitiveForSingleAndMultipleValues() {
+		this.headers.add("TestHeader", "first");
+		assertEquals(Collections.singletonList("first"), this.headers.get("testheader"));
+		this.headers.add("TestHeader", "second");
+		assertEquals(Arrays.asList("first", "second"), this.headers.get("TESTHEADER"));
+	}
+
 	@Test
 	public void getFirstWithUnknownHeaderShouldReturnNull() {
 		assertNull(this.headers.getFirst("Unknown"));
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.cache;
+
+import java.util.Collections;
+
+import org.junit.Test;
+
+import org.springframework.http.HttpHeaders;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link InMemoryResponseCacheStore}.
+ *
+ * @author agent
+ */
+public class InMemoryResponseCacheStoreTests {
+
+	@Test
+	public void evictLeastRecentlyUsedByCount() {
+		InMemoryResponseCacheStore store = new InMemoryResponseCacheStore(2, 1024);
+		store.put("a", response(10));
+		store.put("b", response(10));
+		assertNotNull(store.get("a"));
+		store.put("c", response(10));
+
+		assertEquals(2, store.size());
+		assertNotNull(store.get("a"));
+		assertNull(store.get("b"));
+		assertNotNull(store.get("c"));
+		assertEquals(20, store.getTotalSize());
+	}
+
+	@Test
+	public void evictLeastRecentlyUsedBySize() {
+		InMemoryResponseCacheStore store = new InMemoryResponseCacheStore(10, 100);
+		store.put("a", response(40));
+		store.put("b", response(40));
+		store.put("c", response(40));
+
+		assertEquals(2, store.size());
+		assertNull(store.get("a"));
+		assertEquals(80, store.getTotalSize());
+
+		store.put("d", response(200));
+		assertNull(store.get("d"));
+		assertEquals(2, store.size());
+	}
+
+	@Test
+	public void replaceAndEvict() {
+		InMemoryResponseCacheStore store = new InMemoryResponseCacheStore();
+		store.put("a", response(10));
+		store.put("a", response(30));
+		assertEquals(30, store.getTotalSize());
+
+		store.evict("a");
+		assertEquals(0, store.size());
+		assertEquals(0, store.getTotalSize());
+	}
+
+	@Test
+	public void timeToLive() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setCacheControl("public, max-age=60, s-maxage=120");
+		assertEquals(120000, ResponseCacheUtils.getTimeToLive(200, headers, 0));
+		assertEquals(0, ResponseCacheUtils.getTimeToLive(404, headers, 0));
+
+		headers.setCacheControl("max-age=60");
+		assertEquals(60000, ResponseCacheUtils.getTimeToLive(200, headers, 0));
+
+		headers.setCacheControl("no-cache, max-age=60");
+		assertEquals(0, ResponseCacheUtils.getTimeToLive(200, headers, 0));
+
+		headers = new HttpHeaders();
+		headers.setExpires(100000);
+		assertEquals(50000, ResponseCacheUtils.getTimeToLive(200, headers, 50000));
+		assertEquals(0, ResponseCacheUtils.getTimeToLive(200, new HttpHeaders(), 0));
+	}
+
+
+	private static CachedResponse response(int size) {
+		return new CachedResponse(200, new HttpHeaders(), new byte[size], 0, 60000, Collections.emptyMap());
+	}
+
+}
@@ -21,6 +21,7 @@ import org.junit.Test;
 
 import org.springframework.http.HttpMethod;
 import org.springframework.mock.web.test.MockHttpServletRequest;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * Unit tests for {@link UrlBasedCorsConfigurationSource}.
@@ -48,6 +49,21 @@ public class UrlBasedCorsConfigurationSourceTests {
 		assertEquals(config, this.configSource.getCorsConfiguration(request));
 	}
 
+	@Test
+	public void registerAndMatchWithPathPatterns() {
+		CorsConfiguration config = new CorsConfiguration();
+		this.configSource.setPatternParser(new PathPatternParser());
+		this.configSource.registerCorsConfiguration("/bar/**", config);
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/foo/test.html");
+		request.setContextPath("/app");
+		assertNull(this.configSource.getCorsConfiguration(request));
+
+		request = new MockHttpServletRequest("GET", "/app/bar/test.html");
+		request.setContextPath("/app");
+		assertEquals(config, this.configSource.getCorsConfiguration(request));
+	}
+
 	@Test(expected = UnsupportedOperationException.class)
 	public void unmodifiableConfigurationsMap() {
 		this.configSource.getCorsConfigurations().put("/**", new CorsConfiguration());
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util;
+
+import org.junit.Test;
+
+import org.springframework.http.server.RequestPath;
+import org.springframework.mock.web.test.MockHttpServletRequest;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link ServletRequestPathUtils}.
+ *
+ * @author agent
+ */
+public class ServletRequestPathUtilsTests {
+
+	@Test
+	public void parseAndCache() {
+		// basic
+		testParseAndCache("/app/servlet/a/b/c", "/app", "/servlet", "/a/b/c", "/app/servlet", "/a/b/c");
+
+		// no context path
+		testParseAndCache("/servlet/a/b/c", "", "/servlet", "/a/b/c", "/servlet", "/a/b/c");
+
+		// default Servlet mapping
+		testParseAndCache("/app/a/b/c", "/app", "/a/b/c", null, "/app", "/a/b/c");
+
+		// path parameters are kept in the parsed path
+		testParseAndCache("/app/servlet/a;x=1/b", "/app", "/servlet", "/a/b", "/app/servlet", "/a;x=1/b");
+
+		// encoded Servlet path is not removed from the path within the application
+		testParseAndCache("/app/serv%20let/a", "/app", "/serv let", "/a", "/app", "/serv%20let/a");
+	}
+
+	@Test
+	public void parseAndCacheForInclude() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/original");
+		request.setContextPath("/app");
+		request.setAttribute(WebUtils.INCLUDE_REQUEST_URI_ATTRIBUTE, "/app/included/a");
+		request.setAttribute(WebUtils.INCLUDE_CONTEXT_PATH_ATTRIBUTE, "/app");
+		request.setAttribute(WebUtils.INCLUDE_SERVLET_PATH_ATTRIBUTE, "/included/a");
+
+		RequestPath requestPath = ServletRequestPathUtils.parseAndCache(request);
+		assertEquals("/app", requestPath.contextPath().value());
+		assertEquals("/included/a", requestPath.pathWithinApplication().value());
+	}
+
+	@Test
+	public void setAndClearParsedRequestPath() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/a");
+		assertFalse(ServletRequestPathUtils.hasParsedRequestPath(request));
+
+		RequestPath requestPath = ServletRequestPathUtils.parseAndCache(request);
+		assertTrue(ServletRequestPathUtils.hasParsedRequestPath(request));
+		assertSame(requestPath, ServletRequestPathUtils.getParsedRequestPath(request));
+
+		ServletRequestPathUtils.clearParsedRequestPath(request);
+		assertFalse(ServletRequestPathUtils.hasParsedRequestPath(request));
+
+		ServletRequestPathUtils.setParsedRequestPath(requestPath, request);
+		assertSame(requestPath, ServletRequestPathUtils.getParsedRequestPath(request));
+
+		ServletRequestPathUtils.setParsedRequestPath(null, request);
+		assertFalse(ServletRequestPathUtils.hasParsedRequestPath(request));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void getParsedRequestPathWhenNotParsed() {
+		ServletRequestPathUtils.getParsedRequestPath(new MockHttpServletRequest("GET", "/a"));
+	}
+
+	private void testParseAndCache(String requestUri, String contextPath, String servletPath,
+			String pathInfo, String expectedContextPath, String expectedPathWithinApplication) {
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", requestUri);
+		request.setContextPath(contextPath);
+		request.setServletPath(servletPath);
+		request.setPathInfo(pathInfo);
+
+		RequestPath requestPath = ServletRequestPathUtils.parseAndCache(request);
+		assertEquals(expectedContextPath, requestPath.contextPath().value());
+		assertEquals(expectedPathWithinApplication, requestPath.pathWithinApplication().value());
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -71,6 +71,9 @@ final class DefaultWebClientBuilder implements WebClient.Builder {
 
 	private ExchangeStrategies exchangeStrategies;
 
+	@Nullable
+	private ExchangeObserver exchangeObserver;
+
 
 	public DefaultWebClientBuilder() {
 		this.exchangeStrategies = ExchangeStrategies.withDefaults();
@@ -96,6 +99,7 @@ final class DefaultWebClientBuilder implements WebClient.Builder {
 		this.filters = other.filters != null ? new ArrayList<>(other.filters) : null;
 		this.connector = other.connector;
 		this.exchangeFunction = other.exchangeFunction;
+		this.exchangeObserver = other.exchangeObserver;
 		this.exchangeStrategies = other.exchangeStrategies;
 	}
 
@@ -202,6 +206,12 @@ final class DefaultWebClientBuilder implements WebClient.Builder {
 		return this;
 	}
 
+	@Override
+	public WebClient.Builder exchangeObserver(ExchangeObserver observer) {
+		this.exchangeObserver = observer;
+		return this;
+	}
+
 	@Override
 	public WebClient build() {
 		ExchangeFunction exchange = initExchangeFunction();
@@ -220,10 +230,11 @@ final class DefaultWebClientBuilder implements WebClient.Builder {
 			return this.exchangeFunction;
 		}
 		else if (this.connector != null) {
-			return ExchangeFunctions.create(this.connector, this.exchangeStrategies);
+			return ExchangeFunctions.create(this.connector, this.exchangeStrategies, this.exchangeObserver);
 		}
 		else {
-			return ExchangeFunctions.create(new ReactorClientHttpConnector(), this.exchangeStrategies);
+			return ExchangeFunctions.create(
+					new ReactorClientHttpConnector(), this.exchangeStrategies, this.exchangeObserver);
 		}
 	}
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,15 +20,19 @@ import java.net.URI;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.log.LogFormatUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.client.reactive.ClientHttpConnector;
 import org.springframework.http.client.reactive.ClientHttpResponse;
+import org.springframework.http.client.reactive.ClientHttpResponseDecorator;
 import org.springframework.http.codec.LoggingCodecSupport;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 
 /**
@@ -63,7 +67,23 @@ public abstract class ExchangeFunctions {
 	 * @return the created {@code ExchangeFunction}
 	 */
 	public static ExchangeFunction create(ClientHttpConnector connector, ExchangeStrategies strategies) {
-		return new DefaultExchangeFunction(connector, strategies);
+		return new DefaultExchangeFunction(connector, strategies, null);
+	}
+
+	/**
+	 * Create an {@code ExchangeFunction} with the given
+	 * {@code ClientHttpConnector} and {@code ExchangeStrategies}, reporting
+	 * the phases of each exchange to the given {@code ExchangeObserver}.
+	 * @param connector the connector to use for connecting to servers
+	 * @param strategies the {@code ExchangeStrategies} to use
+	 * @param observer the observer to notify, if any
+	 * @return the created {@code ExchangeFunction}
+	 * @since 5.2
+	 */
+	public static ExchangeFunction create(ClientHttpConnector connector, ExchangeStrategies strategies,
+			@Nullable ExchangeObserver observer) {
+
+		return new DefaultExchangeFunction(connector, strategies, observer);
 	}
 
 
@@ -73,14 +93,20 @@ public abstract class ExchangeFunctions {
 
 		private final ExchangeStrategies strategies;
 
+		@Nullable
+		private final ExchangeObserver observer;
+
 		private boolean enableLoggingRequestDetails;
 
 
-		public DefaultExchangeFunction(ClientHttpConnector connector, ExchangeStrategies strategies) {
+		public DefaultExchangeFunction(ClientHttpConnector connector, ExchangeStrategies strategies,
+				@Nullable ExchangeObserver observer) {
+
 			Assert.notNull(connector, "ClientHttpConnector must not be null");
 			Assert.notNull(strategies, "ExchangeStrategies must not be null");
 			this.connector = connector;
 			this.strategies = strategies;
+			this.observer = observer;
 
 			strategies.messageWriters().stream()
 					.filter(LoggingCodecSupport.class::isInstance)
@@ -99,6 +125,10 @@ public abstract class ExchangeFunctions {
 			URI url = clientRequest.url();
 			String logPrefix = clientRequest.logPrefix();
 
+			if (this.observer != null) {
+				return exchangeObserved(clientRequest, this.observer);
+			}
+
 			return this.connector
 					.connect(httpMethod, url, httpRequest -> clientRequest.writeTo(httpRequest, this.strategies))
 					.doOnRequest(n -> logRequest(clientRequest))
@@ -109,6 +139,72 @@ public abstract class ExchangeFunctions {
 					});
 		}
 
+		private Mono<ClientResponse> exchangeObserved(ClientRequest clientRequest, ExchangeObserver observer) {
+			String logPrefix = clientRequest.logPrefix();
+			return Mono.defer(() -> {
+				ExchangeObservation observation = new ExchangeObservation(clientRequest);
+				observer.exchangeStarted(observation);
+				return this.connector
+						.connect(clientRequest.method(), clientRequest.url(), httpRequest -> {
+							// The connector may invoke the callback again, e.g. when retrying a request
+							if (observation.connectionAcquired()) {
+								observer.connectionAcquired(observation);
+							}
+							return clientRequest.writeTo(httpRequest, this.strategies);
+						})
+						.doOnRequest(n -> logRequest(clientRequest))
+						.doOnCancel(() -> {
+							logger.debug(logPrefix + "Cancel signal (to close connection)");
+							complete(observation, observer, null, true);
+						})
+						.doOnError(ex -> complete(observation, observer, ex, false))
+						.doOnSuccess(httpResponse -> {
+							if (httpResponse == null) {
+								complete(observation, observer, null, false);
+							}
+						})
+						.map(httpResponse -> {
+							logResponse(httpResponse, logPrefix);
+							observation.responseReceived(httpResponse.getRawStatusCode());
+							observer.responseReceived(observation);
+							if (isBodiless(clientRequest, httpResponse)) {
+								// No body to wait for: the exchange completes with the response headers
+								complete(observation, observer, null, false);
+								return new DefaultClientResponse(httpResponse, this.strategies, logPrefix);
+							}
+							ClientHttpResponse observedResponse = new ClientHttpResponseDecorator(httpResponse) {
+								@Override
+								public Flux<DataBuffer> getBody() {
+									return super.getBody()
+											.doOnComplete(() -> complete(observation, observer, null, false))
+											.doOnError(ex -> complete(observation, observer, ex, false))
+											.doOnCancel(() -> complete(observation, observer, null, true));
+								}
+							};
+							return new DefaultClientResponse(observedResponse, this.strategies, logPrefix);
+						});
+			});
+		}
+
+		/**
+		 * Whether the given response cannot have a body, according to the
+		 * request method, the status code or a "Content-Length" of 0.
+		 */
+		private static boolean isBodiless(ClientRequest request, ClientHttpResponse response) {
+			int statusCode = response.getRawStatusCode();
+			return (HttpMethod.HEAD == request.method() || (statusCode >= 100 && statusCode < 200) ||
+					statusCode == HttpStatus.NO_CONTENT.value() || statusCode == HttpStatus.NOT_MODIFIED.value() ||
+					response.getHeaders().getContentLength() == 0);
+		}
+
+		private void complete(ExchangeObservation observation, ExchangeObserver observer,
+				@Nullable Throwable error, boolean cancelled) {
+
+			if (observation.complete(error, cancelled)) {
+				observer.exchangeCompleted(observation);
+			}
+		}
+
 		private void logRequest(ClientRequest request) {
 			LogFormatUtils.traceDebug(logger, traceOn ->
 					request.logPrefix() + "HTTP " + request.method() + " " + request.url() +
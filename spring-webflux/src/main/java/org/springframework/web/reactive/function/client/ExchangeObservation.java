@@ -0,0 +1,201 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.function.client;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * The timings and outcome of a single exchange, as passed to an
+ * {@link ExchangeObserver}. Timings for phases that have not been
+ * reached (yet) are {@code null}.
+ *
+ * @author agent
+ * @since 5.2
+ */
+public final class ExchangeObservation {
+
+	private final ClientRequest request;
+
+	private final String target;
+
+	private final long startTime = System.nanoTime();
+
+	private volatile long connectionAcquiredTime;
+
+	private volatile long responseTime;
+
+	private volatile long completionTime;
+
+	private volatile int rawStatusCode = -1;
+
+	@Nullable
+	private volatile Throwable error;
+
+	private volatile boolean cancelled;
+
+	private final AtomicBoolean connectionAcquired = new AtomicBoolean();
+
+	private final AtomicBoolean completed = new AtomicBoolean();
+
+
+	ExchangeObservation(ClientRequest request) {
+		this.request = request;
+		this.target = determineTarget(request.url());
+	}
+
+
+	/**
+	 * Return the request of the exchange.
+	 */
+	public ClientRequest getRequest() {
+		return this.request;
+	}
+
+	/**
+	 * Return the target of the exchange as "host:port", with the port
+	 * derived from the scheme if not specified in the request URL.
+	 * Exchanges with the same target share a connection pool, if any.
+	 */
+	public String getTarget() {
+		return this.target;
+	}
+
+	/**
+	 * Return the time from the start of the exchange until a connection was
+	 * acquired and the request was ready to be written, or {@code null} if
+	 * not reached. Depending on the connector, this includes waiting for a
+	 * pooled connection or establishing a new one, including the TLS handshake.
+	 */
+	@Nullable
+	public Duration getConnectionAcquireTime() {
+		return elapsed(this.startTime, this.connectionAcquiredTime);
+	}
+
+	/**
+	 * Return the time from writing the request until the response status and
+	 * headers were received, or {@code null} if no response was received.
+	 */
+	@Nullable
+	public Duration getTimeToFirstByte() {
+		long from = this.connectionAcquiredTime;
+		return elapsed(from != 0 ? from : this.startTime, this.responseTime);
+	}
+
+	/**
+	 * Return the time from receiving the response headers until the response
+	 * body was consumed, or {@code null} if not completed.
+	 */
+	@Nullable
+	public Duration getResponseBodyTime() {
+		return elapsed(this.responseTime, this.completionTime);
+	}
+
+	/**
+	 * Return the total time of the exchange, or {@code null} if not completed.
+	 */
+	@Nullable
+	public Duration getTotalTime() {
+		return elapsed(this.startTime, this.completionTime);
+	}
+
+	/**
+	 * Return the raw status code of the response, or -1 if none was received.
+	 */
+	public int getRawStatusCode() {
+		return this.rawStatusCode;
+	}
+
+	/**
+	 * Return the error that the exchange failed with, if any.
+	 */
+	@Nullable
+	public Throwable getError() {
+		return this.error;
+	}
+
+	/**
+	 * Return whether the exchange, or the consumption of the response body,
+	 * was cancelled.
+	 */
+	public boolean isCancelled() {
+		return this.cancelled;
+	}
+
+	/**
+	 * Return whether a connection has been acquired for the exchange.
+	 */
+	public boolean isConnectionAcquired() {
+		return (this.connectionAcquiredTime != 0);
+	}
+
+	/**
+	 * Return whether the exchange is complete.
+	 */
+	public boolean isCompleted() {
+		return (this.completionTime != 0);
+	}
+
+
+	boolean connectionAcquired() {
+		if (!this.connectionAcquired.compareAndSet(false, true)) {
+			return false;
+		}
+		this.connectionAcquiredTime = System.nanoTime();
+		return true;
+	}
+
+	void responseReceived(int rawStatusCode) {
+		this.rawStatusCode = rawStatusCode;
+		this.responseTime = System.nanoTime();
+	}
+
+	boolean complete(@Nullable Throwable error, boolean cancelled) {
+		if (!this.completed.compareAndSet(false, true)) {
+			return false;
+		}
+		this.error = error;
+		this.cancelled = cancelled;
+		this.completionTime = System.nanoTime();
+		return true;
+	}
+
+	private static String determineTarget(URI url) {
+		int port = url.getPort();
+		if (port == -1) {
+			port = ("https".equalsIgnoreCase(url.getScheme()) ? 443 : 80);
+		}
+		return url.getHost() + ":" + port;
+	}
+
+	@Nullable
+	private static Duration elapsed(long from, long to) {
+		return (from != 0 && to != 0 ? Duration.ofNanos(to - from) : null);
+	}
+
+
+	@Override
+	public String toString() {
+		return "ExchangeObservation [" + this.request.method() + " " + this.request.url() +
+				", status=" + this.rawStatusCode + ", connectionAcquireTime=" + getConnectionAcquireTime() +
+				", timeToFirstByte=" + getTimeToFirstByte() + ", responseBodyTime=" + getResponseBodyTime() + "]";
+	}
+
+}
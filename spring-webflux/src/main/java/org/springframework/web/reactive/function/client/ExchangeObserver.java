@@ -0,0 +1,76 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.function.client;
+
+/**
+ * Callback interface for observing the phases of exchanges performed by an
+ * {@link ExchangeFunction}, e.g. for recording timing metrics.
+ *
+ * <p>In contrast to an {@link ExchangeFilterFunction}, an observer is notified
+ * when the underlying connection has been acquired and when the response body
+ * has been consumed, in addition to the start of the exchange and the receipt
+ * of the response.
+ *
+ * <p>Callbacks are invoked on the threads of the underlying HTTP client and
+ * must therefore not block.
+ *
+ * @author agent
+ * @since 5.2
+ * @see ExchangeFunctions#create(org.springframework.http.client.reactive.ClientHttpConnector, ExchangeStrategies, ExchangeObserver)
+ * @see WebClient.Builder#exchangeObserver(ExchangeObserver)
+ * @see ExchangeStatistics
+ */
+@FunctionalInterface
+public interface ExchangeObserver {
+
+	/**
+	 * Invoked when the exchange is started, i.e. on subscription.
+	 * @param observation the observation for the exchange
+	 */
+	default void exchangeStarted(ExchangeObservation observation) {
+	}
+
+	/**
+	 * Invoked when a connection has been acquired for the exchange
+	 * and the request is about to be written.
+	 * @param observation the observation for the exchange
+	 * @see ExchangeObservation#getConnectionAcquireTime()
+	 */
+	default void connectionAcquired(ExchangeObservation observation) {
+	}
+
+	/**
+	 * Invoked when the response status and headers have been received.
+	 * @param observation the observation for the exchange
+	 * @see ExchangeObservation#getTimeToFirstByte()
+	 */
+	default void responseReceived(ExchangeObservation observation) {
+	}
+
+	/**
+	 * Invoked when the exchange is complete: once the response body has been
+	 * fully consumed, released or cancelled, once a response without a body
+	 * (e.g. for a HEAD request or with status 204) has been received, or when
+	 * the exchange failed or was cancelled before a response was received.
+	 * <p>Note that a response body which is never subscribed to keeps the
+	 * exchange, like the underlying connection, from completing: as with any
+	 * {@code exchange()} call, the body must be consumed or released.
+	 * @param observation the observation for the exchange
+	 */
+	void exchangeCompleted(ExchangeObservation observation);
+
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.function.client;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * {@link ExchangeObserver} that aggregates exchange statistics per target
+ * host and port, i.e. per connection pool of the underlying HTTP client.
+ *
+ * <p>Exchanges waiting for a connection are reported as pending, exchanges
+ * with an acquired connection as active until their response body has been
+ * consumed or released, or until a response without a body has been received.
+ * A growing number of pending exchanges along with an increasing connection
+ * acquire time indicates that the connection pool for a target is too small,
+ * whereas an increasing time to first byte indicates a slow server or
+ * head-of-line blocking on a shared connection.
+ *
+ * @author agent
+ * @since 5.2
+ * @see WebClient.Builder#exchangeObserver(ExchangeObserver)
+ */
+public class ExchangeStatistics implements ExchangeObserver {
+
+	private final Map<String, TargetCounters> counters = new ConcurrentHashMap<>();
+
+
+	@Override
+	public void exchangeStarted(ExchangeObservation observation) {
+		getCounters(observation).pending.incrementAndGet();
+	}
+
+	@Override
+	public void connectionAcquired(ExchangeObservation observation) {
+		TargetCounters counters = getCounters(observation);
+		counters.pending.decrementAndGet();
+		counters.active.incrementAndGet();
+		Duration acquireTime = observation.getConnectionAcquireTime();
+		if (acquireTime != null) {
+			counters.acquireTime.add(acquireTime.toNanos());
+			counters.maxAcquireTime.accumulate(acquireTime.toNanos());
+			counters.acquireCount.increment();
+		}
+	}
+
+	@Override
+	public void responseReceived(ExchangeObservation observation) {
+		Duration timeToFirstByte = observation.getTimeToFirstByte();
+		if (timeToFirstByte != null) {
+			TargetCounters counters = getCounters(observation);
+			counters.timeToFirstByte.add(timeToFirstByte.toNanos());
+			counters.responseCount.increment();
+		}
+	}
+
+	@Override
+	public void exchangeCompleted(ExchangeObservation observation) {
+		TargetCounters counters = getCounters(observation);
+		if (observation.isConnectionAcquired()) {
+			counters.active.decrementAndGet();
+		}
+		else {
+			counters.pending.decrementAndGet();
+		}
+		counters.completed.increment();
+		if (observation.getError() != null) {
+			counters.errors.increment();
+		}
+	}
+
+	private TargetCounters getCounters(ExchangeObservation observation) {
+		return this.counters.computeIfAbsent(observation.getTarget(), target -> new TargetCounters());
+	}
+
+
+	/**
+	 * Return the statistics for the given target.
+	 * @param target the target as "host:port"
+	 * @return the statistics, or {@code null} if no exchange with the given
+	 * target has been observed
+	 * @see ExchangeObservation#getTarget()
+	 */
+	@Nullable
+	public TargetStatistics getStatistics(String target) {
+		TargetCounters counters = this.counters.get(target);
+		return (counters != null ? counters.snapshot() : null);
+	}
+
+	/**
+	 * Return the statistics for all targets observed so far.
+	 * @return a Map with the target as "host:port" as key
+	 */
+	public Map<String, TargetStatistics> getStatistics() {
+		Map<String, TargetStatistics> result = new LinkedHashMap<>(this.counters.size());
+		this.counters.forEach((target, counters) -> result.put(target, counters.snapshot()));
+		return result;
+	}
+
+
+	/**
+	 * Snapshot of the statistics for a single target.
+	 */
+	public static final class TargetStatistics {
+
+		private final int pendingCount;
+
+		private final int activeCount;
+
+		private final long completedCount;
+
+		private final long errorCount;
+
+		private final Duration averageConnectionAcquireTime;
+
+		private final Duration maxConnectionAcquireTime;
+
+		private final Duration averageTimeToFirstByte;
+
+		TargetStatistics(int pendingCount, int activeCount, long completedCount, long errorCount,
+				Duration averageConnectionAcquireTime, Duration maxConnectionAcquireTime,
+				Duration averageTimeToFirstByte) {
+
+			this.pendingCount = pendingCount;
+			this.activeCount = activeCount;
+			this.completedCount = completedCount;
+			this.errorCount = errorCount;
+			this.averageConnectionAcquireTime = averageConnectionAcquireTime;
+			this.maxConnectionAcquireTime = maxConnectionAcquireTime;
+			this.averageTimeToFirstByte = averageTimeToFirstByte;
+		}
+
+		/**
+		 * Return the number of exchanges waiting for a connection.
+		 */
+		public int getPendingCount() {
+			return this.pendingCount;
+		}
+
+		/**
+		 * Return the number of exchanges with an acquired connection
+		 * that have not completed yet.
+		 */
+		public int getActiveCount() {
+			return this.activeCount;
+		}
+
+		/**
+		 * Return the number of completed exchanges.
+		 */
+		public long getCompletedCount() {
+			return this.completedCount;
+		}
+
+		/**
+		 * Return the number of exchanges that completed with an error.
+		 */
+		public long getErrorCount() {
+			return this.errorCount;
+		}
+
+		/**
+		 * Return the average time to acquire a connection.
+		 */
+		public Duration getAverageConnectionAcquireTime() {
+			return this.averageConnectionAcquireTime;
+		}
+
+		/**
+		 * Return the maximum time to acquire a connection.
+		 */
+		public Duration getMaxConnectionAcquireTime() {
+			return this.maxConnectionAcquireTime;
+		}
+
+		/**
+		 * Return the average time from writing the request until
+		 * receiving the response headers.
+		 */
+		public Duration getAverageTimeToFirstByte() {
+			return this.averageTimeToFirstByte;
+		}
+
+		@Override
+		public String toString() {
+			return "TargetStatistics [pending=" + this.pendingCount + ", active=" + this.activeCount +
+					", completed=" + this.completedCount + ", errors=" + this.errorCount +
+					", averageConnectionAcquireTime=" + this.averageConnectionAcquireTime +
+					", maxConnectionAcquireTime=" + this.maxConnectionAcquireTime +
+					", averageTimeToFirstByte=" + this.averageTimeToFirstByte + "]";
+		}
+	}
+
+
+	private static class TargetCounters {
+
+		final AtomicInteger pending = new AtomicInteger();
+
+		final AtomicInteger active = new AtomicInteger();
+
+		final LongAdder completed = new LongAdder();
+
+		final LongAdder errors = new LongAdder();
+
+		final LongAdder acquireCount = new LongAdder();
+
+		final LongAdder acquireTime = new LongAdder();
+
+		final LongAccumulator maxAcquireTime = new LongAccumulator(Math::max, 0);
+
+		final LongAdder responseCount = new LongAdder();
+
+		final LongAdder timeToFirstByte = new LongAdder();
+
+		TargetStatistics snapshot() {
+			return new TargetStatistics(this.pending.get(), this.active.get(),
+					this.completed.sum(), this.errors.sum(),
+					average(this.acquireTime.sum(), this.acquireCount.sum()),
+					Duration.ofNanos(this.maxAcquireTime.get()),
+					average(this.timeToFirstByte.sum(), this.responseCount.sum()));
+		}
+
+		private static Duration average(long totalNanos, long count) {
+			return Duration.ofNanos(count > 0 ? totalNanos / count : 0);
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -293,6 +293,17 @@ public interface WebClient {
 		 */
 		Builder exchangeStrategies(ExchangeStrategies strategies);
 
+		/**
+		 * Configure an {@link ExchangeObserver} to notify of the phases of each
+		 * exchange, e.g. an {@link ExchangeStatistics} instance.
+		 * <p>This is ignored if an {@link #exchangeFunction ExchangeFunction}
+		 * is provided, in which case the observer can be passed to
+		 * {@link ExchangeFunctions#create(ClientHttpConnector, ExchangeStrategies, ExchangeObserver)}.
+		 * @param observer the observer to use
+		 * @since 5.2
+		 */
+		Builder exchangeObserver(ExchangeObserver observer);
+
 		/**
 		 * Provide an {@link ExchangeFunction} pre-configured with
 		 * {@link ClientHttpConnector} and {@link ExchangeStrategies}.
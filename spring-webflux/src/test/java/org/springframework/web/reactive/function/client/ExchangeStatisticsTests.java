@@ -0,0 +1,205 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.function.client;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.test.StepVerifier;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ClientHttpResponse;
+import org.springframework.mock.http.client.reactive.test.MockClientHttpRequest;
+import org.springframework.mock.http.client.reactive.test.MockClientHttpResponse;
+import org.springframework.web.reactive.function.client.ExchangeStatistics.TargetStatistics;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link ExchangeStatistics} and the {@link ExchangeObserver}
+ * callbacks of {@link ExchangeFunctions}.
+ *
+ * @author agent
+ */
+public class ExchangeStatisticsTests {
+
+	private final ExchangeStatistics statistics = new ExchangeStatistics();
+
+	private final List<ExchangeObservation> completed = new ArrayList<>();
+
+	private final ExchangeObserver observer = new ExchangeObserver() {
+		@Override
+		public void exchangeStarted(ExchangeObservation observation) {
+			statistics.exchangeStarted(observation);
+		}
+		@Override
+		public void connectionAcquired(ExchangeObservation observation) {
+			statistics.connectionAcquired(observation);
+		}
+		@Override
+		public void responseReceived(ExchangeObservation observation) {
+			statistics.responseReceived(observation);
+		}
+		@Override
+		public void exchangeCompleted(ExchangeObservation observation) {
+			statistics.exchangeCompleted(observation);
+			completed.add(observation);
+		}
+	};
+
+
+	@Test
+	public void completedExchange() {
+		MockClientHttpResponse response = new MockClientHttpResponse(HttpStatus.OK);
+		response.setBody("foo");
+		WebClient client = WebClient.builder()
+				.clientConnector(connector(Mono.just(response)))
+				.exchangeObserver(this.observer)
+				.build();
+
+		Mono<String> result = client.get().uri("https://example.org/foo").retrieve().bodyToMono(String.class);
+		StepVerifier.create(result).expectNext("foo").verifyComplete();
+
+		assertEquals(1, this.completed.size());
+		ExchangeObservation observation = this.completed.get(0);
+		assertEquals("example.org:443", observation.getTarget());
+		assertEquals(200, observation.getRawStatusCode());
+		assertNotNull(observation.getConnectionAcquireTime());
+		assertNotNull(observation.getTimeToFirstByte());
+		assertNotNull(observation.getResponseBodyTime());
+		assertNotNull(observation.getTotalTime());
+		assertNull(observation.getError());
+		assertFalse(observation.isCancelled());
+
+		TargetStatistics targetStatistics = this.statistics.getStatistics("example.org:443");
+		assertNotNull(targetStatistics);
+		assertEquals(0, targetStatistics.getPendingCount());
+		assertEquals(0, targetStatistics.getActiveCount());
+		assertEquals(1, targetStatistics.getCompletedCount());
+		assertEquals(0, targetStatistics.getErrorCount());
+	}
+
+	@Test
+	public void activeExchangesCompleteOnBodyReleaseOrBodilessResponse() {
+		MonoProcessor<MockClientHttpResponse> pendingResponse = MonoProcessor.create();
+		MonoProcessor<MockClientHttpResponse> pendingBodilessResponse = MonoProcessor.create();
+		ClientRequest request = ClientRequest.create(HttpMethod.GET, URI.create("http://example.org:8080/foo")).build();
+
+		MonoProcessor<ClientResponse> exchange = ExchangeFunctions.create(
+				connector(pendingResponse), ExchangeStrategies.withDefaults(), this.observer)
+				.exchange(request).toProcessor();
+		ExchangeFunctions.create(connector(pendingBodilessResponse), ExchangeStrategies.withDefaults(), this.observer)
+				.exchange(request).subscribe();
+
+		TargetStatistics targetStatistics = this.statistics.getStatistics("example.org:8080");
+		assertEquals(0, targetStatistics.getPendingCount());
+		assertEquals(2, targetStatistics.getActiveCount());
+
+		MockClientHttpResponse response = new MockClientHttpResponse(HttpStatus.OK);
+		response.setBody("foo");
+		pendingResponse.onNext(response);
+
+		targetStatistics = this.statistics.getStatistics("example.org:8080");
+		assertEquals(2, targetStatistics.getActiveCount());
+		assertEquals(0, targetStatistics.getCompletedCount());
+
+		exchange.peek().bodyToMono(Void.class).block(Duration.ofSeconds(5));
+		targetStatistics = this.statistics.getStatistics("example.org:8080");
+		assertEquals(1, targetStatistics.getActiveCount());
+		assertEquals(1, targetStatistics.getCompletedCount());
+
+		pendingBodilessResponse.onNext(new MockClientHttpResponse(HttpStatus.NO_CONTENT));
+		targetStatistics = this.statistics.getStatistics("example.org:8080");
+		assertEquals(0, targetStatistics.getActiveCount());
+		assertEquals(2, targetStatistics.getCompletedCount());
+		assertEquals(2, this.completed.size());
+		assertEquals(204, this.completed.get(1).getRawStatusCode());
+		assertNotNull(this.completed.get(1).getTotalTime());
+	}
+
+	@Test
+	public void exchangeWithoutResponse() {
+		ExchangeFunction exchangeFunction = ExchangeFunctions.create(
+				connector(Mono.empty()), ExchangeStrategies.withDefaults(), this.observer);
+		ClientRequest request = ClientRequest.create(HttpMethod.GET, URI.create("http://example.org/foo")).build();
+
+		StepVerifier.create(exchangeFunction.exchange(request)).verifyComplete();
+
+		assertEquals(1, this.completed.size());
+		TargetStatistics targetStatistics = this.statistics.getStatistics("example.org:80");
+		assertEquals(0, targetStatistics.getActiveCount());
+		assertEquals(1, targetStatistics.getCompletedCount());
+	}
+
+	@Test
+	public void retriedRequestCallback() {
+		ClientHttpConnector connector = (method, uri, requestCallback) ->
+				requestCallback.apply(new MockClientHttpRequest(method, uri))
+						.then(requestCallback.apply(new MockClientHttpRequest(method, uri)))
+						.then(Mono.just(new MockClientHttpResponse(HttpStatus.NO_CONTENT)));
+		ExchangeFunction exchangeFunction = ExchangeFunctions.create(
+				connector, ExchangeStrategies.withDefaults(), this.observer);
+		ClientRequest request = ClientRequest.create(HttpMethod.GET, URI.create("http://example.org/foo")).build();
+
+		StepVerifier.create(exchangeFunction.exchange(request)).expectNextCount(1).verifyComplete();
+
+		assertEquals(1, this.completed.size());
+		TargetStatistics targetStatistics = this.statistics.getStatistics("example.org:80");
+		assertEquals(0, targetStatistics.getPendingCount());
+		assertEquals(0, targetStatistics.getActiveCount());
+		assertEquals(1, targetStatistics.getCompletedCount());
+	}
+
+	@Test
+	public void failedExchange() {
+		WebClient client = WebClient.builder()
+				.clientConnector((method, uri, requestCallback) -> Mono.error(new IOException("Connection refused")))
+				.exchangeObserver(this.observer)
+				.build();
+
+		StepVerifier.create(client.get().uri("http://example.org/foo").exchange())
+				.expectError(IOException.class)
+				.verify(Duration.ofSeconds(5));
+
+		assertEquals(1, this.completed.size());
+		ExchangeObservation observation = this.completed.get(0);
+		assertFalse(observation.isConnectionAcquired());
+		assertNull(observation.getTimeToFirstByte());
+		assertEquals(-1, observation.getRawStatusCode());
+		assertTrue(observation.getError() instanceof IOException);
+
+		TargetStatistics targetStatistics = this.statistics.getStatistics("example.org:80");
+		assertEquals(0, targetStatistics.getPendingCount());
+		assertEquals(1, targetStatistics.getCompletedCount());
+		assertEquals(1, targetStatistics.getErrorCount());
+	}
+
+
+	private static ClientHttpConnector connector(Mono<? extends ClientHttpResponse> response) {
+		return (method, uri, requestCallback) ->
+				requestCallback.apply(new MockClientHttpRequest(method, uri)).then(Mono.from(response));
+	}
+
+}
@@ -301,6 +301,7 @@ public class WebMvcConfigurationSupport implements ApplicationContextAware, Serv
 		if (pathMatcher != null) {
 			mapping.setPathMatcher(pathMatcher);
 		}
+		mapping.setPatternParser(configurer.getPatternParser());
 		Map<String, Predicate<Class<?>>> pathPrefixes = configurer.getPathPrefixes();
 		if (pathPrefixes != null) {
 			mapping.setPathPrefixes(pathPrefixes);
@@ -449,6 +450,7 @@ public class WebMvcConfigurationSupport implements ApplicationContextAware, Serv
 		}
 		handlerMapping.setPathMatcher(mvcPathMatcher());
 		handlerMapping.setUrlPathHelper(mvcUrlPathHelper());
+		handlerMapping.setPatternParser(getPathMatchConfigurer().getPatternParser());
 		handlerMapping.setInterceptors(getInterceptors());
 		handlerMapping.setCorsConfigurations(getCorsConfigurations());
 		return handlerMapping;
@@ -495,6 +497,7 @@ public class WebMvcConfigurationSupport implements ApplicationContextAware, Serv
 		}
 		handlerMapping.setPathMatcher(mvcPathMatcher());
 		handlerMapping.setUrlPathHelper(mvcUrlPathHelper());
+		handlerMapping.setPatternParser(getPathMatchConfigurer().getPatternParser());
 		handlerMapping.setInterceptors(getInterceptors());
 		handlerMapping.setCorsConfigurations(getCorsConfigurations());
 		return handlerMapping;
@@ -45,7 +45,9 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.servlet.HandlerExecutionChain;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
 import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * Abstract base class for {@link org.springframework.web.servlet.HandlerMapping}
@@ -77,6 +79,9 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 
 	private PathMatcher pathMatcher = new AntPathMatcher();
 
+	@Nullable
+	private PathPatternParser patternParser;
+
 	private final List<Object> interceptors = new ArrayList<>();
 
 	private final List<HandlerInterceptor> adaptedInterceptors = new ArrayList<>();
@@ -184,6 +189,41 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 		return this.pathMatcher;
 	}
 
+	/**
+	 * Enable use of pre-parsed {@link org.springframework.web.util.pattern.PathPattern}s
+	 * as an alternative to String pattern matching with {@link AntPathMatcher}.
+	 * The request path is then {@link ServletRequestPathUtils#parseAndCache parsed}
+	 * once per request, and patterns are parsed once at startup, which is
+	 * more efficient than decoding and tokenizing paths on every match.
+	 * <p>When this is set, the {@link #setUrlPathHelper UrlPathHelper} and
+	 * {@link #setPathMatcher PathMatcher} are no longer used for matching
+	 * request mappings, except for {@link MappedInterceptor}s.
+	 * <p>By default this is not set.
+	 * @param patternParser the parser to use
+	 * @since 5.2
+	 */
+	public void setPatternParser(@Nullable PathPatternParser patternParser) {
+		this.patternParser = patternParser;
+		if (this.corsConfigurationSource instanceof UrlBasedCorsConfigurationSource) {
+			((UrlBasedCorsConfigurationSource) this.corsConfigurationSource).setPatternParser(patternParser);
+		}
+	}
+
+	/**
+	 * Return the {@link #setPatternParser(PathPatternParser) configured}
+	 * {@code PathPatternParser}, or {@code null}.
+	 * @since 5.2
+	 */
+	@Nullable
+	public PathPatternParser getPatternParser() {
+		return this.patternParser;
+	}
+
+	@Override
+	public boolean usesPathPatterns() {
+		return (getPatternParser() != null);
+	}
+
 	/**
 	 * Set the interceptors to apply for all handlers mapped by this handler mapping.
 	 * <p>Supported interceptor types are HandlerInterceptor, WebRequestInterceptor, and MappedInterceptor.
@@ -210,6 +250,7 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 		source.setCorsConfigurations(corsConfigurations);
 		source.setPathMatcher(this.pathMatcher);
 		source.setUrlPathHelper(this.urlPathHelper);
+		source.setPatternParser(this.patternParser);
 		this.corsConfigurationSource = source;
 	}
 
@@ -398,6 +439,10 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 	@Override
 	@Nullable
 	public final HandlerExecutionChain getHandler(HttpServletRequest request) throws Exception {
+		if (usesPathPatterns() && !ServletRequestPathUtils.hasParsedRequestPath(request)) {
+			// Not invoked through the DispatcherServlet, which parses the path upfront...
+			ServletRequestPathUtils.parseAndCache(request);
+		}
 		Object handler = getHandlerInternal(request);
 		if (handler == null) {
 			handler = getDefaultHandler();
@@ -449,6 +494,25 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 	@Nullable
 	protected abstract Object getHandlerInternal(HttpServletRequest request) throws Exception;
 
+	/**
+	 * Initialize the path to use for request mapping.
+	 * <p>When {@link #usesPathPatterns() parsed patterns} are enabled, this is
+	 * the path within the application from the {@link ServletRequestPathUtils
+	 * parsed RequestPath}, without semicolon content and otherwise not decoded.
+	 * Otherwise this is the lookup path as determined by the
+	 * {@link #getUrlPathHelper() UrlPathHelper}.
+	 * @param request the current request
+	 * @return the lookup path to use
+	 * @since 5.2
+	 */
+	protected String initLookupPath(HttpServletRequest request) {
+		if (usesPathPatterns()) {
+			String path = ServletRequestPathUtils.getParsedRequestPath(request).pathWithinApplication().value();
+			return (path.indexOf(';') != -1 ? this.urlPathHelper.removeSemicolonContent(path) : path);
+		}
+		return this.urlPathHelper.getLookupPathForRequest(request);
+	}
+
 	/**
 	 * Build a {@link HandlerExecutionChain} for the given handler, including
 	 * applicable interceptors.
@@ -27,10 +27,14 @@ import javax.servlet.http.HttpServletResponse;
 
 import org.springframework.beans.BeansException;
 import org.springframework.context.ApplicationContext;
+import org.springframework.http.server.PathContainer;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.util.ServletRequestPathUtils;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * Abstract base class for URL-mapped {@link org.springframework.web.servlet.HandlerMapping}
@@ -47,6 +51,11 @@ import org.springframework.web.servlet.HandlerExecutionChain;
  * current request path. The most exact match is defined as the longest
  * path pattern that matches the current request path.
  *
+ * <p>If a {@link #setPatternParser PathPatternParser} is configured, the
+ * registered patterns are parsed into {@link PathPattern}s once, and matched
+ * against the {@link ServletRequestPathUtils parsed request path} instead.
+ * Trailing slash matching is then configured on the parser.
+ *
  * @author Juergen Hoeller
  * @author Arjen Poutsma
  * @since 16.04.2003
@@ -62,6 +71,8 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping i
 
 	private final Map<String, Object> handlerMap = new LinkedHashMap<>();
 
+	private final Map<PathPattern, Object> pathPatternHandlerMap = new LinkedHashMap<>();
+
 
 	/**
 	 * Set the root handler for this handler mapping, that is,
@@ -97,6 +108,16 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping i
 		return this.useTrailingSlashMatch;
 	}
 
+	@Override
+	public void setPatternParser(@Nullable PathPatternParser patternParser) {
+		super.setPatternParser(patternParser);
+		this.pathPatternHandlerMap.clear();
+		if (patternParser != null) {
+			this.handlerMap.forEach((urlPath, handler) ->
+					this.pathPatternHandlerMap.put(patternParser.parse(urlPath), handler));
+		}
+	}
+
 	/**
 	 * Set whether to lazily initialize handlers. Only applicable to
 	 * singleton handlers, as prototypes are always lazily initialized.
@@ -119,8 +140,11 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping i
 	@Override
 	@Nullable
 	protected Object getHandlerInternal(HttpServletRequest request) throws Exception {
-		String lookupPath = getUrlPathHelper().getLookupPathForRequest(request);
-		Object handler = lookupHandler(lookupPath, request);
+		String lookupPath = initLookupPath(request);
+		Object handler = (usesPathPatterns() ?
+				lookupHandler(ServletRequestPathUtils.getParsedRequestPath(request).pathWithinApplication(),
+						lookupPath, request) :
+				lookupHandler(lookupPath, request));
 		if (handler == null) {
 			// We need to care for the default handler directly, since we need to
 			// expose the PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE for it as well.
@@ -232,6 +256,91 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping i
 		return null;
 	}
 
+	/**
+	 * Look up a handler instance for the given parsed URL path, matching it
+	 * against the {@link PathPattern}s parsed from the registered URL paths.
+	 * <p>Supports direct matches, e.g. a registered "/test" matches "/test",
+	 * and various path pattern matches, e.g. a registered "/t*" matches
+	 * both "/test" and "/team". For details, see the PathPattern class.
+	 * <p>Looks for the most specific pattern, as defined by
+	 * {@link PathPattern#SPECIFICITY_COMPARATOR}.
+	 * @param path the parsed path within the application
+	 * @param lookupPath the String lookup path for direct matches
+	 * @param request current HTTP request (to expose the path within the mapping to)
+	 * @return the associated handler instance, or {@code null} if not found
+	 * @since 5.2
+	 * @see org.springframework.web.util.pattern.PathPattern
+	 */
+	@Nullable
+	protected Object lookupHandler(PathContainer path, String lookupPath, HttpServletRequest request)
+			throws Exception {
+
+		// Direct match?
+		Object handler = this.handlerMap.get(lookupPath);
+		if (handler != null) {
+			// Bean name or resolved handler?
+			if (handler instanceof String) {
+				String handlerName = (String) handler;
+				handler = obtainApplicationContext().getBean(handlerName);
+			}
+			validateHandler(handler, request);
+			return buildPathExposingHandler(handler, lookupPath, decodePath(path), null);
+		}
+
+		// Pattern match?
+		List<PathPattern> matches = null;
+		for (PathPattern pattern : this.pathPatternHandlerMap.keySet()) {
+			if (pattern.matches(path)) {
+				if (matches == null) {
+					matches = new ArrayList<>();
+				}
+				matches.add(pattern);
+			}
+		}
+		if (matches == null) {
+			return null;
+		}
+		if (matches.size() > 1) {
+			matches.sort(PathPattern.SPECIFICITY_COMPARATOR);
+			if (logger.isTraceEnabled()) {
+				logger.trace("Matching patterns " + matches);
+			}
+		}
+
+		PathPattern pattern = matches.get(0);
+		handler = this.pathPatternHandlerMap.get(pattern);
+		// Bean name or resolved handler?
+		if (handler instanceof String) {
+			String handlerName = (String) handler;
+			handler = obtainApplicationContext().getBean(handlerName);
+		}
+		validateHandler(handler, request);
+		String pathWithinMapping = decodePath(pattern.extractPathWithinPattern(path));
+		PathPattern.PathMatchInfo matchInfo = pattern.matchAndExtract(path);
+		Map<String, String> uriTemplateVariables = (matchInfo != null ? matchInfo.getUriVariables() : null);
+		if (logger.isTraceEnabled() && !CollectionUtils.isEmpty(uriTemplateVariables)) {
+			logger.trace("URI variables " + uriTemplateVariables);
+		}
+		return buildPathExposingHandler(handler, pattern.getPatternString(), pathWithinMapping, uriTemplateVariables);
+	}
+
+	/**
+	 * Return the decoded value of the given parsed path, without path parameters,
+	 * i.e. the equivalent of a lookup path from the default UrlPathHelper.
+	 */
+	private static String decodePath(PathContainer path) {
+		StringBuilder sb = new StringBuilder(path.value().length());
+		for (PathContainer.Element element : path.elements()) {
+			if (element instanceof PathContainer.PathSegment) {
+				sb.append(((PathContainer.PathSegment) element).valueToMatch());
+			}
+			else {
+				sb.append(element.value());
+			}
+		}
+		return sb.toString();
+	}
+
 	/**
 	 * Validate the given handler against the current request.
 	 * <p>The default implementation is empty. Can be overridden in subclasses,
@@ -362,6 +471,10 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping i
 			}
 			else {
 				this.handlerMap.put(urlPath, resolvedHandler);
+				PathPatternParser patternParser = getPatternParser();
+				if (patternParser != null) {
+					this.pathPatternHandlerMap.put(patternParser.parse(urlPath), resolvedHandler);
+				}
 				if (logger.isTraceEnabled()) {
 					logger.trace("Mapped [" + urlPath + "] onto " + getHandlerDescription(handler));
 				}
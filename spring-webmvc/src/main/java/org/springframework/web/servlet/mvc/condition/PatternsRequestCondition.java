@@ -27,21 +27,39 @@ import java.util.List;
 import java.util.Set;
 import javax.servlet.http.HttpServletRequest;
 
+import org.springframework.http.server.PathContainer;
 import org.springframework.lang.Nullable;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.PathMatcher;
 import org.springframework.util.StringUtils;
+import org.springframework.web.util.ServletRequestPathUtils;
 import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * A logical disjunction (' || ') request condition that matches a request
  * against a set of URL path patterns.
  *
+ * <p>If created with a {@link PathPatternParser}, the patterns are parsed once
+ * into {@link PathPattern}s which are matched against the request path parsed
+ * via {@link ServletRequestPathUtils}, instead of matching String patterns
+ * against the lookup path with a {@link PathMatcher}. In that mode, suffix
+ * pattern matching is not supported, and trailing slash matching is controlled
+ * by the {@link PathPatternParser#setMatchOptionalTrailingSeparator parser}.
+ *
  * @author Rossen Stoyanchev
  * @since 3.1
  */
 public final class PatternsRequestCondition extends AbstractRequestCondition<PatternsRequestCondition> {
 
+	/** Shared default for conditions created without a {@link UrlPathHelper}. */
+	private static final UrlPathHelper defaultPathHelper = new UrlPathHelper();
+
+	/** Shared default for conditions created without a {@link PathMatcher}. */
+	private static final PathMatcher defaultPathMatcher = new AntPathMatcher();
+
+
 	private final Set<String> patterns;
 
 	private final UrlPathHelper pathHelper;
@@ -54,6 +72,12 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 
 	private final List<String> fileExtensions = new ArrayList<>();
 
+	@Nullable
+	private final PathPatternParser patternParser;
+
+	@Nullable
+	private final List<PathPattern> pathPatterns;
+
 
 	/**
 	 * Creates a new instance with the given URL patterns.
@@ -97,6 +121,18 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 				useTrailingSlashMatch, fileExtensions);
 	}
 
+	/**
+	 * Creates a new instance with the given URL patterns, parsed into
+	 * {@link PathPattern}s with the given {@link PathPatternParser}.
+	 * Each pattern that is not empty and does not start with "/" is pre-pended with "/".
+	 * @param patterns the URL patterns to use; if 0, the condition will match to every request.
+	 * @param patternParser the parser to use for the given patterns
+	 * @since 5.2
+	 */
+	public PatternsRequestCondition(String[] patterns, PathPatternParser patternParser) {
+		this(prependLeadingSlash(Arrays.asList(patterns)), patternParser, null);
+	}
+
 	/**
 	 * Private constructor accepting a collection of patterns.
 	 */
@@ -105,10 +141,12 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 			boolean useTrailingSlashMatch, @Nullable List<String> fileExtensions) {
 
 		this.patterns = Collections.unmodifiableSet(prependLeadingSlash(patterns));
-		this.pathHelper = (urlPathHelper != null ? urlPathHelper : new UrlPathHelper());
-		this.pathMatcher = (pathMatcher != null ? pathMatcher : new AntPathMatcher());
+		this.pathHelper = (urlPathHelper != null ? urlPathHelper : defaultPathHelper);
+		this.pathMatcher = (pathMatcher != null ? pathMatcher : defaultPathMatcher);
 		this.useSuffixPatternMatch = useSuffixPatternMatch;
 		this.useTrailingSlashMatch = useTrailingSlashMatch;
+		this.patternParser = null;
+		this.pathPatterns = null;
 
 		if (fileExtensions != null) {
 			for (String fileExtension : fileExtensions) {
@@ -121,6 +159,29 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 	}
 
 
+	/**
+	 * Private constructor for use with a {@link PathPatternParser}, accepting
+	 * either patterns to parse or already parsed patterns.
+	 */
+	private PatternsRequestCondition(Set<String> patterns, PathPatternParser patternParser,
+			@Nullable List<PathPattern> pathPatterns) {
+
+		this.patterns = Collections.unmodifiableSet(patterns);
+		this.pathHelper = defaultPathHelper;
+		this.pathMatcher = defaultPathMatcher;
+		this.useSuffixPatternMatch = false;
+		this.useTrailingSlashMatch = patternParser.isMatchOptionalTrailingSeparator();
+		this.patternParser = patternParser;
+		if (pathPatterns == null) {
+			pathPatterns = new ArrayList<>(patterns.size());
+			for (String pattern : patterns) {
+				pathPatterns.add(patternParser.parse(pattern));
+			}
+		}
+		this.pathPatterns = Collections.unmodifiableList(pathPatterns);
+	}
+
+
 	private static Set<String> prependLeadingSlash(Collection<String> patterns) {
 		Set<String> result = new LinkedHashSet<>(patterns.size());
 		for (String pattern : patterns) {
@@ -136,6 +197,17 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 		return this.patterns;
 	}
 
+	/**
+	 * Return the parsed {@link PathPattern}s, in the same order as
+	 * {@link #getPatterns()}, or {@code null} if this condition does not use
+	 * a {@link PathPatternParser}.
+	 * @since 5.2
+	 */
+	@Nullable
+	public List<PathPattern> getPathPatterns() {
+		return this.pathPatterns;
+	}
+
 	@Override
 	protected Collection<String> getContent() {
 		return this.patterns;
@@ -158,6 +230,10 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 	 */
 	@Override
 	public PatternsRequestCondition combine(PatternsRequestCondition other) {
+		PathPatternParser parser = (this.patternParser != null ? this.patternParser : other.patternParser);
+		if (parser != null) {
+			return combinePathPatterns(parser, other);
+		}
 		Set<String> result = new LinkedHashSet<>();
 		if (!this.patterns.isEmpty() && !other.patterns.isEmpty()) {
 			for (String pattern1 : this.patterns) {
@@ -179,6 +255,47 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 				this.useSuffixPatternMatch, this.useTrailingSlashMatch, this.fileExtensions);
 	}
 
+	private PatternsRequestCondition combinePathPatterns(PathPatternParser parser, PatternsRequestCondition other) {
+		List<PathPattern> thisPatterns = getOrParsePathPatterns(this, parser);
+		List<PathPattern> otherPatterns = getOrParsePathPatterns(other, parser);
+		List<PathPattern> combined = new ArrayList<>();
+		if (!thisPatterns.isEmpty() && !otherPatterns.isEmpty()) {
+			for (PathPattern pattern1 : thisPatterns) {
+				for (PathPattern pattern2 : otherPatterns) {
+					combined.add(pattern1.combine(pattern2));
+				}
+			}
+		}
+		else if (!thisPatterns.isEmpty()) {
+			combined.addAll(thisPatterns);
+		}
+		else if (!otherPatterns.isEmpty()) {
+			combined.addAll(otherPatterns);
+		}
+		else {
+			combined.add(parser.parse(""));
+		}
+		Set<String> result = new LinkedHashSet<>(combined.size());
+		List<PathPattern> pathPatterns = new ArrayList<>(combined.size());
+		for (PathPattern pattern : combined) {
+			if (result.add(pattern.getPatternString())) {
+				pathPatterns.add(pattern);
+			}
+		}
+		return new PatternsRequestCondition(result, parser, pathPatterns);
+	}
+
+	private static List<PathPattern> getOrParsePathPatterns(PatternsRequestCondition condition, PathPatternParser parser) {
+		if (condition.pathPatterns != null) {
+			return condition.pathPatterns;
+		}
+		List<PathPattern> result = new ArrayList<>(condition.patterns.size());
+		for (String pattern : condition.patterns) {
+			result.add(parser.parse(pattern));
+		}
+		return result;
+	}
+
 	/**
 	 * Checks if any of the patterns match the given request and returns an instance
 	 * that is guaranteed to contain matching patterns, sorted via
@@ -201,6 +318,10 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 		if (this.patterns.isEmpty()) {
 			return this;
 		}
+		if (this.patternParser != null) {
+			List<PathPattern> matches = getMatchingPathPatterns(getParsedPathWithinApplication(request));
+			return (!matches.isEmpty() ? createPathPatternsCondition(this.patternParser, matches) : null);
+		}
 		String lookupPath = this.pathHelper.getLookupPathForRequest(request);
 		List<String> matches = getMatchingPatterns(lookupPath);
 		return (!matches.isEmpty() ?
@@ -218,6 +339,14 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 	 * @return a collection of matching patterns sorted with the closest match at the top
 	 */
 	public List<String> getMatchingPatterns(String lookupPath) {
+		if (this.pathPatterns != null) {
+			List<PathPattern> pathPatterns = getMatchingPathPatterns(PathContainer.parsePath(lookupPath));
+			List<String> matches = new ArrayList<>(pathPatterns.size());
+			for (PathPattern pattern : pathPatterns) {
+				matches.add(pattern.getPatternString());
+			}
+			return matches;
+		}
 		List<String> matches = new ArrayList<>();
 		for (String pattern : this.patterns) {
 			String match = getMatchingPattern(pattern, lookupPath);
@@ -231,6 +360,41 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 		return matches;
 	}
 
+	private List<PathPattern> getMatchingPathPatterns(PathContainer path) {
+		List<PathPattern> matches = null;
+		for (PathPattern pattern : this.pathPatterns) {
+			if (pattern.matches(path)) {
+				if (matches == null) {
+					matches = new ArrayList<>(this.pathPatterns.size());
+				}
+				matches.add(pattern);
+			}
+		}
+		if (matches == null) {
+			return Collections.emptyList();
+		}
+		if (matches.size() > 1) {
+			matches.sort(PathPattern.SPECIFICITY_COMPARATOR);
+		}
+		return matches;
+	}
+
+	private static PatternsRequestCondition createPathPatternsCondition(
+			PathPatternParser parser, List<PathPattern> pathPatterns) {
+
+		Set<String> patterns = new LinkedHashSet<>(pathPatterns.size());
+		for (PathPattern pattern : pathPatterns) {
+			patterns.add(pattern.getPatternString());
+		}
+		return new PatternsRequestCondition(patterns, parser, pathPatterns);
+	}
+
+	private static PathContainer getParsedPathWithinApplication(HttpServletRequest request) {
+		return (ServletRequestPathUtils.hasParsedRequestPath(request) ?
+				ServletRequestPathUtils.getParsedRequestPath(request) :
+				ServletRequestPathUtils.parseAndCache(request)).pathWithinApplication();
+	}
+
 	@Nullable
 	private String getMatchingPattern(String pattern, String lookupPath) {
 		if (pattern.equals(lookupPath)) {
@@ -275,6 +439,9 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 	 */
 	@Override
 	public int compareTo(PatternsRequestCondition other, HttpServletRequest request) {
+		if (this.pathPatterns != null && other.pathPatterns != null) {
+			return comparePathPatterns(this.pathPatterns, other.pathPatterns);
+		}
 		String lookupPath = this.pathHelper.getLookupPathForRequest(request);
 		Comparator<String> patternComparator = this.pathMatcher.getPatternComparator(lookupPath);
 		Iterator<String> iterator = this.patterns.iterator();
@@ -296,4 +463,24 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 		}
 	}
 
+	private static int comparePathPatterns(List<PathPattern> patterns, List<PathPattern> otherPatterns) {
+		Iterator<PathPattern> iterator = patterns.iterator();
+		Iterator<PathPattern> iteratorOther = otherPatterns.iterator();
+		while (iterator.hasNext() && iteratorOther.hasNext()) {
+			int result = PathPattern.SPECIFICITY_COMPARATOR.compare(iterator.next(), iteratorOther.next());
+			if (result != 0) {
+				return result;
+			}
+		}
+		if (iterator.hasNext()) {
+			return -1;
+		}
+		else if (iteratorOther.hasNext()) {
+			return 1;
+		}
+		else {
+			return 0;
+		}
+	}
+
 }
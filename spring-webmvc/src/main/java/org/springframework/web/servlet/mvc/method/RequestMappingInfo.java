@@ -35,6 +35,7 @@ import org.springframework.web.servlet.mvc.condition.RequestCondition;
 import org.springframework.web.servlet.mvc.condition.RequestConditionHolder;
 import org.springframework.web.servlet.mvc.condition.RequestMethodsRequestCondition;
 import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * Request mapping information. Encapsulates the following request mapping conditions:
@@ -498,10 +499,13 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
 		public RequestMappingInfo build() {
 			ContentNegotiationManager manager = this.options.getContentNegotiationManager();
 
-			PatternsRequestCondition patternsCondition = new PatternsRequestCondition(
-					this.paths, this.options.getUrlPathHelper(), this.options.getPathMatcher(),
-					this.options.useSuffixPatternMatch(), this.options.useTrailingSlashMatch(),
-					this.options.getFileExtensions());
+			PathPatternParser patternParser = this.options.getPatternParser();
+			PatternsRequestCondition patternsCondition = (patternParser != null ?
+					new PatternsRequestCondition(this.paths, patternParser) :
+					new PatternsRequestCondition(
+							this.paths, this.options.getUrlPathHelper(), this.options.getPathMatcher(),
+							this.options.useSuffixPatternMatch(), this.options.useTrailingSlashMatch(),
+							this.options.getFileExtensions()));
 
 			return new RequestMappingInfo(this.mappingName, patternsCondition,
 					new RequestMethodsRequestCondition(this.methods),
@@ -529,6 +533,9 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
 		@Nullable
 		private PathMatcher pathMatcher;
 
+		@Nullable
+		private PathPatternParser patternParser;
+
 		private boolean trailingSlashMatch = true;
 
 		private boolean suffixPatternMatch = true;
@@ -571,6 +578,29 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
 			return this.pathMatcher;
 		}
 
+		/**
+		 * Set a {@link PathPatternParser} to parse the patterns of the
+		 * PatternsRequestCondition into pre-compiled
+		 * {@link org.springframework.web.util.pattern.PathPattern PathPatterns},
+		 * in which case the UrlPathHelper, PathMatcher and suffix pattern
+		 * matching options do not apply.
+		 * <p>By default this is not set.
+		 * @since 5.2
+		 */
+		public void setPatternParser(@Nullable PathPatternParser patternParser) {
+			this.patternParser = patternParser;
+		}
+
+		/**
+		 * Return the {@link PathPatternParser} to use for the
+		 * PatternsRequestCondition, if any.
+		 * @since 5.2
+		 */
+		@Nullable
+		public PathPatternParser getPatternParser() {
+			return this.patternParser;
+		}
+
 		/**
 		 * Set whether to apply trailing slash matching in PatternsRequestCondition.
 		 * <p>By default this is set to 'true'.
@@ -30,7 +30,9 @@ import org.springframework.web.context.support.XmlWebApplicationContext;
 import org.springframework.web.servlet.HandlerExecutionChain;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
 import org.springframework.web.util.WebUtils;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import static org.junit.Assert.*;
 
@@ -90,6 +92,45 @@ public class SimpleUrlHandlerMappingTests {
 		assertSame(controller, hec.getHandler());
 	}
 
+	@Test
+	public void pathPatternMapping() throws Exception {
+		Object mainController = new Object();
+		Object resourceController = new Object();
+		Map<String, Object> urlMap = new LinkedHashMap<>();
+		urlMap.put("/welcome.html", mainController);
+		urlMap.put("/resources/**", resourceController);
+		urlMap.put("/resources/{name}.css", mainController);
+
+		SimpleUrlHandlerMapping handlerMapping = new SimpleUrlHandlerMapping();
+		handlerMapping.setPatternParser(new PathPatternParser());
+		handlerMapping.setUrlMap(urlMap);
+		handlerMapping.setApplicationContext(new StaticApplicationContext());
+		assertTrue(handlerMapping.usesPathPatterns());
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/welcome.html");
+		request.setContextPath("/app");
+		HandlerExecutionChain hec = getHandler(handlerMapping, request);
+		assertSame(mainController, hec.getHandler());
+		assertTrue(ServletRequestPathUtils.hasParsedRequestPath(request));
+		assertEquals("/welcome.html", request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+
+		request = new MockHttpServletRequest("GET", "/resources/css/my%20styles.css");
+		hec = getHandler(handlerMapping, request);
+		assertSame(resourceController, hec.getHandler());
+		assertEquals("/resources/**", request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+		assertEquals("css/my styles.css", request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE));
+
+		request = new MockHttpServletRequest("GET", "/resources/main.css");
+		hec = getHandler(handlerMapping, request);
+		assertSame(mainController, hec.getHandler());
+		assertEquals("/resources/{name}.css", request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+		Map<?, ?> uriVariables = (Map<?, ?>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+		assertEquals("main", uriVariables.get("name"));
+
+		request = new MockHttpServletRequest("GET", "/other.html");
+		assertNull(handlerMapping.getHandler(request));
+	}
+
 	@SuppressWarnings("resource")
 	private void checkMappings(String beanName) throws Exception {
 		MockServletContext sc = new MockServletContext("");
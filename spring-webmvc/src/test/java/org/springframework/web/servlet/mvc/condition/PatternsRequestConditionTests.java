@@ -23,6 +23,8 @@ import javax.servlet.http.HttpServletRequest;
 import org.junit.Test;
 
 import org.springframework.mock.web.test.MockHttpServletRequest;
+import org.springframework.web.util.ServletRequestPathUtils;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import static org.junit.Assert.*;
 
@@ -183,6 +185,39 @@ public class PatternsRequestConditionTests {
 		assertNull(match);
 	}
 
+	@Test
+	public void matchPathPatterns() {
+		PathPatternParser parser = new PathPatternParser();
+		PatternsRequestCondition condition = new PatternsRequestCondition(
+				new String[] {"/foo/{id}", "/foo/bar", "/foo/**"}, parser);
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/foo/bar");
+		request.setContextPath("/app");
+		ServletRequestPathUtils.parseAndCache(request);
+		PatternsRequestCondition match = condition.getMatchingCondition(request);
+
+		assertNotNull(match);
+		assertEquals(3, match.getPathPatterns().size());
+		assertEquals("/foo/bar", match.getPathPatterns().get(0).getPatternString());
+		assertEquals("/foo/{id}", match.getPathPatterns().get(1).getPatternString());
+		assertEquals("/foo/**", match.getPathPatterns().get(2).getPatternString());
+
+		request = new MockHttpServletRequest("GET", "/app/other");
+		request.setContextPath("/app");
+		ServletRequestPathUtils.parseAndCache(request);
+		assertNull(condition.getMatchingCondition(request));
+	}
+
+	@Test
+	public void combinePathPatterns() {
+		PathPatternParser parser = new PathPatternParser();
+		PatternsRequestCondition c1 = new PatternsRequestCondition(new String[] {"/t1", "/t2"}, parser);
+		PatternsRequestCondition c2 = new PatternsRequestCondition(new String[] {"/m1"}, parser);
+		PatternsRequestCondition combined = c1.combine(c2);
+
+		assertEquals(2, combined.getPathPatterns().size());
+		assertEquals(new PatternsRequestCondition("/t1/m1", "/t2/m1").getPatterns(), combined.getPatterns());
+	}
+
 	@Test
 	public void compareEqualPatterns() {
 		PatternsRequestCondition c1 = new PatternsRequestCondition("/foo*");
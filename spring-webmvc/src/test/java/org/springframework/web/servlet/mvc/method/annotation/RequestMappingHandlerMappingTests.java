@@ -33,7 +33,9 @@ import org.junit.Test;
 
 import org.springframework.core.annotation.AliasFor;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.test.MockHttpServletRequest;
 import org.springframework.stereotype.Controller;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.accept.PathExtensionContentNegotiationStrategy;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -45,8 +47,12 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.context.support.StaticWebApplicationContext;
+import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.method.HandlerTypePredicate;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.HandlerMapping;
 import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
@@ -153,6 +159,28 @@ public class RequestMappingHandlerMappingTests {
 		assertEquals(Collections.singleton("/api/user/{id}"), info.getPatternsCondition().getPatterns());
 	}
 
+	@Test
+	public void pathPatternParser() throws Exception {
+		this.handlerMapping.setPatternParser(new PathPatternParser());
+		this.wac.registerSingleton("userController", UserController.class);
+		this.wac.refresh();
+		this.handlerMapping.afterPropertiesSet();
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/user/123;x=1");
+		request.setContextPath("/app");
+		HandlerExecutionChain chain = this.handlerMapping.getHandler(request);
+
+		assertNotNull(chain);
+		assertEquals("getUser", ((HandlerMethod) chain.getHandler()).getMethod().getName());
+		assertEquals("/user/{id}", request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+		Map<?, ?> uriVariables = (Map<?, ?>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+		assertEquals("123", uriVariables.get("id"));
+		@SuppressWarnings("unchecked")
+		Map<String, MultiValueMap<String, String>> matrixVariables =
+				(Map<String, MultiValueMap<String, String>>) request.getAttribute(HandlerMapping.MATRIX_VARIABLES_ATTRIBUTE);
+		assertEquals("1", matrixVariables.get("id").getFirst("x"));
+	}
+
 	@Test
 	public void resolveRequestMappingViaComposedAnnotation() throws Exception {
 		RequestMappingInfo info = assertComposedAnnotationMapping("postJson", "/postJson", RequestMethod.POST);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -137,6 +137,14 @@ abstract class WebSocketNamespaceUtils {
 			if (!attrValue.isEmpty()) {
 				sockJsServiceDef.getPropertyValues().add("httpMessageCacheSize", Integer.valueOf(attrValue));
 			}
+			attrValue = sockJsElement.getAttribute("message-cache-overflow-strategy");
+			if (!attrValue.isEmpty()) {
+				sockJsServiceDef.getPropertyValues().add("httpMessageCacheOverflowStrategy", attrValue);
+			}
+			attrValue = sockJsElement.getAttribute("send-time-limit");
+			if (!attrValue.isEmpty()) {
+				sockJsServiceDef.getPropertyValues().add("httpSendTimeLimit", Integer.valueOf(attrValue));
+			}
 			attrValue = sockJsElement.getAttribute("heartbeat-time");
 			if (!attrValue.isEmpty()) {
 				sockJsServiceDef.getPropertyValues().add("heartbeatTime", Long.valueOf(attrValue));
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,6 +24,7 @@ import org.springframework.lang.Nullable;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.util.Assert;
 import org.springframework.util.ObjectUtils;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator.OverflowStrategy;
 import org.springframework.web.socket.server.HandshakeInterceptor;
 import org.springframework.web.socket.sockjs.SockJsService;
 import org.springframework.web.socket.sockjs.frame.SockJsMessageCodec;
@@ -62,6 +63,12 @@ public class SockJsServiceRegistration {
 	@Nullable
 	private Integer httpMessageCacheSize;
 
+	@Nullable
+	private OverflowStrategy httpMessageCacheOverflowStrategy;
+
+	@Nullable
+	private Integer httpSendTimeLimit;
+
 	@Nullable
 	private Boolean webSocketEnabled;
 
@@ -186,6 +193,27 @@ public class SockJsServiceRegistration {
 		return this;
 	}
 
+	/**
+	 * The strategy to apply when the HTTP message cache of a session is full.
+	 * <p>The default is {@link OverflowStrategy#TERMINATE}, closing the session.
+	 * @since 5.2
+	 */
+	public SockJsServiceRegistration setHttpMessageCacheOverflowStrategy(OverflowStrategy overflowStrategy) {
+		this.httpMessageCacheOverflowStrategy = overflowStrategy;
+		return this;
+	}
+
+	/**
+	 * The time limit in milliseconds for writing cached messages to the HTTP
+	 * response of a session, after which the session is closed.
+	 * <p>The default value is 10,000 (10 seconds). A value of -1 indicates no limit.
+	 * @since 5.2
+	 */
+	public SockJsServiceRegistration setHttpSendTimeLimit(int httpSendTimeLimit) {
+		this.httpSendTimeLimit = httpSendTimeLimit;
+		return this;
+	}
+
 	/**
 	 * Some load balancers don't support WebSocket. This option can be used to
 	 * disable the WebSocket transport on the server side.
@@ -277,6 +305,12 @@ public class SockJsServiceRegistration {
 		if (this.httpMessageCacheSize != null) {
 			service.setHttpMessageCacheSize(this.httpMessageCacheSize);
 		}
+		if (this.httpMessageCacheOverflowStrategy != null) {
+			service.setHttpMessageCacheOverflowStrategy(this.httpMessageCacheOverflowStrategy);
+		}
+		if (this.httpSendTimeLimit != null) {
+			service.setHttpSendTimeLimit(this.httpSendTimeLimit);
+		}
 		if (this.webSocketEnabled != null) {
 			service.setWebSocketEnabled(this.webSocketEnabled);
 		}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -50,6 +50,7 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.CorsUtils;
 import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator.OverflowStrategy;
 import org.springframework.web.socket.sockjs.SockJsException;
 import org.springframework.web.socket.sockjs.SockJsService;
 import org.springframework.web.util.WebUtils;
@@ -92,6 +93,10 @@ public abstract class AbstractSockJsService implements SockJsService, CorsConfig
 
 	private int httpMessageCacheSize = 100;
 
+	private OverflowStrategy httpMessageCacheOverflowStrategy = OverflowStrategy.TERMINATE;
+
+	private int httpSendTimeLimit = 10 * 1000;
+
 	private boolean webSocketEnabled = true;
 
 	private boolean suppressCors = false;
@@ -262,6 +267,48 @@ public abstract class AbstractSockJsService implements SockJsService, CorsConfig
 		return this.httpMessageCacheSize;
 	}
 
+	/**
+	 * The strategy to apply when the HTTP message cache of a session is full.
+	 * <p>The default is {@link OverflowStrategy#TERMINATE}, closing the session with
+	 * {@link org.springframework.web.socket.CloseStatus#SESSION_NOT_RELIABLE}.
+	 * {@link OverflowStrategy#DROP} drops the oldest cached messages instead.
+	 * @since 5.2
+	 * @see #setHttpMessageCacheSize
+	 */
+	public void setHttpMessageCacheOverflowStrategy(OverflowStrategy overflowStrategy) {
+		Assert.notNull(overflowStrategy, "OverflowStrategy must not be null");
+		this.httpMessageCacheOverflowStrategy = overflowStrategy;
+	}
+
+	/**
+	 * Return the strategy to apply when the HTTP message cache of a session is full.
+	 * @since 5.2
+	 */
+	public OverflowStrategy getHttpMessageCacheOverflowStrategy() {
+		return this.httpMessageCacheOverflowStrategy;
+	}
+
+	/**
+	 * The time limit in milliseconds for writing cached messages to the HTTP
+	 * response of a session. Only a single thread writes to a session at a time,
+	 * with other threads sending messages in the meantime returning immediately;
+	 * once the current write exceeds this limit, the session is closed with
+	 * {@link org.springframework.web.socket.CloseStatus#SESSION_NOT_RELIABLE}.
+	 * <p>The default value is 10,000 (10 seconds). A value of -1 indicates no limit.
+	 * @since 5.2
+	 */
+	public void setHttpSendTimeLimit(int httpSendTimeLimit) {
+		this.httpSendTimeLimit = httpSendTimeLimit;
+	}
+
+	/**
+	 * Return the time limit in milliseconds for writing to the HTTP response of a session.
+	 * @since 5.2
+	 */
+	public int getHttpSendTimeLimit() {
+		return this.httpSendTimeLimit;
+	}
+
 	/**
 	 * Some load balancers do not support WebSocket. This option can be used to
 	 * disable the WebSocket transport on the server side.
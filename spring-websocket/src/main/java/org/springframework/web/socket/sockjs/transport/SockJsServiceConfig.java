@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.web.socket.sockjs.transport;
 
 import org.springframework.scheduling.TaskScheduler;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator.OverflowStrategy;
 import org.springframework.web.socket.sockjs.SockJsService;
 import org.springframework.web.socket.sockjs.frame.SockJsMessageCodec;
 
@@ -66,6 +67,32 @@ public interface SockJsServiceConfig {
 	 */
 	int getHttpMessageCacheSize();
 
+	/**
+	 * The strategy to apply when a session's HTTP message cache is full, i.e.
+	 * when {@link #getHttpMessageCacheSize()} messages are waiting to be sent.
+	 * <p>The default is {@link OverflowStrategy#TERMINATE}, closing the session
+	 * with {@link org.springframework.web.socket.CloseStatus#SESSION_NOT_RELIABLE}.
+	 * @since 5.2
+	 */
+	default OverflowStrategy getHttpMessageCacheOverflowStrategy() {
+		return OverflowStrategy.TERMINATE;
+	}
+
+	/**
+	 * The time limit in milliseconds for writing cached messages to the HTTP
+	 * response of a session. Only a single thread writes to a session at a time,
+	 * while other threads sending messages merely add them to the message cache;
+	 * once the current write exceeds this limit, the next attempt to send a
+	 * message closes the session with
+	 * {@link org.springframework.web.socket.CloseStatus#SESSION_NOT_RELIABLE}.
+	 * A value of -1 indicates no limit.
+	 * <p>The default value is 10,000 (10 seconds).
+	 * @since 5.2
+	 */
+	default int getHttpSendTimeLimit() {
+		return 10 * 1000;
+	}
+
 	/**
 	 * The codec to use for encoding and decoding SockJS messages.
 	 * @throws IllegalStateException if no {@link SockJsMessageCodec} is available
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -25,6 +25,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.servlet.ServletRequest;
 
 import org.springframework.http.HttpHeaders;
@@ -38,6 +40,8 @@ import org.springframework.web.filter.ShallowEtagHeaderFilter;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.WebSocketExtension;
 import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator.OverflowStrategy;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
 import org.springframework.web.socket.sockjs.SockJsException;
 import org.springframework.web.socket.sockjs.SockJsTransportFailureException;
 import org.springframework.web.socket.sockjs.frame.SockJsFrame;
@@ -47,6 +51,14 @@ import org.springframework.web.socket.sockjs.transport.SockJsServiceConfig;
 /**
  * An abstract base class for use with HTTP transport SockJS sessions.
  *
+ * <p>Messages are added to a bounded message cache, with the configured
+ * {@link SockJsServiceConfig#getHttpMessageCacheOverflowStrategy() overflow strategy}
+ * applied when the cache is full. Only a single thread at a time flushes the
+ * cache to the HTTP response, while other threads sending messages in the
+ * meantime return right away, leaving their messages to the flushing thread.
+ * A flush that exceeds the {@link SockJsServiceConfig#getHttpSendTimeLimit()
+ * send time limit} leads to the session being closed on the next send attempt.
+ *
  * @author Rossen Stoyanchev
  * @since 4.0
  */
@@ -81,7 +93,17 @@ public abstract class AbstractHttpSockJsSession extends AbstractSockJsSession {
 	@Nullable
 	private volatile ServerHttpAsyncRequestControl asyncRequestControl;
 
-	private boolean readyToSend;
+	private volatile boolean readyToSend;
+
+	private final AtomicLong cachedMessageCount = new AtomicLong();
+
+	private final AtomicBoolean flushInProgress = new AtomicBoolean();
+
+	private volatile long flushStartTime;
+
+	private volatile long lastFlushTime;
+
+	private volatile boolean limitExceeded;
 
 
 	public AbstractHttpSockJsSession(String id, SockJsServiceConfig config,
@@ -152,6 +174,25 @@ public abstract class AbstractHttpSockJsSession extends AbstractSockJsSession {
 		return this.messageCache;
 	}
 
+	/**
+	 * Return the time (milliseconds) since the current flush of the message
+	 * cache started, or 0 if no flush is currently in progress.
+	 * @since 5.2
+	 */
+	public long getTimeSinceFlushStarted() {
+		long start = this.flushStartTime;
+		return (start > 0 ? (System.currentTimeMillis() - start) : 0);
+	}
+
+	/**
+	 * Return the time (milliseconds) that the last completed flush of the
+	 * message cache took, or 0 if there has been no flush yet.
+	 * @since 5.2
+	 */
+	public long getLastFlushTime() {
+		return this.lastFlushTime;
+	}
+
 
 	@Override
 	public boolean isActive() {
@@ -229,6 +270,7 @@ public abstract class AbstractHttpSockJsSession extends AbstractSockJsSession {
 				handleRequestInternal(request, response, true);
 				// Request might have been reset (e.g. polling sessions do after writing)
 				this.readyToSend = isActive();
+				flushMessagesAddedWhileNotReady();
 			}
 			catch (Throwable ex) {
 				tryCloseWithSockJsTransportError(ex, CloseStatus.SERVER_ERROR);
@@ -266,6 +308,7 @@ public abstract class AbstractHttpSockJsSession extends AbstractSockJsSession {
 				disableShallowEtagHeaderFilter(request);
 				handleRequestInternal(request, response, false);
 				this.readyToSend = isActive();
+				flushMessagesAddedWhileNotReady();
 			}
 			catch (Throwable ex) {
 				tryCloseWithSockJsTransportError(ex, CloseStatus.SERVER_ERROR);
@@ -292,30 +335,109 @@ public abstract class AbstractHttpSockJsSession extends AbstractSockJsSession {
 
 	@Override
 	protected final void sendMessageInternal(String message) throws SockJsTransportFailureException {
-		synchronized (this.responseLock) {
-			this.messageCache.add(message);
-			if (logger.isTraceEnabled()) {
-				logger.trace(this.messageCache.size() + " message(s) to flush in session " + getId());
+		if (this.limitExceeded) {
+			return;
+		}
+		addToMessageCache(message);
+		if (logger.isTraceEnabled()) {
+			logger.trace(this.messageCache.size() + " message(s) to flush in session " + getId());
+		}
+		long flushedMessageCount;
+		do {
+			if (!isReadyToFlush()) {
+				if (logger.isTraceEnabled() && !this.messageCache.isEmpty()) {
+					logger.trace("Session is not active, not ready to flush.");
+				}
+				return;
 			}
-			if (isActive() && this.readyToSend) {
+			if (!this.flushInProgress.compareAndSet(false, true)) {
+				// The flushing thread picks up our message when done with its current flush
 				if (logger.isTraceEnabled()) {
-					logger.trace("Session is active, ready to flush.");
+					logger.trace("Another flush already in progress for session " + getId() +
+							", flush time so far " + getTimeSinceFlushStarted() + " ms");
 				}
-				cancelHeartbeat();
-				flushCache();
+				checkSendTimeLimit();
+				return;
 			}
-			else {
-				if (logger.isTraceEnabled()) {
-					logger.trace("Session is not active, not ready to flush.");
+			try {
+				flushedMessageCount = this.cachedMessageCount.get();
+				synchronized (this.responseLock) {
+					if (isReadyToFlush()) {
+						if (logger.isTraceEnabled()) {
+							logger.trace("Session is active, ready to flush.");
+						}
+						this.flushStartTime = System.currentTimeMillis();
+						cancelHeartbeat();
+						flushCache();
+						this.lastFlushTime = System.currentTimeMillis() - this.flushStartTime;
+					}
+				}
+			}
+			finally {
+				this.flushStartTime = 0;
+				this.flushInProgress.set(false);
+			}
+		}
+		while (this.cachedMessageCount.get() != flushedMessageCount);
+	}
+
+	/**
+	 * Flush messages that senders added to the cache while a request was being
+	 * handled but before the session became ready to send: such senders did not
+	 * flush, and the cache might have been found empty by the request handling.
+	 * To be invoked while holding the response lock.
+	 */
+	private void flushMessagesAddedWhileNotReady() {
+		if (isReadyToFlush()) {
+			cancelHeartbeat();
+			flushCache();
+		}
+	}
+
+	private boolean isReadyToFlush() {
+		return (!this.messageCache.isEmpty() && this.readyToSend && isActive() && !this.limitExceeded);
+	}
+
+	private void addToMessageCache(String message) {
+		int dropped = 0;
+		while (!this.messageCache.offer(message)) {
+			OverflowStrategy overflowStrategy = getSockJsServiceConfig().getHttpMessageCacheOverflowStrategy();
+			if (overflowStrategy == OverflowStrategy.DROP) {
+				if (this.messageCache.poll() != null) {
+					dropped++;
 				}
 			}
+			else {
+				limitExceeded(String.format("Message cache for session '%s' exceeds the allowed limit of %d",
+						getId(), getSockJsServiceConfig().getHttpMessageCacheSize()));
+			}
+		}
+		this.cachedMessageCount.incrementAndGet();
+		if (dropped > 0 && logger.isDebugEnabled()) {
+			logger.debug("Dropped " + dropped + " message(s) from full message cache in session " + getId());
 		}
 	}
 
+	private void checkSendTimeLimit() {
+		int sendTimeLimit = getSockJsServiceConfig().getHttpSendTimeLimit();
+		long flushTime = getTimeSinceFlushStarted();
+		if (sendTimeLimit > 0 && flushTime > sendTimeLimit) {
+			limitExceeded(String.format("Send time %d (ms) for session '%s' exceeded the allowed limit %d",
+					flushTime, getId(), sendTimeLimit));
+		}
+	}
+
+	private void limitExceeded(String reason) {
+		this.limitExceeded = true;
+		throw new SessionLimitExceededException(reason, CloseStatus.SESSION_NOT_RELIABLE);
+	}
+
 	/**
 	 * Called when the connection is active and ready to write to the response.
 	 * Subclasses should only call this method from a method where the
 	 * "responseLock" is acquired.
+	 * <p>Note that messages may be added to the message cache concurrently,
+	 * so implementations should drain it through {@link Queue#poll()}.
 	 */
 	protected abstract void flushCache() throws SockJsTransportFailureException;
 
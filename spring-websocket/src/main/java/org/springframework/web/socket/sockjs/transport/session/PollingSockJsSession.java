@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,10 +17,13 @@
 package org.springframework.web.socket.sockjs.transport.session;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import org.springframework.http.server.ServerHttpRequest;
 import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.util.StringUtils;
 import org.springframework.web.socket.WebSocketHandler;
 import org.springframework.web.socket.sockjs.SockJsTransportFailureException;
 import org.springframework.web.socket.sockjs.frame.SockJsFrame;
@@ -59,12 +62,17 @@ public class PollingSockJsSession extends AbstractHttpSockJsSession {
 
 	@Override
 	protected void flushCache() throws SockJsTransportFailureException {
-		String[] messages = new String[getMessageCache().size()];
-		for (int i = 0; i < messages.length; i++) {
-			messages[i] = getMessageCache().poll();
+		int count = getMessageCache().size();
+		List<String> messages = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			String message = getMessageCache().poll();
+			if (message == null) {
+				break;
+			}
+			messages.add(message);
 		}
 		SockJsMessageCodec messageCodec = getSockJsServiceConfig().getMessageCodec();
-		SockJsFrame frame = SockJsFrame.messageFrame(messageCodec, messages);
+		SockJsFrame frame = SockJsFrame.messageFrame(messageCodec, StringUtils.toStringArray(messages));
 		writeFrame(frame);
 	}
 
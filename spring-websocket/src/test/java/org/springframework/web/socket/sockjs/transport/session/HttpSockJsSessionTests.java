@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2014 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,7 +17,13 @@
 package org.springframework.web.socket.sockjs.transport.session;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -28,7 +34,10 @@ import org.springframework.http.server.ServletServerHttpRequest;
 import org.springframework.http.server.ServletServerHttpResponse;
 import org.springframework.mock.web.test.MockHttpServletRequest;
 import org.springframework.mock.web.test.MockHttpServletResponse;
+import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator.OverflowStrategy;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
 import org.springframework.web.socket.sockjs.frame.DefaultSockJsFrameFormat;
 import org.springframework.web.socket.sockjs.frame.SockJsFrame;
 import org.springframework.web.socket.sockjs.frame.SockJsFrameFormat;
@@ -101,6 +110,134 @@ public class HttpSockJsSessionTests extends AbstractSockJsSessionTests<TestAbstr
 		verifyNoMoreInteractions(this.webSocketHandler);
 	}
 
+	@Test
+	public void messageAddedWhileHandlingRequestIsFlushed() throws Exception {
+		List<String> flushed = new ArrayList<>();
+		this.session = new TestAbstractHttpSockJsSession(this.sockJsConfig, this.webSocketHandler, null) {
+			@Override
+			protected void handleRequestInternal(ServerHttpRequest request, ServerHttpResponse response,
+					boolean initialRequest) throws IOException {
+
+				super.handleRequestInternal(request, response, initialRequest);
+				// The cache has been checked: a message sent now finds the session not ready yet
+				Thread sender = new Thread(() -> {
+					try {
+						sendMessage(new TextMessage("a"));
+					}
+					catch (Exception ex) {
+						// ignore
+					}
+				});
+				sender.start();
+				try {
+					sender.join(5000);
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+				assertEquals(1, getMessageCache().size());
+			}
+			@Override
+			protected void flushCache() {
+				String message;
+				while ((message = getMessageCache().poll()) != null) {
+					flushed.add(message);
+				}
+			}
+		};
+
+		this.session.handleInitialRequest(this.request, this.response, this.frameFormat);
+
+		assertEquals(Collections.singletonList("a"), flushed);
+		assertTrue(this.session.getMessageCache().isEmpty());
+	}
+
+	@Test
+	public void messageCacheOverflowTerminate() throws Exception {
+		this.sockJsConfig.setHttpMessageCacheSize(2);
+		this.session = initSockJsSession();
+
+		this.session.sendMessage(new TextMessage("a"));
+		this.session.sendMessage(new TextMessage("b"));
+		try {
+			this.session.sendMessage(new TextMessage("c"));
+			fail("Expected SessionLimitExceededException");
+		}
+		catch (SessionLimitExceededException ex) {
+			// expected
+		}
+
+		this.session.sendMessage(new TextMessage("d"));
+		assertEquals(2, this.session.getMessageCache().size());
+	}
+
+	@Test
+	public void messageCacheOverflowDrop() throws Exception {
+		this.sockJsConfig.setHttpMessageCacheSize(2);
+		this.sockJsConfig.setHttpMessageCacheOverflowStrategy(OverflowStrategy.DROP);
+		this.session = initSockJsSession();
+
+		this.session.sendMessage(new TextMessage("a"));
+		this.session.sendMessage(new TextMessage("b"));
+		this.session.sendMessage(new TextMessage("c"));
+
+		assertEquals(Arrays.asList("b", "c"), new ArrayList<>(this.session.getMessageCache()));
+	}
+
+	@Test
+	public void sendTimeLimitExceeded() throws Exception {
+		this.sockJsConfig.setHttpSendTimeLimit(50);
+		CountDownLatch flushStarted = new CountDownLatch(1);
+		CountDownLatch releaseFlush = new CountDownLatch(1);
+		this.session = new TestAbstractHttpSockJsSession(this.sockJsConfig, this.webSocketHandler, null) {
+			@Override
+			protected void flushCache() {
+				if (getMessageCache().isEmpty()) {
+					return;
+				}
+				flushStarted.countDown();
+				try {
+					releaseFlush.await(5, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+				getMessageCache().clear();
+			}
+		};
+		this.session.handleInitialRequest(this.request, this.response, this.frameFormat);
+
+		Thread sender = new Thread(() -> {
+			try {
+				this.session.sendMessage(new TextMessage("a"));
+			}
+			catch (Exception ex) {
+				// ignore
+			}
+		});
+		sender.start();
+		assertTrue(flushStarted.await(5, TimeUnit.SECONDS));
+
+		// Another flush in progress: return right away
+		this.session.sendMessage(new TextMessage("b"));
+		assertEquals(2, this.session.getMessageCache().size());
+
+		Thread.sleep(100);
+		assertTrue(this.session.getTimeSinceFlushStarted() > 50);
+		try {
+			this.session.sendMessage(new TextMessage("c"));
+			fail("Expected SessionLimitExceededException");
+		}
+		catch (SessionLimitExceededException ex) {
+			// expected
+		}
+
+		releaseFlush.countDown();
+		sender.join(5000);
+		assertEquals(0, this.session.getTimeSinceFlushStarted());
+		assertTrue(this.session.getLastFlushTime() >= 100);
+	}
+
 
 	static class TestAbstractHttpSockJsSession extends StreamingSockJsSession {
 
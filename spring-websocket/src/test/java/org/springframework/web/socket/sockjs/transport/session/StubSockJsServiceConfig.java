@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package org.springframework.web.socket.sockjs.transport.session;
 
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator.OverflowStrategy;
 import org.springframework.web.socket.sockjs.frame.Jackson2SockJsMessageCodec;
 import org.springframework.web.socket.sockjs.frame.SockJsMessageCodec;
 import org.springframework.web.socket.sockjs.transport.SockJsServiceConfig;
@@ -37,6 +38,10 @@ public class StubSockJsServiceConfig implements SockJsServiceConfig {
 
 	private int httpMessageCacheSize = 100;
 
+	private OverflowStrategy httpMessageCacheOverflowStrategy = OverflowStrategy.TERMINATE;
+
+	private int httpSendTimeLimit = 10 * 1000;
+
 
 	@Override
 	public int getStreamBytesLimit() {
@@ -82,4 +87,22 @@ public class StubSockJsServiceConfig implements SockJsServiceConfig {
 		this.httpMessageCacheSize = httpMessageCacheSize;
 	}
 
+	@Override
+	public OverflowStrategy getHttpMessageCacheOverflowStrategy() {
+		return this.httpMessageCacheOverflowStrategy;
+	}
+
+	public void setHttpMessageCacheOverflowStrategy(OverflowStrategy overflowStrategy) {
+		this.httpMessageCacheOverflowStrategy = overflowStrategy;
+	}
+
+	@Override
+	public int getHttpSendTimeLimit() {
+		return this.httpSendTimeLimit;
+	}
+
+	public void setHttpSendTimeLimit(int httpSendTimeLimit) {
+		this.httpSendTimeLimit = httpSendTimeLimit;
+	}
+
 }